@@ -0,0 +1,466 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.forgerock.openam.audit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.identity.shared.debug.Debug;
+import org.forgerock.json.JsonValue;
+import org.forgerock.openam.utils.collections.RingBuffer;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Decouples audit event publication from the threads that raise the events.
+ * <p>
+ * Events are placed on a bounded {@link RingBuffer} and a single daemon thread drains them in batches,
+ * handing each batch to a {@link BatchPublisher}. What happens when the buffer is full is governed by the
+ * {@link OverflowPolicy}: the event can be dropped, the caller can wait a bounded time for space, or the event can
+ * be appended to a spill file which is replayed once the buffer has drained.
+ */
+public class AsyncAuditEventDispatcher {
+
+    private static final Debug debug = Debug.getInstance("amAudit");
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String SPILL_FILE_NAME = "audit-spill.json";
+    private static final String REPLAY_FILE_NAME = "audit-spill-replay.json";
+    private static final String TOPIC = "topic";
+    private static final String EVENT = "event";
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final int DROP_LOG_INTERVAL = 1000;
+
+    /**
+     * What to do with an event when the ring buffer is full.
+     */
+    public enum OverflowPolicy {
+        /** Discard the event. */
+        DROP,
+        /** Wait up to the configured timeout for space, then discard the event. */
+        BLOCK,
+        /** Append the event to a spill file on disk, to be published once the buffer has drained. */
+        SPILL
+    }
+
+    /**
+     * Receives the batches of events drained from the ring buffer. Called only from the dispatcher thread.
+     */
+    public interface BatchPublisher {
+
+        /**
+         * Publishes a batch of events, oldest first. Implementations are responsible for handling their own
+         * failures; any exception thrown is logged and the whole batch is counted as failed.
+         *
+         * @param batch The events to publish.
+         * @return The number of events in the batch which could not be published.
+         */
+        int publish(List<QueuedAuditEvent> batch);
+    }
+
+    /**
+     * An audit event waiting to be published.
+     */
+    public static final class QueuedAuditEvent {
+
+        private final String topic;
+        private final JsonValue event;
+
+        /**
+         * Constructs a new {@code QueuedAuditEvent}.
+         *
+         * @param topic The audit topic.
+         * @param event The audit event content.
+         */
+        public QueuedAuditEvent(String topic, JsonValue event) {
+            this.topic = topic;
+            this.event = event;
+        }
+
+        /**
+         * @return The audit topic.
+         */
+        public String getTopic() {
+            return topic;
+        }
+
+        /**
+         * @return The audit event content.
+         */
+        public JsonValue getEvent() {
+            return event;
+        }
+    }
+
+    private final RingBuffer<QueuedAuditEvent> ringBuffer;
+    private final int batchSize;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+    private final File spillFile;
+    private final File replayFile;
+    private final BatchPublisher publisher;
+    private final Thread dispatcherThread;
+    private final Object spillLock = new Object();
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+
+    private volatile boolean running = true;
+    private volatile boolean waiting;
+    private volatile boolean spillPending;
+    private Writer spillWriter;
+
+    /**
+     * Constructs a new {@code AsyncAuditEventDispatcher}. The dispatcher thread is not started until
+     * {@link #start()} is called.
+     *
+     * @param capacity The minimum capacity of the ring buffer; rounded up to a power of two.
+     * @param batchSize The maximum number of events handed to the publisher at once.
+     * @param overflowPolicy What to do with events when the ring buffer is full.
+     * @param blockTimeoutMillis How long a caller waits for space under {@link OverflowPolicy#BLOCK}.
+     * @param spillDirectory Where events are spilled under {@link OverflowPolicy#SPILL}. May be {@code null} for
+     *                       the other policies.
+     * @param publisher Receives the batches of events.
+     */
+    public AsyncAuditEventDispatcher(int capacity, int batchSize, OverflowPolicy overflowPolicy,
+            long blockTimeoutMillis, File spillDirectory, BatchPublisher publisher) {
+        this.ringBuffer = new RingBuffer<>(capacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, blockTimeoutMillis));
+        this.publisher = publisher;
+        if (overflowPolicy == OverflowPolicy.SPILL) {
+            if (spillDirectory == null) {
+                throw new IllegalArgumentException("A spill directory is required for the SPILL overflow policy");
+            }
+            this.spillFile = new File(spillDirectory, SPILL_FILE_NAME);
+            this.replayFile = new File(spillDirectory, REPLAY_FILE_NAME);
+            this.spillPending = spillFile.exists() || replayFile.exists();
+        } else {
+            this.spillFile = null;
+            this.replayFile = null;
+        }
+        this.dispatcherThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                dispatch();
+            }
+        }, "AuditEventDispatcher");
+        this.dispatcherThread.setDaemon(true);
+    }
+
+    /**
+     * Starts the dispatcher thread.
+     */
+    public void start() {
+        dispatcherThread.start();
+    }
+
+    /**
+     * Queues an event for publication, applying the overflow policy if the ring buffer is full.
+     *
+     * @param topic The audit topic.
+     * @param event The audit event content.
+     * @return {@code false} if the dispatcher has been shut down and the event was not accepted, otherwise
+     * {@code true}, even if the overflow policy discarded the event.
+     */
+    public boolean submit(String topic, JsonValue event) {
+        if (!running) {
+            return false;
+        }
+        QueuedAuditEvent queued = new QueuedAuditEvent(topic, event);
+        if (ringBuffer.offer(queued)) {
+            signalDispatcher();
+            return true;
+        }
+        switch (overflowPolicy) {
+        case BLOCK:
+            if (offerWithTimeout(queued)) {
+                return true;
+            }
+            drop(queued);
+            break;
+        case SPILL:
+            spill(queued);
+            break;
+        default:
+            drop(queued);
+        }
+        return true;
+    }
+
+    /**
+     * Stops accepting events and waits for the dispatcher thread to publish what has already been queued.
+     * Events still spilled to disk when the timeout expires are kept for replay on the next start.
+     *
+     * @param timeoutMillis The maximum time to wait for the queued events to be published.
+     */
+    public void shutdown(long timeoutMillis) {
+        running = false;
+        LockSupport.unpark(dispatcherThread);
+        try {
+            dispatcherThread.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (dispatcherThread.isAlive()) {
+            debug.warning("Audit event dispatcher did not finish within {}ms; {} events remain queued",
+                    timeoutMillis, ringBuffer.size());
+        }
+        synchronized (spillLock) {
+            closeSpillWriter();
+        }
+    }
+
+    /**
+     * @return The number of events successfully published.
+     */
+    public long getPublishedCount() {
+        return published.get();
+    }
+
+    /**
+     * @return The number of events the publisher failed to publish.
+     */
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    /**
+     * @return The number of events discarded because the ring buffer was full.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * @return The number of events written to the spill file because the ring buffer was full.
+     */
+    public long getSpilledCount() {
+        return spilled.get();
+    }
+
+    /**
+     * @return The number of events waiting in the ring buffer.
+     */
+    public int getQueueDepth() {
+        return ringBuffer.size();
+    }
+
+    private void signalDispatcher() {
+        if (waiting) {
+            LockSupport.unpark(dispatcherThread);
+        }
+    }
+
+    private boolean offerWithTimeout(QueuedAuditEvent queued) {
+        final long deadline = System.nanoTime() + blockTimeoutNanos;
+        while (running && System.nanoTime() - deadline < 0) {
+            LockSupport.unpark(dispatcherThread);
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+            if (ringBuffer.offer(queued)) {
+                signalDispatcher();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void drop(QueuedAuditEvent queued) {
+        long count = dropped.incrementAndGet();
+        if (count % DROP_LOG_INTERVAL == 1) {
+            debug.error("Audit event queue is full; dropped audit event on topic {} ({} dropped in total)",
+                    queued.getTopic(), count);
+        }
+    }
+
+    private void spill(QueuedAuditEvent queued) {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put(TOPIC, queued.getTopic());
+        line.put(EVENT, queued.getEvent().getObject());
+        synchronized (spillLock) {
+            try {
+                if (spillWriter == null) {
+                    spillWriter = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(spillFile, true),
+                            UTF_8));
+                }
+                spillWriter.write(MAPPER.writeValueAsString(line));
+                spillWriter.write('\n');
+                spillWriter.flush();
+                spilled.incrementAndGet();
+                spillPending = true;
+            } catch (IOException e) {
+                debug.error("Unable to spill audit event to {}", spillFile, e);
+                closeSpillWriter();
+                drop(queued);
+            }
+        }
+    }
+
+    private void dispatch() {
+        List<QueuedAuditEvent> batch = new ArrayList<>(batchSize);
+        while (true) {
+            batch.clear();
+            ringBuffer.drainTo(batch, batchSize);
+            if (!batch.isEmpty()) {
+                publish(batch);
+                continue;
+            }
+            if (!ringBuffer.isEmpty()) {
+                // An event has been claimed but not yet published by its producer
+                Thread.yield();
+                continue;
+            }
+            if (spillPending && replaySpilledEvents(batch)) {
+                continue;
+            }
+            if (!running) {
+                return;
+            }
+            waiting = true;
+            if (ringBuffer.isEmpty() && running) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+            waiting = false;
+        }
+    }
+
+    private void publish(List<QueuedAuditEvent> batch) {
+        int failures;
+        try {
+            failures = Math.min(Math.max(0, publisher.publish(batch)), batch.size());
+        } catch (RuntimeException e) {
+            debug.error("Unable to publish batch of {} audit events", batch.size(), e);
+            failures = batch.size();
+        }
+        failed.addAndGet(failures);
+        published.addAndGet(batch.size() - failures);
+    }
+
+    /**
+     * Moves the current spill file aside and publishes its contents. Replay stops early if new events arrive in
+     * the ring buffer so that they are not held up behind the backlog; the remainder is replayed later.
+     *
+     * @return {@code true} if any events were replayed.
+     */
+    private boolean replaySpilledEvents(List<QueuedAuditEvent> batch) {
+        if (!replayFile.exists()) {
+            synchronized (spillLock) {
+                closeSpillWriter();
+                spillPending = false;
+                if (!spillFile.exists()) {
+                    return false;
+                }
+                if (!spillFile.renameTo(replayFile)) {
+                    debug.error("Unable to move audit spill file {} to {}", spillFile, replayFile);
+                    return false;
+                }
+            }
+        }
+        int replayed = 0;
+        List<String> remaining = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(replayFile),
+                UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                if (!remaining.isEmpty() || (running && !ringBuffer.isEmpty())) {
+                    remaining.add(line);
+                    continue;
+                }
+                QueuedAuditEvent queued = toQueuedEvent(line);
+                if (queued == null) {
+                    continue;
+                }
+                batch.add(queued);
+                replayed++;
+                if (batch.size() >= batchSize) {
+                    publish(batch);
+                    batch.clear();
+                }
+            }
+        } catch (IOException e) {
+            debug.error("Unable to replay audit spill file {}", replayFile, e);
+            spillPending = false;
+            return false;
+        }
+        if (!batch.isEmpty()) {
+            publish(batch);
+            batch.clear();
+        }
+        finishReplay(remaining);
+        return replayed > 0;
+    }
+
+    private void finishReplay(List<String> remaining) {
+        if (remaining.isEmpty()) {
+            if (!replayFile.delete()) {
+                debug.error("Unable to delete replayed audit spill file {}", replayFile);
+            }
+            return;
+        }
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(replayFile, false),
+                UTF_8))) {
+            for (String line : remaining) {
+                writer.write(line);
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            debug.error("Unable to rewrite audit spill file {}", replayFile, e);
+        }
+        spillPending = true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private QueuedAuditEvent toQueuedEvent(String line) {
+        try {
+            Map<String, Object> content = MAPPER.readValue(line, Map.class);
+            return new QueuedAuditEvent((String) content.get(TOPIC), new JsonValue(content.get(EVENT)));
+        } catch (IOException | ClassCastException e) {
+            debug.error("Discarding unreadable audit event in spill file {}", replayFile, e);
+            return null;
+        }
+    }
+
+    private void closeSpillWriter() {
+        if (spillWriter != null) {
+            try {
+                spillWriter.close();
+            } catch (IOException e) {
+                debug.warning("Unable to close audit spill file {}", spillFile, e);
+            }
+            spillWriter = null;
+        }
+    }
+}
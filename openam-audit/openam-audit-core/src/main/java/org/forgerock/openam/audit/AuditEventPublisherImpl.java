@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package org.forgerock.openam.audit;
 
@@ -21,6 +22,7 @@ import static org.forgerock.json.resource.Resources.newInternalConnection;
 import static org.forgerock.openam.audit.AuditConstants.EVENT_REALM;
 import static org.forgerock.openam.utils.StringUtils.isBlank;
 
+import com.sun.identity.shared.configuration.SystemPropertiesManager;
 import com.sun.identity.shared.debug.Debug;
 import org.forgerock.audit.events.AuditEvent;
 import org.forgerock.json.JsonValue;
@@ -28,45 +30,223 @@ import org.forgerock.json.resource.Connection;
 import org.forgerock.json.resource.CreateRequest;
 import org.forgerock.json.resource.ResourceException;
 import org.forgerock.json.resource.ServiceUnavailableException;
+import org.forgerock.openam.audit.AsyncAuditEventDispatcher.OverflowPolicy;
+import org.forgerock.openam.audit.AsyncAuditEventDispatcher.QueuedAuditEvent;
 import org.forgerock.openam.audit.AuditConstants.EventName;
 import org.forgerock.services.context.RootContext;
+import org.forgerock.util.annotations.VisibleForTesting;
+import org.forgerock.util.thread.listener.ShutdownListener;
+import org.forgerock.util.thread.listener.ShutdownManager;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Responsible for publishing locally created audit events to the AuditService.
+ * <p>
+ * When asynchronous publishing is enabled, events are handed to an {@link AsyncAuditEventDispatcher} and published
+ * in batches from its thread, so that the calling request does not wait on the audit event handlers.
  *
  * @since 13.0.0
  */
 @Singleton
 public class AuditEventPublisherImpl implements AuditEventPublisher {
 
+    /** Whether audit events are published asynchronously. */
+    public static final String ASYNC_ENABLED_PROPERTY = "org.forgerock.openam.audit.async.enabled";
+    /** The capacity of the asynchronous publishing queue. */
+    public static final String ASYNC_QUEUE_SIZE_PROPERTY = "org.forgerock.openam.audit.async.queueSize";
+    /** The maximum number of events published in one batch. */
+    public static final String ASYNC_BATCH_SIZE_PROPERTY = "org.forgerock.openam.audit.async.batchSize";
+    /** What to do when the queue is full: BLOCK, DROP or SPILL. */
+    public static final String ASYNC_OVERFLOW_POLICY_PROPERTY = "org.forgerock.openam.audit.async.overflowPolicy";
+    /** How long, in milliseconds, the BLOCK overflow policy waits for space in the queue. */
+    public static final String ASYNC_BLOCK_TIMEOUT_PROPERTY = "org.forgerock.openam.audit.async.blockTimeout";
+    /**
+     * The directory the SPILL overflow policy writes events to. It must be set explicitly and lie within the
+     * OpenAM configuration directory; a relative path is resolved against the configuration directory.
+     */
+    public static final String ASYNC_SPILL_DIRECTORY_PROPERTY = "org.forgerock.openam.audit.async.spillDirectory";
+    /** How long, in milliseconds, shutdown waits for queued events to be published. */
+    public static final String ASYNC_SHUTDOWN_TIMEOUT_PROPERTY = "org.forgerock.openam.audit.async.shutdownTimeout";
+
+    private static final int DEFAULT_QUEUE_SIZE = 8192;
+    private static final int DEFAULT_BATCH_SIZE = 256;
+    private static final int DEFAULT_BLOCK_TIMEOUT = 1000;
+    private static final int DEFAULT_SHUTDOWN_TIMEOUT = 5000;
+    private static final OverflowPolicy DEFAULT_OVERFLOW_POLICY = OverflowPolicy.BLOCK;
+    private static final String CONFIG_PATH_PROPERTY = "com.iplanet.services.configpath";
+
     private static Debug debug = Debug.getInstance("amAudit");
 
     private final AuditServiceProvider auditServiceProvider;
+    private final AsyncAuditEventDispatcher dispatcher;
 
     /**
-     * Constructs a new {@code AuditEventPublisher}.
+     * Constructs a new {@code AuditEventPublisher} which publishes events synchronously on the calling thread.
      *
      * @param auditServiceProvider A {@code AuditServiceProvider} instance.
      */
-    @Inject
     public AuditEventPublisherImpl(AuditServiceProvider auditServiceProvider) {
         this.auditServiceProvider = auditServiceProvider;
+        this.dispatcher = null;
+    }
+
+    /**
+     * Constructs a new {@code AuditEventPublisher} which publishes events asynchronously if enabled by the
+     * {@value #ASYNC_ENABLED_PROPERTY} system property, and synchronously otherwise. Queued events are
+     * published before the server shuts down.
+     *
+     * @param auditServiceProvider A {@code AuditServiceProvider} instance.
+     * @param shutdownManager The shutdown manager to register the shutdown listener to.
+     */
+    @Inject
+    public AuditEventPublisherImpl(AuditServiceProvider auditServiceProvider, ShutdownManager shutdownManager) {
+        this.auditServiceProvider = auditServiceProvider;
+        if (SystemPropertiesManager.getAsBoolean(ASYNC_ENABLED_PROPERTY, false)) {
+            this.dispatcher = createDispatcher();
+            this.dispatcher.start();
+            final long shutdownTimeout = SystemPropertiesManager.getAsInt(ASYNC_SHUTDOWN_TIMEOUT_PROPERTY,
+                    DEFAULT_SHUTDOWN_TIMEOUT);
+            shutdownManager.addShutdownListener(new ShutdownListener() {
+                @Override
+                public void shutdown() {
+                    dispatcher.shutdown(shutdownTimeout);
+                }
+            });
+        } else {
+            this.dispatcher = null;
+        }
+    }
+
+    private AsyncAuditEventDispatcher createDispatcher() {
+        String policyName = SystemPropertiesManager.get(ASYNC_OVERFLOW_POLICY_PROPERTY,
+                DEFAULT_OVERFLOW_POLICY.name());
+        OverflowPolicy policy;
+        try {
+            policy = OverflowPolicy.valueOf(policyName.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            debug.error("Invalid value {} for {}, using {}", policyName, ASYNC_OVERFLOW_POLICY_PROPERTY,
+                    DEFAULT_OVERFLOW_POLICY);
+            policy = DEFAULT_OVERFLOW_POLICY;
+        }
+        File spillDirectory = null;
+        if (policy == OverflowPolicy.SPILL) {
+            spillDirectory = resolveSpillDirectory(SystemPropertiesManager.get(ASYNC_SPILL_DIRECTORY_PROPERTY),
+                    SystemPropertiesManager.get(CONFIG_PATH_PROPERTY));
+            if (spillDirectory == null) {
+                policy = DEFAULT_OVERFLOW_POLICY;
+            }
+        }
+        return new AsyncAuditEventDispatcher(
+                SystemPropertiesManager.getAsInt(ASYNC_QUEUE_SIZE_PROPERTY, DEFAULT_QUEUE_SIZE),
+                SystemPropertiesManager.getAsInt(ASYNC_BATCH_SIZE_PROPERTY, DEFAULT_BATCH_SIZE),
+                policy,
+                SystemPropertiesManager.getAsInt(ASYNC_BLOCK_TIMEOUT_PROPERTY, DEFAULT_BLOCK_TIMEOUT),
+                spillDirectory,
+                new AsyncAuditEventDispatcher.BatchPublisher() {
+                    @Override
+                    public int publish(List<QueuedAuditEvent> batch) {
+                        return publishBatch(batch);
+                    }
+                });
+    }
+
+    /**
+     * Resolves and creates the directory the SPILL overflow policy writes events to. Audit events may hold
+     * sensitive data, so the directory must be configured explicitly, must lie within the OpenAM configuration
+     * directory and is created readable by its owner only.
+     *
+     * @param spillDirectory The configured spill directory, relative to the configuration directory if not
+     *                       absolute.
+     * @param configDirectory The OpenAM configuration directory.
+     * @return The spill directory, or {@code null} if it is not configured, is outside the configuration directory
+     * or cannot be created.
+     */
+    @VisibleForTesting
+    static File resolveSpillDirectory(String spillDirectory, String configDirectory) {
+        if (isBlank(spillDirectory) || isBlank(configDirectory)) {
+            debug.error("The {} overflow policy requires {} to be set to a directory within the OpenAM "
+                    + "configuration directory, using {}", OverflowPolicy.SPILL, ASYNC_SPILL_DIRECTORY_PROPERTY,
+                    DEFAULT_OVERFLOW_POLICY);
+            return null;
+        }
+        try {
+            File base = new File(configDirectory).getCanonicalFile();
+            File directory = new File(spillDirectory);
+            if (!directory.isAbsolute()) {
+                directory = new File(base, spillDirectory);
+            }
+            directory = directory.getCanonicalFile();
+            if (directory.equals(base) || !directory.toPath().startsWith(base.toPath())) {
+                debug.error("Audit spill directory {} is not within the OpenAM configuration directory {}, using {}",
+                        directory, base, DEFAULT_OVERFLOW_POLICY);
+                return null;
+            }
+            if (!directory.isDirectory()) {
+                if (!directory.mkdirs()) {
+                    debug.error("Unable to create audit spill directory {}, using {}", directory,
+                            DEFAULT_OVERFLOW_POLICY);
+                    return null;
+                }
+                directory.setReadable(false, false);
+                directory.setWritable(false, false);
+                directory.setExecutable(false, false);
+                directory.setReadable(true, true);
+                directory.setWritable(true, true);
+                directory.setExecutable(true, true);
+            }
+            return directory;
+        } catch (IOException e) {
+            debug.error("Unable to resolve audit spill directory {}, using {}", spillDirectory,
+                    DEFAULT_OVERFLOW_POLICY, e);
+            return null;
+        }
     }
 
     @Override
     public void tryPublish(String topic, AuditEvent auditEvent) {
+        if (dispatcher != null && dispatcher.submit(topic, auditEvent.getValue())) {
+            return;
+        }
+        publish(new HashMap<AMAuditService, Connection>(), topic, auditEvent.getValue());
+    }
+
+    /**
+     * Publishes a batch of events, reusing one connection per audit service for the whole batch.
+     *
+     * @param batch The events to publish, oldest first.
+     * @return The number of events which could not be published.
+     */
+    @VisibleForTesting
+    int publishBatch(List<QueuedAuditEvent> batch) {
+        Map<AMAuditService, Connection> connections = new HashMap<>();
+        int failed = 0;
+        for (QueuedAuditEvent event : batch) {
+            if (!publish(connections, event.getTopic(), event.getEvent())) {
+                failed++;
+            }
+        }
+        return failed;
+    }
+
+    private boolean publish(Map<AMAuditService, Connection> connections, String topic, JsonValue auditEvent) {
         try {
-            String realm = getValue(auditEvent.getValue(), EVENT_REALM, null);
+            String realm = getValue(auditEvent, EVENT_REALM, null);
             if (isBlank(realm)) {
-                publishToDefault(topic, auditEvent);
+                publishToDefault(connections, topic, auditEvent);
             } else {
-                publishForRealm(realm, topic, auditEvent);
+                publishForRealm(connections, realm, topic, auditEvent);
             }
+            return true;
         } catch (Exception e) {
             logException(e, topic, auditEvent);
+            return false;
         }
     }
 
@@ -79,30 +259,41 @@ public class AuditEventPublisherImpl implements AuditEventPublisher {
         }
     }
 
-    private void publishToDefault(String topic, AuditEvent auditEvent) throws ResourceException {
+    private void publishToDefault(Map<AMAuditService, Connection> connections, String topic,
+            JsonValue auditEvent) throws ResourceException {
 
         AMAuditService auditService = auditServiceProvider.getDefaultAuditService();
-        Connection connection = newInternalConnection(auditService);
-        CreateRequest request = newCreateRequest(topic, auditEvent.getValue());
+        Connection connection = getConnection(connections, auditService);
+        CreateRequest request = newCreateRequest(topic, auditEvent);
 
         connection.create(new RootContext(), request);
     }
 
-    private void publishForRealm(String realm, String topic, AuditEvent auditEvent) throws ResourceException {
+    private void publishForRealm(Map<AMAuditService, Connection> connections, String realm, String topic,
+            JsonValue auditEvent) throws ResourceException {
         AMAuditService auditService = auditServiceProvider.getAuditService(realm);
-        Connection connection = newInternalConnection(auditService);
-        CreateRequest request = newCreateRequest(topic, auditEvent.getValue());
+        Connection connection = getConnection(connections, auditService);
+        CreateRequest request = newCreateRequest(topic, auditEvent);
 
         try {
             connection.create(new RootContext(), request);
         } catch (ServiceUnavailableException e) {
             debug.message("Audit Service for realm {} is unavailable. Trying the default Audit Service.", realm, e);
-            publishToDefault(topic, auditEvent);
+            publishToDefault(connections, topic, auditEvent);
+        }
+    }
+
+    private Connection getConnection(Map<AMAuditService, Connection> connections, AMAuditService auditService) {
+        Connection connection = connections.get(auditService);
+        if (connection == null) {
+            connection = newInternalConnection(auditService);
+            connections.put(auditService, connection);
         }
+        return connection;
     }
 
-    private void logException(Exception exception, String topic, AuditEvent auditEvent) {
-        final String eventName = getValue(auditEvent.getValue(), EVENT_NAME, "-unknown-");
+    private void logException(Exception exception, String topic, JsonValue auditEvent) {
+        final String eventName = getValue(auditEvent, EVENT_NAME, "-unknown-");
         if (exception instanceof ResourceException) {
             debug.error("Unable to publish {} audit event '{}' due to error: {} [{}]",
                     topic, eventName, exception.getMessage(), ((ResourceException) exception).getReason(), exception);
@@ -0,0 +1,291 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.forgerock.openam.audit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+
+import org.forgerock.json.JsonValue;
+import org.forgerock.openam.audit.AsyncAuditEventDispatcher.BatchPublisher;
+import org.forgerock.openam.audit.AsyncAuditEventDispatcher.OverflowPolicy;
+import org.forgerock.openam.audit.AsyncAuditEventDispatcher.QueuedAuditEvent;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class AsyncAuditEventDispatcherTest {
+
+    private RecordingPublisher publisher;
+    private AsyncAuditEventDispatcher dispatcher;
+    private File spillDirectory;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        publisher = new RecordingPublisher();
+        spillDirectory = Files.createTempDirectory("audit-spill").toFile();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        publisher.release();
+        if (dispatcher != null) {
+            dispatcher.shutdown(5000);
+        }
+        File[] files = spillDirectory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        spillDirectory.delete();
+    }
+
+    @Test
+    public void shouldPublishSubmittedEventsInOrderAndInBatches() throws Exception {
+        // Given
+        dispatcher = new AsyncAuditEventDispatcher(64, 4, OverflowPolicy.DROP, 0, null, publisher);
+        publisher.release();
+        dispatcher.start();
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            assertThat(dispatcher.submit("access", event(i))).isTrue();
+        }
+        dispatcher.shutdown(5000);
+
+        // Then
+        assertThat(publisher.getIds()).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+        assertThat(publisher.getLargestBatch()).isLessThanOrEqualTo(4);
+        assertThat(dispatcher.getPublishedCount()).isEqualTo(10);
+    }
+
+    @Test
+    public void shouldCountBatchesThePublisherFailedAsFailed() throws Exception {
+        // Given
+        dispatcher = new AsyncAuditEventDispatcher(64, 4, OverflowPolicy.BLOCK, 0, null, publisher);
+        publisher.throwOnEachBatch();
+        publisher.release();
+        dispatcher.start();
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            dispatcher.submit("access", event(i));
+        }
+        dispatcher.shutdown(5000);
+
+        // Then
+        assertThat(dispatcher.getFailedCount()).isEqualTo(10);
+        assertThat(dispatcher.getPublishedCount()).isZero();
+    }
+
+    @Test
+    public void shouldCountEventsThePublisherReportsAsFailed() throws Exception {
+        // Given
+        dispatcher = new AsyncAuditEventDispatcher(64, 2, OverflowPolicy.BLOCK, 0, null, publisher);
+        publisher.failEachBatchWith(1);
+        dispatcher.start();
+        dispatcher.submit("access", event(0));
+        publisher.awaitFirstBatch();
+        dispatcher.submit("access", event(1));
+        dispatcher.submit("access", event(2));
+
+        // When
+        publisher.release();
+        dispatcher.shutdown(5000);
+
+        // Then
+        assertThat(publisher.getIds()).containsExactly(0, 1, 2);
+        assertThat(dispatcher.getFailedCount()).isEqualTo(2);
+        assertThat(dispatcher.getPublishedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldDropEventsWhenQueueIsFull() throws Exception {
+        // Given
+        dispatcher = new AsyncAuditEventDispatcher(4, 1, OverflowPolicy.DROP, 0, null, publisher);
+        dispatcher.start();
+        dispatcher.submit("access", event(0));
+        publisher.awaitFirstBatch();
+
+        // When
+        for (int i = 1; i <= 10; i++) {
+            dispatcher.submit("access", event(i));
+        }
+        publisher.release();
+        dispatcher.shutdown(5000);
+
+        // Then
+        assertThat(dispatcher.getDroppedCount()).isEqualTo(6);
+        assertThat(publisher.getIds()).containsExactly(0, 1, 2, 3, 4);
+    }
+
+    @Test
+    public void shouldWaitForSpaceWhenBlocking() throws Exception {
+        // Given
+        dispatcher = new AsyncAuditEventDispatcher(2, 1, OverflowPolicy.BLOCK, 5000, null, publisher);
+        dispatcher.start();
+        dispatcher.submit("access", event(0));
+        publisher.awaitFirstBatch();
+        dispatcher.submit("access", event(1));
+        dispatcher.submit("access", event(2));
+
+        // When
+        Thread releaser = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                publisher.release();
+            }
+        });
+        releaser.start();
+        dispatcher.submit("access", event(3));
+        releaser.join();
+        dispatcher.shutdown(5000);
+
+        // Then
+        assertThat(dispatcher.getDroppedCount()).isZero();
+        assertThat(publisher.getIds()).containsExactly(0, 1, 2, 3);
+    }
+
+    @Test
+    public void shouldSpillOverflowToDiskAndReplayIt() throws Exception {
+        // Given
+        dispatcher = new AsyncAuditEventDispatcher(2, 1, OverflowPolicy.SPILL, 0, spillDirectory, publisher);
+        dispatcher.start();
+        dispatcher.submit("access", event(0));
+        publisher.awaitFirstBatch();
+
+        // When
+        for (int i = 1; i <= 6; i++) {
+            dispatcher.submit("access", event(i));
+        }
+        assertThat(dispatcher.getSpilledCount()).isEqualTo(4);
+        publisher.release();
+        dispatcher.shutdown(5000);
+
+        // Then
+        assertThat(dispatcher.getDroppedCount()).isZero();
+        assertThat(publisher.getIds()).containsExactly(0, 1, 2, 3, 4, 5, 6);
+        assertThat(spillDirectory.list()).isEmpty();
+    }
+
+    @Test
+    public void shouldReplayEventsSpilledBeforeRestart() throws Exception {
+        // Given
+        Files.write(new File(spillDirectory, "audit-spill.json").toPath(), asList(
+                "{\"topic\":\"access\",\"event\":{\"id\":1}}",
+                "not json",
+                "{\"topic\":\"access\",\"event\":{\"id\":2}}"), UTF_8);
+        publisher.release();
+        dispatcher = new AsyncAuditEventDispatcher(4, 4, OverflowPolicy.SPILL, 0, spillDirectory, publisher);
+
+        // When
+        dispatcher.start();
+        dispatcher.shutdown(5000);
+
+        // Then
+        assertThat(publisher.getIds()).containsExactly(1, 2);
+        assertThat(spillDirectory.list()).isEmpty();
+    }
+
+    @Test
+    public void shouldRejectEventsAfterShutdown() {
+        // Given
+        dispatcher = new AsyncAuditEventDispatcher(4, 1, OverflowPolicy.DROP, 0, null, publisher);
+        dispatcher.start();
+        dispatcher.shutdown(5000);
+
+        // When
+        boolean accepted = dispatcher.submit("access", event(0));
+
+        // Then
+        assertThat(accepted).isFalse();
+    }
+
+    private static JsonValue event(int id) {
+        return json(object(field("id", id)));
+    }
+
+    private static final class RecordingPublisher implements BatchPublisher {
+
+        private final CountDownLatch firstBatch = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+        private final List<Integer> ids = Collections.synchronizedList(new ArrayList<Integer>());
+        private volatile int largestBatch;
+        private volatile int failuresPerBatch;
+        private volatile boolean throwing;
+
+        @Override
+        public int publish(List<QueuedAuditEvent> batch) {
+            firstBatch.countDown();
+            try {
+                released.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            largestBatch = Math.max(largestBatch, batch.size());
+            for (QueuedAuditEvent event : batch) {
+                ids.add(event.getEvent().get("id").asInteger());
+            }
+            if (throwing) {
+                throw new IllegalStateException("Audit service unavailable");
+            }
+            return failuresPerBatch;
+        }
+
+        void failEachBatchWith(int failures) {
+            failuresPerBatch = failures;
+        }
+
+        void throwOnEachBatch() {
+            throwing = true;
+        }
+
+        void awaitFirstBatch() throws InterruptedException {
+            assertThat(firstBatch.await(10, TimeUnit.SECONDS)).isTrue();
+        }
+
+        void release() {
+            released.countDown();
+        }
+
+        List<Integer> getIds() {
+            synchronized (ids) {
+                return new ArrayList<>(ids);
+            }
+        }
+
+        int getLargestBatch() {
+            return largestBatch;
+        }
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package org.forgerock.openam.audit;
 
@@ -38,10 +39,14 @@ import org.forgerock.json.resource.ServiceUnavailableException;
 import org.forgerock.openam.audit.configuration.AMAuditServiceConfiguration;
 import org.forgerock.services.context.Context;
 import org.forgerock.util.promise.Promise;
+import org.forgerock.util.thread.listener.ShutdownListener;
+import org.forgerock.util.thread.listener.ShutdownManager;
 import org.mockito.ArgumentCaptor;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.io.File;
+import java.nio.file.Files;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -127,6 +132,78 @@ public class AuditEventPublisherImplTest {
         assertThat(auditEventCaptor.getValue()).isEqualTo(auditEvent.getValue());
     }
 
+    @Test
+    public void publishesBatchOfQueuedAuditEventsInOrder() throws Exception {
+        // Given
+        AuditEvent first = getAuditEvent(null);
+        AuditEvent second = getAuditEvent(null);
+        givenDefaultAuditService();
+        when(mockHandler.publishEvent(
+                any(Context.class), eq("access"), auditEventCaptor.capture())).thenReturn(dummyPromise);
+
+        // When
+        int failed = ((AuditEventPublisherImpl) auditEventPublisher).publishBatch(asList(
+                new AsyncAuditEventDispatcher.QueuedAuditEvent("access", first.getValue()),
+                new AsyncAuditEventDispatcher.QueuedAuditEvent("access", second.getValue())));
+
+        // Then
+        assertThat(auditEventCaptor.getAllValues()).containsExactly(first.getValue(), second.getValue());
+        assertThat(failed).isZero();
+    }
+
+    @Test
+    public void publishesSynchronouslyUnlessAsynchronousPublishingIsEnabled() throws Exception {
+        // Given
+        ShutdownManager shutdownManager = mock(ShutdownManager.class);
+
+        // When
+        new AuditEventPublisherImpl(auditServiceProvider, shutdownManager);
+
+        // Then
+        verify(shutdownManager, never()).addShutdownListener(any(ShutdownListener.class));
+    }
+
+    @Test
+    public void requiresAnExplicitSpillDirectory() throws Exception {
+        // Given
+        File configDirectory = Files.createTempDirectory("openam").toFile();
+
+        // When
+        File spillDirectory = AuditEventPublisherImpl.resolveSpillDirectory(null, configDirectory.getPath());
+
+        // Then
+        assertThat(spillDirectory).isNull();
+    }
+
+    @Test
+    public void rejectsSpillDirectoryOutsideTheConfigurationDirectory() throws Exception {
+        // Given
+        File configDirectory = Files.createTempDirectory("openam").toFile();
+        File otherDirectory = Files.createTempDirectory("spill").toFile();
+
+        // When
+        File outside = AuditEventPublisherImpl.resolveSpillDirectory(otherDirectory.getPath(),
+                configDirectory.getPath());
+        File escaping = AuditEventPublisherImpl.resolveSpillDirectory("../spill", configDirectory.getPath());
+
+        // Then
+        assertThat(outside).isNull();
+        assertThat(escaping).isNull();
+    }
+
+    @Test
+    public void createsSpillDirectoryWithinTheConfigurationDirectory() throws Exception {
+        // Given
+        File configDirectory = Files.createTempDirectory("openam").toFile();
+
+        // When
+        File spillDirectory = AuditEventPublisherImpl.resolveSpillDirectory("audit/spill", configDirectory.getPath());
+
+        // Then
+        assertThat(spillDirectory).isEqualTo(new File(configDirectory.getCanonicalFile(), "audit/spill"));
+        assertThat(spillDirectory.isDirectory()).isTrue();
+    }
+
     private AuditEvent getAuditEvent(String realm) {
         return new AMAccessAuditEventBuilder()
                 .eventName(EventName.AM_ACCESS_OUTCOME)
@@ -12,18 +12,21 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2019 Open Identity Platform Community.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
 package org.openidentityplatform.openam.cassandra;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.TreeSet;
 
 import javax.inject.Inject;
 
-import org.apache.commons.lang3.StringUtils;
 import org.forgerock.guice.core.InjectorHolder;
 
 import com.datastax.oss.driver.api.core.CqlIdentifier;
@@ -47,62 +50,73 @@ public class Filter {
 		return "Filter [clauses=" + clauses + "]";
 	}
 
+	/**
+	 * The value restricting each field, used to plan the query. A field restricted by a range holds one of its bounds.
+	 */
 	public Map<String,Object> field2value=new TreeMap<String,Object>(String.CASE_INSENSITIVE_ORDER);
+	public Set<String> equalities=new TreeSet<String>(String.CASE_INSENSITIVE_ORDER);
 	public List<Relation> clauses=new ArrayList<Relation>();
-	public String getTable() {
-		for (String field: field2value.keySet()) {
-			if (!StringUtils.equalsIgnoreCase("coreTokenId",field)) {
-				return field;
-			}
-		}
-		return dataLayerConfiguration.getTableName();
-	}
-	
-	public Boolean allowFilter() {
-		return StringUtils.equalsIgnoreCase(getTable(), dataLayerConfiguration.getTableName());
-	}
-	
+	/**
+	 * The value bound to the marker of each clause, in clause order.
+	 */
+	public Map<String,Object> marker2value=new LinkedHashMap<String,Object>();
+	final List<Term> terms=new ArrayList<Term>();
+
 	public static Filter and(List<Filter> filters) {
 		final Filter res=InjectorHolder.getInstance(Filter.class);
 		for (Filter filter : filters) {
-			res.clauses.addAll(filter.clauses);
-			res.field2value.putAll(filter.field2value);
+			for (Term term : filter.terms) {
+				res.add(term.name, term.operator, term.value);
+			}
+			res.equalities.addAll(filter.equalities);
 		}
 		return res;
 	}
 	
 	public static Filter equality(String name, Object value) {
 		final Filter res=InjectorHolder.getInstance(Filter.class); 
-		res.field2value.put(name, value);
-		res.clauses.add(new DefaultColumnRelationBuilder(CqlIdentifier.fromCql(name)).build("=", bindMarker(name))); 
-		return res; 
+		res.equalities.add(name);
+		return res.add(name, "=", value);
 	}
 	
 	public static Filter greaterThan(String name, Object value) {
-		final Filter res=InjectorHolder.getInstance(Filter.class);
-		res.field2value.put(name, value);
-		res.clauses.add(new DefaultColumnRelationBuilder(CqlIdentifier.fromCql(name)).build(">", bindMarker(name))); 
-		return res;
+		return InjectorHolder.getInstance(Filter.class).add(name, ">", value);
 	}
 	
 	public static Filter greaterOrEqual(String name, Object value) {
-		final Filter res=InjectorHolder.getInstance(Filter.class);
-		res.field2value.put(name, value);
-		res.clauses.add(new DefaultColumnRelationBuilder(CqlIdentifier.fromCql(name)).build(">=", bindMarker(name))); 
-		return res;
+		return InjectorHolder.getInstance(Filter.class).add(name, ">=", value);
 	}
 	
 	public static Filter lessThan(String name, Object value) {
-		final Filter res=InjectorHolder.getInstance(Filter.class);
-		res.field2value.put(name, value);
-		res.clauses.add(new DefaultColumnRelationBuilder(CqlIdentifier.fromCql(name)).build("<", bindMarker(name))); 
-		return res;
+		return InjectorHolder.getInstance(Filter.class).add(name, "<", value);
 	}
 	
 	public static Filter lessOrEqual(String name, Object value) {
-		final Filter res=InjectorHolder.getInstance(Filter.class);
-		res.field2value.put(name, value);
-		res.clauses.add(new DefaultColumnRelationBuilder(CqlIdentifier.fromCql(name)).build("<=", bindMarker(name))); 
-		return res;
+		return InjectorHolder.getInstance(Filter.class).add(name, "<=", value);
+	}
+
+	/**
+	 * Adds a clause with a marker of its own, so that both bounds of a range on one field are bound.
+	 * The marker is numbered by position, keeping the statement text stable for the prepared statement cache.
+	 */
+	Filter add(String name, String operator, Object value) {
+		final String marker=name+"_"+terms.size();
+		terms.add(new Term(name, operator, value));
+		field2value.put(name, value);
+		marker2value.put(marker, value);
+		clauses.add(new DefaultColumnRelationBuilder(CqlIdentifier.fromCql(name)).build(operator, bindMarker(marker)));
+		return this;
+	}
+
+	static class Term {
+		final String name;
+		final String operator;
+		final Object value;
+
+		Term(String name, String operator, Object value) {
+			this.name = name;
+			this.operator = operator;
+			this.value = value;
+		}
 	}
 }
@@ -13,12 +13,15 @@
  *
  * Copyright 2015-2016 ForgeRock AS.
  * Copyright 2019 Open Identity Platform Community.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
 package org.openidentityplatform.openam.cassandra;
 
+import java.nio.ByteBuffer;
 import java.text.MessageFormat;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -26,6 +29,8 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
@@ -33,15 +38,17 @@ import javax.inject.Inject;
 import javax.inject.Named;
 
 import org.apache.commons.lang.StringUtils;
+import org.forgerock.openam.cts.api.tokens.Token;
 import org.forgerock.openam.cts.continuous.ContinuousQuery;
 import org.forgerock.openam.cts.continuous.ContinuousQueryListener;
 import org.forgerock.openam.sm.datalayer.api.DataLayerConstants;
 import org.forgerock.openam.sm.datalayer.api.DataLayerException;
+import org.forgerock.openam.sm.datalayer.api.DataLayerRuntimeException;
 import org.forgerock.openam.tokens.CoreTokenField;
 
 import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
 import com.datastax.oss.driver.api.core.cql.Row;
-import com.datastax.oss.driver.api.core.cql.SimpleStatement;
 import com.sun.identity.shared.debug.Debug;
 import com.datastax.oss.driver.api.querybuilder.relation.Relation;
 import com.datastax.oss.driver.api.querybuilder.select.Select;
@@ -53,75 +60,128 @@ public class QueryBuilder extends org.forgerock.openam.sm.datalayer.api.query.Qu
 
     
 	//private ConnectionFactory<CqlSession> connectionFactory;
+	private final QueryPlanner planner;
 
     /**
      * Default constructor ensures the Object Class is defined.
      *
      * @param debug To debug writer for this class.
+     * @param planner Chooses the table the filter is run against.
      */
 	@Inject
     public QueryBuilder(    @Named(DataLayerConstants.DATA_LAYER_DEBUG) Debug debug
                             //,ConnectionFactory connectionFactoryProvider
+                            ,QueryPlanner planner
                             ) {
         super(debug);
         //this.connectionFactory = connectionFactoryProvider;
+        this.planner = planner;
     }
 
     /**
-     * Perform the query and return the results as Entry instances.
+     * Perform the query and return the results a page at a time.
+     * <p>
+     * The query is only sent on the first call to the iterator and the rows are streamed from the driver, which
+     * fetches the next page of the result set when the current one is consumed, so at most a page of tokens is
+     * held in memory. Queries that can only be answered by a filtering scan of the tokens table return no results
+     * unless {@link QueryPlanner#ALLOW_SCAN} is set.
      *
      * @param connection The connection used to perform the request.
      * @return A non null but possibly empty collection.
      */
-    @SuppressWarnings("unchecked")
 	public <T> Iterator<Collection<T>> executeRawResults(CqlSession connection, Class<T> returnType) {
 		debug.message("executeRawResults {}",this);
-		try {
-			final Set<String> requestedAttributes=new HashSet<String>(Arrays.asList(this.requestedAttributes));
-			requestedAttributes.add("coreTokenId");
-			final Set<CoreTokenField> requestedCoreTokenFields=new HashSet<CoreTokenField>(requestedAttributes.size());
-			for (String requestedAttribute : requestedAttributes) {
-				requestedCoreTokenFields.add(CoreTokenField.fromLDAPAttribute(requestedAttribute));
-			}
-			Select select=selectFrom(this.filter.getTable())
-					.columns(requestedAttributes.toArray(new String[0]));
-			for(Relation relation : this.filter.clauses) {
-				select=select.where(relation);
+		final int pageSize=QueryPlanner.getPageSize(this.pageSize);
+		return new Iterator<Collection<T>>() {
+			Iterator<Row> iterator;
+			Set<CoreTokenField> requestedCoreTokenFields;
+
+			@Override
+			public boolean hasNext() {
+				if (iterator==null) {
+					iterator=query();
+				}
+				return iterator.hasNext();
 			}
-			select=select.allowFiltering();
-    		if (this.sizeLimit>0) {
-    			select=select.limit(this.sizeLimit);
-    		}
-    		final SimpleStatement statement=select.build();
-    		if (this.pageSize>0) {
-    			statement.setPageSize(this.pageSize);
-    		}
-    		if (this.timeLimit.getValue()>0 && this.timeLimit.to(TimeUnit.MILLISECONDS)<=Integer.MAX_VALUE) {
-    			statement.setTimeout(Duration.ofMillis(this.timeLimit.to(TimeUnit.MILLISECONDS)));
-    		}
-//    		final ResultSet rc = new ExecuteCallback(ConnectionFactoryProvider.profile,connectionFactory.create(),statement).execute();
-//    		final Iterator<Row> iterator=rc.iterator();
-    		final Iterator<Row> iterator=Collections.EMPTY_LIST.iterator(); //disable long query
-    		return new Iterator<Collection<T>>() {
-  				@Override
-				public boolean hasNext() {
-					return iterator.hasNext();
+
+			@SuppressWarnings("unchecked")
+			@Override
+			public Collection<T> next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
 				}
-				@Override
-				public Collection<T> next() {
-					final Row row=iterator.next();
-					List<T> res=new ArrayList<T>(1);
-					if (row!=null) {
-						res.add((T)TokenStorageAdapter.Row2ParitalToken(requestedCoreTokenFields, row));
+				final List<T> res=new ArrayList<T>(pageSize);
+				try {
+					while (res.size()<pageSize && iterator.hasNext()) {
+						final Row row=iterator.next();
+						if (Token.class.equals(returnType)) {
+							res.add((T)TokenStorageAdapter.Row2Token(row));
+						}else {
+							res.add((T)TokenStorageAdapter.Row2ParitalToken(requestedCoreTokenFields, row));
+						}
 					}
-					return res;
+				}catch (RuntimeException e) {
+					throw new DataLayerRuntimeException(MessageFormat.format("executeRawResults {0}", QueryBuilder.this), e);
 				}
-				@Override
-				public void remove() {}
-			};
-		}catch (Exception e) {
-			throw new RuntimeException(e);
-		}
+				return res;
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+
+			Iterator<Row> query() {
+				try {
+					final QueryPlanner.Plan plan=planner.plan(connection, filter);
+					if (plan.isScan() && !QueryPlanner.isScanAllowed()) {
+						debug.message("executeRawResults {} skipped: {}", QueryBuilder.this, plan);
+						return Collections.<Row>emptyIterator();
+					}
+					Select select;
+					if (Token.class.equals(returnType)) {
+						select=selectFrom(plan.getTable()).all();
+					}else {
+						final Set<String> requestedAttributes=new HashSet<String>(Arrays.asList(QueryBuilder.this.requestedAttributes));
+						requestedAttributes.add(CoreTokenField.TOKEN_ID.toString());
+						requestedCoreTokenFields=new HashSet<CoreTokenField>(requestedAttributes.size());
+						for (String requestedAttribute : requestedAttributes) {
+							requestedCoreTokenFields.add(CoreTokenField.fromLDAPAttribute(requestedAttribute));
+						}
+						select=selectFrom(plan.getTable()).columns(requestedAttributes.toArray(new String[0]));
+					}
+					for(Relation relation : filter.clauses) {
+						select=select.where(relation);
+					}
+					if (plan.isAllowFiltering()) {
+						select=select.allowFiltering();
+					}
+					if (sizeLimit>0) {
+						select=select.limit(sizeLimit);
+					}
+					BoundStatement statement=connection.prepare(select.build()).bind();
+					for (Entry<String, Object> field2value : filter.marker2value.entrySet()) {
+						final Object value=field2value.getValue();
+						if (value instanceof String) {
+							statement=statement.setString(field2value.getKey(), (String)value);
+						}else if (value instanceof Instant) {
+							statement=statement.setInstant(field2value.getKey(), (Instant)value);
+						}else if (value instanceof ByteBuffer) {
+							statement=statement.setByteBuffer(field2value.getKey(), (ByteBuffer)value);
+						}else if (value instanceof Integer) {
+							statement=statement.setInt(field2value.getKey(), (Integer)value);
+						}
+					}
+					statement=statement.setPageSize(pageSize);
+					if (timeLimit.getValue()>0 && timeLimit.to(TimeUnit.MILLISECONDS)<=Integer.MAX_VALUE) {
+						statement=statement.setTimeout(Duration.ofMillis(timeLimit.to(TimeUnit.MILLISECONDS)));
+					}
+					return new ExecuteCallback(ConnectionFactoryProvider.profile,connection,statement).execute().iterator();
+				}catch (RuntimeException e) {
+					throw new DataLayerRuntimeException(MessageFormat.format("executeRawResults {0}", QueryBuilder.this), e);
+				}
+			}
+		};
     }
 
     @SuppressWarnings("rawtypes")
@@ -0,0 +1,167 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+
+package org.openidentityplatform.openam.cassandra;
+
+import java.util.Optional;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.apache.commons.lang3.StringUtils;
+import org.forgerock.openam.tokens.CoreTokenField;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.metadata.schema.IndexKind;
+import com.datastax.oss.driver.api.core.metadata.schema.IndexMetadata;
+import com.datastax.oss.driver.api.core.metadata.schema.KeyspaceMetadata;
+import com.datastax.oss.driver.api.core.metadata.schema.TableMetadata;
+import com.datastax.oss.driver.api.core.metadata.schema.ViewMetadata;
+import com.iplanet.am.util.SystemProperties;
+
+/**
+ * Chooses the table a CTS {@link Filter} is run against.
+ * <p>
+ * In order of preference a query is routed to:
+ * <ol>
+ *     <li>the tokens table when the token id is known;</li>
+ *     <li>a lookup view of the tokens table partitioned by a field the filter matches for equality, user id and
+ *     string fields being preferred to the token type;</li>
+ *     <li>the tokens table when a secondary index covers one of the filtered fields: built-in indexes for
+ *     equality, custom ones (SAI, SASI) for ranges as well;</li>
+ *     <li>a filtering scan of the tokens table.</li>
+ * </ol>
+ * The views and indexes are discovered from the schema metadata maintained by the driver, so a lookup table added
+ * to the keyspace is used without a restart.
+ */
+@Singleton
+public class QueryPlanner {
+	final static Logger logger = LoggerFactory.getLogger(QueryPlanner.class);
+
+	/** Whether the paged worker queries may fall back to a filtering scan of the tokens table. */
+	public static final String ALLOW_SCAN = "org.openidentityplatform.openam.cassandra.cts.query.scan";
+
+	/** Default number of rows fetched per page when the query does not request one. */
+	public static final String PAGE_SIZE = "org.openidentityplatform.openam.cassandra.cts.query.pagesize";
+
+	final DataLayerConfiguration dataLayerConfiguration;
+
+	@Inject
+	public QueryPlanner(DataLayerConfiguration dataLayerConfiguration) {
+		this.dataLayerConfiguration = dataLayerConfiguration;
+	}
+
+	public static int getPageSize(int pageSize) {
+		return pageSize > 0 ? pageSize : SystemProperties.getAsInt(PAGE_SIZE, 1000);
+	}
+
+	public static boolean isScanAllowed() {
+		return SystemProperties.getAsBoolean(ALLOW_SCAN, false);
+	}
+
+	/**
+	 * Plans the filter against the schema of the session.
+	 *
+	 * @param session The session bound to the CTS keyspace.
+	 * @param filter The filter to plan.
+	 * @return The plan, never null.
+	 */
+	public Plan plan(CqlSession session, Filter filter) {
+		final String base = dataLayerConfiguration.getTableName();
+		if (filter.equalities.contains(CoreTokenField.TOKEN_ID.toString())) {
+			return new Plan(base, filter.field2value.size() > 1, false);
+		}
+		final Optional<KeyspaceMetadata> keyspace = session.getMetadata().getKeyspace(dataLayerConfiguration.getKeySpace());
+		if (keyspace.isPresent()) {
+			String lookup = null;
+			for (ViewMetadata view : keyspace.get().getViews().values()) {
+				if (!StringUtils.equalsIgnoreCase(view.getBaseTable().asInternal(), base) || view.getPartitionKey().size() != 1) {
+					continue;
+				}
+				final String column = view.getPartitionKey().get(0).getName().asInternal();
+				if (filter.equalities.contains(column)) {
+					lookup = view.getName().asInternal();
+					if (!StringUtils.equalsIgnoreCase(column, CoreTokenField.TOKEN_TYPE.toString())) {
+						break;
+					}
+				}
+			}
+			if (lookup != null) {
+				return new Plan(lookup, filter.field2value.size() > 1, false);
+			}
+			final Optional<TableMetadata> table = keyspace.get().getTable(base);
+			if (table.isPresent()) {
+				for (IndexMetadata index : table.get().getIndexes().values()) {
+					if (isIndexed(index, filter)) {
+						return new Plan(base, true, false);
+					}
+				}
+			}
+		}
+		return new Plan(base, true, true);
+	}
+
+	/**
+	 * Built-in secondary indexes only serve equality restrictions, custom ones (SAI, SASI) serve ranges too.
+	 */
+	static boolean isIndexed(IndexMetadata index, Filter filter) {
+		final String column = StringUtils.strip(index.getTarget(), "\"");
+		if (filter.equalities.contains(column)) {
+			return true;
+		}
+		return index.getKind() == IndexKind.CUSTOM && filter.field2value.containsKey(column);
+	}
+
+	/**
+	 * The table a query is run against and how.
+	 */
+	public static class Plan {
+		final String table;
+		final boolean allowFiltering;
+		final boolean scan;
+
+		Plan(String table, boolean allowFiltering, boolean scan) {
+			this.table = table;
+			this.allowFiltering = allowFiltering;
+			this.scan = scan;
+		}
+
+		public String getTable() {
+			return table;
+		}
+
+		/**
+		 * @return True if the filter restricts columns outside of the primary key of the table.
+		 */
+		public boolean isAllowFiltering() {
+			return allowFiltering;
+		}
+
+		/**
+		 * @return True if no key, view or index narrows the query and the whole table is read.
+		 */
+		public boolean isScan() {
+			return scan;
+		}
+
+		@Override
+		public String toString() {
+			return "Plan [table=" + table + ", allowFiltering=" + allowFiltering + ", scan=" + scan + "]";
+		}
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+
+package org.openidentityplatform.openam.cassandra;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.metadata.Node;
+import com.datastax.oss.driver.api.core.metadata.TokenMap;
+
+/**
+ * Bounds the number of asynchronous CTS operations in flight to each Cassandra node.
+ * <p>
+ * An operation is charged to the first replica of the partition its statement is routed to. When the window of that
+ * node is full the caller waits, pushing back on the CTS queue instead of piling requests up in the driver, so a few
+ * threads can keep every node busy without overloading one. Statements whose replicas are unknown share one window.
+ * <p>
+ * The window is acquired on the calling thread only: the follow-up requests of an operation, issued from the driver
+ * callbacks, are covered by the permit of the operation and never block.
+ */
+public class RequestWindow {
+	final static Logger logger = LoggerFactory.getLogger(RequestWindow.class);
+
+	static final Object UNKNOWN = new Object();
+
+	final int size;
+	final ConcurrentMap<Object, Semaphore> windows = new ConcurrentHashMap<Object, Semaphore>();
+
+	/**
+	 * @param size The maximum number of operations in flight to a node.
+	 */
+	public RequestWindow(int size) {
+		this.size = size;
+	}
+
+	/**
+	 * Starts the operation once the window of the node owning the statement has room.
+	 *
+	 * @param session The session the statement is executed on.
+	 * @param statement The statement the operation is routed by.
+	 * @param operation Issues the requests of the operation.
+	 * @return The completion of the operation.
+	 */
+	public <T> CompletionStage<T> submit(CqlSession session, BoundStatement statement, Supplier<CompletionStage<T>> operation) {
+		final Semaphore window = windows.computeIfAbsent(node(session, statement), node -> new Semaphore(size));
+		window.acquireUninterruptibly();
+		final CompletionStage<T> stage;
+		try {
+			stage = operation.get();
+		} catch (RuntimeException e) {
+			window.release();
+			throw e;
+		}
+		stage.whenComplete((result, error) -> window.release());
+		return stage;
+	}
+
+	Object node(CqlSession session, BoundStatement statement) {
+		try {
+			final ByteBuffer routingKey = statement.getRoutingKey();
+			CqlIdentifier keyspace = statement.getRoutingKeyspace();
+			if (keyspace == null) {
+				keyspace = session.getKeyspace().orElse(null);
+			}
+			final Optional<TokenMap> tokenMap = session.getMetadata().getTokenMap();
+			if (routingKey != null && keyspace != null && tokenMap.isPresent()) {
+				final Set<Node> replicas = tokenMap.get().getReplicas(keyspace, routingKey);
+				if (!replicas.isEmpty()) {
+					return replicas.iterator().next();
+				}
+			}
+		} catch (RuntimeException e) {
+			logger.debug("node {}: {}", statement, e.toString());
+		}
+		return UNKNOWN;
+	}
+}
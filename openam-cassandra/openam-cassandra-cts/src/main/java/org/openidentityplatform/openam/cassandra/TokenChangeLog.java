@@ -0,0 +1,296 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+
+package org.openidentityplatform.openam.cassandra;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.forgerock.openam.cts.api.tokens.Token;
+import org.forgerock.openam.cts.continuous.ChangeType;
+import org.forgerock.openam.tokens.CoreTokenField;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BatchableStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.DefaultBatchType;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.api.core.uuid.Uuids;
+
+/**
+ * Log of the changes made to the CTS tokens table, read by the continuous queries.
+ * <p>
+ * Cassandra has no persistent search, so every token written or deleted through the {@link TokenStorageAdapter} is
+ * also appended to a {@code <table>_changes} table. The log is partitioned by a time bucket and a shard of the token
+ * id, is ordered by a time based UUID and expires after a short TTL, so a poll only reads the latest partitions.
+ * <p>
+ * Entries recorded within a short delay of each other are grouped per partition into unlogged batches, so a burst of
+ * token writes costs a few change log requests rather than one per token.
+ */
+public class TokenChangeLog {
+	final static Logger logger = LoggerFactory.getLogger(TokenChangeLog.class);
+
+	static final long BUCKET_MILLIS = 10 * 1000;
+	static final int SHARDS = 8;
+	static final int BATCH_SIZE = 32;
+
+	static final List<Integer> ALL_SHARDS = new ArrayList<Integer>(SHARDS);
+	static {
+		for (int shard = 0; shard < SHARDS; shard++) {
+			ALL_SHARDS.add(shard);
+		}
+	}
+
+	final CqlSession session;
+	final String table;
+	final int ttl;
+	final long batchDelay;
+	final Queue<PendingChange> pending = new ConcurrentLinkedQueue<PendingChange>();
+	final AtomicBoolean flushScheduled = new AtomicBoolean();
+	ScheduledExecutorService flusher;
+	final PreparedStatement statement_insert;
+	final PreparedStatement statement_select;
+
+	/**
+	 * Prepares the change log, creating its table when it does not exist yet.
+	 *
+	 * @param session The session bound to the CTS keyspace.
+	 * @param table The name of the change log table.
+	 * @param ttl The time to live of a change, in seconds.
+	 * @param batchDelay The delay during which changes are grouped into batches, in milliseconds, or 0 to write each
+	 * change on its own.
+	 */
+	public TokenChangeLog(CqlSession session, String table, int ttl, long batchDelay) {
+		this.session = session;
+		this.table = table;
+		this.ttl = ttl;
+		this.batchDelay = batchDelay;
+		createTable();
+		statement_insert = session.prepare("insert into " + table + " (bucket,shard,changeId,coreTokenId,changeType,attributes) values (:bucket,:shard,:changeId,:coreTokenId,:changeType,:attributes) using ttl :ttl");
+		statement_select = session.prepare("select changeId,coreTokenId,changeType,attributes from " + table + " where bucket=:bucket and shard in :shards and changeId>:changeId");
+	}
+
+	void createTable() {
+		final boolean exists = session.getKeyspace()
+				.flatMap(keyspace -> session.getMetadata().getKeyspace(keyspace))
+				.flatMap(keyspace -> keyspace.getTable(table))
+				.isPresent();
+		if (!exists) {
+			try {
+				session.execute("create table if not exists " + table + " (bucket bigint,shard int,changeId timeuuid,coreTokenId text,changeType text,attributes map<text,text>,primary key ((bucket,shard),changeId)) "
+						+ "with default_time_to_live=" + ttl + " and gc_grace_seconds=60 "
+						+ "and compaction={'class':'org.apache.cassandra.db.compaction.TimeWindowCompactionStrategy','compaction_window_size':'1','compaction_window_unit':'MINUTES'}");
+			} catch (Throwable e) {
+				logger.warn("create {}: {}", table, e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Appends a change of the token to the log. The write is asynchronous and a failure is only logged, so the
+	 * change log never fails the token operation itself. This method never blocks.
+	 *
+	 * @param token The token as written, or as read before it was deleted.
+	 * @param changeType The type of change made to the token.
+	 */
+	public void record(Token token, ChangeType changeType) {
+		try {
+			final UUID changeId = Uuids.timeBased();
+			final long bucket = bucket(Uuids.unixTimestamp(changeId));
+			final int shard = shard(token.getTokenId());
+			final BoundStatement statement = statement_insert.bind()
+					.setLong("bucket", bucket)
+					.setInt("shard", shard)
+					.setUuid("changeId", changeId)
+					.setString(CoreTokenField.TOKEN_ID.toString(), token.getTokenId())
+					.setString("changeType", changeType.name())
+					.setMap("attributes", attributes(token), String.class, String.class)
+					.setInt("ttl", ttl);
+			if (batchDelay <= 0) {
+				new ExecuteCallback(ConnectionFactoryProvider.profile, session, statement).executeAsync();
+				return;
+			}
+			pending.add(new PendingChange(bucket * SHARDS + shard, statement));
+			if (flushScheduled.compareAndSet(false, true)) {
+				getFlusher().schedule(this::flush, batchDelay, TimeUnit.MILLISECONDS);
+			}
+		} catch (Throwable e) {
+			logger.warn("record {} {}: {}", changeType, token.getTokenId(), e.toString());
+		}
+	}
+
+	synchronized ScheduledExecutorService getFlusher() {
+		if (flusher == null) {
+			flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				final Thread thread = new Thread(runnable, "CTSChangeLogWriter");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return flusher;
+	}
+
+	/**
+	 * Writes the pending changes, one unlogged batch of at most {@link #BATCH_SIZE} changes per partition.
+	 */
+	void flush() {
+		flushScheduled.set(false);
+		final Map<Long, List<BatchableStatement<?>>> partitions = new HashMap<Long, List<BatchableStatement<?>>>();
+		PendingChange change;
+		while ((change = pending.poll()) != null) {
+			partitions.computeIfAbsent(change.partition, partition -> new ArrayList<BatchableStatement<?>>()).add(change.statement);
+		}
+		for (List<BatchableStatement<?>> statements : partitions.values()) {
+			for (int from = 0; from < statements.size(); from += BATCH_SIZE) {
+				final List<BatchableStatement<?>> chunk = statements.subList(from, Math.min(from + BATCH_SIZE, statements.size()));
+				try {
+					final Statement<?> statement = chunk.size() == 1 ? (Statement<?>) chunk.get(0) : BatchStatement.newInstance(DefaultBatchType.UNLOGGED, chunk);
+					new ExecuteCallback(ConnectionFactoryProvider.profile, session, statement).executeAsync();
+				} catch (Throwable e) {
+					logger.warn("flush {} changes: {}", chunk.size(), e.toString());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reads the changes made within the given time range.
+	 *
+	 * @param from The start of the range, in milliseconds since the epoch.
+	 * @param to The end of the range, in milliseconds since the epoch.
+	 * @return The changes ordered by the time they were made.
+	 */
+	public List<Change> read(long from, long to) {
+		final List<Change> changes = new ArrayList<Change>();
+		final UUID after = Uuids.startOf(from);
+		for (long bucket = bucket(from); bucket <= bucket(to); bucket++) {
+			final BoundStatement statement = statement_select.bind()
+					.setLong("bucket", bucket)
+					.setList("shards", ALL_SHARDS, Integer.class)
+					.setUuid("changeId", after);
+			for (Row row : new ExecuteCallback(ConnectionFactoryProvider.profile, session, statement).execute()) {
+				changes.add(new Change(
+						row.getUuid("changeId"),
+						row.getString(CoreTokenField.TOKEN_ID.toString()),
+						ChangeType.valueOf(row.getString("changeType")),
+						row.getMap("attributes", String.class, String.class)));
+			}
+		}
+		changes.sort(Comparator.comparingLong(Change::getTimestamp));
+		return changes;
+	}
+
+	static long bucket(long millis) {
+		return millis / BUCKET_MILLIS;
+	}
+
+	static int shard(String tokenId) {
+		return (tokenId.hashCode() & Integer.MAX_VALUE) % SHARDS;
+	}
+
+	/**
+	 * The attributes of the token in their change log representation, leaving out the binary token object.
+	 */
+	static Map<String, String> attributes(Token token) {
+		final Map<String, String> res = new HashMap<String, String>();
+		for (CoreTokenField field : token.getAttributeNames()) {
+			final Object value = token.getAttribute(field);
+			if (value != null && !(value instanceof byte[])) {
+				res.put(field.toString(), encode(value));
+			}
+		}
+		return res;
+	}
+
+	/**
+	 * Converts an attribute value to its change log representation: dates are stored as milliseconds since the epoch.
+	 */
+	static String encode(Object value) {
+		if (value instanceof Calendar) {
+			return String.valueOf(((Calendar) value).getTimeInMillis());
+		}
+		return value.toString();
+	}
+
+	@Override
+	public String toString() {
+		return table;
+	}
+
+	static class PendingChange {
+		final long partition;
+		final BoundStatement statement;
+
+		PendingChange(long partition, BoundStatement statement) {
+			this.partition = partition;
+			this.statement = statement;
+		}
+	}
+
+	/**
+	 * A single entry of the change log.
+	 */
+	public static class Change {
+		final UUID changeId;
+		final String tokenId;
+		final ChangeType changeType;
+		final Map<String, String> attributes;
+
+		Change(UUID changeId, String tokenId, ChangeType changeType, Map<String, String> attributes) {
+			this.changeId = changeId;
+			this.tokenId = tokenId;
+			this.changeType = changeType;
+			this.attributes = attributes == null ? Collections.<String, String>emptyMap() : attributes;
+		}
+
+		public UUID getChangeId() {
+			return changeId;
+		}
+
+		public long getTimestamp() {
+			return Uuids.unixTimestamp(changeId);
+		}
+
+		public String getTokenId() {
+			return tokenId;
+		}
+
+		public ChangeType getChangeType() {
+			return changeType;
+		}
+
+		public Map<String, String> getAttributes() {
+			return attributes;
+		}
+	}
+}
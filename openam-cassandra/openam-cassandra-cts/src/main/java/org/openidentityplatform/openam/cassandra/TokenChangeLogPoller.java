@@ -0,0 +1,131 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+
+package org.openidentityplatform.openam.cassandra;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Polls the {@link TokenChangeLog} on behalf of all the continuous queries of this server.
+ * <p>
+ * One cursor is kept for the server rather than one per query, so the reads made against the change log do not grow
+ * with the number of listeners. Each poll reads again an overlap window before the cursor to pick up changes written
+ * by servers with a skewed clock or still in flight at the previous poll; the changes already delivered within that
+ * window are skipped. Changes made before the polling thread started are never delivered.
+ */
+public class TokenChangeLogPoller implements Runnable {
+	final static Logger logger = LoggerFactory.getLogger(TokenChangeLogPoller.class);
+
+	final TokenChangeLog changeLog;
+	final long interval;
+	final long overlap;
+	final Set<TokenContinuousQuery> queries = new CopyOnWriteArraySet<TokenContinuousQuery>();
+	final Map<UUID, Long> delivered = new HashMap<UUID, Long>();
+
+	ScheduledExecutorService executor;
+	long started;
+	long cursor;
+	boolean failed;
+
+	/**
+	 * @param changeLog The change log to poll.
+	 * @param interval The delay between two polls, in milliseconds.
+	 * @param overlap The window read again before the cursor on each poll, in milliseconds.
+	 */
+	public TokenChangeLogPoller(TokenChangeLog changeLog, long interval, long overlap) {
+		this.changeLog = changeLog;
+		this.interval = interval;
+		this.overlap = overlap;
+	}
+
+	/**
+	 * Starts delivering the changes to the query, starting the polling thread with the first query.
+	 */
+	public synchronized void register(TokenContinuousQuery query) {
+		queries.add(query);
+		if (executor == null) {
+			started = System.currentTimeMillis();
+			cursor = started;
+			executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				final Thread thread = new Thread(runnable, "CTSChangeLogPoller");
+				thread.setDaemon(true);
+				return thread;
+			});
+			executor.scheduleWithFixedDelay(this, interval, interval, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Stops delivering the changes to the query, stopping the polling thread with the last query.
+	 */
+	public synchronized void unregister(TokenContinuousQuery query) {
+		queries.remove(query);
+		if (queries.isEmpty() && executor != null) {
+			executor.shutdownNow();
+			executor = null;
+			delivered.clear();
+		}
+	}
+
+	@Override
+	public void run() {
+		try {
+			poll(System.currentTimeMillis());
+		} catch (Throwable e) {
+			logger.error("poll {}: {}", changeLog, e.toString());
+		}
+	}
+
+	synchronized void poll(long now) {
+		final long from = Math.max(Math.max(cursor - overlap, started), now - TimeUnit.SECONDS.toMillis(changeLog.ttl));
+		final List<TokenChangeLog.Change> changes;
+		try {
+			changes = changeLog.read(from, now);
+		} catch (Throwable e) {
+			// the cursor is kept, the missed changes are read once the change log is reachable again
+			if (!failed) {
+				failed = true;
+				logger.warn("poll {}: {}", changeLog, e.toString());
+				for (TokenContinuousQuery query : queries) {
+					query.connectionLost();
+				}
+			}
+			return;
+		}
+		failed = false;
+		for (TokenChangeLog.Change change : changes) {
+			if (delivered.putIfAbsent(change.getChangeId(), change.getTimestamp()) == null) {
+				for (TokenContinuousQuery query : queries) {
+					query.changed(change);
+				}
+			}
+		}
+		final long next = now - overlap;
+		delivered.values().removeIf(timestamp -> timestamp < next);
+		cursor = now;
+	}
+}
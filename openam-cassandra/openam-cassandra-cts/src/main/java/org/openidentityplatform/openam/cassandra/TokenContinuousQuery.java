@@ -0,0 +1,110 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+
+package org.openidentityplatform.openam.cassandra;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+import org.forgerock.openam.cts.api.filter.TokenFilter;
+import org.forgerock.openam.cts.continuous.ContinuousQuery;
+import org.forgerock.openam.cts.continuous.ContinuousQueryListener;
+import org.forgerock.openam.tokens.CoreTokenField;
+import org.forgerock.opendj.ldap.Attribute;
+import org.forgerock.opendj.ldap.LinkedAttribute;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link ContinuousQuery} driven by the {@link TokenChangeLogPoller}: each change read from the change log is matched
+ * against the query filter and passed to the listeners with the requested attributes, the same way the LDAP
+ * persistent search reports them.
+ */
+public class TokenContinuousQuery implements ContinuousQuery {
+	final static Logger logger = LoggerFactory.getLogger(TokenContinuousQuery.class);
+
+	final TokenChangeLogPoller poller;
+	final TokenFilter filter;
+	final Set<String> returnFields = new TreeSet<String>(String.CASE_INSENSITIVE_ORDER);
+	final Set<ContinuousQueryListener<Attribute>> listeners = new CopyOnWriteArraySet<ContinuousQueryListener<Attribute>>();
+
+	public TokenContinuousQuery(TokenChangeLogPoller poller, TokenFilter filter) {
+		this.poller = poller;
+		this.filter = filter;
+		for (CoreTokenField field : filter.getReturnFields()) {
+			returnFields.add(field.toString());
+		}
+	}
+
+	@Override
+	public void startQuery() {
+		poller.register(this);
+	}
+
+	@Override
+	public void stopQuery() {
+		listeners.clear();
+		poller.unregister(this);
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	@Override
+	public ContinuousQuery addContinuousQueryListener(ContinuousQueryListener listener) {
+		listeners.add(listener);
+		return this;
+	}
+
+	@SuppressWarnings("rawtypes")
+	@Override
+	public ContinuousQuery removeContinuousQueryListener(ContinuousQueryListener listener) {
+		listeners.remove(listener);
+		return this;
+	}
+
+	void changed(TokenChangeLog.Change change) {
+		if (listeners.isEmpty() || !filter.getQuery().accept(TokenFilterMatcher.INSTANCE, change.getAttributes())) {
+			return;
+		}
+		final Map<String, Attribute> changeSet = new HashMap<String, Attribute>();
+		for (Entry<String, String> attribute : change.getAttributes().entrySet()) {
+			if (returnFields.isEmpty() || returnFields.contains(attribute.getKey())) {
+				changeSet.put(attribute.getKey(), new LinkedAttribute(attribute.getKey(), attribute.getValue()));
+			}
+		}
+		for (ContinuousQueryListener<Attribute> listener : listeners) {
+			try {
+				listener.objectChanged(change.getTokenId(), changeSet, change.getChangeType());
+			} catch (Throwable e) {
+				logger.warn("objectChanged {} {}: {}", change.getChangeType(), change.getTokenId(), e.toString());
+			}
+		}
+	}
+
+	void connectionLost() {
+		for (ContinuousQueryListener<Attribute> listener : listeners) {
+			listener.connectionLost();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return filter.toString();
+	}
+}
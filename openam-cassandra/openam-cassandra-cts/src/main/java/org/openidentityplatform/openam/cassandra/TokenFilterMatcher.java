@@ -0,0 +1,133 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+
+package org.openidentityplatform.openam.cassandra;
+
+import java.util.List;
+import java.util.Map;
+
+import org.forgerock.openam.cts.api.fields.CoreTokenFieldTypes;
+import org.forgerock.openam.tokens.CoreTokenField;
+import org.forgerock.util.query.QueryFilter;
+
+/**
+ * Evaluates a CTS query filter against the attributes of a {@link TokenChangeLog.Change}, in their change log
+ * representation. Extended matches cannot be evaluated and are treated as matching, so a listener may receive a
+ * change it does not need but never misses one.
+ */
+public class TokenFilterMatcher implements org.forgerock.util.query.QueryFilterVisitor<Boolean, Map<String, String>, CoreTokenField> {
+
+	static final TokenFilterMatcher INSTANCE = new TokenFilterMatcher();
+
+	@Override
+	public Boolean visitAndFilter(Map<String, String> attributes, List<QueryFilter<CoreTokenField>> subFilters) {
+		for (QueryFilter<CoreTokenField> subFilter : subFilters) {
+			if (!subFilter.accept(this, attributes)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public Boolean visitOrFilter(Map<String, String> attributes, List<QueryFilter<CoreTokenField>> subFilters) {
+		for (QueryFilter<CoreTokenField> subFilter : subFilters) {
+			if (subFilter.accept(this, attributes)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public Boolean visitNotFilter(Map<String, String> attributes, QueryFilter<CoreTokenField> subFilter) {
+		return !subFilter.accept(this, attributes);
+	}
+
+	@Override
+	public Boolean visitBooleanLiteralFilter(Map<String, String> attributes, boolean value) {
+		return value;
+	}
+
+	@Override
+	public Boolean visitPresentFilter(Map<String, String> attributes, CoreTokenField field) {
+		return attributes.containsKey(field.toString());
+	}
+
+	@Override
+	public Boolean visitEqualsFilter(Map<String, String> attributes, CoreTokenField field, Object value) {
+		final String actual = attributes.get(field.toString());
+		return actual != null && actual.equals(TokenChangeLog.encode(value));
+	}
+
+	@Override
+	public Boolean visitContainsFilter(Map<String, String> attributes, CoreTokenField field, Object value) {
+		final String actual = attributes.get(field.toString());
+		return actual != null && actual.contains(TokenChangeLog.encode(value));
+	}
+
+	@Override
+	public Boolean visitStartsWithFilter(Map<String, String> attributes, CoreTokenField field, Object value) {
+		final String actual = attributes.get(field.toString());
+		return actual != null && actual.startsWith(TokenChangeLog.encode(value));
+	}
+
+	@Override
+	public Boolean visitGreaterThanFilter(Map<String, String> attributes, CoreTokenField field, Object value) {
+		final Integer res = compare(attributes, field, value);
+		return res != null && res > 0;
+	}
+
+	@Override
+	public Boolean visitGreaterThanOrEqualToFilter(Map<String, String> attributes, CoreTokenField field, Object value) {
+		final Integer res = compare(attributes, field, value);
+		return res != null && res >= 0;
+	}
+
+	@Override
+	public Boolean visitLessThanFilter(Map<String, String> attributes, CoreTokenField field, Object value) {
+		final Integer res = compare(attributes, field, value);
+		return res != null && res < 0;
+	}
+
+	@Override
+	public Boolean visitLessThanOrEqualToFilter(Map<String, String> attributes, CoreTokenField field, Object value) {
+		final Integer res = compare(attributes, field, value);
+		return res != null && res <= 0;
+	}
+
+	@Override
+	public Boolean visitExtendedMatchFilter(Map<String, String> attributes, CoreTokenField field, String operator, Object value) {
+		return true;
+	}
+
+	/**
+	 * Compares the attribute with the value, numerically for dates and integers.
+	 *
+	 * @return The comparison result, or null when the token has no such attribute.
+	 */
+	Integer compare(Map<String, String> attributes, CoreTokenField field, Object value) {
+		final String actual = attributes.get(field.toString());
+		if (actual == null) {
+			return null;
+		}
+		final String expected = TokenChangeLog.encode(value);
+		if (CoreTokenFieldTypes.isCalendar(field) || CoreTokenFieldTypes.isInteger(field)) {
+			return Long.compare(Long.parseLong(actual), Long.parseLong(expected));
+		}
+		return actual.compareTo(expected);
+	}
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2019 Open Identity Platform Community.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
 package org.openidentityplatform.openam.cassandra;
@@ -29,6 +30,8 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.Set;
@@ -40,16 +43,20 @@ import org.apache.commons.lang3.StringUtils;
 import org.forgerock.openam.cts.api.fields.CoreTokenFieldTypes;
 import org.forgerock.openam.cts.api.filter.TokenFilter;
 import org.forgerock.openam.cts.api.tokens.Token;
+import org.forgerock.openam.cts.continuous.ChangeType;
 import org.forgerock.openam.cts.continuous.ContinuousQuery;
 import org.forgerock.openam.cts.continuous.ContinuousQueryListener;
 import org.forgerock.openam.sm.datalayer.api.ConnectionFactory;
 import org.forgerock.openam.sm.datalayer.api.DataLayerException;
 import org.forgerock.openam.sm.datalayer.api.LdapOperationFailedException;
 import org.forgerock.openam.sm.datalayer.api.OptimisticConcurrencyCheckFailedException;
+import org.forgerock.openam.sm.datalayer.api.PipelinedTokenStorageAdapter;
 import org.forgerock.openam.sm.datalayer.api.query.PartialToken;
 import org.forgerock.openam.tokens.CoreTokenField;
 import org.forgerock.openam.tokens.TokenType;
 import org.forgerock.util.Options;
+import org.forgerock.util.promise.Promise;
+import org.forgerock.util.promise.PromiseImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.*;
@@ -63,21 +70,46 @@ import com.datastax.oss.driver.api.querybuilder.relation.Relation;
 import com.datastax.oss.driver.api.querybuilder.select.Select;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.iplanet.am.util.SystemProperties;
 
-public class TokenStorageAdapter implements org.forgerock.openam.sm.datalayer.api.TokenStorageAdapter {
+/**
+ * CTS token storage on Cassandra.
+ * <p>
+ * Writes batched by the CTS queue are issued through the {@link PipelinedTokenStorageAdapter} methods, which return
+ * as soon as the request is sent and bound the requests in flight per node with a {@link RequestWindow}.
+ */
+public class TokenStorageAdapter implements PipelinedTokenStorageAdapter {
 	final static Logger logger = LoggerFactory.getLogger(TokenStorageAdapter.class);
 
+	/** Whether token changes are written to the change log driving the continuous queries. Disabled by default. */
+	public static final String CHANGES_ENABLED = "org.openidentityplatform.openam.cassandra.cts.changes.enabled";
+	/** Time to live of the change log entries, in seconds. */
+	public static final String CHANGES_TTL = "org.openidentityplatform.openam.cassandra.cts.changes.ttl";
+	/** Delay between two polls of the change log, in milliseconds. */
+	public static final String CHANGES_POLL_INTERVAL = "org.openidentityplatform.openam.cassandra.cts.changes.poll";
+	/** Window read again before the cursor on each poll of the change log, in milliseconds. */
+	public static final String CHANGES_POLL_OVERLAP = "org.openidentityplatform.openam.cassandra.cts.changes.overlap";
+	/** Delay during which change log entries are grouped into unlogged batches per partition, in milliseconds. */
+	public static final String CHANGES_BATCH_DELAY = "org.openidentityplatform.openam.cassandra.cts.changes.batch.delay";
+	/** Maximum number of asynchronous operations in flight to each Cassandra node. */
+	public static final String ASYNC_WINDOW = "org.openidentityplatform.openam.cassandra.cts.async.window";
+
 	private final DataLayerConfiguration cfg;
+	private final QueryPlanner planner;
 	static ConnectionFactory<CqlSession> connectionFactory;
 
 	static PreparedStatement static_statement_read;
 	static PreparedStatement static_statement_delete;
 	static PreparedStatement static_statement_update;
+	static TokenChangeLog static_change_log;
+	static TokenChangeLogPoller static_change_log_poller;
+	static RequestWindow static_request_window;
 	
 	@SuppressWarnings({ "rawtypes", "unchecked" })
 	@Inject
-	public TokenStorageAdapter(DataLayerConfiguration dataLayerConfiguration,ConnectionFactory connectionFactoryIn) throws DataLayerException {
+	public TokenStorageAdapter(DataLayerConfiguration dataLayerConfiguration,ConnectionFactory connectionFactoryIn,QueryPlanner planner) throws DataLayerException {
 		this.cfg = dataLayerConfiguration;
+		this.planner = planner;
 		connectionFactory = connectionFactoryIn;
 	}
 
@@ -102,35 +134,94 @@ public class TokenStorageAdapter implements org.forgerock.openam.sm.datalayer.ap
 		return static_statement_update;
 	}
 	
-	public Token update(Token token, boolean ifExists) throws DataLayerException {
-		try {
-			BoundStatement statement=get_statement_update().bind().setInt("ttl", new Long(Math.min(((token.getExpiryTimestamp().getTimeInMillis() - System.currentTimeMillis()) / 1000)+5*60,24*60*60)).intValue());
-			for (CoreTokenField field : CoreTokenField.values()) {
-				Object value = null;
-				try {
-					value = token.getAttribute(field);
-				}catch (Throwable e) {
-					logger.warn("create {} for {} {}",e.toString(),field,token);
-					throw e;
-				}
-				if (value!=null) {
-					if (value instanceof TokenType) {
-						statement=statement.setString(field.toString(), value.toString());
-					}else if (CoreTokenFieldTypes.isCalendar(field)) {
-						statement=statement.setInstant(field.toString(), ((Calendar) value).toInstant());
-					}else if (value instanceof byte[]) {
-						statement=statement.setByteBuffer(field.toString(), ByteBuffer.wrap((byte[]) value));
-					}else if (value instanceof String) {
-						statement=statement.setString(field.toString(), (String)value);
-					}else if (value instanceof Integer) {
-						statement=statement.setInt(field.toString(), (Integer)value);
-					}
+	TokenChangeLog get_change_log() throws DataLayerException {
+		synchronized (TokenStorageAdapter.class) {
+			if (static_change_log==null) {
+				static_change_log=new TokenChangeLog(getSession(), cfg.getTableName()+"_changes", SystemProperties.getAsInt(CHANGES_TTL, 300), SystemProperties.getAsLong(CHANGES_BATCH_DELAY, 5));
+			}
+			return static_change_log;
+		}
+	}
+
+	TokenChangeLogPoller get_change_log_poller() throws DataLayerException {
+		synchronized (TokenStorageAdapter.class) {
+			if (static_change_log_poller==null) {
+				static_change_log_poller=new TokenChangeLogPoller(get_change_log(), SystemProperties.getAsLong(CHANGES_POLL_INTERVAL, 1000), SystemProperties.getAsLong(CHANGES_POLL_OVERLAP, 5000));
+			}
+			return static_change_log_poller;
+		}
+	}
+
+	boolean isChangeLogEnabled() {
+		return SystemProperties.getAsBoolean(CHANGES_ENABLED, false);
+	}
+
+	void recordChange(Token token, ChangeType changeType) {
+		if (isChangeLogEnabled()) {
+			try {
+				get_change_log().record(token, changeType);
+			} catch (Throwable e) {
+				logger.warn("record {} {}: {}", changeType, token.getTokenId(), e.toString());
+			}
+		}
+	}
+
+	/**
+	 * Returns the change log to record the changes of an asynchronous operation in, or null if it is disabled. Must be
+	 * called before going asynchronous: creating the change log blocks on Cassandra, which the driver rejects on its
+	 * I/O threads where the completion callbacks run.
+	 */
+	TokenChangeLog get_change_log_for_async() throws DataLayerException {
+		return isChangeLogEnabled() ? get_change_log() : null;
+	}
+
+	static void recordChange(TokenChangeLog changeLog, Token token, ChangeType changeType) {
+		if (changeLog != null) {
+			try {
+				changeLog.record(token, changeType);
+			} catch (Throwable e) {
+				logger.warn("record {} {}: {}", changeType, token.getTokenId(), e.toString());
+			}
+		}
+	}
+
+	BoundStatement bind_update(Token token) throws DataLayerException {
+		BoundStatement statement=get_statement_update().bind().setInt("ttl", new Long(Math.min(((token.getExpiryTimestamp().getTimeInMillis() - System.currentTimeMillis()) / 1000)+5*60,24*60*60)).intValue());
+		for (CoreTokenField field : CoreTokenField.values()) {
+			Object value = null;
+			try {
+				value = token.getAttribute(field);
+			}catch (Throwable e) {
+				logger.warn("create {} for {} {}",e.toString(),field,token);
+				throw e;
+			}
+			if (value!=null) {
+				if (value instanceof TokenType) {
+					statement=statement.setString(field.toString(), value.toString());
+				}else if (CoreTokenFieldTypes.isCalendar(field)) {
+					statement=statement.setInstant(field.toString(), ((Calendar) value).toInstant());
+				}else if (value instanceof byte[]) {
+					statement=statement.setByteBuffer(field.toString(), ByteBuffer.wrap((byte[]) value));
+				}else if (value instanceof String) {
+					statement=statement.setString(field.toString(), (String)value);
+				}else if (value instanceof Integer) {
+					statement=statement.setInt(field.toString(), (Integer)value);
 				}
 			}
+		}
+		return statement;
+	}
+
+	public Token update(Token token, boolean ifExists) throws DataLayerException {
+		try {
+			final BoundStatement statement=bind_update(token);
 			if (!ifExists) {
 				new ExecuteCallback(ConnectionFactoryProvider.profile,getSession(), statement).execute();
+				recordChange(token, ChangeType.ADD);
 			}else {
-				new ExecuteCallback(ConnectionFactoryProvider.profile,getSession(), statement).executeAsync();
+				final TokenChangeLog changeLog=get_change_log_for_async();
+				new ExecuteCallback(ConnectionFactoryProvider.profile,getSession(), statement).executeAsync()
+					.thenAccept(result -> recordChange(changeLog, token, ChangeType.MODIFY));
 			}
 		} catch (Throwable e) {
 			throw new DataLayerException("update", e);
@@ -186,6 +277,7 @@ public class TokenStorageAdapter implements org.forgerock.openam.sm.datalayer.ap
 			Token token = read(tokenId,options);
 			if (token != null) {
 				new ExecuteCallback(ConnectionFactoryProvider.profile,getSession(),get_statement_delete().bind().setString(CoreTokenField.TOKEN_ID.toString(), tokenId)).execute();
+				recordChange(token, ChangeType.DELETE);
 				
 				final Map<CoreTokenField, Object> entry=new HashMap<CoreTokenField, Object>();
 				entry.put(CoreTokenField.TOKEN_ID, token.getAttribute(CoreTokenField.TOKEN_ID));
@@ -197,6 +289,101 @@ public class TokenStorageAdapter implements org.forgerock.openam.sm.datalayer.ap
 		return ptoken;
 	}
 
+	RequestWindow get_request_window() {
+		synchronized (TokenStorageAdapter.class) {
+			if (static_request_window==null) {
+				static_request_window=new RequestWindow(SystemProperties.getAsInt(ASYNC_WINDOW, 128));
+			}
+			return static_request_window;
+		}
+	}
+
+	CompletionStage<Token> updateAsync(Token token, ChangeType changeType) {
+		try {
+			final CqlSession session=getSession();
+			final BoundStatement statement=bind_update(token);
+			final TokenChangeLog changeLog=get_change_log_for_async();
+			return get_request_window().<Token>submit(session, statement, () ->
+				new ExecuteCallback(ConnectionFactoryProvider.profile,session,statement).executeAsync()
+					.thenApply(result -> {
+						recordChange(changeLog, token, changeType);
+						return token;
+					})
+			);
+		} catch (Throwable e) {
+			return failed(e);
+		}
+	}
+
+	/**
+	 * Issues the creation of the token without waiting for Cassandra, within the in-flight window of the node owning
+	 * the token.
+	 */
+	@Override
+	public Promise<Token, DataLayerException> createAsync(Token token, Options options) {
+		return promise("create", updateAsync(token, ChangeType.ADD));
+	}
+
+	/**
+	 * Issues the update of the token without waiting for Cassandra, within the in-flight window of the node owning
+	 * the token.
+	 */
+	@Override
+	public Promise<Token, DataLayerException> updateAsync(Token previous, Token updated, Options options) {
+		return promise("update", updateAsync(updated, ChangeType.MODIFY));
+	}
+
+	/**
+	 * Issues the deletion of the token without waiting for Cassandra: the token is read to report its attributes
+	 * to the change log, then deleted from the driver callback, both within a single permit of the in-flight window.
+	 */
+	@Override
+	public Promise<PartialToken, DataLayerException> deleteAsync(String tokenId, Options options) {
+		try {
+			final CqlSession session=getSession();
+			final BoundStatement read=get_statement_read().bind().setString(CoreTokenField.TOKEN_ID.toString(), tokenId);
+			final BoundStatement delete=get_statement_delete().bind().setString(CoreTokenField.TOKEN_ID.toString(), tokenId);
+			final TokenChangeLog changeLog=get_change_log_for_async();
+			return promise("delete", get_request_window().<PartialToken>submit(session, read, () ->
+				new ExecuteCallback(ConnectionFactoryProvider.profile,session,read).executeAsync()
+					.<PartialToken>thenCompose(rows -> {
+						final Row row=rows.one();
+						if (row==null) {
+							return CompletableFuture.<PartialToken>completedFuture(null);
+						}
+						final Token token=Row2Token(row);
+						return new ExecuteCallback(ConnectionFactoryProvider.profile,session,delete).executeAsync()
+							.thenApply(result -> {
+								recordChange(changeLog, token, ChangeType.DELETE);
+								final Map<CoreTokenField, Object> entry=new HashMap<CoreTokenField, Object>();
+								entry.put(CoreTokenField.TOKEN_ID, token.getTokenId());
+								return new PartialToken(entry);
+							});
+					})
+			));
+		} catch (Throwable e) {
+			return promise("delete", TokenStorageAdapter.<PartialToken>failed(e));
+		}
+	}
+
+	static <T> CompletionStage<T> failed(Throwable e) {
+		final CompletableFuture<T> res=new CompletableFuture<T>();
+		res.completeExceptionally(e);
+		return res;
+	}
+
+	static <T> Promise<T, DataLayerException> promise(String operation, CompletionStage<T> stage) {
+		final PromiseImpl<T, DataLayerException> res=PromiseImpl.create();
+		stage.whenComplete((result, error) -> {
+			if (error!=null) {
+				res.handleException(error instanceof DataLayerException ? (DataLayerException)error : new DataLayerException(operation, error));
+			}else {
+				res.handleResult(result);
+			}
+		});
+		return res;
+	}
+
 	static Cache<String, PreparedStatement> preparedCache=CacheBuilder.newBuilder()
 			.expireAfterAccess(15, TimeUnit.MINUTES)
 			.maximumSize(1024*10)
@@ -225,18 +412,22 @@ public class TokenStorageAdapter implements org.forgerock.openam.sm.datalayer.ap
 		final Collection<Token> res = new ArrayList<Token>();
 		try {
 			final Filter filter=query.getQuery().accept(new org.openidentityplatform.openam.cassandra.QueryFilterVisitor(),null);
-			Select select=selectFrom(filter.getTable()).all();
+			final QueryPlanner.Plan plan=planner.plan(getSession(), filter);
+			if (plan.isScan()) {
+				logger.debug("query {}: {}",query,plan);
+			}
+			Select select=selectFrom(plan.getTable()).all();
     		for(Relation clause : filter.clauses) { 
     			select=select.where(clause);
     		}
-    		if (filter.allowFilter()) {
+    		if (plan.isAllowFiltering()) {
     			select=select.allowFiltering();
     		}
     		if (query.getSizeLimit()>0) {
     			select=select.limit(query.getSizeLimit());
     		}
     		BoundStatement statement=getPreparedStatement(select.build()).bind();
-    		for (Entry<String, Object> field2value : filter.field2value.entrySet()) {
+    		for (Entry<String, Object> field2value : filter.marker2value.entrySet()) {
     			final Object value=field2value.getValue();
     			if (value!=null) {
 					if (value instanceof TokenType) {
@@ -252,6 +443,7 @@ public class TokenStorageAdapter implements org.forgerock.openam.sm.datalayer.ap
 					}
 				}
 			}
+    		statement=statement.setPageSize(QueryPlanner.getPageSize(0));
     		if (query.getTimeLimit().getValue()>0 && query.getTimeLimit().to(TimeUnit.MILLISECONDS)<=Integer.MAX_VALUE) {
     			statement=statement.setTimeout(Duration.ofMillis(query.getTimeLimit().to(TimeUnit.MILLISECONDS)));
     		}
@@ -284,15 +476,19 @@ public class TokenStorageAdapter implements org.forgerock.openam.sm.datalayer.ap
 				requestedAttributes.add(tokenField.toString());
 			requestedAttributes.add("coreTokenId");
 			final Filter filter=query.getQuery().accept(new org.openidentityplatform.openam.cassandra.QueryFilterVisitor(),null);
-    		Select select=selectFrom(filter.getTable()).columns(requestedAttributes.toArray(new String[0]));
+			final QueryPlanner.Plan plan=planner.plan(getSession(), filter);
+			if (plan.isScan()) {
+				logger.debug("partialQuery {}: {}",query,plan);
+			}
+    		Select select=selectFrom(plan.getTable()).columns(requestedAttributes.toArray(new String[0]));
     		for(Relation clause : filter.clauses) { 
     			select=select.where(clause);
     		}
-    		if (filter.allowFilter()) {
+    		if (plan.isAllowFiltering()) {
     			select=select.allowFiltering();
     		}
     		BoundStatement statement=getPreparedStatement(select.build()).bind();
-    		for (Entry<String, Object> field2value : filter.field2value.entrySet()) {
+    		for (Entry<String, Object> field2value : filter.marker2value.entrySet()) {
     			final Object value=field2value.getValue();
     			if (value!=null) {
 					if (value instanceof TokenType) {
@@ -308,6 +504,7 @@ public class TokenStorageAdapter implements org.forgerock.openam.sm.datalayer.ap
 					}
 				}
 			}
+    		statement=statement.setPageSize(QueryPlanner.getPageSize(0));
     		if (query.getTimeLimit().getValue()>0 && query.getTimeLimit().to(TimeUnit.MILLISECONDS)<=Integer.MAX_VALUE) {
     			statement=statement.setTimeout(Duration.ofMillis(query.getTimeLimit().to(TimeUnit.MILLISECONDS)));
     		}
@@ -320,7 +517,7 @@ public class TokenStorageAdapter implements org.forgerock.openam.sm.datalayer.ap
 		return res;
 	}
 
-	Token Row2Token(Row row) {
+	public static Token Row2Token(Row row) {
 		final Token res = new Token(row.getString(CoreTokenField.TOKEN_ID.toString()), TokenType.valueOf(row.getString(CoreTokenField.TOKEN_TYPE.toString())));
 		for (CoreTokenField field : CoreTokenField.values()) {
 			Object value = null;
@@ -379,7 +576,9 @@ public class TokenStorageAdapter implements org.forgerock.openam.sm.datalayer.ap
 	}
 
     /**
-     * Performs a continuous query using the provided filter.
+     * Performs a continuous query using the provided filter. The query is driven by the {@link TokenChangeLog}
+     * polled by the {@link TokenChangeLogPoller} shared by all the continuous queries of this server. Unless the
+     * change log is enabled by {@link #CHANGES_ENABLED}, the returned query never reports any change.
      *
      * @param filter The non null filter specification.
      * @throws DataLayerException If the operation failed, this exception will capture the reason.
@@ -387,23 +586,35 @@ public class TokenStorageAdapter implements org.forgerock.openam.sm.datalayer.ap
 	@SuppressWarnings("rawtypes")
 	@Override
 	public ContinuousQuery startContinuousQuery(TokenFilter filter, ContinuousQueryListener listener) throws DataLayerException {
-		logger.debug("startContinuousQuery {} {} not implemented",filter,listener);
-		return new ContinuousQuery() {
-			@Override
-			public void stopQuery() {
-			}
-			@Override
-			public void startQuery() throws DataLayerException {
-			}
-			@Override
-			public ContinuousQuery removeContinuousQueryListener(ContinuousQueryListener listener) {
-				return this;
-			}
-			@Override
-			public ContinuousQuery addContinuousQueryListener(ContinuousQueryListener listener) {
-				return this;
-			}
-		};
+		if (!isChangeLogEnabled()) {
+			logger.debug("startContinuousQuery {} {}: change log is disabled by {}",filter,listener,CHANGES_ENABLED);
+			return new ContinuousQuery() {
+				@Override
+				public void stopQuery() {
+				}
+				@Override
+				public void startQuery() throws DataLayerException {
+				}
+				@Override
+				public ContinuousQuery removeContinuousQueryListener(ContinuousQueryListener listener) {
+					return this;
+				}
+				@Override
+				public ContinuousQuery addContinuousQueryListener(ContinuousQueryListener listener) {
+					return this;
+				}
+			};
+		}
+		try {
+			final ContinuousQuery query=new TokenContinuousQuery(get_change_log_poller(), filter);
+			query.addContinuousQueryListener(listener);
+			query.startQuery();
+			return query;
+		} catch (DataLayerException e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new DataLayerException(MessageFormat.format("startContinuousQuery {0}", filter), e);
+		}
 	}
 	
 	CqlSession getSession() throws DataLayerException {
@@ -0,0 +1,142 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+
+package org.openidentityplatform.openam.cassandra;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.forgerock.openam.cts.api.CoreTokenConstants;
+import org.forgerock.openam.cts.api.tokens.Token;
+import org.forgerock.openam.cts.continuous.ChangeType;
+import org.forgerock.openam.sm.datalayer.api.ConnectionFactory;
+import org.forgerock.openam.sm.datalayer.api.DataLayerException;
+import org.forgerock.openam.sm.datalayer.api.query.PartialToken;
+import org.forgerock.openam.tokens.CoreTokenField;
+import org.forgerock.openam.tokens.TokenType;
+import org.forgerock.util.Options;
+import org.forgerock.util.promise.Promise;
+import org.forgerock.util.promise.Promises;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.openidentityplatform.openam.cassandra.embedded.Server;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+
+public class PipelinedTokenStorageAdapterTest {
+
+	static Server cassandra;
+	static CqlSession session;
+	static TokenStorageAdapter adapter;
+
+	@BeforeClass
+	public static void init() throws DataLayerException {
+		System.setProperty("datastax-java-driver.advanced.auth-provider.class","PlainTextAuthProvider");
+		System.setProperty("datastax-java-driver.advanced.auth-provider.username","cassandra");
+		System.setProperty("datastax-java-driver.advanced.auth-provider.password","cassandra");
+		System.setProperty(Server.class.getPackage().getName()+".import","schema.cqlsh");
+		System.setProperty(CoreTokenConstants.CTS_ROOT_SUFFIX,"cts.tokens");
+		System.setProperty(TokenStorageAdapter.ASYNC_WINDOW,"4");
+		System.setProperty(TokenStorageAdapter.CHANGES_ENABLED,"true");
+		cassandra=new Server();
+		cassandra.run();
+		session=CqlSession.builder().withApplicationName("OpenAM CTS test").withKeyspace("cts").build();
+		final DataLayerConfiguration cfg=new DataLayerConfiguration("dc=openam,dc=openidentityplatform,dc=org");
+		adapter=new TokenStorageAdapter(cfg, new ConnectionFactory<CqlSession>() {
+			@Override
+			public Promise<CqlSession, DataLayerException> createAsync() {
+				return Promises.newResultPromise(session);
+			}
+			@Override
+			public CqlSession create() {
+				return session;
+			}
+			@Override
+			public void close() {
+			}
+			@Override
+			public boolean isValid(CqlSession connection) {
+				return true;
+			}
+		}, new QueryPlanner(cfg));
+	}
+
+	@AfterClass
+	public static void destroy() {
+		if (session!=null) {
+			session.close();
+		}
+	}
+
+	@Test
+	public void create_async_test() throws Exception {
+		final long started=System.currentTimeMillis();
+		final List<Token> tokens=new ArrayList<Token>();
+		final List<Promise<Token, DataLayerException>> results=new ArrayList<Promise<Token, DataLayerException>>();
+		for (int i=0; i<50; i++) {
+			final Token token=token();
+			tokens.add(token);
+			results.add(adapter.createAsync(token, Options.defaultOptions()));
+		}
+		for (int i=0; i<tokens.size(); i++) {
+			assertEquals(tokens.get(i).getTokenId(), results.get(i).getOrThrow().getTokenId());
+			assertNotNull(adapter.read(tokens.get(i).getTokenId(), Options.defaultOptions()));
+		}
+
+		final Set<String> recorded=new HashSet<String>();
+		for (int i=0; i<50 && recorded.size()<tokens.size(); i++) {
+			Thread.sleep(100);
+			recorded.clear();
+			for (TokenChangeLog.Change change : adapter.get_change_log().read(started, System.currentTimeMillis())) {
+				if (change.getChangeType()==ChangeType.ADD) {
+					recorded.add(change.getTokenId());
+				}
+			}
+		}
+		for (Token token : tokens) {
+			assertTrue(recorded.contains(token.getTokenId()));
+		}
+	}
+
+	@Test
+	public void delete_async_test() throws Exception {
+		final Token token=token();
+		adapter.createAsync(token, Options.defaultOptions()).getOrThrow();
+
+		final PartialToken deleted=adapter.deleteAsync(token.getTokenId(), Options.defaultOptions()).getOrThrow();
+		assertEquals(token.getTokenId(), deleted.getValue(CoreTokenField.TOKEN_ID));
+		assertNull(adapter.read(token.getTokenId(), Options.defaultOptions()));
+		assertNull(adapter.deleteAsync(token.getTokenId(), Options.defaultOptions()).getOrThrow());
+	}
+
+	static Token token() {
+		final Token token=new Token(UUID.randomUUID().toString(), TokenType.SESSION);
+		final Calendar expiry=Calendar.getInstance();
+		expiry.add(Calendar.MINUTE, 5);
+		token.setExpiryTimestamp(expiry);
+		return token;
+	}
+}
@@ -0,0 +1,190 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+
+package org.openidentityplatform.openam.cassandra;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Instant;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.UUID;
+
+import org.forgerock.openam.cts.api.CoreTokenConstants;
+import org.forgerock.openam.sm.datalayer.api.query.PartialToken;
+import org.forgerock.openam.tokens.CoreTokenField;
+import org.forgerock.openam.tokens.TokenType;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.openidentityplatform.openam.cassandra.embedded.Server;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.sun.identity.shared.debug.Debug;
+
+public class QueryPlannerTest {
+
+	static Server cassandra;
+	static CqlSession session;
+	static DataLayerConfiguration cfg;
+	static QueryPlanner planner;
+
+	@BeforeClass
+	public static void init() {
+		System.setProperty("datastax-java-driver.advanced.auth-provider.class","PlainTextAuthProvider");
+		System.setProperty("datastax-java-driver.advanced.auth-provider.username","cassandra");
+		System.setProperty("datastax-java-driver.advanced.auth-provider.password","cassandra");
+		System.setProperty(Server.class.getPackage().getName()+".import","schema.cqlsh");
+		System.setProperty(CoreTokenConstants.CTS_ROOT_SUFFIX,"cts.tokens");
+		cassandra=new Server();
+		cassandra.run();
+		session=CqlSession.builder().withApplicationName("OpenAM CTS test").withKeyspace("cts").build();
+		cfg=new DataLayerConfiguration("dc=openam,dc=openidentityplatform,dc=org");
+		planner=new QueryPlanner(cfg);
+	}
+
+	@AfterClass
+	public static void destroy() {
+		if (session!=null) {
+			session.close();
+		}
+	}
+
+	@Test
+	public void token_id_test() {
+		final QueryPlanner.Plan plan=planner.plan(session, filter().equality(CoreTokenField.TOKEN_ID, "id"));
+		assertEquals("tokens", plan.getTable());
+		assertFalse(plan.isAllowFiltering());
+		assertFalse(plan.isScan());
+	}
+
+	@Test
+	public void lookup_view_test() {
+		final QueryPlanner.Plan plan=planner.plan(session, filter()
+				.equality(CoreTokenField.TOKEN_TYPE, TokenType.SESSION.name())
+				.equality(CoreTokenField.USER_ID, "user"));
+		assertEquals("coretokenuserid", plan.getTable());
+		assertTrue(plan.isAllowFiltering());
+		assertFalse(plan.isScan());
+	}
+
+	@Test
+	public void scan_test() {
+		final QueryPlanner.Plan plan=planner.plan(session, filter().lessOrEqual(CoreTokenField.EXPIRY_DATE, Instant.now()));
+		assertEquals("tokens", plan.getTable());
+		assertTrue(plan.isScan());
+	}
+
+	@Test
+	public void index_test() throws InterruptedException {
+		session.execute("create index if not exists on tokens (coreTokenString01)");
+		QueryPlanner.Plan plan=null;
+		for (int i=0; i<100; i++) {
+			plan=planner.plan(session, filter().equality(CoreTokenField.STRING_ONE, "value"));
+			if (!plan.isScan()) {
+				break;
+			}
+			Thread.sleep(100);
+		}
+		assertEquals("tokens", plan.getTable());
+		assertFalse(plan.isScan());
+		assertTrue(planner.plan(session, filter().lessOrEqual(CoreTokenField.STRING_ONE, "value")).isScan());
+	}
+
+	@Test
+	public void paged_query_test() throws Exception {
+		final String user=UUID.randomUUID().toString();
+		final Calendar expiry=Calendar.getInstance();
+		expiry.add(Calendar.MINUTE, 5);
+		for (int i=0; i<25; i++) {
+			session.execute("insert into tokens (coreTokenId,coreTokenType,coreTokenUserId,coreTokenExpirationDate) values (?,?,?,?) using ttl 300",
+					UUID.randomUUID().toString(), TokenType.SESSION.name(), user, expiry.toInstant());
+		}
+		final QueryBuilder builder=new QueryBuilder(Debug.getInstance("QueryPlannerTest"), planner);
+		builder.withFilter(filter().equality(CoreTokenField.USER_ID, user))
+				.returnTheseAttributes(CoreTokenField.TOKEN_ID)
+				.pageResultsBy(10);
+		final Iterator<Collection<PartialToken>> pages=builder.executeAttributeQuery(session);
+		assertEquals(10, pages.next().size());
+		assertEquals(10, pages.next().size());
+		assertEquals(5, pages.next().size());
+		assertFalse(pages.hasNext());
+	}
+
+	@Test
+	public void range_markers_test() {
+		final Instant from=Instant.now();
+		final Instant to=from.plusSeconds(60);
+		final Filter filter=filter().greaterThan(CoreTokenField.EXPIRY_DATE, from).lessOrEqual(CoreTokenField.EXPIRY_DATE, to);
+		assertEquals(2, filter.marker2value.size());
+		final Iterator<Object> values=filter.marker2value.values().iterator();
+		assertEquals(from, values.next());
+		assertEquals(to, values.next());
+	}
+
+	@Test
+	public void range_query_test() throws Exception {
+		final String user=UUID.randomUUID().toString();
+		final Instant now=Instant.now();
+		for (int i=1; i<=5; i++) {
+			session.execute("insert into tokens (coreTokenId,coreTokenType,coreTokenUserId,coreTokenExpirationDate) values (?,?,?,?) using ttl 3600",
+					UUID.randomUUID().toString(), TokenType.SESSION.name(), user, now.plusSeconds(i*60));
+		}
+		final QueryBuilder builder=new QueryBuilder(Debug.getInstance("QueryPlannerTest"), planner);
+		builder.withFilter(filter()
+				.equality(CoreTokenField.USER_ID, user)
+				.greaterThan(CoreTokenField.EXPIRY_DATE, now.plusSeconds(90))
+				.lessOrEqual(CoreTokenField.EXPIRY_DATE, now.plusSeconds(240)))
+				.returnTheseAttributes(CoreTokenField.TOKEN_ID);
+		final Iterator<Collection<PartialToken>> pages=builder.executeAttributeQuery(session);
+		assertEquals(2, pages.next().size());
+		assertFalse(pages.hasNext());
+	}
+
+	static FilterBuilder filter() {
+		return new FilterBuilder();
+	}
+
+	/**
+	 * Builds the filters without the injector used by the {@link Filter} factory methods.
+	 */
+	static class FilterBuilder extends Filter {
+		FilterBuilder() {
+			super(cfg);
+		}
+
+		FilterBuilder equality(CoreTokenField field, Object value) {
+			equalities.add(field.toString());
+			return clause(field, "=", value);
+		}
+
+		FilterBuilder lessOrEqual(CoreTokenField field, Object value) {
+			return clause(field, "<=", value);
+		}
+
+		FilterBuilder greaterThan(CoreTokenField field, Object value) {
+			return clause(field, ">", value);
+		}
+
+		FilterBuilder clause(CoreTokenField field, String operator, Object value) {
+			add(field.toString(), operator, value);
+			return this;
+		}
+	}
+}
@@ -0,0 +1,190 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+
+package org.openidentityplatform.openam.cassandra;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.Calendar;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.openam.cts.api.CoreTokenConstants;
+import org.forgerock.openam.cts.api.fields.SessionTokenField;
+import org.forgerock.openam.cts.api.filter.TokenFilterBuilder;
+import org.forgerock.openam.cts.api.tokens.Token;
+import org.forgerock.openam.cts.continuous.ChangeType;
+import org.forgerock.openam.cts.continuous.ContinuousQuery;
+import org.forgerock.openam.cts.continuous.ContinuousQueryListener;
+import org.forgerock.openam.sm.datalayer.api.ConnectionFactory;
+import org.forgerock.openam.sm.datalayer.api.DataLayerException;
+import org.forgerock.openam.tokens.CoreTokenField;
+import org.forgerock.openam.tokens.TokenType;
+import org.forgerock.opendj.ldap.Attribute;
+import org.forgerock.util.Options;
+import org.forgerock.util.promise.Promise;
+import org.forgerock.util.promise.Promises;
+import org.forgerock.util.query.QueryFilter;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.openidentityplatform.openam.cassandra.embedded.Server;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+
+public class TokenContinuousQueryTest {
+
+	static Server cassandra;
+	static CqlSession session;
+	static TokenStorageAdapter adapter;
+
+	@BeforeClass
+	public static void init() throws DataLayerException {
+		System.setProperty("datastax-java-driver.advanced.auth-provider.class","PlainTextAuthProvider");
+		System.setProperty("datastax-java-driver.advanced.auth-provider.username","cassandra");
+		System.setProperty("datastax-java-driver.advanced.auth-provider.password","cassandra");
+		System.setProperty(Server.class.getPackage().getName()+".import","schema.cqlsh");
+		System.setProperty(CoreTokenConstants.CTS_ROOT_SUFFIX,"cts.tokens");
+		System.setProperty(TokenStorageAdapter.CHANGES_ENABLED,"true");
+		System.setProperty(TokenStorageAdapter.CHANGES_POLL_INTERVAL,"200");
+		cassandra=new Server();
+		cassandra.run();
+		session=CqlSession.builder().withApplicationName("OpenAM CTS test").withKeyspace("cts").build();
+		final DataLayerConfiguration cfg=new DataLayerConfiguration("dc=openam,dc=openidentityplatform,dc=org");
+		adapter=new TokenStorageAdapter(cfg, new ConnectionFactory<CqlSession>() {
+			@Override
+			public Promise<CqlSession, DataLayerException> createAsync() {
+				return Promises.newResultPromise(session);
+			}
+			@Override
+			public CqlSession create() {
+				return session;
+			}
+			@Override
+			public void close() {
+			}
+			@Override
+			public boolean isValid(CqlSession connection) {
+				return true;
+			}
+		}, new QueryPlanner(cfg));
+	}
+
+	@AfterClass
+	public static void destroy() {
+		if (session!=null) {
+			session.close();
+		}
+	}
+
+	@Test
+	public void session_changes_test() throws Exception {
+		final Listener listener=new Listener();
+		final ContinuousQuery query=adapter.startContinuousQuery(sessionFilter(), listener);
+		try {
+			final Token token=token(TokenType.SESSION);
+			adapter.create(token, Options.defaultOptions());
+			Event event=listener.events.poll(10, TimeUnit.SECONDS);
+			assertNotNull(event);
+			assertEquals(token.getTokenId(), event.tokenId);
+			assertEquals(ChangeType.ADD, event.changeType);
+			assertEquals(token.getTokenId()+"-session", event.changeSet.get(SessionTokenField.SESSION_ID.getField().toString()).firstValue().toString());
+
+			adapter.delete(token.getTokenId(), Options.defaultOptions());
+			event=listener.events.poll(10, TimeUnit.SECONDS);
+			assertNotNull(event);
+			assertEquals(token.getTokenId(), event.tokenId);
+			assertEquals(ChangeType.DELETE, event.changeType);
+			assertEquals(token.getTokenId()+"-session", event.changeSet.get(SessionTokenField.SESSION_ID.getField().toString()).firstValue().toString());
+			assertEquals(1, event.changeSet.size());
+		} finally {
+			query.stopQuery();
+		}
+	}
+
+	@Test
+	public void filter_test() throws Exception {
+		final Listener listener=new Listener();
+		final ContinuousQuery query=adapter.startContinuousQuery(sessionFilter(), listener);
+		try {
+			final Token other=token(TokenType.OAUTH);
+			adapter.create(other, Options.defaultOptions());
+			final Token token=token(TokenType.SESSION);
+			adapter.create(token, Options.defaultOptions());
+			final Event event=listener.events.poll(10, TimeUnit.SECONDS);
+			assertNotNull(event);
+			assertEquals(token.getTokenId(), event.tokenId);
+			assertNull(listener.events.poll(1, TimeUnit.SECONDS));
+		} finally {
+			query.stopQuery();
+		}
+	}
+
+	static Token token(TokenType type) {
+		final Token token=new Token(UUID.randomUUID().toString(), type);
+		final Calendar expiry=Calendar.getInstance();
+		expiry.add(Calendar.MINUTE, 5);
+		token.setExpiryTimestamp(expiry);
+		token.setAttribute(SessionTokenField.SESSION_ID.getField(), token.getTokenId()+"-session");
+		return token;
+	}
+
+	static org.forgerock.openam.cts.api.filter.TokenFilter sessionFilter() {
+		return new TokenFilterBuilder()
+				.returnAttribute(SessionTokenField.SESSION_ID.getField())
+				.withQuery(QueryFilter.equalTo(CoreTokenField.TOKEN_TYPE, TokenType.SESSION))
+				.build();
+	}
+
+	static class Event {
+		final String tokenId;
+		final Map<String, Attribute> changeSet;
+		final ChangeType changeType;
+
+		Event(String tokenId, Map<String, Attribute> changeSet, ChangeType changeType) {
+			this.tokenId=tokenId;
+			this.changeSet=changeSet;
+			this.changeType=changeType;
+		}
+	}
+
+	static class Listener implements ContinuousQueryListener<Attribute> {
+		final BlockingQueue<Event> events=new LinkedBlockingQueue<Event>();
+
+		@Override
+		public void objectChanged(String tokenId, Map<String, Attribute> changeSet, ChangeType changeType) {
+			events.add(new Event(tokenId, changeSet, changeType));
+		}
+
+		@Override
+		public void objectsChanged(Set<String> tokenIds) {
+		}
+
+		@Override
+		public void connectionLost() {
+		}
+
+		@Override
+		public void processError(DataLayerException error) {
+		}
+	}
+}
@@ -25,6 +25,7 @@
  * $Id: InternalSession.java,v 1.21 2009/03/20 21:05:25 weisun2 Exp $
  *
  * Portions Copyrighted 2011-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package com.iplanet.dpro.session.service;
 
@@ -47,6 +48,7 @@ import java.util.StringTokenizer;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
 import org.forgerock.guice.core.InjectorHolder;
 import org.forgerock.openam.session.AMSession;
@@ -115,6 +117,11 @@ public class InternalSession implements Serializable, AMSession, SessionPersiste
     private transient AuthContextLocal authContext;
     private transient SessionPersistenceManager persistenceManager;
 
+    /* Counts the persisted updates other than access time refreshes and minor property changes. */
+    private transient volatile long significantUpdateCount;
+    private static final AtomicLongFieldUpdater<InternalSession> SIGNIFICANT_UPDATE_COUNT =
+            AtomicLongFieldUpdater.newUpdater(InternalSession.class, "significantUpdateCount");
+
     /*
      * System properties
      */
@@ -684,7 +691,11 @@ public class InternalSession implements Serializable, AMSession, SessionPersiste
         if (sessionState == SessionState.VALID && serviceConfig.isSendPropertyNotification(key)) {
             fireSessionEvent(SessionEventType.PROPERTY_CHANGED);
         }
-        notifyPersistenceManager();
+        if (isProtectedProperty(key)) {
+            notifyPersistenceManager();
+        } else {
+            notifyPersistenceManagerOfMinorUpdate();
+        }
     }
 
     /**
@@ -847,7 +858,7 @@ public class InternalSession implements Serializable, AMSession, SessionPersiste
         latestAccessTimeInSeconds = currentTimeMillis() / 1000;
         if ((latestAccessTimeInSeconds - latestSaveAccessTimeInSeconds) > interval) {
         	latestSaveAccessTimeInSeconds=latestAccessTimeInSeconds;
-            notifyPersistenceManager();
+            notifyPersistenceManagerOfMinorUpdate();
         }
     }
 
@@ -1129,11 +1140,32 @@ public class InternalSession implements Serializable, AMSession, SessionPersiste
     }
 
     public void notifyPersistenceManager() {
+        SIGNIFICANT_UPDATE_COUNT.incrementAndGet(this);
+        notifyPersistenceManagerOfMinorUpdate();
+    }
+
+    /**
+     * Persists an update which does not affect the security of the session, such as an access time refresh, without
+     * counting it as a significant update. Session stores may defer such updates.
+     */
+    private void notifyPersistenceManagerOfMinorUpdate() {
         if (persistenceManager != null) {
             persistenceManager.notifyUpdate(this);
         }
     }
 
+    /**
+     * Returns the number of significant updates made to this session object, that is all persisted updates other
+     * than access time refreshes and changes to unprotected properties. Session stores can compare this value between
+     * two stores of the session to tell whether only minor updates were made in between.
+     *
+     * @return the number of significant updates made to this session object.
+     */
+    @JsonIgnore
+    public long getSignificantUpdateCount() {
+        return significantUpdateCount;
+    }
+
     private void fireSessionEvent(SessionEventType sessionEventType) {
         sessionEventBroker.onEvent(new InternalSessionEvent(this, sessionEventType, Time.currentTimeMillis()));
     }
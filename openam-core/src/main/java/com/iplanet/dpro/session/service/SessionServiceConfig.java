@@ -26,7 +26,7 @@
  *
  * Portions Copyrighted 2010-2016 ForgeRock AS.
  * Portions Copyrighted 2016 Nomura Research Institute, Ltd.
- * Portions Copyrighted 2020 Open Identity Platform Community.
+ * Portions Copyrighted 2020-2026 Open Identity Platform Community.
  */
 
 package com.iplanet.dpro.session.service;
@@ -90,6 +90,12 @@ public class SessionServiceConfig {
     
     private static final long DEFAULT_MAX_SESSION_CACHE_TIME = 1;
 
+    private static final boolean DEFAULT_SESSION_BLACKLIST_CACHE_CONCURRENT = false;
+
+    private static final boolean DEFAULT_SESSION_STORE_WRITE_BEHIND = false;
+
+    private static final long DEFAULT_SESSION_STORE_WRITE_BEHIND_INTERVAL = 5000;
+
     private static final String LOGSTATUS_ACTIVE = "ACTIVE";
     private final boolean logStatus;
 
@@ -591,6 +597,39 @@ public class SessionServiceConfig {
         return hotSwappableSessionServiceConfig.sessionBlacklistCacheSize;
     }
 
+    /**
+     * Whether the session blacklist cache should use the concurrent implementation rather than the synchronized LRU
+     * cache. Neither caches sessions found not to be blacklisted.
+     *
+     * @return SystemProperty "org.openidentityplatform.openam.session.blacklist.cache.concurrent". Default false.
+     */
+    public boolean isSessionBlacklistConcurrentCacheEnabled() {
+        return SystemProperties.getAsBoolean(AM_SESSION_BLACKLIST_CACHE_CONCURRENT,
+                DEFAULT_SESSION_BLACKLIST_CACHE_CONCURRENT);
+    }
+
+    /**
+     * Whether the session cache should defer persisting access time refreshes and minor property updates, flushing
+     * them periodically rather than writing each one through to the CTS.
+     *
+     * @return SystemProperty "org.openidentityplatform.openam.session.store.writebehind". Default false.
+     */
+    public boolean isSessionStoreWriteBehindEnabled() {
+        return SystemProperties.getAsBoolean(AM_SESSION_STORE_WRITE_BEHIND, DEFAULT_SESSION_STORE_WRITE_BEHIND);
+    }
+
+    /**
+     * The interval at which deferred session updates are persisted when write-behind is enabled.
+     *
+     * @param unit the desired time unit for the interval.
+     * @return SystemProperty "org.openidentityplatform.openam.session.store.writebehind.interval" (milliseconds).
+     * Default 5000.
+     */
+    public long getSessionStoreWriteBehindInterval(TimeUnit unit) {
+        return unit.convert(SystemProperties.getAsLong(AM_SESSION_STORE_WRITE_BEHIND_INTERVAL,
+                DEFAULT_SESSION_STORE_WRITE_BEHIND_INTERVAL), TimeUnit.MILLISECONDS);
+    }
+
     /**
      * The interval at which to poll for changes to the session blacklist. May be 0 to indicate polling is disabled.
      *
@@ -44,6 +44,7 @@ public interface EntitlementConfiguration {
     String POLICY_EVAL_THREAD_SIZE = "evalThreadSize";
     String POLICY_SEARCH_THREAD_SIZE = "searchThreadSize";
     String POLICY_CACHE_SIZE = "policyCacheSize";
+    String POLICY_CACHE_REALM_SIZE = "policyCacheRealmSize";
     String INDEX_CACHE_SIZE = "indexCacheSize";
 
     /**
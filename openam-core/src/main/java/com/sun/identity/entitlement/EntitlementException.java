@@ -26,6 +26,7 @@
  *
  * Portions copyright 2010-2016 ForgeRock AS.
  * Portions Copyrighted 2019 Open Source Solution Technology Corporation.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
 package com.sun.identity.entitlement;
@@ -134,6 +135,7 @@ public class EntitlementException extends Exception {
     public static final int QUERY_ID_MISSING_UID = 456;
 
     public static final int CONDITION_EVALUATION_FAILED = 510;
+    public static final int POLICY_EVALUATION_TIMED_OUT = 511;
 
     public static final int UNABLE_TO_RETRIEVE_SUBJECT_ATTRIBUTE = 600;
 
@@ -0,0 +1,247 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package com.sun.identity.entitlement;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.forgerock.openam.entitlement.PolicyConstants;
+
+/**
+ * Evaluates the policies returned by a policy search while the search results are still being read.
+ * <p>
+ * Policies are taken from the search iterator in batches. Each batch is handed to a fork/join pool as soon as it has
+ * been read, where idle workers steal the batches of busy ones, and the last batch is evaluated on the calling thread.
+ * As the number of matching policies is only known once the search is exhausted, batches start with a single policy,
+ * so that small policy sets are spread over the workers, and grow with the number of policies read so that large
+ * ones are split into a bounded number of batches per worker. Results are added to the {@link EntitlementCombiner}
+ * in search order; once the combiner has reached a decision, no further policies are read and outstanding batches
+ * stop. The calling thread waits for the workers no longer than the configured timeout, after which the evaluation
+ * fails.
+ */
+final class ParallelPrivilegeEvaluator {
+
+    /**
+     * Evaluates a single policy.
+     */
+    interface PrivilegeEvaluation {
+
+        /**
+         * Evaluates the policy.
+         *
+         * @param privilege The policy to evaluate.
+         * @return The entitlements granted by the policy, or {@code null} if it does not apply.
+         * @throws EntitlementException If the evaluation fails.
+         */
+        List<Entitlement> evaluate(IPrivilege privilege) throws EntitlementException;
+    }
+
+    private final ForkJoinPool pool;
+    private final int batchesPerThread;
+    private final long timeoutMillis;
+
+    /**
+     * Constructs a new evaluator.
+     *
+     * @param pool The pool evaluating batches of policies, or {@code null} to evaluate on the calling thread only.
+     * @param batchesPerThread The target number of batches for each pool thread, the spare batches being stolen by
+     * the threads which complete theirs first.
+     * @param timeoutMillis How long the calling thread waits for the pool to evaluate the policies.
+     */
+    ParallelPrivilegeEvaluator(ForkJoinPool pool, int batchesPerThread, long timeoutMillis) {
+        this.pool = pool;
+        this.batchesPerThread = Math.max(1, batchesPerThread);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Evaluates the policies and adds their entitlements to the combiner.
+     *
+     * @param privileges The policies, read as they are needed.
+     * @param evaluation Evaluates each policy.
+     * @param combiner Combines the entitlements, in the order of the policies.
+     * @throws EntitlementException If a policy evaluation fails, or the evaluation does not complete in time.
+     */
+    void evaluate(Iterator<IPrivilege> privileges, PrivilegeEvaluation evaluation, EntitlementCombiner combiner)
+            throws EntitlementException {
+        if (pool == null) {
+            while (privileges.hasNext()) {
+                if (add(combiner, evaluation.evaluate(privileges.next()))) {
+                    return;
+                }
+            }
+            return;
+        }
+
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        final EvaluationState state = new EvaluationState();
+        final Deque<Batch> inFlight = new ArrayDeque<Batch>();
+        try {
+            int read = 0;
+            List<IPrivilege> policies = nextBatch(privileges, batchSize(read));
+            while (privileges.hasNext()) {
+                submit(new Batch(state, policies, evaluation), inFlight);
+                if (combineCompleted(inFlight, combiner)) {
+                    return;
+                }
+                read += policies.size();
+                policies = nextBatch(privileges, batchSize(read));
+            }
+
+            // The last batch is evaluated here while the workers finish theirs.
+            Batch local = new Batch(state, policies, evaluation);
+            local.compute();
+            inFlight.add(local);
+            while (!inFlight.isEmpty()) {
+                await(inFlight.peek(), state, deadline);
+                if (combineCompleted(inFlight, combiner)) {
+                    return;
+                }
+            }
+        } finally {
+            state.cancelled = true;
+        }
+    }
+
+    /**
+     * Returns the size of the next batch, so that the policies read so far would make the target number of batches
+     * for each pool thread.
+     *
+     * @param read The number of policies read so far.
+     * @return The number of policies in the next batch.
+     */
+    int batchSize(int read) {
+        return Math.max(1, read / (pool.getParallelism() * batchesPerThread));
+    }
+
+    private List<IPrivilege> nextBatch(Iterator<IPrivilege> privileges, int batchSize) {
+        List<IPrivilege> policies = new ArrayList<IPrivilege>(batchSize);
+        while (policies.size() < batchSize && privileges.hasNext()) {
+            policies.add(privileges.next());
+        }
+        return policies;
+    }
+
+    private void submit(Batch batch, Deque<Batch> inFlight) {
+        inFlight.add(batch);
+        try {
+            pool.execute(batch);
+        } catch (RejectedExecutionException e) {
+            PolicyConstants.DEBUG.warning("ParallelPrivilegeEvaluator.submit: evaluation pool rejected batch, "
+                    + "evaluating on the calling thread", e);
+            batch.compute();
+        }
+    }
+
+    /**
+     * Adds the results of the batches at the head of the queue which have completed.
+     *
+     * @return {@code true} if the combiner has reached a decision.
+     */
+    private boolean combineCompleted(Deque<Batch> inFlight, EntitlementCombiner combiner)
+            throws EntitlementException {
+        while (!inFlight.isEmpty() && inFlight.peek().done) {
+            Batch batch = inFlight.poll();
+            for (List<Entitlement> entitlements : batch.results) {
+                if (add(combiner, entitlements)) {
+                    return true;
+                }
+            }
+            if (batch.failure instanceof EntitlementException) {
+                throw (EntitlementException) batch.failure;
+            } else if (batch.failure != null) {
+                throw (RuntimeException) batch.failure;
+            }
+        }
+        return false;
+    }
+
+    private boolean add(EntitlementCombiner combiner, List<Entitlement> entitlements) {
+        if (entitlements == null) {
+            return false;
+        }
+        combiner.add(entitlements);
+        return combiner.isDone();
+    }
+
+    private void await(Batch batch, EvaluationState state, long deadline) throws EntitlementException {
+        while (!batch.done) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                PolicyConstants.DEBUG.error("ParallelPrivilegeEvaluator.await: policy evaluation did not complete "
+                        + "within " + timeoutMillis + "ms");
+                throw new EntitlementException(EntitlementException.POLICY_EVALUATION_TIMED_OUT, timeoutMillis);
+            }
+            LockSupport.parkNanos(state, remaining);
+            if (Thread.interrupted()) {
+                Thread.currentThread().interrupt();
+                throw new EntitlementException(EntitlementException.INTERNAL_ERROR, new InterruptedException());
+            }
+        }
+    }
+
+    /**
+     * State shared between the calling thread and the batches of one evaluation.
+     */
+    private static final class EvaluationState {
+        private final Thread caller = Thread.currentThread();
+        private volatile boolean cancelled;
+    }
+
+    /**
+     * Evaluates a batch of policies, stopping early if the evaluation has been cancelled.
+     */
+    private static final class Batch extends RecursiveAction {
+        private final EvaluationState state;
+        private final List<IPrivilege> policies;
+        private final PrivilegeEvaluation evaluation;
+        private final List<List<Entitlement>> results = new ArrayList<List<Entitlement>>();
+        private Exception failure;
+        private volatile boolean done;
+
+        private Batch(EvaluationState state, List<IPrivilege> policies, PrivilegeEvaluation evaluation) {
+            this.state = state;
+            this.policies = policies;
+            this.evaluation = evaluation;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                for (int i = 0; i < policies.size() && !state.cancelled; i++) {
+                    List<Entitlement> entitlements = evaluation.evaluate(policies.get(i));
+                    if (entitlements != null) {
+                        results.add(entitlements);
+                    }
+                }
+            } catch (EntitlementException | RuntimeException ex) {
+                failure = ex;
+                state.cancelled = true;
+            } finally {
+                done = true;
+                LockSupport.unpark(state.caller);
+            }
+        }
+    }
+}
@@ -25,6 +25,7 @@
  * $Id: PrivilegeEvaluator.java,v 1.2 2009/10/07 06:36:40 veiming Exp $
  *
  * Portions Copyrighted 2010-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package com.sun.identity.entitlement;
 
@@ -35,13 +36,11 @@ import static org.forgerock.openam.entitlement.utils.EntitlementUtils.getEntitle
 import java.security.Principal;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 
 import javax.security.auth.Subject;
 
@@ -49,8 +48,10 @@ import org.forgerock.openam.entitlement.PolicyConstants;
 import org.forgerock.openam.entitlement.PrivilegeEvaluatorContext;
 import org.forgerock.openam.session.util.AppTokenHandler;
 import org.forgerock.openam.utils.CollectionUtils;
+import org.forgerock.util.thread.listener.ShutdownListener;
 
-import com.sun.identity.entitlement.interfaces.IThreadPool;
+import com.sun.identity.common.ShutdownManager;
+import com.sun.identity.shared.configuration.SystemPropertiesManager;
 import com.sun.identity.shared.debug.Debug;
 
 /**
@@ -66,23 +67,20 @@ class PrivilegeEvaluator {
     private String requestedResourceName;
     private Map<String, Set<String>> envParameters;
     private ResourceSearchIndexes indexes;
-    private List<List<Entitlement>> resultQ = new
-        LinkedList<List<Entitlement>>();
     private Application application;
     private Set<String> actionNames;
     private EntitlementCombiner entitlementCombiner;
     private boolean recursive;
-    private EntitlementException eException;
-    private final Lock lock = new ReentrantLock();
-    private final Condition hasResults = lock.newCondition();
 
     // Static variables
-    // TODO determine number of tasks per thread
     private static int evalThreadSize = Evaluator.DEFAULT_POLICY_EVAL_THREAD;
-    private static final int TASKS_PER_THREAD = 5;
+    // Target number of batches per pool thread, leaving spare batches for work stealing.
+    private static final int BATCHES_PER_THREAD = 4;
+    private static final String EVALUATION_TIMEOUT_PROPERTY =
+        "org.forgerock.openam.entitlement.policyEvaluationTimeout";
+    private static final int DEFAULT_EVALUATION_TIMEOUT = 30000;
 
-    private static final IThreadPool threadPool;
-    private static final boolean isMultiThreaded;
+    private static final ParallelPrivilegeEvaluator parallelEvaluator;
 
     static {
         EntitlementConfiguration ec = getEntitlementConfiguration(SUPER_ADMIN_SUBJECT, "/");
@@ -99,8 +97,27 @@ class PrivilegeEvaluator {
                     e);
             }
         }
-        isMultiThreaded = evalThreadSize > 1;
-        threadPool = isMultiThreaded ? new EntitlementThreadPool(evalThreadSize) : new SequentialThreadPool();
+        ForkJoinPool evaluationPool = (evalThreadSize > 1) ? createEvaluationPool(evalThreadSize) : null;
+        parallelEvaluator = new ParallelPrivilegeEvaluator(evaluationPool, BATCHES_PER_THREAD,
+            SystemPropertiesManager.getAsInt(EVALUATION_TIMEOUT_PROPERTY, DEFAULT_EVALUATION_TIMEOUT));
+    }
+
+    private static ForkJoinPool createEvaluationPool(int parallelism) {
+        final ForkJoinPool pool = new ForkJoinPool(parallelism, new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+            @Override
+            public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("PrivilegeEvaluator-" + thread.getPoolIndex());
+                return thread;
+            }
+        }, null, false);
+        ShutdownManager.getInstance().addShutdownListener(new ShutdownListener() {
+            @Override
+            public void shutdown() {
+                pool.shutdownNow();
+            }
+        });
+        return pool;
     }
 
     /**
@@ -272,120 +289,38 @@ class PrivilegeEvaluator {
         final PrivilegeIndexStore indexStore = PrivilegeIndexStore.getInstance(adminSubject, realm);
         final Iterator<IPrivilege> policyIterator = indexStore.search(realm, indexes, subjectIndexes, recursive);
 
-        int totalCount = 0;
-        IPrivilege policy;
-
-        // First collect policies to be evaluated locally.
-        final Set<IPrivilege> localBatch = new HashSet<IPrivilege>(2 * TASKS_PER_THREAD);
-        while (totalCount < TASKS_PER_THREAD && policyIterator.hasNext()) {
-            policy = policyIterator.next();
-
-            if (policy instanceof ReferralPrivilege) {
-                // We want to ignore referrals - deprecated.
-                continue;
-            }
-
-            if (debug.messageEnabled()) {
-                debug.message("[PolicyEval] PolicyEvaluator.evaluate");
-                debug.message("[PolicyEval] search result: privilege=" + policy.getName());
-            }
-
-            localBatch.add(policy);
-            totalCount++;
-        }
-
         // Define an evaluation context.
         final PrivilegeEvaluatorContext context =
                 new PrivilegeEvaluatorContext(realm, normalisedResourceName, applicationName);
         final Object appToken = AppTokenHandler.getAndClear();
 
-        // Submit additional policies to be executed by worker threads.
-        final Set<IPrivilege> threadBatch = new HashSet<IPrivilege>(2 * TASKS_PER_THREAD);
-        boolean tasksSubmitted = false;
-
-        while (policyIterator.hasNext()) {
-            tasksSubmitted = true;
-            policy = policyIterator.next();
-
-            if (policy instanceof ReferralPrivilege) {
-                // We want to ignore referrals - deprecated.
-                continue;
-            }
-
-            if (debug.messageEnabled()) {
-                debug.message("[PolicyEval] PolicyEvaluator.evaluate");
-                debug.message("[PolicyEval] search result: privilege=" + policy.getName());
-            }
-
-            threadBatch.add(policy);
-            totalCount++;
-
-            if (threadBatch.size() == TASKS_PER_THREAD) {
-                final Set<IPrivilege> copiedBatch = new HashSet<IPrivilege>(threadBatch);
-                threadPool.submit(new PrivilegeTask(this, copiedBatch, isMultiThreaded, appToken, context));
-                threadBatch.clear();
-            }
-        }
-
-        if (!threadBatch.isEmpty()) {
-            // Submit any remaining policies.
-            threadPool.submit(new PrivilegeTask(this, threadBatch, isMultiThreaded, appToken, context));
-        }
+        // Policies are evaluated as the search returns them.
+        parallelEvaluator.evaluate(policyIterator, new ParallelPrivilegeEvaluator.PrivilegeEvaluation() {
+            @Override
+            public List<Entitlement> evaluate(IPrivilege policy) throws EntitlementException {
+                if (policy instanceof ReferralPrivilege) {
+                    // We want to ignore referrals - deprecated.
+                    return null;
+                }
 
-        // Submit the local policies.
-        final Runnable localTask = new PrivilegeTask(this, localBatch, tasksSubmitted, appToken, context);
-        localTask.run();
-
-        // Wait for submitted threads to complete evaluation.
-        if (tasksSubmitted) {
-            if (isMultiThreaded) {
-                receiveEvalResults(totalCount);
-            } else {
-                boolean isDone = false;
-                while (!resultQ.isEmpty() && !isDone) {
-                    entitlementCombiner.add(resultQ.remove(0));
-                    isDone = entitlementCombiner.isDone();
+                if (debug.messageEnabled()) {
+                    debug.message("[PolicyEval] PolicyEvaluator.evaluate");
+                    debug.message("[PolicyEval] search result: privilege=" + policy.getName());
                 }
-            }
-        } else if (eException == null) {
-            boolean isDone = false;
-            while (!resultQ.isEmpty() && !isDone) {
-                entitlementCombiner.add(resultQ.remove(0));
-                isDone = entitlementCombiner.isDone();
-            }
-        }
 
-        if (eException != null) {
-            // Throw caught exception.
-            throw eException;
-        }
+                PrivilegeEvaluatorContext.setCurrent(context);
+                return PrivilegeEvaluator.this.evaluate(policy, appToken);
+            }
+        }, entitlementCombiner);
 
         return entitlementCombiner.getResults();
     }
 
-    private void receiveEvalResults(int totalCount) {
-        int counter = 0;
-        lock.lock();
-        boolean isDone = (eException != null);
-
-        try {
-            while (!isDone && (counter < totalCount)) {
-                if (resultQ.isEmpty()) {
-                    hasResults.await();
-                }
-                while (!resultQ.isEmpty() && !isDone) {
-                    entitlementCombiner.add(resultQ.remove(0));
-                    isDone = entitlementCombiner.isDone();
-                    counter++;
-                }
-            }
-        } catch (InterruptedException ex) {
-            PolicyConstants.DEBUG.error("PrivilegeEvaluator.evaluate", ex);
-        } finally {
-            lock.unlock();
-        }
+    private List<Entitlement> evaluate(IPrivilege policy, Object appToken) throws EntitlementException {
+        return policy.evaluate(adminSubject, realm, subject, applicationName, normalisedResourceName,
+                requestedResourceName, actionNames, envParameters, recursive, appToken);
     }
-    
+
     private Application getApplication()
         throws EntitlementException {
         if (application == null) {
@@ -398,63 +333,4 @@ class PrivilegeEvaluator {
         }
         return application;
     }
-
-    class PrivilegeTask implements Runnable {
-        final PrivilegeEvaluator parent;
-        private final Set<IPrivilege> privileges;
-        private final boolean isThreaded;
-        private final Object context;
-        private final PrivilegeEvaluatorContext ctx;
-
-        PrivilegeTask(PrivilegeEvaluator parent, Set<IPrivilege> privileges,
-            boolean isThreaded, Object context, PrivilegeEvaluatorContext ctx) {
-            this.parent = parent;
-            this.privileges = privileges;
-            this.isThreaded = isThreaded;
-            this.context = context;
-            this.ctx = ctx;
-        }
-
-        public void run() {
-            PrivilegeEvaluatorContext.setCurrent(ctx);
-            
-            try {
-                for (final IPrivilege eval : privileges) {
-                    List<Entitlement> entitlements = eval.evaluate(
-                                            parent.adminSubject,
-                                            parent.realm, parent.subject,
-                                            parent.applicationName, parent.normalisedResourceName,
-                                            parent.requestedResourceName,
-                                            parent.actionNames, parent.envParameters,
-                                            parent.recursive, context);
-
-                    if (entitlements != null) {
-                        if (isThreaded) {
-                            try {
-                                parent.lock.lock();
-                                parent.resultQ.add(entitlements);
-                                parent.hasResults.signal();
-                            } finally {
-                                parent.lock.unlock();
-                            }
-                        } else {
-                            parent.resultQ.add(entitlements);
-                        }
-                    }
-                }
-            } catch (EntitlementException ex) {
-                if (isThreaded) {
-                    try {
-                        parent.lock.lock();
-                        parent.eException = ex;
-                        parent.hasResults.signal();
-                    } finally {
-                        parent.lock.unlock();
-                    }
-                } else {
-                    parent.eException = ex;
-                }
-            }
-        }
-    }
 }
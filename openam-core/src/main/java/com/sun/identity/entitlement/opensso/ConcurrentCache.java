@@ -0,0 +1,385 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+
+package com.sun.identity.entitlement.opensso;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded concurrent cache used for the entitlement policy and index caches, in place of the legacy
+ * {@link Cache}.
+ * <p>
+ * Entries are spread over independently locked segments so that concurrent policy evaluations do not contend on a
+ * single lock. Each segment follows the W-TinyLFU scheme: new entries enter a small LRU window, and when the window
+ * overflows its least recently used entry is only admitted to the main LRU area if it has been accessed more
+ * frequently than the entry it would displace. Read frequencies are estimated with a count-min sketch of 4-bit
+ * counters that are periodically halved, so that stale popularity ages out. Each segment only allocates its sketch
+ * once it is half full, as admission decisions are not needed before then, which keeps sparsely populated caches
+ * small.
+ * <p>
+ * Null keys and values are not supported.
+ *
+ * @param <K> The key type.
+ * @param <V> The value type.
+ */
+class ConcurrentCache<K, V> {
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_SIZE = 32;
+    private static final int WINDOW_PERCENTAGE = 1;
+
+    /**
+     * Notified when an entry is evicted to make room for another.
+     *
+     * @param <K> The key type.
+     * @param <V> The value type.
+     */
+    interface EvictionListener<K, V> {
+        /**
+         * Called after the entry has been evicted, outside of any cache lock.
+         *
+         * @param key the evicted key.
+         * @param value the evicted value.
+         */
+        void onEviction(K key, V value);
+    }
+
+    private final String name;
+    private final Segment[] segments;
+    private final EvictionListener<K, V> listener;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructs a cache.
+     *
+     * @param name Name of the cache.
+     * @param maxSize Maximum number of entries in the cache.
+     */
+    ConcurrentCache(String name, int maxSize) {
+        this(name, maxSize, null);
+    }
+
+    /**
+     * Constructs a cache.
+     *
+     * @param name Name of the cache.
+     * @param maxSize Maximum number of entries in the cache.
+     * @param listener Possibly null listener for evicted entries.
+     */
+    @SuppressWarnings("unchecked")
+    ConcurrentCache(String name, int maxSize, EvictionListener<K, V> listener) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be > 0");
+        }
+        this.name = name;
+        this.listener = listener;
+        int segmentCount = 1;
+        while (segmentCount < MAX_SEGMENTS && maxSize / (segmentCount * 2) >= MIN_SEGMENT_SIZE) {
+            segmentCount *= 2;
+        }
+        segments = new ConcurrentCache.Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(maxSize / segmentCount + (i < maxSize % segmentCount ? 1 : 0));
+        }
+    }
+
+    /**
+     * @return Name of the cache.
+     */
+    String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the value cached against the key, recording the access.
+     *
+     * @param key Key of the entry.
+     * @return The cached value, or null if not cached.
+     */
+    V get(K key) {
+        Segment segment = segmentFor(key);
+        segment.recordAccess(key);
+        V value = segment.get(key);
+        if (value == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Tests whether the key is cached, without recording an access.
+     *
+     * @param key Key of the entry.
+     * @return True if a value is cached against the key.
+     */
+    boolean containsKey(K key) {
+        return segmentFor(key).containsKey(key);
+    }
+
+    /**
+     * Caches the value against the key. The entry may be rejected, or another entry evicted, if the cache is full.
+     *
+     * @param key Key of the entry.
+     * @param value Value of the entry.
+     * @return The previously cached value, or null if there was none.
+     */
+    V put(K key, V value) {
+        if (key == null || value == null) {
+            throw new NullPointerException();
+        }
+        List<Map.Entry<K, V>> evicted = new ArrayList<>(1);
+        V previous = segmentFor(key).put(key, value, evicted);
+        for (Map.Entry<K, V> entry : evicted) {
+            evictions.increment();
+            if (listener != null) {
+                listener.onEviction(entry.getKey(), entry.getValue());
+            }
+        }
+        return previous;
+    }
+
+    /**
+     * Removes the entry for the key.
+     *
+     * @param key Key of the entry.
+     * @return The removed value, or null if the key was not cached.
+     */
+    V remove(K key) {
+        return segmentFor(key).remove(key);
+    }
+
+    /**
+     * Removes all entries. Evicted entry listeners are not notified.
+     */
+    void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * @return The number of cached entries.
+     */
+    int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * @return The number of {@link #get} calls which found a cached value.
+     */
+    long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return The number of {@link #get} calls which did not find a cached value.
+     */
+    long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return The number of entries evicted, or rejected on admission, because the cache was full.
+     */
+    long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    private Segment segmentFor(Object key) {
+        return segments[spread(key.hashCode()) & (segments.length - 1)];
+    }
+
+    private static int spread(int hashCode) {
+        int h = hashCode * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * An independently locked part of the cache, holding a window LRU area and a main LRU area.
+     */
+    private final class Segment {
+        private final LinkedHashMap<K, V> window = new LinkedHashMap<>(16, 0.75f, true);
+        private final LinkedHashMap<K, V> main = new LinkedHashMap<>(16, 0.75f, true);
+        private final int capacity;
+        private final int windowCapacity;
+        private final int mainCapacity;
+        private volatile FrequencySketch sketch;
+
+        private Segment(int capacity) {
+            this.capacity = capacity;
+            windowCapacity = Math.max(1, capacity * WINDOW_PERCENTAGE / 100);
+            mainCapacity = capacity - windowCapacity;
+        }
+
+        private void recordAccess(K key) {
+            FrequencySketch frequencies = sketch;
+            if (frequencies != null) {
+                frequencies.increment(key);
+            }
+        }
+
+        private synchronized V get(K key) {
+            V value = window.get(key);
+            return value != null ? value : main.get(key);
+        }
+
+        private synchronized V put(K key, V value, List<Map.Entry<K, V>> evicted) {
+            if (main.containsKey(key)) {
+                return main.put(key, value);
+            }
+            V previous = window.put(key, value);
+            if (sketch == null && window.size() + main.size() >= capacity / 2) {
+                sketch = new FrequencySketch(capacity);
+            }
+            if (previous == null && window.size() > windowCapacity) {
+                Iterator<Map.Entry<K, V>> iterator = window.entrySet().iterator();
+                Map.Entry<K, V> candidate = iterator.next();
+                iterator.remove();
+                admit(candidate, evicted);
+            }
+            return previous;
+        }
+
+        private void admit(Map.Entry<K, V> candidate, List<Map.Entry<K, V>> evicted) {
+            if (main.size() < mainCapacity) {
+                main.put(candidate.getKey(), candidate.getValue());
+                return;
+            }
+            if (mainCapacity == 0) {
+                evicted.add(candidate);
+                return;
+            }
+            Iterator<Map.Entry<K, V>> iterator = main.entrySet().iterator();
+            Map.Entry<K, V> victim = iterator.next();
+            if (sketch.frequency(candidate.getKey()) > sketch.frequency(victim.getKey())) {
+                iterator.remove();
+                main.put(candidate.getKey(), candidate.getValue());
+                evicted.add(victim);
+            } else {
+                evicted.add(candidate);
+            }
+        }
+
+        private synchronized boolean containsKey(K key) {
+            return window.containsKey(key) || main.containsKey(key);
+        }
+
+        private synchronized V remove(K key) {
+            V value = window.remove(key);
+            return value != null ? value : main.remove(key);
+        }
+
+        private synchronized void clear() {
+            window.clear();
+            main.clear();
+        }
+
+        private synchronized int size() {
+            return window.size() + main.size();
+        }
+    }
+
+    /**
+     * Count-min sketch of 4-bit counters, sixteen to a long, updated lock free. Once the number of increments
+     * reaches ten times the cache size all counters are halved.
+     */
+    private static final class FrequencySketch {
+        private static final long[] SEEDS = {
+                0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+        private static final long RESET_MASK = 0x7777777777777777L;
+        private static final int MAX_COUNT = 15;
+
+        private final AtomicLongArray table;
+        private final int mask;
+        private final int sampleSize;
+        private final AtomicInteger additions = new AtomicInteger();
+
+        private FrequencySketch(int maxSize) {
+            int length = Integer.highestOneBit(Math.max(4, Math.min(maxSize, 1 << 28)) - 1) << 1;
+            table = new AtomicLongArray(Math.max(1, length / 4));
+            mask = table.length() - 1;
+            sampleSize = (int) Math.min(10L * maxSize, Integer.MAX_VALUE);
+        }
+
+        private int frequency(Object key) {
+            int hash = spread(key.hashCode());
+            int frequency = MAX_COUNT;
+            for (int i = 0; i < SEEDS.length; i++) {
+                long word = table.get(indexOf(hash, i));
+                frequency = Math.min(frequency, (int) ((word >>> offsetOf(hash, i)) & MAX_COUNT));
+            }
+            return frequency;
+        }
+
+        private void increment(Object key) {
+            int hash = spread(key.hashCode());
+            boolean added = false;
+            for (int i = 0; i < SEEDS.length; i++) {
+                added |= incrementAt(indexOf(hash, i), offsetOf(hash, i));
+            }
+            if (added) {
+                int count = additions.incrementAndGet();
+                if (count >= sampleSize && additions.compareAndSet(count, 0)) {
+                    reset();
+                }
+            }
+        }
+
+        private boolean incrementAt(int index, int offset) {
+            long word;
+            do {
+                word = table.get(index);
+                if (((word >>> offset) & MAX_COUNT) == MAX_COUNT) {
+                    return false;
+                }
+            } while (!table.compareAndSet(index, word, word + (1L << offset)));
+            return true;
+        }
+
+        private void reset() {
+            for (int i = 0; i < table.length(); i++) {
+                long word;
+                do {
+                    word = table.get(i);
+                } while (!table.compareAndSet(i, word, (word >>> 1) & RESET_MASK));
+            }
+        }
+
+        private int indexOf(int hash, int i) {
+            long h = (hash + SEEDS[i]) * SEEDS[i];
+            h += h >>> 32;
+            return (int) h & mask;
+        }
+
+        private static int offsetOf(int hash, int i) {
+            return ((hash >>> (i << 3)) & 0xF) << 2;
+        }
+    }
+}
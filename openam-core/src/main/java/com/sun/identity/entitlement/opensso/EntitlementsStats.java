@@ -27,6 +27,7 @@
 
 /*
  * Portions Copyrighted [2011] [ForgeRock AS]
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package com.sun.identity.entitlement.opensso;
 
@@ -67,8 +68,31 @@ public class EntitlementsStats implements StatsListener {
 		sb.append(DataStore.getNumberOfPolicies());
 		sb.append("\nTotal referrals: ");
 		sb.append(DataStore.getNumberOfReferrals());
+		appendCacheStats(sb, "PolicyCache",
+			OpenSSOIndexStore.getPolicyCache());
+		appendCacheStats(sb, "ReferralCache",
+			OpenSSOIndexStore.getReferralCache());
+		appendCacheStats(sb, "IndexCache",
+			OpenSSOIndexStore.getIndexCacheStats(false));
+		appendCacheStats(sb, "ReferralIndexCache",
+			OpenSSOIndexStore.getIndexCacheStats(true));
 
         sb.append("\n-----------------------------\n");
 		stats.record(sb.toString());
 	}
+
+	private static void appendCacheStats(StringBuilder sb, String name,
+		PolicyCache cache) {
+		if (cache != null) {
+			appendCacheStats(sb, name, new long[] {cache.getHitCount(),
+				cache.getMissCount(), cache.getEvictionCount()});
+		}
+	}
+
+	private static void appendCacheStats(StringBuilder sb, String name,
+		long[] counts) {
+		sb.append("\n").append(name).append(" hits/misses/evictions: ");
+		sb.append(counts[0]).append('/').append(counts[1]).append('/');
+		sb.append(counts[2]);
+	}
 }
@@ -25,6 +25,7 @@
  * $Id: IndexCache.java,v 1.3 2009/12/12 00:03:13 veiming Exp $
  *
  * Portions copyright 2013 ForgeRock, Inc.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package com.sun.identity.entitlement.opensso;
 
@@ -47,11 +48,10 @@ public class IndexCache {
     private static final int CACHE_BUCKET_LIMIT = 25;
 
     private int size = 1000000;
-    private int initCapacity;
-    private Cache subjectIndexCache;
-    private Cache hostIndexCache;
-    private Cache pathIndexCache;
-    private Cache parentPathIndexCache;
+    private ConcurrentCache<String, Set<String>> subjectIndexCache;
+    private ConcurrentCache<String, Set<String>> hostIndexCache;
+    private ConcurrentCache<String, Set<String>> pathIndexCache;
+    private ConcurrentCache<String, Set<String>> parentPathIndexCache;
     private ReadWriteLock rwlock = new ReentrantReadWriteLock();
 
     /**
@@ -61,7 +61,6 @@ public class IndexCache {
      */
     public IndexCache(int size) {
         this.size = size;
-        initCapacity = (int) (size * 0.01d);
         clearCaches();
     }
 
@@ -84,13 +83,13 @@ public class IndexCache {
         cache(dn, indexes.getParentPathIndexes(), parentPathIndexCache);
     }
 
-    private void cache(String dn, Set<String> indexes, Cache cache) {
+    private void cache(String dn, Set<String> indexes, ConcurrentCache<String, Set<String>> cache) {
         rwlock.writeLock().lock();
 
         try {
             for (String s : indexes) {
                 String lc = s.toLowerCase();
-                Set<String> setDNs = (Set<String>)cache.get(lc);
+                Set<String> setDNs = cache.get(lc);
                 if (setDNs == null) {
                     setDNs = new HashSet<String>();
                     cache.put(lc, setDNs);
@@ -126,11 +125,11 @@ public class IndexCache {
         }
     }
 
-    private void clear(String dn, Set<String> indexes, Cache cache) {
+    private void clear(String dn, Set<String> indexes, ConcurrentCache<String, Set<String>> cache) {
         rwlock.writeLock().lock();
         try {
             for (String s : indexes) {
-                Set<String> setDNs = (Set<String>)cache.get(s);
+                Set<String> setDNs = cache.get(s);
                 if (setDNs != null) {
                     setDNs.remove(dn);
                 }
@@ -143,10 +142,10 @@ public class IndexCache {
     private synchronized void clearCaches() {
         rwlock.writeLock().lock();
         try {
-            subjectIndexCache = new Cache(SUBJECT_ID, initCapacity, size);
-            hostIndexCache = new Cache(HOST_ID, initCapacity, size);
-            pathIndexCache = new Cache(PATH_ID, initCapacity, size);
-            parentPathIndexCache = new Cache(PARENTPATH_ID, initCapacity, size);
+            subjectIndexCache = new ConcurrentCache<String, Set<String>>(SUBJECT_ID, size);
+            hostIndexCache = new ConcurrentCache<String, Set<String>>(HOST_ID, size);
+            pathIndexCache = new ConcurrentCache<String, Set<String>>(PATH_ID, size);
+            parentPathIndexCache = new ConcurrentCache<String, Set<String>>(PARENTPATH_ID, size);
         } finally {
             rwlock.writeLock().unlock();
         }
@@ -174,7 +173,7 @@ public class IndexCache {
 
             if (hasSubjectIndexes) {
                 for (String i : subjectIndexes) {
-                    Set<String> r = (Set<String>)subjectIndexCache.get(i);
+                    Set<String> r = subjectIndexCache.get(i);
                     if (r != null) {
                         results.addAll(r);
                     }
@@ -200,7 +199,7 @@ public class IndexCache {
         Set<String> parentPathIndexes = indexes.getParentPathIndexes();
         Set<String> results = new HashSet<String>();
         for (String i : parentPathIndexes) {
-            Set<String> r = (Set<String>) parentPathIndexCache.get(
+            Set<String> r = parentPathIndexCache.get(
                 i.toLowerCase());
             if (r != null) {
                 results.addAll(r);
@@ -213,7 +212,7 @@ public class IndexCache {
         Set<String> pathIndexes = indexes.getPathIndexes();
         Set<String> results = new HashSet<String>();
         for (String i : pathIndexes) {
-            Set<String> r = (Set<String>) pathIndexCache.get(i.toLowerCase());
+            Set<String> r = pathIndexCache.get(i.toLowerCase());
             if (r != null) {
                 results.addAll(r);
             }
@@ -224,11 +223,50 @@ public class IndexCache {
         Set<String> results = new HashSet<String>();
         Set<String> hostIndexes = indexes.getHostIndexes();
         for (String i : hostIndexes) {
-            Set<String> r = (Set<String>) hostIndexCache.get(i.toLowerCase());
+            Set<String> r = hostIndexCache.get(i.toLowerCase());
             if (r != null) {
                 results.addAll(r);
             }
         }
         return results;
     }
+
+    /**
+     * @return The number of index lookups which found cached entries.
+     */
+    long getHitCount() {
+        rwlock.readLock().lock();
+        try {
+            return subjectIndexCache.getHitCount() + hostIndexCache.getHitCount() + pathIndexCache.getHitCount()
+                    + parentPathIndexCache.getHitCount();
+        } finally {
+            rwlock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return The number of index lookups which did not find cached entries.
+     */
+    long getMissCount() {
+        rwlock.readLock().lock();
+        try {
+            return subjectIndexCache.getMissCount() + hostIndexCache.getMissCount() + pathIndexCache.getMissCount()
+                    + parentPathIndexCache.getMissCount();
+        } finally {
+            rwlock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return The number of index entries evicted because the cache was full.
+     */
+    long getEvictionCount() {
+        rwlock.readLock().lock();
+        try {
+            return subjectIndexCache.getEvictionCount() + hostIndexCache.getEvictionCount()
+                    + pathIndexCache.getEvictionCount() + parentPathIndexCache.getEvictionCount();
+        } finally {
+            rwlock.readLock().unlock();
+        }
+    }
 }
@@ -25,6 +25,7 @@
  * $Id: OpenSSOIndexStore.java,v 1.13 2010/01/25 23:48:15 veiming Exp $
  *
  * Portions copyright 2011-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
 package com.sun.identity.entitlement.opensso;
@@ -103,9 +104,12 @@ public class OpenSSOIndexStore extends PrivilegeIndexStore {
         policyCacheSize = getInteger(ec,
             EntitlementConfiguration.POLICY_CACHE_SIZE, DEFAULT_CACHE_SIZE);
         if (policyCacheSize > 0) {
-            policyCache = new PolicyCache("PolicyCache", policyCacheSize);
+            int realmBudget = getInteger(ec,
+                EntitlementConfiguration.POLICY_CACHE_REALM_SIZE, 0);
+            policyCache = new PolicyCache("PolicyCache", policyCacheSize,
+                realmBudget);
             referralCache = new PolicyCache("ReferralPolicyCache",
-                policyCacheSize);
+                policyCacheSize, realmBudget);
         } else {
             policyCache = null;
             referralCache = null;
@@ -938,6 +942,39 @@ public class OpenSSOIndexStore extends PrivilegeIndexStore {
         return referralCache.getCount();
     }
 
+    static PolicyCache getPolicyCache() {
+        return policyCache;
+    }
+
+    static PolicyCache getReferralCache() {
+        return referralCache;
+    }
+
+    /**
+     * Returns the hit, miss and eviction counts summed over the index caches
+     * of all realms.
+     *
+     * @param referral whether to total the referral index caches rather
+     *        than the policy index caches.
+     * @return the hit, miss and eviction counts, in that order.
+     */
+    static long[] getIndexCacheStats(boolean referral) {
+        long[] totals = new long[3];
+        Map caches = referral ? referralIndexCaches : indexCaches;
+        if (caches == null) {
+            return totals;
+        }
+        synchronized (caches) {
+            for (Object cache : caches.values()) {
+                IndexCache indexCache = (IndexCache) cache;
+                totals[0] += indexCache.getHitCount();
+                totals[1] += indexCache.getMissCount();
+                totals[2] += indexCache.getEvictionCount();
+            }
+        }
+        return totals;
+    }
+
     @Override
     public boolean hasPrivilgesWithApplication(
         String realm, String applName) throws EntitlementException {
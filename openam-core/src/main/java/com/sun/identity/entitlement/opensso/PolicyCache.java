@@ -25,49 +25,64 @@
  * $Id: PolicyCache.java,v 1.3 2009/12/12 00:03:13 veiming Exp $
  *
  * Portions copyright 2013-2016 ForgeRock, Inc.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
 package com.sun.identity.entitlement.opensso;
 
 import com.sun.identity.entitlement.Privilege;
-import java.util.HashMap;
 import com.sun.identity.entitlement.ReferralPrivilege;
 import java.util.Map;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Policy Cache
  */
 class PolicyCache {
-    private Cache cache;
-    private HashMap<String, Integer> countByRealm;
-    private ReadWriteLock rwlock = new ReentrantReadWriteLock();
+    private final ConcurrentCache<String, CachedPrivilege> cache;
+    private final ConcurrentMap<String, AtomicInteger> countByRealm = new ConcurrentHashMap<String, AtomicInteger>();
+    private final int realmBudget;
 
     PolicyCache(String name, int size) {
-        int initCapacity = (int) (size * 0.01d);
-        cache = new Cache(name, initCapacity, size);
-        countByRealm = new HashMap<String, Integer>();
+        this(name, size, 0);
     }
 
     /**
-     * Caches a privilege.
+     * Constructs a policy cache.
+     *
+     * @param name Name of the cache.
+     * @param size Maximum number of cached privileges.
+     * @param realmBudget Maximum number of privileges cached per realm, or 0 for no per realm limit.
+     */
+    PolicyCache(String name, int size, int realmBudget) {
+        this.realmBudget = realmBudget;
+        cache = new ConcurrentCache<String, CachedPrivilege>(name, size,
+                new ConcurrentCache.EvictionListener<String, CachedPrivilege>() {
+                    @Override
+                    public void onEviction(String dn, CachedPrivilege evicted) {
+                        decrementCount(evicted.realm);
+                    }
+                });
+    }
+
+    /**
+     * Caches a privilege. The privilege is not cached if its realm has already used its budget of cache entries.
      *
      * @param dn DN of the privilege object.
      * @param p Privilege.
      */
     public void cache(String dn, Privilege p, String realm) {
-        rwlock.writeLock().lock();
-        try {
-            Object e = cache.put(dn, p);
-            if (e == null) {
-                // Update count only if added, not if replaced
-                Integer i = countByRealm.get(realm);
-                int count = (i == null) ? 1 : i.intValue() + 1;
-                countByRealm.put(realm, count);
-            }
-        } finally {
-            rwlock.writeLock().unlock();
+        if (realmBudget > 0 && getCount(realm) >= realmBudget && !cache.containsKey(dn)) {
+            return;
+        }
+        CachedPrivilege previous = cache.put(dn, new CachedPrivilege(p, realm));
+        String previousRealm = (previous == null) ? null : previous.realm;
+        // Update count only if added to the realm, not if replaced within it
+        if (previousRealm == null ? realm != null : !previousRealm.equals(realm)) {
+            incrementCount(realm);
+            decrementCount(previousRealm);
         }
     }
 
@@ -78,55 +93,28 @@ class PolicyCache {
      * @param p Referral privilege.
      */
     public void cache(String dn, ReferralPrivilege p, String realm) {
-        rwlock.writeLock().lock();
-        try {
-            cache.put(dn, p);
-        } finally {
-            rwlock.writeLock().unlock();
-        }
+        cache.put(dn, new CachedPrivilege(p, null));
     }
 
     public void cache(Map<String, Privilege> privileges, boolean force) {
-        rwlock.writeLock().lock();
-        try {
-            for (String dn : privileges.keySet()) {
-                if (force) {
-                    cache.put(dn, privileges.get(dn));
-                } else {
-                    Privilege p = (Privilege)privileges.get(dn);
-                    if (p == null) {
-                        cache.put(dn, privileges.get(dn));
-                    }
-                }
+        for (Map.Entry<String, Privilege> entry : privileges.entrySet()) {
+            if (entry.getValue() != null && (force || !cache.containsKey(entry.getKey()))) {
+                cache.put(entry.getKey(), new CachedPrivilege(entry.getValue(), null));
             }
-        } finally {
-            rwlock.writeLock().unlock();
         }
     }
 
     public void decache(String dn, String realm) {
-        rwlock.writeLock().lock();
-        try {
-            Object p = cache.remove(dn);
-            if (p != null) {
-                // Update cache only if entry removed from cache
-                Integer i = countByRealm.get(realm);
-                if (i != null) {
-                    countByRealm.put(realm, i.intValue() - 1);
-                }
-            }
-        } finally {
-            rwlock.writeLock().unlock();
+        CachedPrivilege p = cache.remove(dn);
+        if (p != null) {
+            // Update cache only if entry removed from cache
+            decrementCount(p.realm);
         }
     }
 
     public Privilege getPolicy(String dn) {
-        rwlock.readLock().lock();
-        try {
-            return (Privilege)cache.get(dn);
-        } finally {
-            rwlock.readLock().unlock();
-        }
+        CachedPrivilege p = cache.get(dn);
+        return (p == null) ? null : (Privilege)p.privilege;
     }
     
     /**
@@ -137,13 +125,8 @@ class PolicyCache {
      * @return cached policies for the realm
      */
     public int getCount(String realm) {
-        rwlock.readLock().lock();
-        try {
-            Integer integer = countByRealm.get(realm);
-            return (integer != null) ? integer : 0;
-        } finally {
-            rwlock.readLock().unlock();
-        }
+        AtomicInteger count = countByRealm.get(realm);
+        return (count != null) ? count.get() : 0;
     }
 
     /**
@@ -151,24 +134,73 @@ class PolicyCache {
      * @return cached policies.
      */
     public int getCount() {
-        rwlock.readLock().lock();
-        try {
-            int total = 0;
-            for (Integer i : countByRealm.values()) {
-                total += i;
-            }
-            return total;
-        } finally {
-            rwlock.readLock().unlock();
+        int total = 0;
+        for (AtomicInteger i : countByRealm.values()) {
+            total += i.get();
         }
+        return total;
     }
 
     public ReferralPrivilege getReferral(String dn) {
-        rwlock.readLock().lock();
-        try {
-            return (ReferralPrivilege)cache.get(dn);
-        } finally {
-            rwlock.readLock().unlock();
+        CachedPrivilege p = cache.get(dn);
+        return (p == null) ? null : (ReferralPrivilege)p.privilege;
+    }
+
+    /**
+     * @return The number of lookups which found a cached privilege.
+     */
+    long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    /**
+     * @return The number of lookups which did not find a cached privilege.
+     */
+    long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    /**
+     * @return The number of privileges evicted because the cache was full.
+     */
+    long getEvictionCount() {
+        return cache.getEvictionCount();
+    }
+
+    private void incrementCount(String realm) {
+        if (realm != null) {
+            AtomicInteger count = countByRealm.get(realm);
+            if (count == null) {
+                AtomicInteger created = new AtomicInteger();
+                count = countByRealm.putIfAbsent(realm, created);
+                if (count == null) {
+                    count = created;
+                }
+            }
+            count.incrementAndGet();
+        }
+    }
+
+    private void decrementCount(String realm) {
+        if (realm != null) {
+            AtomicInteger count = countByRealm.get(realm);
+            if (count != null) {
+                count.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * A cached privilege, with the realm it is counted against. Referrals and bulk cached privileges are not
+     * counted against a realm.
+     */
+    private static final class CachedPrivilege {
+        private final Object privilege;
+        private final String realm;
+
+        private CachedPrivilege(Object privilege, String realm) {
+            this.privilege = privilege;
+            this.realm = realm;
         }
     }
 }
@@ -25,6 +25,7 @@
  * $Id: IdCacheBlock.java,v 1.5 2008/06/25 05:43:30 qcheng Exp $
  *
  * Portions Copyrighted 2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
 package com.sun.identity.idm.common;
@@ -34,6 +35,7 @@ import java.util.Set;
 import com.iplanet.am.sdk.common.CacheBlockBase;
 import com.sun.identity.shared.debug.Debug;
 import com.iplanet.am.util.SystemProperties;
+import org.forgerock.openam.utils.Time;
 
 /**
  * This class represents the value part stored in the cache. Each IdCacheBlock
@@ -84,6 +86,9 @@ public class IdCacheBlock extends CacheBlockBase {
     // Variable to store the fully qualified names for identities
     private Set fullyQualifiedNames;
 
+    // Time at which this block was created or last refreshed, used to decide when it should be refreshed again
+    private volatile long refreshTime = Time.currentTimeMillis();
+
     static {
         ENTRY_EXPIRATION_ENABLED_FLAG = SystemProperties.getAsBoolean(ENTRY_EXPIRATION_ENABLED_KEY, false);
         if (ENTRY_EXPIRATION_ENABLED_FLAG) {
@@ -101,6 +106,22 @@ public class IdCacheBlock extends CacheBlockBase {
         fullyQualifiedNames = fqn;
     }
 
+    /**
+     * Returns the time at which this cache block was created or last refreshed.
+     *
+     * @return the refresh time in milliseconds since the epoch.
+     */
+    public long getRefreshTime() {
+        return refreshTime;
+    }
+
+    /**
+     * Records that the attributes in this cache block have just been re-read from the data stores.
+     */
+    public void markRefreshed() {
+        refreshTime = Time.currentTimeMillis();
+    }
+
     public boolean isEntryExpirationEnabled() {
         return ENTRY_EXPIRATION_ENABLED_FLAG;
     }
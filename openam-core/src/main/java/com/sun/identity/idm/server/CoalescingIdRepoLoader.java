@@ -0,0 +1,185 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+
+package com.sun.identity.idm.server;
+
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+import com.iplanet.sso.SSOException;
+import com.sun.identity.idm.IdRepoException;
+import com.sun.identity.shared.debug.Debug;
+
+/**
+ * Coalesces concurrent loads of the same identity repository data, so that only one request per key is sent to the
+ * data stores at a time and its result is shared with every caller waiting on that key. Loads can also be started in
+ * the background to refresh data which is still being served from the cache.
+ * <p>
+ * Loads are only ever shared between callers with the same identity, as the data stores are read with the
+ * permissions of the caller that started the load.
+ *
+ * @param <V> the type of the loaded value.
+ */
+class CoalescingIdRepoLoader<V> {
+
+    private final ConcurrentMap<LoadKey, FutureTask<V>> inFlight = new ConcurrentHashMap<>();
+    private final Executor refreshExecutor;
+    private final Debug debug;
+
+    /**
+     * Constructs a new loader.
+     *
+     * @param refreshExecutor the executor on which background refreshes are run, or {@code null} if disabled.
+     * @param debug the debug instance to log failed background refreshes to.
+     */
+    CoalescingIdRepoLoader(Executor refreshExecutor, Debug debug) {
+        this.refreshExecutor = refreshExecutor;
+        this.debug = debug;
+    }
+
+    /**
+     * Whether background refreshes can be started by this loader.
+     *
+     * @return {@code true} if the loader has an executor to run background refreshes on.
+     */
+    boolean canRefresh() {
+        return refreshExecutor != null;
+    }
+
+    /**
+     * Runs the loader on the calling thread, unless a load for the same key is already in progress, in which case
+     * the calling thread waits for and returns the result of that load instead.
+     *
+     * @param caller the universal id of the identity the data is loaded on behalf of.
+     * @param key the key identifying the data being loaded.
+     * @param loader the task loading the data.
+     * @return the loaded value, which is shared with other callers with the same identity and key.
+     * @throws IdRepoException if the load failed with an IdRepoException or the calling thread was interrupted.
+     * @throws SSOException if the load failed with an SSOException.
+     */
+    V load(String caller, String key, Callable<V> loader) throws IdRepoException, SSOException {
+        LoadKey loadKey = new LoadKey(caller, key);
+        FutureTask<V> task = new FutureTask<>(loader);
+        FutureTask<V> current = inFlight.putIfAbsent(loadKey, task);
+        if (current == null) {
+            current = task;
+            try {
+                task.run();
+            } finally {
+                inFlight.remove(loadKey, task);
+            }
+        }
+        return getResult(current);
+    }
+
+    /**
+     * Starts the loader in the background, unless a load for the same key is already in progress. Failures are
+     * logged rather than reported.
+     *
+     * @param caller the universal id of the identity the data is loaded on behalf of.
+     * @param key the key identifying the data being loaded.
+     * @param loader the task loading the data.
+     * @return {@code true} if a background load was started.
+     */
+    boolean refresh(String caller, final String key, Callable<V> loader) {
+        final LoadKey loadKey = new LoadKey(caller, key);
+        FutureTask<V> task = new FutureTask<V>(loader) {
+            @Override
+            protected void done() {
+                inFlight.remove(loadKey, this);
+                try {
+                    get();
+                } catch (InterruptedException | ExecutionException e) {
+                    if (debug.messageEnabled()) {
+                        debug.message("CoalescingIdRepoLoader.refresh: Unable to refresh {}", key, e);
+                    }
+                }
+            }
+        };
+        if (!canRefresh() || inFlight.putIfAbsent(loadKey, task) != null) {
+            return false;
+        }
+        try {
+            refreshExecutor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(loadKey, task);
+            return false;
+        }
+    }
+
+    private V getResult(FutureTask<V> task) throws IdRepoException, SSOException {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            IdRepoException exception = new IdRepoException("Interrupted waiting for identity repository data");
+            exception.initCause(e);
+            throw exception;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IdRepoException) {
+                throw (IdRepoException) cause;
+            } else if (cause instanceof SSOException) {
+                throw (SSOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            IdRepoException exception = new IdRepoException(String.valueOf(cause));
+            exception.initCause(cause);
+            throw exception;
+        }
+    }
+
+    /**
+     * Identifies an in-flight load by the data being loaded and the identity it is loaded on behalf of.
+     */
+    private static final class LoadKey {
+
+        private final String caller;
+        private final String key;
+
+        private LoadKey(String caller, String key) {
+            this.caller = caller;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof LoadKey)) {
+                return false;
+            }
+            LoadKey other = (LoadKey) o;
+            return Objects.equals(caller, other.caller) && key.equals(other.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hashCode(caller) + key.hashCode();
+        }
+    }
+}
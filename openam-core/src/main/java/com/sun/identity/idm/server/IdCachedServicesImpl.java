@@ -25,6 +25,7 @@
  * $Id: IdCachedServicesImpl.java,v 1.21 2009/08/25 06:50:53 hengming Exp $
  *
  * Portions Copyrighted 2011-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package com.sun.identity.idm.server;
 
@@ -59,13 +60,18 @@ import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 
+import org.forgerock.guice.core.InjectorHolder;
+import org.forgerock.openam.audit.context.AMExecutorServiceFactory;
 import org.forgerock.openam.utils.CrestQuery;
+import org.forgerock.openam.utils.Time;
 import org.forgerock.util.thread.listener.ShutdownListener;
 import org.forgerock.util.thread.listener.ShutdownManager;
 
@@ -80,6 +86,18 @@ public class IdCachedServicesImpl extends IdServicesImpl implements IdCachedServ
 
     static final int CACHE_MAX_SIZE_INT = 10000;
 
+    static final String CACHE_MAX_TIME_KEY = "org.openidentityplatform.com.iplanet.am.sdk.cache.maxTime";
+
+    static final int CACHE_MAX_TIME = 10;
+
+    /**
+     * Seconds for which an identity cache entry older than the maximum cache time is still served while it is
+     * refreshed in the background. Defaults to 0, in which case entries simply expire.
+     */
+    static final String CACHE_STALE_TIME_KEY = "org.openidentityplatform.com.iplanet.am.sdk.cache.staleTime";
+
+    static final int CACHE_STALE_TIME = 0;
+
     private static int maxSize;
 
     private static IdCachedServicesImpl instance;
@@ -90,6 +108,13 @@ public class IdCachedServicesImpl extends IdServicesImpl implements IdCachedServ
     private Cache<String, Boolean> idRepoExists;
     private Cache<String, Boolean> idRepoActive;
 
+    // Entries older than this are refreshed on access, if stale entries may be served
+    private volatile long maxTimeMillis;
+    private volatile boolean serveStale;
+
+    // One data store read per identity, principal and attribute set at a time
+    private final CoalescingIdRepoLoader<AMHashMap> attributeLoader;
+
     private IdCacheStats cacheStats;
 
     private static Stats stats;
@@ -116,6 +141,9 @@ public class IdCachedServicesImpl extends IdServicesImpl implements IdCachedServ
 
     private IdCachedServicesImpl() {
         super();
+        attributeLoader = new CoalescingIdRepoLoader<>(SystemProperties.getAsInt(CACHE_STALE_TIME_KEY,
+                CACHE_STALE_TIME) > 0 ? InjectorHolder.getInstance(AMExecutorServiceFactory.class)
+                .createFixedThreadPool(2, "IdRepoCacheRefresh") : null, DEBUG);
         initializeCache();
         stats = Stats.getInstance(getClass().getName());
         cacheStats = new IdCacheStats(IdConstants.IDREPO_CACHESTAT);
@@ -126,9 +154,14 @@ public class IdCachedServicesImpl extends IdServicesImpl implements IdCachedServ
     }
 
     private void initializeCache() {
-        idRepoCache = CacheBuilder.newBuilder().maximumSize(maxSize).expireAfterWrite(SystemProperties.getAsInt("org.openidentityplatform.com.iplanet.am.sdk.cache.maxTime", 10), TimeUnit.SECONDS).build();
-        idRepoExists = CacheBuilder.newBuilder().maximumSize(maxSize).expireAfterWrite(SystemProperties.getAsInt("org.openidentityplatform.com.iplanet.am.sdk.cache.maxTime", 10), TimeUnit.SECONDS).build();
-        idRepoActive = CacheBuilder.newBuilder().maximumSize(maxSize).expireAfterWrite(SystemProperties.getAsInt("org.openidentityplatform.com.iplanet.am.sdk.cache.maxTime", 10), TimeUnit.SECONDS).build();
+        final int maxTime = SystemProperties.getAsInt(CACHE_MAX_TIME_KEY, CACHE_MAX_TIME);
+        final int staleTime = attributeLoader.canRefresh()
+                ? Math.max(0, SystemProperties.getAsInt(CACHE_STALE_TIME_KEY, CACHE_STALE_TIME)) : 0;
+        maxTimeMillis = TimeUnit.SECONDS.toMillis(maxTime);
+        serveStale = staleTime > 0;
+        idRepoCache = CacheBuilder.newBuilder().maximumSize(maxSize).expireAfterWrite(maxTime + staleTime, TimeUnit.SECONDS).build();
+        idRepoExists = CacheBuilder.newBuilder().maximumSize(maxSize).expireAfterWrite(maxTime, TimeUnit.SECONDS).build();
+        idRepoActive = CacheBuilder.newBuilder().maximumSize(maxSize).expireAfterWrite(maxTime, TimeUnit.SECONDS).build();
         idCacheServiceAttributes= CacheBuilder.newBuilder().maximumSize(maxSize).expireAfterWrite(SystemProperties.getAsInt("org.openidentityplatform.com.iplanet.am.sdk.service.cache.maxTime", 300), TimeUnit.SECONDS).build();
     }
 
@@ -304,7 +337,11 @@ public class IdCachedServicesImpl extends IdServicesImpl implements IdCachedServ
         case AMEvent.OBJECT_CHANGED:
             cb = getFromCache(dn);
             if (cb != null) {
-                cb.clear(); // Just clear the entry. Don't remove.
+                if (!cosType && !aciChange && (attrNames != null) && !attrNames.isEmpty()) {
+                    cb.removeAttributes(attrNames); // Only the changed attributes are dirty
+                } else {
+                    cb.clear(); // Just clear the entry. Don't remove.
+                }
             }
             if (cosType) {
                 removeCachedAttributes(cachedID, attrNames);
@@ -344,6 +381,112 @@ public class IdCachedServicesImpl extends IdServicesImpl implements IdCachedServ
         idRepoActive.invalidate(key);
     }
 
+    /**
+     * Removes only the given attributes from the cache entry of the identity, so that the rest of its cached
+     * attributes remain valid. Falls back to dirtying the whole entry if the attributes are not known.
+     */
+    private void dirtyCache(String dn, Set attrNames) {
+        String key = DNUtils.normalizeDN(dn);
+        IdCacheBlock cb = idRepoCache.getIfPresent(key);
+        if ((cb != null) && (attrNames != null) && !attrNames.isEmpty() && !cb.hasExpiredAndUpdated()
+                && cb.isExists()) {
+            cb.removeAttributes(attrNames);
+            idRepoExists.invalidate(key);
+            idRepoActive.invalidate(key);
+        } else {
+            dirtyCache(dn);
+        }
+    }
+
+    private boolean isStale(IdCacheBlock cb) {
+        return serveStale && (Time.currentTimeMillis() - cb.getRefreshTime() >= maxTimeMillis);
+    }
+
+    /**
+     * Returns the cache block of the identity, adding a new block if it is missing. An existing block is never
+     * replaced, so that the attributes it holds for other principals are kept.
+     */
+    private IdCacheBlock getCacheBlock(String dn) {
+        IdCacheBlock cb = idRepoCache.getIfPresent(dn);
+        if (cb == null) {
+            IdCacheBlock newBlock = new IdCacheBlock(dn, true);
+            cb = idRepoCache.asMap().putIfAbsent(dn, newBlock);
+            if (cb == null) {
+                cb = newBlock;
+            }
+        }
+        return cb;
+    }
+
+    private static String getLoadKey(IdType type, String dn, String amOrgName, String amsdkDN, Set attrNames,
+            boolean isStringValues) {
+        String attributes = (attrNames == null) ? "*" : new TreeSet<String>(attrNames).toString();
+        return type + "\n" + dn + '\n' + amOrgName + '\n' + amsdkDN + '\n' + isStringValues + '\n' + attributes;
+    }
+
+    /**
+     * Reads the requested attributes from the data stores, sharing the read with concurrent callers with the same
+     * principal, and caches them. Each caller receives its own copy of the attributes.
+     */
+    private AMHashMap loadAttributes(final SSOToken token, final IdType type, final String name,
+            final Set attrNames, final String amOrgName, final String amsdkDN, final boolean isStringValues,
+            final String dn, final String principalDN) throws IdRepoException, SSOException {
+        AMHashMap attributes = attributeLoader.load(principalDN,
+                getLoadKey(type, dn, amOrgName, amsdkDN, attrNames, isStringValues),
+                attributesLoader(token, type, name, attrNames, amOrgName, amsdkDN, isStringValues, dn, principalDN,
+                        false));
+        return (AMHashMap) attributes.getCopy();
+    }
+
+    /**
+     * Re-reads the attributes of a stale cache entry in the background, unless a read is already in progress.
+     */
+    private void refreshAttributes(SSOToken token, IdType type, String name, Set attrNames, String amOrgName,
+            String amsdkDN, boolean isStringValues, String dn, String principalDN) {
+        if (attributeLoader.refresh(principalDN, getLoadKey(type, dn, amOrgName, amsdkDN, attrNames, isStringValues),
+                attributesLoader(token, type, name, attrNames, amOrgName, amsdkDN, isStringValues, dn, principalDN,
+                        true))
+                && DEBUG.messageEnabled()) {
+            DEBUG.message("IdCachedServicesImpl.refreshAttributes(): refreshing stale entry " + dn);
+        }
+    }
+
+    /**
+     * Returns a task which reads the attributes from the data stores and merges them into the cache block of the
+     * identity. A refresh also restarts the stale period of the block; attributes it did not re-read are still
+     * dropped when the block expires.
+     */
+    private Callable<AMHashMap> attributesLoader(final SSOToken token, final IdType type, final String name,
+            final Set attrNames, final String amOrgName, final String amsdkDN, final boolean isStringValues,
+            final String dn, final String principalDN, final boolean refresh) {
+        return new Callable<AMHashMap>() {
+            @Override
+            public AMHashMap call() throws IdRepoException, SSOException {
+                AMHashMap attributes;
+                IdCacheBlock cb;
+                if (attrNames == null) {
+                    attributes = (AMHashMap) IdCachedServicesImpl.super.getAttributes(token, type, name, amOrgName,
+                            amsdkDN);
+                    cb = getCacheBlock(dn);
+                    cb.putAttributes(principalDN, attributes, null, true, false);
+                } else {
+                    attributes = (AMHashMap) IdCachedServicesImpl.super.getAttributes(token, type, name, attrNames,
+                            amOrgName, amsdkDN, isStringValues);
+                    // If the attributes returned here have an empty set as value, then such attributes do not
+                    // have a value or are invalid attributes. Internally keep track of these attributes
+                    // (attribute level negative caching).
+                    Set missAttrNames = attributes.getMissingAndEmptyKeys(attrNames);
+                    cb = getCacheBlock(dn);
+                    cb.putAttributes(principalDN, attributes, missAttrNames, false, !isStringValues);
+                }
+                if (refresh) {
+                    cb.markRefreshed();
+                }
+                return attributes;
+            }
+        };
+    }
+
     public Map getAttributes(SSOToken token, IdType type, String name,
         Set attrNames, String amOrgName, String amsdkDN,
         boolean isStringValues) throws IdRepoException, SSOException {
@@ -393,18 +536,10 @@ public class IdCachedServicesImpl extends IdServicesImpl implements IdCachedServ
                         + attrNames);
             }
 
-            // If the attributes returned here have an empty set as value, then
-            // such attributes do not have a value or invalid attributes.
-            // Internally keep track of these attributes.
-            attributes = (AMHashMap) super.getAttributes(token, type, name,
-                    attrNames, amOrgName, amsdkDN, isStringValues);
-
-            // Find the missing attributes and add to cache
-            Set missAttrNames = attributes.getMissingAndEmptyKeys(attrNames);
-            cb = new IdCacheBlock(dn, true);
-            cb.putAttributes(principalDN, attributes, missAttrNames, false,
-                    !isStringValues);
-            idRepoCache.put(dn, cb);
+            // Read from the data stores and add to cache, tracking the
+            // missing attributes.
+            attributes = loadAttributes(token, type, name, attrNames,
+                    amOrgName, amsdkDN, isStringValues, dn, principalDN);
         } else { // Entry present in cache
             attributes = (AMHashMap) cb.getAttributes(principalDN, attrNames,
                     !isStringValues);
@@ -420,17 +555,10 @@ public class IdCachedServicesImpl extends IdServicesImpl implements IdCachedServ
                             + "attributes from DS: "
                             + missAttrNames);
                 }
-                AMHashMap dsAttributes = (AMHashMap) super.getAttributes(token,
-                        type, name, attrNames, amOrgName, amsdkDN,
-                        isStringValues);
-                attributes.putAll(dsAttributes);
-
                 // Add these attributes, may be found in DS or just mark them
                 // as invalid (Attribute level Negative caching)
-                Set newMissAttrNames = dsAttributes
-                        .getMissingAndEmptyKeys(missAttrNames);
-                cb.putAttributes(principalDN, dsAttributes, newMissAttrNames,
-                        false, !isStringValues);
+                attributes.putAll(loadAttributes(token, type, name, attrNames,
+                        amOrgName, amsdkDN, isStringValues, dn, principalDN));
             } else { // All attributes found in cache
                 cacheStats.updateGetHitCount(getSize());
                 if (MonitoringUtil.isRunning() &&
@@ -443,6 +571,10 @@ public class IdCachedServicesImpl extends IdServicesImpl implements IdCachedServ
                             + ".getAttributes(): " + amsdkDN
                             + " found all attributes in Cache.");
                 }
+                if (isStale(cb)) {
+                    refreshAttributes(token, type, name, attrNames, amOrgName,
+                            amsdkDN, isStringValues, dn, principalDN);
+                }
             }
         }
         return attributes;
@@ -540,6 +672,10 @@ public class IdCachedServicesImpl extends IdServicesImpl implements IdCachedServ
                     + " found all attributes in Cache.");
             }
             attributes = (AMHashMap) cb.getAttributes(principalDN, false);
+            if (isStale(cb)) {
+                refreshAttributes(token, type, name, null, amOrgName, amsdkDN,
+                        true, dn, principalDN);
+            }
         } else {
             // Get all the attributes from data store
             if (DEBUG.messageEnabled()) {
@@ -548,13 +684,8 @@ public class IdCachedServicesImpl extends IdServicesImpl implements IdCachedServ
                     + " complete attribute"
                     + " set NOT found in cache. Getting from DS.");
             }
-            attributes = (AMHashMap) super.getAttributes(token, type, name,
-                amOrgName, amsdkDN);
-            if (cb == null) {
-                cb = new IdCacheBlock(dn, true);
-                idRepoCache.put(dn, cb);
-            }
-            cb.putAttributes(principalDN, attributes, null, true, false);
+            attributes = loadAttributes(token, type, name, null, amOrgName,
+                amsdkDN, true, dn, principalDN);
             if (DEBUG.messageEnabled()) {
                 DEBUG.message("IdCachedServicesImpl.getAttributes(): "
                         + "attributes NOT found in cache. Fetched from DS.");
@@ -593,7 +724,7 @@ public class IdCachedServicesImpl extends IdServicesImpl implements IdCachedServ
 //                updateCache(token, dn, null, attributes);
 //            }
 //        } else {
-            dirtyCache(dn);
+            dirtyCache(dn, attributes.keySet());
 //        }
     }
 
@@ -634,7 +765,7 @@ public class IdCachedServicesImpl extends IdServicesImpl implements IdCachedServ
 //            // Remove the attributes
 //            cb.removeAttributes(attrNames);
 //        }
-        dirtyCache(dn);
+        dirtyCache(dn, attrNames);
     }
 
     @SuppressWarnings("unchecked")
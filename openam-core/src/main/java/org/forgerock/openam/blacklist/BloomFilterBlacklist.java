@@ -12,17 +12,16 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
 package org.forgerock.openam.blacklist;
 
 import javax.annotation.Nonnull;
 import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
 
 import com.sun.identity.shared.debug.Debug;
-import org.forgerock.bloomfilter.BloomFilter;
-import org.forgerock.bloomfilter.BloomFilters;
-import org.forgerock.bloomfilter.ConcurrencyStrategy;
 import org.forgerock.bloomfilter.ExpiryStrategy;
 import com.google.common.hash.Funnel;
 import com.google.common.hash.Funnels;
@@ -30,28 +29,32 @@ import com.google.common.hash.PrimitiveSink;
 import org.forgerock.openam.utils.StringUtils;
 import org.forgerock.util.Reject;
 import org.forgerock.util.annotations.VisibleForTesting;
+import org.forgerock.util.time.TimeService;
 
 /**
  * A entry blacklist decorator implementation that uses a bloom filter to reduce the number of checks that need to
  * be performed against the underlying blacklist implementation. The advantage of a bloom filter is that it can store
  * very large blacklists (millions of entries) in memory, but with some possibility of false positives.
+ * <p/>
+ * Entries are aged out of the bloom filter once their blacklist expiry time has passed, so the false positive rate
+ * (and therefore the rate of checks against the underlying blacklist) stays steady over time.
  *
  * @param <T> The blacklist type.
  */
 public final class BloomFilterBlacklist<T extends Blacklistable> implements Blacklist<T> {
     private static final double FALSE_POSITIVE_PROBABILITY = 0.001d; // 0.1%
     private static final int NUM_EXPECTED_BLACKLISTED_ENTRIES = 10000;
-    private static final int CAPACITY_GROWTH_FACTOR = 2;
-    private static final double FALSE_POSITIVE_PROBABILITY_SCALE_FACTOR = 0.6d;
+    private static final long GENERATION_DURATION_MS = TimeUnit.MINUTES.toMillis(10);
 
     private static final Debug DEBUG = Debug.getInstance("blacklist");
 
     private final Blacklist<T> delegate;
     private final long purgeDelayMs;
-    private final BloomFilter<BlacklistEntry> bloomFilter;
+    private final RollingBloomFilter<BlacklistEntry> bloomFilter;
 
     @VisibleForTesting
-    BloomFilterBlacklist(Blacklist<T> delegate, long purgeDelayMs, final BloomFilter<BlacklistEntry> bloomFilter) {
+    BloomFilterBlacklist(Blacklist<T> delegate, long purgeDelayMs,
+            final RollingBloomFilter<BlacklistEntry> bloomFilter) {
         Reject.ifNull(delegate, bloomFilter);
 
         this.delegate = delegate;
@@ -81,14 +84,9 @@ public final class BloomFilterBlacklist<T extends Blacklistable> implements Blac
      * @param purgeDelayMs The purge delay in milli seconds.
      */
     public BloomFilterBlacklist(Blacklist<T> delegate, long purgeDelayMs) {
-        this(delegate, purgeDelayMs, BloomFilters.create(EntryFunnel.INSTANCE)
-                        .withFalsePositiveProbability(FALSE_POSITIVE_PROBABILITY)
-                        .withInitialCapacity(NUM_EXPECTED_BLACKLISTED_ENTRIES)
-                        .withExpiryStrategy(EntryExpirationStrategy.INSTANCE)
-                        .withCapacityGrowthFactor(CAPACITY_GROWTH_FACTOR)
-                        .withFalsePositiveProbabilityScaleFactor(FALSE_POSITIVE_PROBABILITY_SCALE_FACTOR)
-                        .withConcurrencyStrategy(ConcurrencyStrategy.ATOMIC)
-                        .build());
+        this(delegate, purgeDelayMs, new RollingBloomFilter<>(EntryFunnel.INSTANCE, EntryExpirationStrategy.INSTANCE,
+                NUM_EXPECTED_BLACKLISTED_ENTRIES, FALSE_POSITIVE_PROBABILITY, GENERATION_DURATION_MS,
+                TimeService.SYSTEM));
     }
 
     @Override
@@ -112,6 +110,21 @@ public final class BloomFilterBlacklist<T extends Blacklistable> implements Blac
         delegate.subscribe(listener);
     }
 
+    /**
+     * @return the current estimated probability that an entry which is not blacklisted passes the bloom filter
+     * and has to be checked against the underlying blacklist.
+     */
+    public double getFalsePositiveProbability() {
+        return bloomFilter.getFalsePositiveProbability();
+    }
+
+    /**
+     * @return the proportion of bits set in the bloom filter.
+     */
+    public double getFillRatio() {
+        return bloomFilter.getFillRatio();
+    }
+
     /**
      * Adapter to allow entries to be stored in Guava bloom filters. Uses the UTF-8 encoded bytes of the
      * stable id of the entry as the key.
@@ -0,0 +1,122 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+
+package org.forgerock.openam.blacklist;
+
+import org.forgerock.util.Reject;
+import org.forgerock.util.annotations.VisibleForTesting;
+import org.forgerock.util.time.TimeService;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Caches blacklist results in a segmented concurrent cache, so that checking the blacklist does not serialise
+ * requests on a single lock.
+ * <p/>
+ * Positive results are cached until the entry's blacklist expiry time, evicting least-recently used entries once
+ * full. Entries blacklisted locally, or reported as blacklisted on another server through
+ * {@link #onBlacklisted(String, long)}, are added to the cache. Negative results are never cached, so an entry
+ * blacklisted on another server is seen as soon as the delegate sees it; the bloom filter in front of this cache
+ * already answers most negative checks cheaply.
+ *
+ * @param <T> The blacklist type.
+ */
+public final class ConcurrentCachingBlacklist<T extends Blacklistable> implements Blacklist<T> {
+    private static final int CONCURRENCY_LEVEL = 16;
+
+    private final Blacklist<T> delegate;
+    private final Cache<String, Long> blacklisted;
+    private final long purgeDelayMs;
+    private final TimeService clock;
+
+    @VisibleForTesting
+    ConcurrentCachingBlacklist(Blacklist<T> delegate, int maxSize, long purgeDelayMs, TimeService clock) {
+        Reject.ifNull(delegate, clock);
+        Reject.ifFalse(maxSize > 0, "maxSize must be > 0");
+        this.delegate = delegate;
+        this.purgeDelayMs = purgeDelayMs;
+        this.clock = clock;
+        this.blacklisted = CacheBuilder.newBuilder()
+                .concurrencyLevel(CONCURRENCY_LEVEL)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    /**
+     * Constructs the caching entry blacklist with the given delegate blacklist and maximum cache size.
+     *
+     * @param delegate the delegate to defer cache misses to.
+     * @param maxSize the maximum number of blacklisted entries to cache.
+     * @param purgeDelayMs the additional delay before purging elements from the cache.
+     */
+    public ConcurrentCachingBlacklist(Blacklist<T> delegate, int maxSize, long purgeDelayMs) {
+        this(delegate, maxSize, purgeDelayMs, TimeService.SYSTEM);
+    }
+
+    @Override
+    public void blacklist(T entry) throws BlacklistException {
+        final String key = entry.getStableStorageID();
+        if (blacklisted.asMap().put(key, entry.getBlacklistExpiryTime() + purgeDelayMs) == null) {
+            // Only blacklist entries that are not already in the cache.
+            delegate.blacklist(entry);
+        }
+    }
+
+    @Override
+    public boolean isBlacklisted(T entry) throws BlacklistException {
+        final String key = entry.getStableStorageID();
+        if (isLive(key, clock.now())) {
+            return true;
+        }
+
+        boolean isBlacklisted = delegate.isBlacklisted(entry);
+        if (isBlacklisted) {
+            blacklisted.put(key, entry.getBlacklistExpiryTime() + purgeDelayMs);
+        }
+        return isBlacklisted;
+    }
+
+    /**
+     * Caches an entry reported as blacklisted on another server. The cache does not subscribe to its delegate
+     * itself, as the delegate has no way to unsubscribe a cache which has been replaced; the owner of the cache
+     * forwards the notifications instead.
+     *
+     * @param id the stable id of the entry that has been blacklisted.
+     * @param expiryTime the time (in milliseconds from UTC epoch) at which the entry will be expunged.
+     */
+    void onBlacklisted(String id, long expiryTime) {
+        blacklisted.put(id, expiryTime);
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        // Pass straight through to delegate
+        delegate.subscribe(listener);
+    }
+
+    private boolean isLive(String key, long now) {
+        Long expiryTime = blacklisted.getIfPresent(key);
+        if (expiryTime == null) {
+            return false;
+        }
+        if (expiryTime < now) {
+            blacklisted.asMap().remove(key, expiryTime);
+            return false;
+        }
+        return true;
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
 package org.forgerock.openam.blacklist;
@@ -32,7 +33,9 @@ public class ConfigurableSessionBlacklist implements Blacklist<Session> {
 
     private CTSBlacklist<Session> ctsBlacklist;
     private final SessionServiceConfig sessionServiceConfig;
-    private Blacklist<Session> delegate;
+    private volatile Blacklist<Session> delegate;
+    private volatile ConcurrentCachingBlacklist<Session> concurrentCache;
+    private boolean subscribedToCtsBlacklist;
 
     /**
      * Create a configurable session blacklist based on the session service config.
@@ -74,9 +77,30 @@ public class ConfigurableSessionBlacklist implements Blacklist<Session> {
         delegate.subscribe(listener);
     }
 
-    private void reloadDelegate() {
+    /**
+     * @return the estimated false positive probability of the session blacklist bloom filter, or zero if the bloom
+     * filter is not in use.
+     */
+    public double getBloomFilterFalsePositiveProbability() {
+        Blacklist<Session> blacklist = delegate;
+        return blacklist instanceof BloomFilterBlacklist
+                ? ((BloomFilterBlacklist<Session>) blacklist).getFalsePositiveProbability() : 0.0d;
+    }
+
+    /**
+     * @return the proportion of bits set in the session blacklist bloom filter, or zero if the bloom filter is not
+     * in use.
+     */
+    public double getBloomFilterFillRatio() {
+        Blacklist<Session> blacklist = delegate;
+        return blacklist instanceof BloomFilterBlacklist
+                ? ((BloomFilterBlacklist<Session>) blacklist).getFillRatio() : 0.0d;
+    }
+
+    private synchronized void reloadDelegate() {
         if (!sessionServiceConfig.isSessionBlacklistingEnabled()) {
             this.delegate = new NoOpBlacklist<>();
+            this.concurrentCache = null;
             return;
         }
 
@@ -85,14 +109,45 @@ public class ConfigurableSessionBlacklist implements Blacklist<Session> {
         final long pollIntervalMs = sessionServiceConfig.getSessionBlacklistPollInterval(TimeUnit.MILLISECONDS);
 
         Blacklist<Session> blacklist = ctsBlacklist;
+        ConcurrentCachingBlacklist<Session> concurrentCache = null;
         if (cacheSize > 0) {
-            blacklist = new CachingBlacklist<>(blacklist, cacheSize, purgeDelayMs);
+            if (sessionServiceConfig.isSessionBlacklistConcurrentCacheEnabled()) {
+                concurrentCache = new ConcurrentCachingBlacklist<>(blacklist, cacheSize, purgeDelayMs);
+                blacklist = concurrentCache;
+            } else {
+                blacklist = new CachingBlacklist<>(blacklist, cacheSize, purgeDelayMs);
+            }
         }
+        this.concurrentCache = concurrentCache;
 
         if (pollIntervalMs > 0) {
+            if (concurrentCache != null) {
+                subscribeConcurrentCache();
+            }
             blacklist = new BloomFilterBlacklist<>(blacklist, purgeDelayMs);
         }
 
         this.delegate = blacklist;
     }
+
+    /**
+     * Subscribes a single listener to the CTS blacklist, forwarding the entries blacklisted on other servers to the
+     * current concurrent cache. Subscribing each new cache instead would keep every replaced cache referenced by the
+     * CTS blacklist. Only called when polling is enabled, as the CTS blacklist starts polling on subscription.
+     */
+    private void subscribeConcurrentCache() {
+        if (subscribedToCtsBlacklist) {
+            return;
+        }
+        subscribedToCtsBlacklist = true;
+        ctsBlacklist.subscribe(new Listener() {
+            @Override
+            public void onBlacklisted(String id, long expiryTime) {
+                ConcurrentCachingBlacklist<Session> cache = concurrentCache;
+                if (cache != null) {
+                    cache.onBlacklisted(id, expiryTime);
+                }
+            }
+        });
+    }
 }
@@ -0,0 +1,269 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+
+package org.forgerock.openam.blacklist;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.forgerock.bloomfilter.ExpiryStrategy;
+import org.forgerock.util.Reject;
+import org.forgerock.util.time.TimeService;
+
+import com.google.common.hash.Funnel;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+/**
+ * A bloom filter which ages out elements according to their expiry time, so that the false positive rate stays
+ * steady rather than climbing as expired elements accumulate.
+ * <p/>
+ * Elements are placed into a generation according to their expiry time, each generation covering a fixed window of
+ * expiry times. Once the end of a generation's window has passed, every element in it has expired and the whole
+ * generation is dropped. Each generation starts with a single bit array sized for the expected number of insertions,
+ * and adds a further bit array whenever the current one reaches that capacity.
+ * <p/>
+ * Bits are set with compare-and-swap operations, so the filter is thread safe without locking on the hot path.
+ *
+ * @param <T> The element type.
+ */
+class RollingBloomFilter<T> {
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+    private final Funnel<? super T> funnel;
+    private final ExpiryStrategy<T> expiryStrategy;
+    private final TimeService clock;
+    private final long generationDurationMs;
+    private final int expectedInsertions;
+    private final int numBits;
+    private final int numHashFunctions;
+    private final ConcurrentNavigableMap<Long, Generation> generations = new ConcurrentSkipListMap<>();
+
+    /**
+     * Creates a rolling bloom filter.
+     *
+     * @param funnel the funnel used to hash elements.
+     * @param expiryStrategy determines the time after which an element no longer needs to be stored.
+     * @param expectedInsertions the number of insertions each bit array is sized for.
+     * @param falsePositiveProbability the desired false positive probability of each bit array when full.
+     * @param generationDurationMs the window of expiry times covered by each generation.
+     * @param clock the source of the current time.
+     */
+    RollingBloomFilter(Funnel<? super T> funnel, ExpiryStrategy<T> expiryStrategy, int expectedInsertions,
+            double falsePositiveProbability, long generationDurationMs, TimeService clock) {
+        Reject.ifNull(funnel, expiryStrategy, clock);
+        Reject.ifFalse(expectedInsertions > 0, "expectedInsertions must be > 0");
+        Reject.ifFalse(falsePositiveProbability > 0 && falsePositiveProbability < 1,
+                "falsePositiveProbability must be between 0 and 1");
+        Reject.ifFalse(generationDurationMs > 0, "generationDurationMs must be > 0");
+        this.funnel = funnel;
+        this.expiryStrategy = expiryStrategy;
+        this.clock = clock;
+        this.generationDurationMs = generationDurationMs;
+        this.expectedInsertions = expectedInsertions;
+        this.numBits = optimalNumBits(expectedInsertions, falsePositiveProbability);
+        this.numHashFunctions = optimalNumHashFunctions(expectedInsertions, numBits);
+    }
+
+    /**
+     * Adds the element to the filter until its expiry time. Elements which have already expired are ignored.
+     *
+     * @param element the element to add.
+     */
+    void add(T element) {
+        long now = clock.now();
+        expireGenerations(now);
+        long expiryTime = expiryStrategy.expiryTime(element);
+        if (expiryTime <= now) {
+            return;
+        }
+        getOrCreateGeneration(expiryTime / generationDurationMs).add(hash(element));
+    }
+
+    /**
+     * Tests whether the element might have been added to the filter and not yet expired.
+     *
+     * @param element the element to test.
+     * @return {@code false} if the element has definitely not been added, or has expired.
+     */
+    boolean mightContain(T element) {
+        expireGenerations(clock.now());
+        long[] hash = hash(element);
+        for (Generation generation : generations.values()) {
+            if (generation.mightContain(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the current estimated probability that {@link #mightContain(Object)} returns {@code true} for an
+     * element that has not been added, based on the bits set in the live generations.
+     */
+    double getFalsePositiveProbability() {
+        expireGenerations(clock.now());
+        double trueNegativeProbability = 1.0d;
+        for (Generation generation : generations.values()) {
+            for (BitArray bits : generation.bitArrays) {
+                trueNegativeProbability *= 1.0d - Math.pow(bits.getFillRatio(), numHashFunctions);
+            }
+        }
+        return 1.0d - trueNegativeProbability;
+    }
+
+    /**
+     * @return the proportion of bits set across all live generations, or zero if the filter is empty.
+     */
+    double getFillRatio() {
+        expireGenerations(clock.now());
+        long bitsSet = 0;
+        long totalBits = 0;
+        for (Generation generation : generations.values()) {
+            for (BitArray bits : generation.bitArrays) {
+                bitsSet += bits.bitCount.get();
+                totalBits += numBits;
+            }
+        }
+        return totalBits == 0 ? 0.0d : (double) bitsSet / totalBits;
+    }
+
+    private void expireGenerations(long now) {
+        Map<Long, Generation> expired = generations.headMap(now / generationDurationMs);
+        if (!expired.isEmpty()) {
+            expired.clear();
+        }
+    }
+
+    private Generation getOrCreateGeneration(long index) {
+        Generation generation = generations.get(index);
+        if (generation == null) {
+            Generation created = new Generation();
+            generation = generations.putIfAbsent(index, created);
+            if (generation == null) {
+                generation = created;
+            }
+        }
+        return generation;
+    }
+
+    private long[] hash(T element) {
+        ByteBuffer bytes = ByteBuffer.wrap(HASH_FUNCTION.hashObject(element, funnel).asBytes());
+        return new long[] { bytes.getLong(), bytes.getLong() };
+    }
+
+    private static int optimalNumBits(long expectedInsertions, double falsePositiveProbability) {
+        return (int) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+    }
+
+    private static int optimalNumHashFunctions(long expectedInsertions, long numBits) {
+        return Math.max(1, (int) Math.round((double) numBits / expectedInsertions * Math.log(2)));
+    }
+
+    /**
+     * The elements expiring within one window of time. Grows by adding bit arrays as each one fills up.
+     */
+    private final class Generation {
+        private final List<BitArray> bitArrays = new CopyOnWriteArrayList<>();
+        private volatile BitArray current;
+
+        private Generation() {
+            current = new BitArray();
+            bitArrays.add(current);
+        }
+
+        private void add(long[] hash) {
+            BitArray bits = current;
+            if (bits.insertions.incrementAndGet() > expectedInsertions) {
+                bits = grow(bits);
+            }
+            bits.set(hash);
+        }
+
+        private synchronized BitArray grow(BitArray full) {
+            if (current == full) {
+                current = new BitArray();
+                bitArrays.add(current);
+            }
+            return current;
+        }
+
+        private boolean mightContain(long[] hash) {
+            for (BitArray bits : bitArrays) {
+                if (bits.mightContain(hash)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Lock free bit array using double hashing to derive the bit positions of each element.
+     */
+    private final class BitArray {
+        private final AtomicLongArray words = new AtomicLongArray((numBits + Long.SIZE - 1) / Long.SIZE);
+        private final AtomicLong bitCount = new AtomicLong();
+        private final AtomicInteger insertions = new AtomicInteger();
+
+        private void set(long[] hash) {
+            for (int i = 0; i < numHashFunctions; i++) {
+                int index = index(hash, i);
+                int word = index / Long.SIZE;
+                long mask = 1L << index;
+                long value;
+                do {
+                    value = words.get(word);
+                    if ((value & mask) != 0) {
+                        break;
+                    }
+                } while (!words.compareAndSet(word, value, value | mask));
+                if ((value & mask) == 0) {
+                    bitCount.incrementAndGet();
+                }
+            }
+        }
+
+        private boolean mightContain(long[] hash) {
+            for (int i = 0; i < numHashFunctions; i++) {
+                int index = index(hash, i);
+                if ((words.get(index / Long.SIZE) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private double getFillRatio() {
+            return (double) bitCount.get() / numBits;
+        }
+
+        private int index(long[] hash, int i) {
+            long combined = hash[0] + i * hash[1];
+            if (combined < 0) {
+                combined = ~combined;
+            }
+            return (int) (combined % numBits);
+        }
+    }
+}
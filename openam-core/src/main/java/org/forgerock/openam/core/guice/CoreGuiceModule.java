@@ -13,6 +13,7 @@
  *
  * Copyright 2013-2016 ForgeRock AS.
  * Portions Copyrighted 2015 Nomura Research Institute, Ltd.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
 package org.forgerock.openam.core.guice;
@@ -341,12 +342,17 @@ public class CoreGuiceModule extends AbstractModule {
     }
 
     @Provides @Singleton @Inject
-    public static Blacklist<Session> getSessionBlacklist(final CTSBlacklist<Session> ctsBlacklist,
-            final SessionServiceConfig serviceConfig) {
+    public static ConfigurableSessionBlacklist getConfigurableSessionBlacklist(
+            final CTSBlacklist<Session> ctsBlacklist, final SessionServiceConfig serviceConfig) {
 
         return ConfigurableSessionBlacklist.createConfigurableSessionBlacklist(ctsBlacklist, serviceConfig);
     }
 
+    @Provides @Singleton @Inject
+    public static Blacklist<Session> getSessionBlacklist(final ConfigurableSessionBlacklist sessionBlacklist) {
+        return sessionBlacklist;
+    }
+
     @Provides @Singleton @Inject
     public SuperUserDelegate getSuperUserDelegate() {
         return StatelessAdminRestriction.createAuthDDelegate();
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package org.forgerock.openam.cts;
 
@@ -47,6 +48,12 @@ public class CoreTokenConfig {
     private volatile int cleanupPageSize;
     private volatile int sleepInterval;
 
+    // Partitioned CTS worker queries
+    private volatile int reaperPartitions;
+    private volatile long reaperPartitionSpan;
+    private volatile int reaperConcurrency;
+    private volatile int reaperTargetLatency;
+
     // Token Blob strategy flags
     private volatile boolean tokensEncrypted;
     private volatile boolean tokensCompressed;
@@ -69,7 +76,11 @@ public class CoreTokenConfig {
                 Constants.SESSION_REPOSITORY_ATTRIBUTE_NAME_COMPRESSION,
                 Constants.CORE_TOKEN_RESOURCE_ENABLED,
                 CLEANUP_PERIOD,
-                HEALTH_CHECK_PERIOD
+                HEALTH_CHECK_PERIOD,
+                REAPER_PARTITIONS,
+                REAPER_PARTITION_SPAN,
+                REAPER_CONCURRENCY,
+                REAPER_TARGET_LATENCY
         };
         ConfigurationListener listener = new ConfigurationListener() {
             @Override
@@ -117,6 +128,13 @@ public class CoreTokenConfig {
         // Controls the size of pages requested for CTS Reaper
         cleanupPageSize = 1000;
 
+        // Expiry time windows the CTS Reaper queries are split into, by default a single query covers all tokens.
+        reaperPartitions = Math.max(1, getSystemManagerPropertyAsInt(REAPER_PARTITIONS, 1));
+        // 1 hour
+        reaperPartitionSpan = Math.max(1, getSystemManagerPropertyAsInt(REAPER_PARTITION_SPAN, 60 * 60 * 1000));
+        reaperConcurrency = Math.max(1, getSystemManagerPropertyAsInt(REAPER_CONCURRENCY, 4));
+        reaperTargetLatency = Math.max(1, getSystemManagerPropertyAsInt(REAPER_TARGET_LATENCY, 5 * 1000));
+
         // Whether or not use of the CoreTokenResource is enabled.
         coreTokenResourceEnabled = SystemProperties.getAsBoolean(Constants.CORE_TOKEN_RESOURCE_ENABLED);
     }
@@ -233,6 +251,36 @@ public class CoreTokenConfig {
         return cleanupPageSize;
     }
 
+    /**
+     * @return The number of expiry time windows the CTS Reaper queries are split into. One if the queries are not
+     * partitioned.
+     */
+    public int getReaperPartitions() {
+        return reaperPartitions;
+    }
+
+    /**
+     * @return The duration in the given time units, ending now, which is divided between the CTS Reaper expiry time
+     * windows.
+     */
+    public long getReaperPartitionSpan(TimeUnit timeUnit) {
+        return timeUnit.convert(reaperPartitionSpan, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return The maximum number of CTS Reaper expiry time windows processed at the same time.
+     */
+    public int getReaperConcurrency() {
+        return Math.min(reaperPartitions, reaperConcurrency);
+    }
+
+    /**
+     * @return The time in the given time units within which the CTS Reaper should process a page of tokens.
+     */
+    public long getReaperTargetLatency(TimeUnit timeUnit) {
+        return timeUnit.convert(reaperTargetLatency, TimeUnit.MILLISECONDS);
+    }
+
     /**
      * Register a listener to be notified when {@link CoreTokenConfig} changes.
      *
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package org.forgerock.openam.cts;
 
@@ -38,6 +39,7 @@ import org.forgerock.openam.cts.impl.query.worker.queries.SessionIdleTimeExpired
 import org.forgerock.openam.cts.impl.queue.ResultHandlerFactory;
 import org.forgerock.openam.cts.monitoring.CTSConnectionMonitoringStore;
 import org.forgerock.openam.cts.monitoring.CTSOperationsMonitoringStore;
+import org.forgerock.openam.cts.monitoring.CTSQueueMonitoringStore;
 import org.forgerock.openam.cts.monitoring.CTSReaperMonitoringStore;
 import org.forgerock.openam.cts.monitoring.impl.CTSMonitoringStoreImpl;
 import org.forgerock.openam.cts.monitoring.impl.queue.MonitoredResultHandlerFactory;
@@ -119,6 +121,7 @@ public class CoreTokenServiceGuiceModule extends PrivateModule {
         bind(CTSOperationsMonitoringStore.class).to(CTSMonitoringStoreImpl.class);
         bind(CTSReaperMonitoringStore.class).to(CTSMonitoringStoreImpl.class);
         bind(CTSConnectionMonitoringStore.class).to(CTSMonitoringStoreImpl.class);
+        bind(CTSQueueMonitoringStore.class).to(CTSMonitoringStoreImpl.class);
 
         // Enable monitoring of all CTS operations
         bind(ResultHandlerFactory.class).to(MonitoredResultHandlerFactory.class);
@@ -142,6 +145,7 @@ public class CoreTokenServiceGuiceModule extends PrivateModule {
         expose(CTSConnectionMonitoringStore.class);
         expose(CTSOperationsMonitoringStore.class);
         expose(CTSReaperMonitoringStore.class);
+        expose(CTSQueueMonitoringStore.class);
         
         expose(ExecutorService.class).annotatedWith(Names.named(CoreTokenConstants.CTS_WORKER_POOL));
         expose(ObjectMapper.class).annotatedWith(Names.named(CoreTokenConstants.OBJECT_MAPPER));
@@ -185,6 +189,20 @@ public class CoreTokenServiceGuiceModule extends PrivateModule {
         return esf.createFixedThreadPool(5, "CTSMonitoring");
     }
 
+    /**
+     * The CTS Reaper Pool processes the expiry time windows of the CTS worker queries when they are partitioned.
+     *
+     * It is shared by all CTS worker tasks, bounding the number of windows processed at the same time.
+     *
+     * @param esf Factory for generating an appropriate ExecutorService.
+     * @param config Required to resolve how many windows may be processed at the same time.
+     * @return A configured ExecutorService, appropriate for the CTS worker tasks.
+     */
+    @Provides @Inject @Singleton @Named(CoreTokenConstants.CTS_REAPER_POOL)
+    ExecutorService getCTSReaperExecutorService(AMExecutorServiceFactory esf, CoreTokenConfig config) {
+        return esf.createFixedThreadPool(config.getReaperConcurrency(), CoreTokenConstants.CTS_REAPER_POOL);
+    }
+
     @Provides @Inject @Named(CTSWorkerConstants.DELETE_ALL_MAX_EXPIRED)
     CTSWorkerTask getDeleteAllMaxExpiredReaperTask(
             CTSWorkerPastExpiryDateQuery query,
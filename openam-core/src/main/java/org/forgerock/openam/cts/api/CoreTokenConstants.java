@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package org.forgerock.openam.cts.api;
 
@@ -69,6 +70,34 @@ public final class CoreTokenConstants {
      * The name of the general purpose worker pool for the CTS.
      */
     public static final String CTS_WORKER_POOL = "CTSWorkerPool";
+
+    /**
+     * The name of the thread pool on which the expiry time windows of the CTS worker queries are processed.
+     */
+    public static final String CTS_REAPER_POOL = "CTSReaperPool";
+
+    /**
+     * Number of expiry time windows the CTS worker queries are split into. Windows are processed in parallel when
+     * greater than one.
+     */
+    public static final String REAPER_PARTITIONS = "org.openidentityplatform.openam.cts.reaper.partitions";
+
+    /**
+     * Duration in milliseconds, ending now, divided equally between the expiry time windows. The oldest window
+     * also covers everything which expired before this duration.
+     */
+    public static final String REAPER_PARTITION_SPAN = "org.openidentityplatform.openam.cts.reaper.partitionSpan";
+
+    /**
+     * Maximum number of expiry time windows which are processed at the same time.
+     */
+    public static final String REAPER_CONCURRENCY = "org.openidentityplatform.openam.cts.reaper.concurrency";
+
+    /**
+     * Time in milliseconds within which a page of expired tokens should be processed. Slower pages reduce the
+     * number of pages the CTS workers process at the same time.
+     */
+    public static final String REAPER_TARGET_LATENCY = "org.openidentityplatform.openam.cts.reaper.targetLatency";
     public static final String CTS_SMS_CONFIGURATION = "CTSServerConfiguration";
 
     /**
@@ -126,6 +155,21 @@ public final class CoreTokenConstants {
      */
     public static final String CTS_ASYNC_QUEUE_SIZE = "org.forgerock.services.cts.async.queue.size";
 
+    /**
+     * Enable/disable a dedicated asynchronous work queue per task processor, selected by Token ID.
+     */
+    public static final String CTS_ASYNC_QUEUE_SHARDED = "org.forgerock.services.cts.async.queue.sharded";
+
+    /**
+     * The maximum number of tasks a task processor will draw from its queue to process as a single batch.
+     */
+    public static final String CTS_ASYNC_BATCH_SIZE = "org.forgerock.services.cts.async.batch.size";
+
+    /**
+     * The maximum duration in milliseconds a task processor will wait for further tasks to fill a batch.
+     */
+    public static final String CTS_ASYNC_BATCH_DELAY = "org.forgerock.services.cts.async.batch.delay";
+
     /**
      * Binding constant for the CTS Jackson Object Mapper.
      */
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
 package org.forgerock.openam.cts.impl;
@@ -37,7 +38,7 @@ import org.forgerock.openam.sm.datalayer.api.DataLayerException;
 import org.forgerock.openam.sm.datalayer.api.DataLayerRuntimeException;
 import org.forgerock.openam.sm.datalayer.api.LdapOperationFailedException;
 import org.forgerock.openam.sm.datalayer.api.OptimisticConcurrencyCheckFailedException;
-import org.forgerock.openam.sm.datalayer.api.TokenStorageAdapter;
+import org.forgerock.openam.sm.datalayer.api.PipelinedTokenStorageAdapter;
 import org.forgerock.openam.sm.datalayer.api.query.PartialToken;
 import org.forgerock.openam.sm.datalayer.impl.ldap.LdapQueryFactory;
 import org.forgerock.openam.sm.datalayer.impl.ldap.LdapQueryFilterVisitor;
@@ -63,8 +64,11 @@ import org.forgerock.opendj.ldap.requests.Request;
 import org.forgerock.opendj.ldap.requests.SearchRequest;
 import org.forgerock.opendj.ldap.responses.Result;
 import org.forgerock.opendj.ldap.responses.SearchResultEntry;
+import org.forgerock.util.Function;
 import org.forgerock.util.Option;
 import org.forgerock.util.Options;
+import org.forgerock.util.promise.Promise;
+import org.forgerock.util.promise.Promises;
 
 import com.forgerock.opendj.ldap.controls.TransactionIdControl;
 
@@ -75,8 +79,11 @@ import com.forgerock.opendj.ldap.controls.TransactionIdControl;
  *
  * It also helps us work around a number of final classes in the SDK which were
  * hindering unit testing.
+ *
+ * Write operations may also be issued asynchronously, in which case they are pipelined
+ * over the same connection.
  */
-public class LdapAdapter implements TokenStorageAdapter {
+public class LdapAdapter implements PipelinedTokenStorageAdapter {
 
     private final LdapTokenAttributeConversion conversion;
     private final LdapQueryFilterVisitor queryConverter;
@@ -114,12 +121,9 @@ public class LdapAdapter implements TokenStorageAdapter {
      * @throws DataLayerException If the operation failed, this exception will capture the reason.
      */
     public Token create(Token token, Options options) throws DataLayerException {
-        Entry entry = conversion.getEntry(token);
+        AddRequest request = createRequest(token, options);
         try {
             getConnection();
-            AddRequest request = LDAPRequests.newAddRequest(entry)
-                    .addControl(PostReadRequestControl.newControl(true, ETAG.toString()));
-            request = applyOptions(request, options);
             Result result = connection.add(request);
             return tokenWithNewEtag(token, result);
         } catch (LdapException e) {
@@ -127,6 +131,36 @@ public class LdapAdapter implements TokenStorageAdapter {
         }
     }
 
+    @Override
+    public Promise<Token, DataLayerException> createAsync(final Token token, Options options) {
+        AddRequest request = createRequest(token, options);
+        try {
+            getConnection();
+        } catch (DataLayerException e) {
+            return Promises.newExceptionPromise(e);
+        }
+        return connection.addAsync(request).then(
+                new Function<Result, Token, DataLayerException>() {
+                    @Override
+                    public Token apply(Result result) throws DataLayerException {
+                        return tokenWithNewEtag(token, result);
+                    }
+                },
+                new Function<LdapException, Token, DataLayerException>() {
+                    @Override
+                    public Token apply(LdapException e) throws DataLayerException {
+                        throw new LdapOperationFailedException(e.getResult());
+                    }
+                });
+    }
+
+    private AddRequest createRequest(Token token, Options options) {
+        Entry entry = conversion.getEntry(token);
+        AddRequest request = LDAPRequests.newAddRequest(entry)
+                .addControl(PostReadRequestControl.newControl(true, ETAG.toString()));
+        return applyOptions(request, options);
+    }
+
     /**
      * Performs a read against the LDAP connection and converts the result into a Token.
      *
@@ -172,6 +206,60 @@ public class LdapAdapter implements TokenStorageAdapter {
      * present on the {@literal previous} token.
      */
     public Token update(Token previous, Token updated, Options options) throws DataLayerException {
+        ModifyRequest request = updateRequest(previous, updated, options);
+        if (request == null) {
+            return previous;
+        }
+
+        try {
+            getConnection();
+            Result result = connection.modify(request);
+            return tokenWithNewEtag(updated, result);
+        } catch (AssertionFailureException e) {
+            throw new OptimisticConcurrencyCheckFailedException(updated.getTokenId(),
+                    options.get(OPTIMISTIC_CONCURRENCY_CHECK_OPTION), e);
+        } catch (LdapException e) {
+            throw new LdapOperationFailedException(e.getResult());
+        }
+    }
+
+    @Override
+    public Promise<Token, DataLayerException> updateAsync(Token previous, final Token updated,
+            final Options options) {
+        ModifyRequest request = updateRequest(previous, updated, options);
+        if (request == null) {
+            return Promises.newResultPromise(previous);
+        }
+        try {
+            getConnection();
+        } catch (DataLayerException e) {
+            return Promises.newExceptionPromise(e);
+        }
+        return connection.modifyAsync(request).then(
+                new Function<Result, Token, DataLayerException>() {
+                    @Override
+                    public Token apply(Result result) throws DataLayerException {
+                        return tokenWithNewEtag(updated, result);
+                    }
+                },
+                new Function<LdapException, Token, DataLayerException>() {
+                    @Override
+                    public Token apply(LdapException e) throws DataLayerException {
+                        if (e instanceof AssertionFailureException) {
+                            throw new OptimisticConcurrencyCheckFailedException(updated.getTokenId(),
+                                    options.get(OPTIMISTIC_CONCURRENCY_CHECK_OPTION), e);
+                        }
+                        throw new LdapOperationFailedException(e.getResult());
+                    }
+                });
+    }
+
+    /**
+     * Generates the modify request for the difference between the two Tokens.
+     *
+     * @return The request, or null if there are no modifications to make.
+     */
+    private ModifyRequest updateRequest(Token previous, Token updated, Options options) {
         Entry currentEntry = conversion.getEntry(updated);
         LdapTokenAttributeConversion.stripObjectClass(currentEntry);
 
@@ -186,24 +274,13 @@ public class LdapAdapter implements TokenStorageAdapter {
             Entries.diffOptions().replaceSingleValuedAttributes());
 
         if (request.getModifications().isEmpty()) {
-            return previous;
+            return null;
         }
 
         request.addControl(TransactionIdControl.newControl(AuditRequestContext.createSubTransactionIdValue()))
                 .addControl(PostReadRequestControl.newControl(true, ETAG.toString()));
 
-        request = applyOptions(request, options);
-
-        try {
-            getConnection();
-            Result result = connection.modify(request);
-            return tokenWithNewEtag(updated, result);
-        } catch (AssertionFailureException e) {
-            throw new OptimisticConcurrencyCheckFailedException(updated.getTokenId(),
-                    options.get(OPTIMISTIC_CONCURRENCY_CHECK_OPTION), e);
-        } catch (LdapException e) {
-            throw new LdapOperationFailedException(e.getResult());
-        }
+        return applyOptions(request, options);
     }
 
     /**
@@ -220,33 +297,71 @@ public class LdapAdapter implements TokenStorageAdapter {
      * @throws OptimisticConcurrencyCheckFailedException If the operation failed due to an assertion on the tokens ETag.
      */
     public PartialToken delete(String tokenId, Options options) throws DataLayerException {
-        String dn = String.valueOf(conversion.generateTokenDN(tokenId));
+        DeleteRequest request = deleteRequest(tokenId, options);
         try {
             getConnection();
-            DeleteRequest request = LDAPRequests.newDeleteRequest(dn);
-            request = applyOptions(request, options);
             Result result = connection.delete(request);
-            verifySuccess(result);
+            return deletedToken(tokenId, result);
+        } catch (LdapException e) {
+            return deleteFailed(tokenId, options, e);
+        }
+    }
+
+    @Override
+    public Promise<PartialToken, DataLayerException> deleteAsync(final String tokenId, final Options options) {
+        DeleteRequest request = deleteRequest(tokenId, options);
+        try {
+            getConnection();
+        } catch (DataLayerException e) {
+            return Promises.newExceptionPromise(e);
+        }
+        return connection.deleteAsync(request).then(
+                new Function<Result, PartialToken, DataLayerException>() {
+                    @Override
+                    public PartialToken apply(Result result) throws DataLayerException {
+                        return deletedToken(tokenId, result);
+                    }
+                },
+                new Function<LdapException, PartialToken, DataLayerException>() {
+                    @Override
+                    public PartialToken apply(LdapException e) throws DataLayerException {
+                        return deleteFailed(tokenId, options, e);
+                    }
+                });
+    }
+
+    private DeleteRequest deleteRequest(String tokenId, Options options) {
+        String dn = String.valueOf(conversion.generateTokenDN(tokenId));
+        DeleteRequest request = LDAPRequests.newDeleteRequest(dn);
+        return applyOptions(request, options);
+    }
+
+    private PartialToken deletedToken(String tokenId, Result result) throws DataLayerException {
+        verifySuccess(result);
+        try {
             PreReadResponseControl control = result.getControl(PreReadResponseControl.DECODER, new DecodeOptions());
             if (control != null) {
                 return conversion.tokenFromEntry(control.getEntry()).toPartialToken();
             } else {
                 return new PartialToken(Collections.<CoreTokenField, Object>singletonMap(CoreTokenField.TOKEN_ID, tokenId));
             }
-        } catch (AssertionFailureException e) {
-            throw new OptimisticConcurrencyCheckFailedException(tokenId,
-                    options.get(OPTIMISTIC_CONCURRENCY_CHECK_OPTION), e);
-        } catch (LdapException e) {
-            Result result = e.getResult();
-            if (e.getResult() != null && ResultCode.NO_SUCH_OBJECT.equals(result.getResultCode())) {
-                return new PartialToken(Collections.<CoreTokenField, Object>singletonMap(CoreTokenField.TOKEN_ID, tokenId));
-            }
-            throw new LdapOperationFailedException(e.getResult());
         } catch (DecodeException e) {
             throw new LdapOperationFailedException(e.getMessage());
         }
     }
 
+    private PartialToken deleteFailed(String tokenId, Options options, LdapException e) throws DataLayerException {
+        if (e instanceof AssertionFailureException) {
+            throw new OptimisticConcurrencyCheckFailedException(tokenId,
+                    options.get(OPTIMISTIC_CONCURRENCY_CHECK_OPTION), e);
+        }
+        Result result = e.getResult();
+        if (result != null && ResultCode.NO_SUCH_OBJECT.equals(result.getResultCode())) {
+            return new PartialToken(Collections.<CoreTokenField, Object>singletonMap(CoreTokenField.TOKEN_ID, tokenId));
+        }
+        throw new LdapOperationFailedException(result);
+    }
+
     @Override
     public Collection<Token> query(TokenFilter query) throws DataLayerException {
         try {
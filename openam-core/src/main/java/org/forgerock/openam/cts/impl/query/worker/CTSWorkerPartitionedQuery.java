@@ -0,0 +1,40 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.forgerock.openam.cts.impl.query.worker;
+
+import java.util.List;
+
+import org.forgerock.openam.cts.worker.CTSWorkerTask;
+
+/**
+ * A {@link CTSWorkerQuery} which can be split into queries over consecutive expiry time windows, so that a
+ * {@link CTSWorkerTask} can process the windows in parallel. Together the windows select the same tokens as this
+ * query.
+ */
+public interface CTSWorkerPartitionedQuery extends CTSWorkerQuery {
+
+    /**
+     * Splits this query into queries over consecutive expiry time windows.
+     * <p>
+     * The windows divide the given span, ending at the current time, equally. The oldest window also covers all tokens
+     * which expired before the span.
+     *
+     * @param partitions The number of windows, greater than zero.
+     * @param span The duration in milliseconds divided between the windows, greater than zero.
+     * @return Non null list of {@code partitions} queries, ordered from the most recent window to the oldest.
+     */
+    List<CTSWorkerQuery> partition(int partitions, long span);
+}
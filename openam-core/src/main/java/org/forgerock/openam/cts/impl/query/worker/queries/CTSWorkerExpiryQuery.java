@@ -0,0 +1,97 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.forgerock.openam.cts.impl.query.worker.queries;
+
+import static org.forgerock.openam.utils.Time.getCalendarInstance;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+import org.forgerock.openam.cts.impl.query.worker.CTSWorkerPartitionedQuery;
+import org.forgerock.openam.cts.impl.query.worker.CTSWorkerQuery;
+import org.forgerock.openam.sm.datalayer.api.ConnectionFactory;
+import org.forgerock.openam.sm.datalayer.api.query.PartialToken;
+import org.forgerock.openam.sm.datalayer.api.query.QueryBuilder;
+import org.forgerock.util.Reject;
+
+/**
+ * Abstract class for CTS Worker Framework queries which select tokens whose expiry time has passed, allowing the
+ * query to be split into expiry time windows.
+ * <p>
+ * Each window query uses its own connection, and should be closed by the caller once it is no longer used.
+ *
+ * @param <C> Connection type.
+ */
+public abstract class CTSWorkerExpiryQuery<C> extends CTSWorkerBaseQuery<C> implements CTSWorkerPartitionedQuery {
+
+    private final ConnectionFactory<C> factory;
+
+    public CTSWorkerExpiryQuery(ConnectionFactory<C> factory) {
+        super(factory);
+        this.factory = factory;
+    }
+
+    @Override
+    public QueryBuilder<C, PartialToken> getQuery() {
+        return getQuery(null, getCalendarInstance());
+    }
+
+    @Override
+    public List<CTSWorkerQuery> partition(int partitions, long span) {
+        Reject.ifTrue(partitions <= 0);
+        Reject.ifTrue(span <= 0);
+
+        long now = getCalendarInstance().getTimeInMillis();
+        long windowSize = Math.max(1, span / partitions);
+        List<CTSWorkerQuery> windows = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            final Calendar to = calendar(now - i * windowSize);
+            final Calendar from = (i == partitions - 1) ? null : calendar(now - (i + 1) * windowSize);
+            windows.add(new CTSWorkerBaseQuery<C>(factory) {
+                @Override
+                protected QueryBuilder<C, PartialToken> getQuery() {
+                    return CTSWorkerExpiryQuery.this.getQuery(from, to);
+                }
+
+                @Override
+                public String toString() {
+                    return CTSWorkerExpiryQuery.this + " [" + (from == null ? "" : from.getTimeInMillis()) + ", "
+                            + to.getTimeInMillis() + "]";
+                }
+            });
+        }
+        return windows;
+    }
+
+    /**
+     * Returns the QueryBuilder selecting the tokens which expired within the given window.
+     * <p>
+     * Implementations must treat the bounds so that adjacent windows neither overlap nor leave a gap, i.e. exactly one
+     * of the bounds is inclusive.
+     *
+     * @param from The start of the window, or {@code null} if the window is not bounded in the past.
+     * @param to The end of the window.
+     * @return The QueryBuilder used to generate queries to perform.
+     */
+    protected abstract QueryBuilder<C, PartialToken> getQuery(Calendar from, Calendar to);
+
+    private static Calendar calendar(long timeInMillis) {
+        Calendar calendar = getCalendarInstance();
+        calendar.setTimeInMillis(timeInMillis);
+        return calendar;
+    }
+}
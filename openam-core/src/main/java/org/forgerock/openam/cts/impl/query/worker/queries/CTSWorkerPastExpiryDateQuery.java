@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package org.forgerock.openam.cts.impl.query.worker.queries;
 
@@ -29,15 +30,14 @@ import javax.inject.Inject;
 import java.util.Calendar;
 
 import static org.forgerock.openam.sm.datalayer.api.ConnectionType.CTS_EXPIRY_DATE_WORKER;
-import static org.forgerock.openam.utils.Time.getCalendarInstance;
 
 /**
  * A query that selects all CTS tokens whose expiry date field is prior to the current timestamp (e.g. who have
- * exceeded their maximum expiry time).
+ * exceeded their maximum expiry time), optionally split into expiry time windows.
  *
  * @param <C> The type of connection queries are made for.
  */
-public class CTSWorkerPastExpiryDateQuery<C> extends CTSWorkerBaseQuery {
+public class CTSWorkerPastExpiryDateQuery<C> extends CTSWorkerExpiryQuery {
 
     private final QueryFactory<C, Filter> queryFactory;
     private final int pageSize;
@@ -53,10 +53,11 @@ public class CTSWorkerPastExpiryDateQuery<C> extends CTSWorkerBaseQuery {
     }
 
     @Override
-    public QueryBuilder getQuery() {
-        Calendar now = getCalendarInstance();
-
-        QueryFilter<CoreTokenField> filter = QueryFilter.lessThan(CoreTokenField.EXPIRY_DATE, now);
+    protected QueryBuilder getQuery(Calendar from, Calendar to) {
+        QueryFilter<CoreTokenField> filter = QueryFilter.lessThan(CoreTokenField.EXPIRY_DATE, to);
+        if (from != null) {
+            filter = QueryFilter.and(QueryFilter.greaterThanOrEqualTo(CoreTokenField.EXPIRY_DATE, from), filter);
+        }
 
         return queryFactory.createInstance()
                 .withFilter( filter.accept(queryFactory.createFilterConverter(), null))
@@ -12,12 +12,13 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package org.forgerock.openam.cts.impl.query.worker.queries;
 
 import static org.forgerock.openam.sm.datalayer.api.ConnectionType.CTS_SESSION_IDLE_TIMEOUT_WORKER;
-import static org.forgerock.openam.utils.Time.getCalendarInstance;
 import static org.forgerock.util.query.QueryFilter.equalTo;
+import static org.forgerock.util.query.QueryFilter.greaterThan;
 import static org.forgerock.util.query.QueryFilter.lessThanOrEqualTo;
 
 import java.util.Calendar;
@@ -43,7 +44,7 @@ import com.iplanet.dpro.session.service.SessionState;
  *
  * @param <C> The type of connection queries are made for.
  */
-public class SessionIdleTimeExpiredQuery<C> extends CTSWorkerBaseQuery {
+public class SessionIdleTimeExpiredQuery<C> extends CTSWorkerExpiryQuery {
 
     private final QueryFactory<C, CoreTokenField> queryFactory;
     private final int pageSize;
@@ -58,14 +59,16 @@ public class SessionIdleTimeExpiredQuery<C> extends CTSWorkerBaseQuery {
     }
 
     @Override
-    public QueryBuilder getQuery() {
-        Calendar now = getCalendarInstance();
-
+    protected QueryBuilder getQuery(Calendar from, Calendar to) {
         QueryFilter<CoreTokenField> filter =
                 QueryFilter.and(
-                        lessThanOrEqualTo(SessionTokenField.MAX_IDLE_EXPIRATION_TIME.getField(), now),
+                        lessThanOrEqualTo(SessionTokenField.MAX_IDLE_EXPIRATION_TIME.getField(), to),
                         equalTo(SessionTokenField.SESSION_STATE.getField(), SessionState.VALID.toString()),
                         equalTo(CoreTokenField.TOKEN_TYPE, TokenType.SESSION));
+        if (from != null) {
+            filter = QueryFilter.and(
+                    greaterThan(SessionTokenField.MAX_IDLE_EXPIRATION_TIME.getField(), from), filter);
+        }
 
         return queryFactory.createInstance()
                 .withFilter(filter.accept(queryFactory.createFilterConverter(), null))
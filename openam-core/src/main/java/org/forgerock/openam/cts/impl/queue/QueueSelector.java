@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package org.forgerock.openam.cts.impl.queue;
 
@@ -39,7 +40,6 @@ public final class QueueSelector {
         Reject.ifTrue(tokenId == null, "Token ID cannot be null");
         Reject.ifTrue(queues <= 0, "queues must be positive");
 
-        int value = Math.abs(tokenId.hashCode());
-        return value % queues;
+        return Math.floorMod(tokenId.hashCode(), queues);
     }
 }
@@ -41,6 +41,8 @@ import org.forgerock.openam.sm.exceptions.InvalidConfigurationException;
 public class CTSQueueConfiguration implements QueueConfiguration {
     public static final int DEFAULT_TIMEOUT = 15;
     public static final int DEFAULT_QUEUE_SIZE = 16000;
+    public static final int DEFAULT_BATCH_SIZE = 1;
+    public static final int DEFAULT_BATCH_DELAY = 0;
 
     private final ConnectionConfigFactory dataLayerConfig;
     private final Debug debug;
@@ -84,6 +86,46 @@ public class CTSQueueConfiguration implements QueueConfiguration {
         return queueSize;
     }
 
+    /**
+     * Whether each task processor should be given its own work queue. When enabled, tasks are assigned
+     * to a queue by Token ID using the {@link QueueSelector}, otherwise all processors share a single queue.
+     *
+     * @return True if sharded queues are enabled. Default is false.
+     */
+    public boolean isShardedQueues() {
+        return SystemProperties.getAsBoolean(CoreTokenConstants.CTS_ASYNC_QUEUE_SHARDED, false);
+    }
+
+    /**
+     * The maximum number of tasks a task processor will draw from its queue and process together,
+     * coalescing the writes to each Token. A size of one disables batching.
+     *
+     * @return A positive batch size. Default is {@link #DEFAULT_BATCH_SIZE}.
+     */
+    public int getBatchSize() {
+        int batchSize = SystemProperties.getAsInt(CoreTokenConstants.CTS_ASYNC_BATCH_SIZE, DEFAULT_BATCH_SIZE);
+        if (batchSize <= 0) {
+            debug("Batch size {0} was invalid, using default {1}", batchSize, DEFAULT_BATCH_SIZE);
+            return DEFAULT_BATCH_SIZE;
+        }
+        return batchSize;
+    }
+
+    /**
+     * The maximum duration a task processor will wait for further tasks to arrive before processing
+     * a batch that is not full.
+     *
+     * @return A non negative delay in milliseconds. Default is {@link #DEFAULT_BATCH_DELAY}.
+     */
+    public int getBatchDelay() {
+        int delay = SystemProperties.getAsInt(CoreTokenConstants.CTS_ASYNC_BATCH_DELAY, DEFAULT_BATCH_DELAY);
+        if (delay < 0) {
+            debug("Batch delay {0} was invalid, using default {1}", delay, DEFAULT_BATCH_DELAY);
+            return DEFAULT_BATCH_DELAY;
+        }
+        return delay;
+    }
+
     @Override
     public int getProcessors() throws DataLayerException {
         try {
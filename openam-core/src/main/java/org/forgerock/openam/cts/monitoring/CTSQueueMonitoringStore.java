@@ -0,0 +1,76 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+
+package org.forgerock.openam.cts.monitoring;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A data structure for storing monitoring information about the CTS asynchronous work queues.
+ * <br/>
+ * The CTS asynchronous task executor will register its work queues with, and report the time each task spent
+ * waiting on a queue to, an instance of this data structure. The CTS monitoring framework will use the same
+ * instance to pull the depth and wait time of each queue out to send to clients as monitoring requests are made.
+ */
+public interface CTSQueueMonitoringStore {
+
+    /**
+     * Registers the work queues that should be monitored. Any previously registered queues are replaced.
+     *
+     * @param queues The non null work queues, indexed by queue number.
+     */
+    void registerQueues(List<? extends Collection<?>> queues);
+
+    /**
+     * Adds the time a task waited on the given work queue before being processed.
+     *
+     * @param queue The index of the queue the task was placed on.
+     * @param waitTime The time in milliseconds that the task waited.
+     */
+    void addQueueWaitTime(int queue, long waitTime);
+
+    /**
+     * Gets the number of work queues currently registered.
+     *
+     * @return The number of work queues, zero if none have been registered.
+     */
+    int getNumberOfQueues();
+
+    /**
+     * Gets the number of tasks currently waiting on the given work queue.
+     *
+     * @param queue The index of the queue.
+     * @return The number of tasks waiting to be processed.
+     */
+    int getQueueDepth(int queue);
+
+    /**
+     * Gets the average time tasks have waited on the given work queue since server start up.
+     *
+     * @param queue The index of the queue.
+     * @return The average wait time in milliseconds.
+     */
+    double getAverageQueueWaitTime(int queue);
+
+    /**
+     * Gets the maximum time a task has waited on the given work queue since server start up.
+     *
+     * @param queue The index of the queue.
+     * @return The maximum wait time in milliseconds.
+     */
+    long getMaximumQueueWaitTime(int queue);
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
 package org.forgerock.openam.cts.monitoring;
@@ -41,4 +42,25 @@ public interface CTSReaperMonitoringStore {
      * @return The rate of session deletion by the CTS Reaper.
      */
     double getRateOfDeletedSessions();
+
+    /**
+     * Records the number of expiry time windows of the current reaper run which have not yet been processed.
+     *
+     * @param pendingWindows The number of windows still waiting for or being processed.
+     */
+    void setReaperBacklog(int pendingWindows);
+
+    /**
+     * Gets the number of expiry time windows of the current reaper run which have not yet been processed.
+     *
+     * @return The reaper backlog, zero if no partitioned reaper run is in progress.
+     */
+    int getReaperBacklog();
+
+    /**
+     * Gets the throughput of the most recent reaper run.
+     *
+     * @return The number of sessions deleted per second by the most recent reaper run.
+     */
+    double getReaperThroughput();
 }
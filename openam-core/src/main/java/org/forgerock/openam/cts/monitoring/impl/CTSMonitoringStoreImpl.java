@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2015 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
 package org.forgerock.openam.cts.monitoring.impl;
@@ -23,14 +24,18 @@ import org.forgerock.openam.tokens.TokenType;
 import org.forgerock.openam.cts.api.tokens.Token;
 import org.forgerock.openam.cts.monitoring.CTSConnectionMonitoringStore;
 import org.forgerock.openam.cts.monitoring.CTSOperationsMonitoringStore;
+import org.forgerock.openam.cts.monitoring.CTSQueueMonitoringStore;
 import org.forgerock.openam.cts.monitoring.CTSReaperMonitoringStore;
 import org.forgerock.openam.cts.monitoring.impl.connections.ConnectionStore;
 import org.forgerock.openam.cts.monitoring.impl.operations.TokenOperationsStore;
+import org.forgerock.openam.cts.monitoring.impl.queue.QueueMonitor;
 import org.forgerock.openam.cts.monitoring.impl.reaper.ReaperMonitor;
 
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
@@ -43,7 +48,7 @@ import java.util.concurrent.RejectedExecutionException;
  */
 @Singleton
 public class CTSMonitoringStoreImpl implements CTSOperationsMonitoringStore, CTSReaperMonitoringStore,
-        CTSConnectionMonitoringStore {
+        CTSConnectionMonitoringStore, CTSQueueMonitoringStore {
 
     /**
      * Constant for binding an Executor for the CTS monitoring store to store CTS runtime data.
@@ -56,6 +61,7 @@ public class CTSMonitoringStoreImpl implements CTSOperationsMonitoringStore, CTS
     private final ExecutorService executorService;
     private final ReaperMonitor reaperMonitor;
     private final ConnectionStore connectionStore;
+    private final QueueMonitor queueMonitor;
 
     /**
      * Constructs an instance of the CTSMonitoringStoreImpl.
@@ -64,18 +70,22 @@ public class CTSMonitoringStoreImpl implements CTSOperationsMonitoringStore, CTS
      * @param executorService An instance of an ExecutorService.
      * @param tokenOperationsStore An instance of the TokenOperationsStore.
      * @param reaperMonitor An instance of the ReaperMonitor.
+     * @param connectionStore An instance of the ConnectionStore.
+     * @param queueMonitor An instance of the QueueMonitor.
      */
     @Inject
     public CTSMonitoringStoreImpl(@Named(EXECUTOR_BINDING_NAME) final ExecutorService executorService,
                                   final TokenOperationsStore tokenOperationsStore,
                                   final ReaperMonitor reaperMonitor,
                                   final ConnectionStore connectionStore,
+                                  final QueueMonitor queueMonitor,
                                   @Named(CoreTokenConstants.CTS_DEBUG) final Debug debug) {
         this.debug = debug;
         this.executorService = executorService;
         this.tokenOperationsStore = tokenOperationsStore;
         this.reaperMonitor = reaperMonitor;
         this.connectionStore = connectionStore;
+        this.queueMonitor = queueMonitor;
     }
 
     /**
@@ -206,6 +216,21 @@ public class CTSMonitoringStoreImpl implements CTSOperationsMonitoringStore, CTS
         return reaperMonitor.getRateOfDeletion();
     }
 
+    @Override
+    public void setReaperBacklog(int pendingWindows) {
+        reaperMonitor.setBacklog(pendingWindows);
+    }
+
+    @Override
+    public int getReaperBacklog() {
+        return reaperMonitor.getBacklog();
+    }
+
+    @Override
+    public double getReaperThroughput() {
+        return reaperMonitor.getThroughput();
+    }
+
     @Override
     public void addConnection(boolean success) {
         connectionStore.addConnection(success);
@@ -230,4 +255,34 @@ public class CTSMonitoringStoreImpl implements CTSOperationsMonitoringStore, CTS
     public double getConnectionsCumulativeCount(boolean success) {
         return connectionStore.getConnectionsCumulativeCount(success);
     }
+
+    @Override
+    public void registerQueues(List<? extends Collection<?>> queues) {
+        queueMonitor.registerQueues(queues);
+    }
+
+    @Override
+    public void addQueueWaitTime(int queue, long waitTime) {
+        queueMonitor.addWaitTime(queue, waitTime);
+    }
+
+    @Override
+    public int getNumberOfQueues() {
+        return queueMonitor.getNumberOfQueues();
+    }
+
+    @Override
+    public int getQueueDepth(int queue) {
+        return queueMonitor.getDepth(queue);
+    }
+
+    @Override
+    public double getAverageQueueWaitTime(int queue) {
+        return queueMonitor.getAverageWaitTime(queue);
+    }
+
+    @Override
+    public long getMaximumQueueWaitTime(int queue) {
+        return queueMonitor.getMaximumWaitTime(queue);
+    }
 }
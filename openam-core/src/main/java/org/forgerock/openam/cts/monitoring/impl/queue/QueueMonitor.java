@@ -0,0 +1,120 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+
+package org.forgerock.openam.cts.monitoring.impl.queue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class maintains the depth and wait time information for each of the CTS asynchronous work queues.
+ * <br/>
+ * Wait times are recorded by the task processor threads, so all updates are lock free.
+ */
+public class QueueMonitor {
+
+    private volatile QueueStatistics statistics = new QueueStatistics(Collections.<Collection<?>>emptyList());
+
+    /**
+     * Replaces the queues being monitored, resetting the wait time statistics.
+     *
+     * @param queues The non null work queues, indexed by queue number.
+     */
+    public void registerQueues(List<? extends Collection<?>> queues) {
+        statistics = new QueueStatistics(new ArrayList<Collection<?>>(queues));
+    }
+
+    /**
+     * Records the time a task waited on the given queue.
+     *
+     * @param queue The index of the queue.
+     * @param waitTime The wait time in milliseconds.
+     */
+    public void addWaitTime(int queue, long waitTime) {
+        QueueStatistics current = statistics;
+        if (!current.isValid(queue)) {
+            return;
+        }
+        current.count.incrementAndGet(queue);
+        current.total.addAndGet(queue, waitTime);
+        long max;
+        do {
+            max = current.max.get(queue);
+        } while (waitTime > max && !current.max.compareAndSet(queue, max, waitTime));
+    }
+
+    /**
+     * @return The number of queues being monitored.
+     */
+    public int getNumberOfQueues() {
+        return statistics.queues.size();
+    }
+
+    /**
+     * @param queue The index of the queue.
+     * @return The number of tasks on the queue, or zero if the queue is unknown.
+     */
+    public int getDepth(int queue) {
+        QueueStatistics current = statistics;
+        return current.isValid(queue) ? current.queues.get(queue).size() : 0;
+    }
+
+    /**
+     * @param queue The index of the queue.
+     * @return The average wait time in milliseconds, or zero if no tasks have been recorded.
+     */
+    public double getAverageWaitTime(int queue) {
+        QueueStatistics current = statistics;
+        if (!current.isValid(queue)) {
+            return 0D;
+        }
+        long count = current.count.get(queue);
+        return count == 0 ? 0D : (double) current.total.get(queue) / count;
+    }
+
+    /**
+     * @param queue The index of the queue.
+     * @return The maximum wait time in milliseconds, or zero if no tasks have been recorded.
+     */
+    public long getMaximumWaitTime(int queue) {
+        QueueStatistics current = statistics;
+        return current.isValid(queue) ? current.max.get(queue) : 0L;
+    }
+
+    /**
+     * The statistics for one registered set of queues, swapped as a whole on registration.
+     */
+    private static final class QueueStatistics {
+        private final List<Collection<?>> queues;
+        private final AtomicLongArray count;
+        private final AtomicLongArray total;
+        private final AtomicLongArray max;
+
+        private QueueStatistics(List<Collection<?>> queues) {
+            this.queues = queues;
+            this.count = new AtomicLongArray(queues.size());
+            this.total = new AtomicLongArray(queues.size());
+            this.max = new AtomicLongArray(queues.size());
+        }
+
+        private boolean isValid(int queue) {
+            return queue >= 0 && queue < queues.size();
+        }
+    }
+}
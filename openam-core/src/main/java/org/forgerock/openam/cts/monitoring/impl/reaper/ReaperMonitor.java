@@ -12,12 +12,14 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
 package org.forgerock.openam.cts.monitoring.impl.reaper;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This class maintains a store of information about each CTS Reaper run since server start up.
@@ -27,12 +29,48 @@ import java.util.List;
 public class ReaperMonitor {
 
     private final List<ReaperRun> reaperRuns = new ArrayList<ReaperRun>();
+    private volatile ReaperRun lastReaperRun;
+    private volatile int backlog;
 
     /**
      * {@inheritDoc}
      */
     public void add(final long startTime, final long runTime, final long numberOfDeletedSessions) {
-        reaperRuns.add(new ReaperRun(startTime, runTime, numberOfDeletedSessions));
+        ReaperRun reaperRun = new ReaperRun(startTime, runTime, numberOfDeletedSessions);
+        reaperRuns.add(reaperRun);
+        lastReaperRun = reaperRun;
+    }
+
+    /**
+     * Records the number of expiry time windows of the current reaper run which have not yet been processed.
+     *
+     * @param pendingWindows The number of windows still waiting for or being processed.
+     */
+    public void setBacklog(final int pendingWindows) {
+        backlog = pendingWindows;
+    }
+
+    /**
+     * Gets the number of expiry time windows of the current reaper run which have not yet been processed.
+     *
+     * @return The backlog of the current reaper run.
+     */
+    public int getBacklog() {
+        return backlog;
+    }
+
+    /**
+     * Gets the number of sessions deleted per second by the most recent reaper run.
+     *
+     * @return The throughput of the most recent run, or zero if there has been no run yet.
+     */
+    public double getThroughput() {
+        ReaperRun reaperRun = lastReaperRun;
+        if (reaperRun == null) {
+            return 0D;
+        }
+        long runTime = Math.max(1, reaperRun.getRunTime());
+        return reaperRun.getNumberOfDeletedSessions() * (double) TimeUnit.SECONDS.toMillis(1) / runTime;
     }
 
     /**
@@ -0,0 +1,96 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.forgerock.openam.cts.worker.process;
+
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.openam.cts.CTSOperation;
+import org.forgerock.openam.cts.monitoring.CTSOperationsMonitoringStore;
+import org.forgerock.util.Reject;
+
+/**
+ * Limits the number of pages of tokens being processed at the same time by the partitions of a CTS worker process.
+ * A page is counted from the query which reads it until its tokens have been processed, so both the worker queries
+ * and the operations on their results are throttled.
+ * <p>
+ * The limit adapts to the latency of the CTS: it grows by one page after each page queried and processed within the
+ * target latency, and halves when a page takes longer or the CTS reports failed delete operations.
+ */
+class CTSReaperThrottle {
+
+    private final int maximumLimit;
+    private final long targetLatencyNanos;
+    private final CTSOperationsMonitoringStore operationsStore;
+
+    private int limit;
+    private int inProgress;
+    private long deleteFailures;
+
+    /**
+     * Constructs a new throttle which initially allows the maximum number of pages.
+     *
+     * @param maximumLimit The maximum number of pages processed at the same time.
+     * @param targetLatency The time within which a page should be processed.
+     * @param unit The unit of {@code targetLatency}.
+     * @param operationsStore Reports failed CTS operations.
+     */
+    CTSReaperThrottle(int maximumLimit, long targetLatency, TimeUnit unit,
+            CTSOperationsMonitoringStore operationsStore) {
+        Reject.ifTrue(maximumLimit <= 0);
+        this.maximumLimit = maximumLimit;
+        this.targetLatencyNanos = unit.toNanos(targetLatency);
+        this.operationsStore = operationsStore;
+        this.limit = maximumLimit;
+        this.deleteFailures = operationsStore.getOperationFailuresCumulativeCount(CTSOperation.DELETE);
+    }
+
+    /**
+     * Waits until another page may be queried and processed.
+     *
+     * @throws InterruptedException If the thread was interrupted while waiting.
+     */
+    synchronized void acquire() throws InterruptedException {
+        while (inProgress >= limit) {
+            wait();
+        }
+        inProgress++;
+    }
+
+    /**
+     * Signals that a page has been queried and processed, adjusting the limit to the time it took.
+     *
+     * @param latency The time taken to query and process the page.
+     * @param unit The unit of {@code latency}.
+     */
+    synchronized void release(long latency, TimeUnit unit) {
+        inProgress--;
+        long failures = operationsStore.getOperationFailuresCumulativeCount(CTSOperation.DELETE);
+        if (unit.toNanos(latency) > targetLatencyNanos || failures > deleteFailures) {
+            limit = Math.max(1, limit / 2);
+        } else if (limit < maximumLimit) {
+            limit++;
+        }
+        deleteFailures = failures;
+        notifyAll();
+    }
+
+    /**
+     * @return The number of pages which may currently be processed at the same time.
+     */
+    synchronized int getLimit() {
+        return limit;
+    }
+}
@@ -12,14 +12,24 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package org.forgerock.openam.cts.worker.process;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.lang.time.StopWatch;
 import org.forgerock.openam.cts.exceptions.CoreTokenException;
+import org.forgerock.openam.cts.impl.query.worker.CTSWorkerPartitionedQuery;
 import org.forgerock.openam.cts.impl.query.worker.CTSWorkerQuery;
 import org.forgerock.openam.cts.worker.CTSWorkerFilter;
 import org.forgerock.openam.cts.worker.CTSWorkerProcess;
@@ -28,42 +38,52 @@ import org.forgerock.openam.sm.datalayer.api.query.PartialToken;
 /**
  * {@link CTSWorkerProcess} base class handling repeated steps such as paging through query results,
  * thread interruption and waiting for each page of results to be processed.
+ * <p>
+ * If partitioning is enabled, a {@link CTSWorkerPartitionedQuery} is split into expiry time windows which are
+ * processed in parallel, with the number of pages queried and processed at the same time adapting to the CTS
+ * latency.
  */
 public abstract class CTSWorkerBaseProcess implements CTSWorkerProcess {
 
+    private final CTSWorkerPartitioning partitioning;
+    private final CTSReaperThrottle throttle;
+
+    /**
+     * Constructs a process which pages through query results sequentially.
+     */
+    protected CTSWorkerBaseProcess() {
+        this(null);
+    }
+
+    /**
+     * Constructs a process which processes the expiry time windows of partitioned queries in parallel when
+     * partitioning is enabled.
+     *
+     * @param partitioning Partitioning configuration and thread pool, or null to page through query results
+     *                     sequentially.
+     */
+    protected CTSWorkerBaseProcess(CTSWorkerPartitioning partitioning) {
+        this.partitioning = partitioning;
+        this.throttle = partitioning == null ? null : partitioning.newThrottle();
+    }
+
     @Override
     public final void handle(CTSWorkerQuery workerQuery, CTSWorkerFilter filter) {
+        if (partitioning != null && partitioning.isEnabled() && workerQuery instanceof CTSWorkerPartitionedQuery) {
+            handlePartitioned((CTSWorkerPartitionedQuery) workerQuery, filter);
+            return;
+        }
+
         // Timers for debugging
         StopWatch queryStopWatch = new StopWatch();
         StopWatch waitingStopWatch = new StopWatch();
 
-        long total = 0;
         waitingStopWatch.start();
         waitingStopWatch.suspend();
         queryStopWatch.start();
 
-        try (CTSWorkerQuery query = workerQuery) {
-            for (Collection<PartialToken> tokens = query.nextPage(); tokens != null; tokens = query.nextPage()) {
-
-                // If the thread has been interrupted, exit all processing
-                if (Thread.interrupted()) {
-                    throw new InterruptedException();
-                }
-
-                // filter and count results from this page
-                Collection<PartialToken> filteredTokens = filter.filter(tokens);
-                total += filteredTokens.size();
-                queryStopWatch.suspend();
-
-                // process the results; as handleBatch is an asynchronous call, await its completion
-                // - retrieving and processing all results pages may cause an OutOfMemory error
-                waitingStopWatch.resume();
-                CountDownLatch latch = handleBatch(filteredTokens);
-                latch.await();
-                waitingStopWatch.suspend();
-
-                queryStopWatch.resume();
-            }
+        try {
+            long total = handlePages(workerQuery, filter, queryStopWatch, waitingStopWatch, null);
             queryStopWatch.stop();
             waitingStopWatch.stop();
 
@@ -76,6 +96,107 @@ public abstract class CTSWorkerBaseProcess implements CTSWorkerProcess {
         }
     }
 
+    private void handlePartitioned(CTSWorkerPartitionedQuery workerQuery, final CTSWorkerFilter filter) {
+        StopWatch runStopWatch = new StopWatch();
+        runStopWatch.start();
+
+        List<CTSWorkerQuery> windows = workerQuery.partition(partitioning.getPartitions(),
+                partitioning.getPartitionSpan());
+        final AtomicInteger pending = new AtomicInteger(windows.size());
+        handleBacklog(windows.size());
+
+        List<Future<Long>> results = new ArrayList<>(windows.size());
+        try {
+            for (final CTSWorkerQuery window : windows) {
+                results.add(partitioning.submit(new Callable<Long>() {
+                    @Override
+                    public Long call() throws CoreTokenException, InterruptedException {
+                        StopWatch queryStopWatch = new StopWatch();
+                        StopWatch waitingStopWatch = new StopWatch();
+                        waitingStopWatch.start();
+                        waitingStopWatch.suspend();
+                        queryStopWatch.start();
+                        try {
+                            return handlePages(window, filter, queryStopWatch, waitingStopWatch, throttle);
+                        } finally {
+                            handleBacklog(pending.decrementAndGet());
+                        }
+                    }
+                }));
+            }
+
+            long total = 0;
+            for (Future<Long> result : results) {
+                total += result.get();
+            }
+            runStopWatch.stop();
+
+            // Windows are waited on in parallel, so the run time is reported as query time
+            handleSucceeded(runStopWatch, new StopWatch(), total);
+        } catch (ExecutionException e) {
+            cancel(results);
+            handleFailed(e.getCause() instanceof Exception ? (Exception) e.getCause() : e);
+        } catch (RejectedExecutionException e) {
+            cancel(results);
+            handleFailed(e);
+        } catch (InterruptedException e) {
+            cancel(results);
+            handleFailed(e);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long handlePages(CTSWorkerQuery workerQuery, CTSWorkerFilter filter, StopWatch queryStopWatch,
+            StopWatch waitingStopWatch, CTSReaperThrottle throttle) throws CoreTokenException, InterruptedException {
+        long total = 0;
+        try (CTSWorkerQuery query = workerQuery) {
+            while (true) {
+                // a throttled page is counted from its query until its tokens have been processed
+                if (throttle != null) {
+                    throttle.acquire();
+                }
+                long start = System.nanoTime();
+                try {
+                    Collection<PartialToken> tokens = query.nextPage();
+                    if (tokens == null) {
+                        break;
+                    }
+
+                    // If the thread has been interrupted, exit all processing
+                    if (Thread.interrupted()) {
+                        throw new InterruptedException();
+                    }
+
+                    // filter and count results from this page
+                    Collection<PartialToken> filteredTokens = filter.filter(tokens);
+                    total += filteredTokens.size();
+                    queryStopWatch.suspend();
+
+                    // process the results; as handleBatch is an asynchronous call, await its completion
+                    // - retrieving and processing all results pages may cause an OutOfMemory error
+                    waitingStopWatch.resume();
+                    CountDownLatch latch = handleBatch(filteredTokens);
+                    latch.await();
+                    waitingStopWatch.suspend();
+
+                    queryStopWatch.resume();
+                } finally {
+                    if (throttle != null) {
+                        throttle.release(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    }
+                }
+            }
+        }
+        return total;
+    }
+
+    private void cancel(List<Future<Long>> results) {
+        for (Future<Long> result : results) {
+            result.cancel(true);
+        }
+        handleBacklog(0);
+    }
+
     /**
      * Hook method allowing subclasses to define the actual work to be carried out by this {@link CTSWorkerProcess}.
      *
@@ -105,6 +226,18 @@ public abstract class CTSWorkerBaseProcess implements CTSWorkerProcess {
      */
     protected abstract void handleFailed(Exception exception);
 
+    /**
+     * Hook method called as the expiry time windows of a partitioned query are processed, with the number of windows
+     * still waiting for or being processed.
+     * <p>
+     * This method can be overridden by subclasses for monitoring.
+     *
+     * @param pendingWindows the number of windows which have not yet been processed.
+     */
+    protected void handleBacklog(int pendingWindows) {
+        // nothing to do by default
+    }
+
     @Override
     public String toString() {
         return getClass().getName();
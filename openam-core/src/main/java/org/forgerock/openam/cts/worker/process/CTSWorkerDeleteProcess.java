@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package org.forgerock.openam.cts.worker.process;
 
@@ -53,12 +54,15 @@ public class CTSWorkerDeleteProcess extends CTSWorkerBaseProcess {
      *
      * @param tokenDeletion Batch deletion of tokens utility.
      * @param monitoringStore Utility to record monitoring information.
+     * @param partitioning Partitioning of queries into expiry time windows.
      * @param debug Debug output.
      */
     @Inject
     public CTSWorkerDeleteProcess(TokenDeletion tokenDeletion,
                                   CTSReaperMonitoringStore monitoringStore,
+                                  CTSWorkerPartitioning partitioning,
                                   @Named(CoreTokenConstants.CTS_DEBUG) Debug debug) {
+        super(partitioning);
         this.tokenDeletion = tokenDeletion;
         this.monitoringStore = monitoringStore;
         this.debug = debug;
@@ -81,6 +85,11 @@ public class CTSWorkerDeleteProcess extends CTSWorkerBaseProcess {
         debug.error("Reaper Delete Process failed", exception);
     }
 
+    @Override
+    protected void handleBacklog(final int pendingWindows) {
+        monitoringStore.setReaperBacklog(pendingWindows);
+    }
+
     /**
      * Deletes batches of Token IDs from the persistence layer.
      *
@@ -0,0 +1,100 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.forgerock.openam.cts.worker.process;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.forgerock.openam.cts.CoreTokenConfig;
+import org.forgerock.openam.cts.api.CoreTokenConstants;
+import org.forgerock.openam.cts.impl.query.worker.CTSWorkerPartitionedQuery;
+import org.forgerock.openam.cts.monitoring.CTSOperationsMonitoringStore;
+
+/**
+ * Configuration and thread pool shared by the CTS worker processes for processing the expiry time windows of a
+ * {@link CTSWorkerPartitionedQuery} in parallel.
+ * <p>
+ * The thread pool is shared so that the total number of windows processed at the same time is bounded across all
+ * CTS worker processes.
+ */
+public class CTSWorkerPartitioning {
+
+    private final CoreTokenConfig config;
+    private final CTSOperationsMonitoringStore operationsStore;
+    private final ExecutorService executorService;
+
+    /**
+     * Guice initialised constructor.
+     *
+     * @param config Required for the partitioning configuration.
+     * @param operationsStore Required to adapt to failing CTS operations.
+     * @param executorService Thread pool on which windows are processed.
+     */
+    @Inject
+    public CTSWorkerPartitioning(CoreTokenConfig config, CTSOperationsMonitoringStore operationsStore,
+            @Named(CoreTokenConstants.CTS_REAPER_POOL) ExecutorService executorService) {
+        this.config = config;
+        this.operationsStore = operationsStore;
+        this.executorService = executorService;
+    }
+
+    /**
+     * @return True if queries should be split into more than one expiry time window.
+     */
+    boolean isEnabled() {
+        return config.getReaperPartitions() > 1;
+    }
+
+    /**
+     * @return The number of expiry time windows queries are split into.
+     */
+    int getPartitions() {
+        return config.getReaperPartitions();
+    }
+
+    /**
+     * @return The duration in milliseconds divided between the expiry time windows.
+     */
+    long getPartitionSpan() {
+        return config.getReaperPartitionSpan(TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates a new throttle which limits the pages being processed by the windows of a process.
+     *
+     * @return Non null throttle.
+     */
+    CTSReaperThrottle newThrottle() {
+        return new CTSReaperThrottle(config.getReaperConcurrency(),
+                config.getReaperTargetLatency(TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS, operationsStore);
+    }
+
+    /**
+     * Submits the processing of an expiry time window to the shared thread pool.
+     *
+     * @param window The processing of the window.
+     * @param <T> The result type of the processing.
+     * @return The future result of the processing.
+     */
+    <T> Future<T> submit(Callable<T> window) {
+        return executorService.submit(window);
+    }
+}
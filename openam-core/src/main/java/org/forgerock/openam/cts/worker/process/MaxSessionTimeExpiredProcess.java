@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package org.forgerock.openam.cts.worker.process;
 
@@ -47,7 +48,9 @@ public class MaxSessionTimeExpiredProcess extends CTSWorkerBaseProcess {
     @Inject
     public MaxSessionTimeExpiredProcess(
             @Named(CTSWorkerConstants.MAX_SESSION_TIME_EXPIRED) SessionExpiryBatchHandler timeoutHandler,
+            CTSWorkerPartitioning partitioning,
             @Named(CoreTokenConstants.CTS_DEBUG) final Debug debug) {
+        super(partitioning);
         this.debug = debug;
         this.timeoutHandler = timeoutHandler;
     }
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package org.forgerock.openam.cts.worker.process;
 
@@ -47,7 +48,9 @@ public class SessionIdleTimeExpiredProcess extends CTSWorkerBaseProcess {
     @Inject
     public SessionIdleTimeExpiredProcess(
             @Named(CTSWorkerConstants.SESSION_IDLE_TIME_EXPIRED) SessionExpiryBatchHandler timeoutHandler,
+            CTSWorkerPartitioning partitioning,
             @Named(CoreTokenConstants.CTS_DEBUG) final Debug debug) {
+        super(partitioning);
         this.debug = debug;
         this.timeoutHandler = timeoutHandler;
     }
@@ -12,6 +12,7 @@
 * information: "Portions copyright [year] [name of copyright owner]".
 *
 * Copyright 2014-2015 ForgeRock AS.
+* Portions Copyrighted 2026 Open Identity Platform Community.
 */
 package org.forgerock.openam.monitoring.session;
 
@@ -20,7 +21,9 @@ import java.io.Serializable;
 import javax.management.MBeanServer;
 import javax.management.ObjectName;
 import org.forgerock.guice.core.InjectorHolder;
+import org.forgerock.openam.blacklist.ConfigurableSessionBlacklist;
 import org.forgerock.openam.cts.monitoring.impl.persistence.CtsPersistenceOperationsMonitor;
+import org.forgerock.openam.session.stateless.cache.StatelessJWTCache;
 
 /**
  * The class is used for representing "FORGEROCK-OPENAM-SESSION-MIB".
@@ -138,7 +141,9 @@ public class FORGEROCK_OPENAM_SESSION_MIBImpl extends FORGEROCK_OPENAM_SESSION_M
      */
     protected StatelessSessions createStatelessSessionsMBean(String groupName, String groupOid,
                                                              ObjectName groupObjname, MBeanServer server) {
-        statelessSessions = new StatelessSessionsImpl(this, InjectorHolder.getInstance(SessionMonitoringStore.class));
+        statelessSessions = new StatelessSessionsImpl(this, InjectorHolder.getInstance(SessionMonitoringStore.class),
+                InjectorHolder.getInstance(StatelessJWTCache.class),
+                InjectorHolder.getInstance(ConfigurableSessionBlacklist.class));
 
         return statelessSessions;
     }
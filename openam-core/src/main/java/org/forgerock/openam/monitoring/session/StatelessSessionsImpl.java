@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
 package org.forgerock.openam.monitoring.session;
@@ -20,16 +21,23 @@ import com.iplanet.dpro.session.monitoring.SessionMonitorType;
 import com.iplanet.dpro.session.monitoring.SessionMonitoringStore;
 import com.sun.management.snmp.SnmpStatusException;
 import com.sun.management.snmp.agent.SnmpMib;
+import org.forgerock.openam.blacklist.ConfigurableSessionBlacklist;
+import org.forgerock.openam.session.stateless.cache.StatelessJWTCache;
 
 /**
  * Monitoring for stateless sessions.
  */
 public class StatelessSessionsImpl extends StatelessSessions {
     private final SessionMonitoringStore monitoringStore;
+    private final StatelessJWTCache jwtCache;
+    private final ConfigurableSessionBlacklist sessionBlacklist;
 
-    public StatelessSessionsImpl(final SnmpMib mib, final SessionMonitoringStore monitoringStore) {
+    public StatelessSessionsImpl(final SnmpMib mib, final SessionMonitoringStore monitoringStore,
+            final StatelessJWTCache jwtCache, final ConfigurableSessionBlacklist sessionBlacklist) {
         super(mib);
         this.monitoringStore = monitoringStore;
+        this.jwtCache = jwtCache;
+        this.sessionBlacklist = sessionBlacklist;
     }
 
     /**
@@ -74,4 +82,44 @@ public class StatelessSessionsImpl extends StatelessSessions {
         return 0L;
     }
 
+    /**
+     * Getter for the "StatelessJWTCacheHits" variable.
+     */
+    @Override
+    public Long getStatelessJWTCacheHits() throws SnmpStatusException {
+        return jwtCache.getHitCount();
+    }
+
+    /**
+     * Getter for the "StatelessJWTCacheMisses" variable.
+     */
+    @Override
+    public Long getStatelessJWTCacheMisses() throws SnmpStatusException {
+        return jwtCache.getMissCount();
+    }
+
+    /**
+     * Getter for the "StatelessJWTCacheEvictions" variable.
+     */
+    @Override
+    public Long getStatelessJWTCacheEvictions() throws SnmpStatusException {
+        return jwtCache.getEvictionCount();
+    }
+
+    /**
+     * Getter for the "StatelessBlacklistFalsePositiveRate" variable, in parts per million.
+     */
+    @Override
+    public Long getStatelessBlacklistFalsePositiveRate() throws SnmpStatusException {
+        return Math.round(sessionBlacklist.getBloomFilterFalsePositiveProbability() * 1000000);
+    }
+
+    /**
+     * Getter for the "StatelessBlacklistFillRatio" variable, as a percentage.
+     */
+    @Override
+    public Long getStatelessBlacklistFillRatio() throws SnmpStatusException {
+        return Math.round(sessionBlacklist.getBloomFilterFillRatio() * 100);
+    }
+
 }
@@ -13,7 +13,7 @@
  *
  * Copyright 2016 ForgeRock AS.
  * 
- * Portions Copyrighted 2020 Open Identity Platform Community.
+ * Portions Copyrighted 2020-2026 Open Identity Platform Community.
  */
 
 package org.forgerock.openam.session.service.access.persistence.caching;
@@ -27,13 +27,17 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicStampedReference;
+import java.util.concurrent.locks.Lock;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Named;
 
+import org.forgerock.openam.audit.context.AMExecutorServiceFactory;
 import org.forgerock.openam.session.SessionConstants;
 import org.forgerock.openam.session.service.access.persistence.InternalSessionStore;
 import org.forgerock.openam.session.service.access.persistence.InternalSessionStoreStep;
@@ -42,6 +46,8 @@ import org.forgerock.openam.session.service.access.persistence.watchers.SessionM
 import org.forgerock.openam.session.service.access.persistence.watchers.SessionModificationWatcher;
 import org.forgerock.openam.utils.StringUtils;
 import org.forgerock.util.annotations.VisibleForTesting;
+import org.forgerock.util.thread.listener.ShutdownListener;
+import org.forgerock.util.thread.listener.ShutdownPriority;
 
 import com.google.common.base.Throwables;
 import com.google.common.cache.Cache;
@@ -49,13 +55,21 @@ import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheStats;
 import com.google.common.cache.Weigher;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.Striped;
 import com.iplanet.dpro.session.SessionID;
 import com.iplanet.dpro.session.service.InternalSession;
 import com.iplanet.dpro.session.service.SessionServiceConfig;
+import com.sun.identity.common.ShutdownManager;
 import com.sun.identity.shared.debug.Debug;
 
 /**
  * Session cache implemented using a simple in-memory cache data structure.
+ * <p>
+ * When write-behind is enabled, a store of a session that has only had its access time refreshed or unprotected
+ * properties changed since it was last written is deferred, and is written along with any later deferred stores of
+ * the same session on the next periodic flush. All other stores, including the first store of a session, and all
+ * removals are written through immediately and discard any deferred store of the session. On shutdown the deferred
+ * stores are flushed, ahead of the data layer shutting down, and later stores are all written through.
  */
 public class InMemoryInternalSessionCacheStep implements InternalSessionStoreStep {
 
@@ -66,24 +80,73 @@ public class InMemoryInternalSessionCacheStep implements InternalSessionStoreSte
     private final AtomicStampedReference<Cache<String, InternalSession>> cache;
     private final SessionServiceConfig sessionConfig;
     private final Debug debug;
+    private final boolean writeBehind;
+
+    /**
+     * The deferred stores of each session, each with the remainder of the store chain it would have continued down.
+     */
+    private final ConcurrentMap<SessionID, DeferredStore> deferredStores = new ConcurrentHashMap<>();
+
+    /**
+     * The significant update count of each session when it was last written through to the next step.
+     */
+    private final ConcurrentMap<SessionID, Long> writtenUpdateCounts = new ConcurrentHashMap<>();
+
+    /**
+     * Orders the flush of a deferred store against a write through or removal of the same session.
+     */
+    private final Striped<Lock> sessionLocks = Striped.lock(64);
+
+    private volatile boolean shutdown = false;
 
     @Inject
-    @VisibleForTesting
     InMemoryInternalSessionCacheStep(SessionServiceConfig sessionConfig,
                                      @Named(SessionConstants.SESSION_DEBUG) Debug sessionDebug,
-                                     SessionModificationWatcher watcher) {
+                                     SessionModificationWatcher watcher,
+                                     AMExecutorServiceFactory executorServiceFactory) {
+        this(sessionConfig, sessionDebug, watcher, sessionConfig.isSessionStoreWriteBehindEnabled()
+                ? executorServiceFactory.createScheduledService(1, "SessionWriteBehind") : null);
+        if (writeBehind) {
+            // The deferred stores must reach the data layer before it is shut down at the default priority
+            ShutdownManager.getInstance().addShutdownListener(new ShutdownListener() {
+                @Override
+                public void shutdown() {
+                    InMemoryInternalSessionCacheStep.this.shutdown();
+                }
+            }, ShutdownPriority.HIGHEST);
+        }
+    }
+
+    @VisibleForTesting
+    InMemoryInternalSessionCacheStep(SessionServiceConfig sessionConfig,
+                                     Debug sessionDebug,
+                                     SessionModificationWatcher watcher,
+                                     ScheduledExecutorService writeBehindScheduler) {
         final int maxCacheSize = sessionConfig.getMaxSessionCacheSize();
         final long maxCacheTime = sessionConfig.getMaxSessionCacheTime();
         this.sessionConfig = sessionConfig;
         this.cache = new AtomicStampedReference<>(buildCache(maxCacheSize, maxCacheTime), maxCacheSize);
         this.debug = sessionDebug;
+        this.writeBehind = sessionConfig.isSessionStoreWriteBehindEnabled();
 
         watcher.addListener(new SessionModificationListener() {
             @Override
             public void sessionChanged(SessionID sessionID) {
                 invalidateCache(sessionID);
+                // The session has been deleted elsewhere in the cluster, so a deferred store must not recreate it
+                discardDeferredStore(sessionID);
             }
         });
+
+        if (writeBehind) {
+            final long interval = sessionConfig.getSessionStoreWriteBehindInterval(TimeUnit.MILLISECONDS);
+            writeBehindScheduler.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    flush();
+                }
+            }, interval, interval, TimeUnit.MILLISECONDS);
+        }
     }
 
     @Override
@@ -123,9 +186,18 @@ public class InMemoryInternalSessionCacheStep implements InternalSessionStoreSte
     public void store(final InternalSession session, final InternalSessionStore next)
             throws SessionPersistenceException {
 
-        // First, pass down to the underlying persistence to store it - if this throws an exception then we shouldn't
-        // cache the session.
-        next.store(session);
+        if (writeBehind && !shutdown && isMinorUpdate(session)) {
+            // Each call is handed a fresh continuation of the chain, so it can be followed later by the flush.
+            deferredStores.put(session.getID(), new DeferredStore(session, next));
+            if (shutdown) {
+                // The shutdown flush may have already passed this session
+                flush();
+            }
+        } else {
+            // First, pass down to the underlying persistence to store it - if this throws an exception then we
+            // shouldn't cache the session.
+            writeThrough(session, next);
+        }
 
         // Collect all references to the session into a map
         final Map<String, InternalSession> toAdd = new TreeMap<>();
@@ -148,6 +220,7 @@ public class InMemoryInternalSessionCacheStep implements InternalSessionStoreSte
     @Override
     public void remove(final InternalSession session, final InternalSessionStore next) throws SessionPersistenceException {
         invalidateCache(session.getID());
+        discardDeferredStore(session.getID());
 
         // Always ask the lower layers to remove the session even if we did not have it cached
         next.remove(session);
@@ -172,6 +245,70 @@ public class InMemoryInternalSessionCacheStep implements InternalSessionStoreSte
         }
     }
 
+    private boolean isMinorUpdate(InternalSession session) {
+        Long writtenUpdateCount = writtenUpdateCounts.get(session.getID());
+        return writtenUpdateCount != null && writtenUpdateCount == session.getSignificantUpdateCount();
+    }
+
+    private void writeThrough(InternalSession session, InternalSessionStore next) throws SessionPersistenceException {
+        final SessionID sessionID = session.getID();
+        final Lock lock = sessionLocks.get(sessionID);
+        lock.lock();
+        try {
+            // This write supersedes any deferred store of the session
+            deferredStores.remove(sessionID);
+            final long updateCount = session.getSignificantUpdateCount();
+            next.store(session);
+            if (writeBehind) {
+                writtenUpdateCounts.put(sessionID, updateCount);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void discardDeferredStore(SessionID sessionID) {
+        final Lock lock = sessionLocks.get(sessionID);
+        lock.lock();
+        try {
+            deferredStores.remove(sessionID);
+            writtenUpdateCounts.remove(sessionID);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes all deferred stores through to the next step.
+     */
+    @VisibleForTesting
+    void flush() {
+        for (SessionID sessionID : deferredStores.keySet()) {
+            final Lock lock = sessionLocks.get(sessionID);
+            lock.lock();
+            try {
+                DeferredStore deferredStore = deferredStores.remove(sessionID);
+                if (deferredStore != null) {
+                    deferredStore.next.store(deferredStore.session);
+                }
+            } catch (SessionPersistenceException | RuntimeException e) {
+                debug.warning("InMemoryInternalSessionCacheStep: Unable to write deferred update of session {}",
+                        sessionID, e);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Stops deferring stores and writes the deferred stores through to the next step.
+     */
+    @VisibleForTesting
+    void shutdown() {
+        shutdown = true;
+        flush();
+    }
+
     @VisibleForTesting
     long size() {
         return getCache().size();
@@ -267,6 +404,19 @@ public class InMemoryInternalSessionCacheStep implements InternalSessionStoreSte
         }
     }
 
+    /**
+     * A deferred store of a session.
+     */
+    private static final class DeferredStore {
+        private final InternalSession session;
+        private final InternalSessionStore next;
+
+        private DeferredStore(InternalSession session, InternalSessionStore next) {
+            this.session = session;
+            this.next = next;
+        }
+    }
+
     /**
      * Local marker exception for transporting null values through Guava's null-hostile Cache API. While it is "bad"
      * to use exceptions for flow-control rather than genuine exceptional cases, the API in this case provides no
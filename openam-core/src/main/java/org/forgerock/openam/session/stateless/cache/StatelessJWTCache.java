@@ -12,20 +12,26 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package org.forgerock.openam.session.stateless.cache;
 
-import java.util.Collections;
-import java.util.Map;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.forgerock.openam.utils.Time.currentTimeMillis;
+
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import org.forgerock.openam.session.stateless.StatelessConfig;
-import org.forgerock.openam.utils.collections.LeastRecentlyUsed;
 import org.forgerock.util.Reject;
 import org.forgerock.util.annotations.VisibleForTesting;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
 import com.iplanet.dpro.session.service.SessionServiceConfig;
 import com.iplanet.dpro.session.share.SessionInfo;
 import com.iplanet.services.naming.ServiceListeners;
@@ -36,21 +42,51 @@ import com.iplanet.services.naming.ServiceListeners;
  * This cache acts as a performance enhancement which will reduce the number of times JWT
  * tokens need to be decrypted and decoded.
  *
- * This cache is intentionally unable to perform the reverse lookup of SessionInfo to
- * JWT, as we expect the JWT to change each time the SessionInfo changes.
+ * The cache is bounded by the configured JWT cache size and evicts the least recently used
+ * entries once full. An entry is also treated as absent once the expiry time (the JWT {@code exp}
+ * claim) of its SessionInfo has passed, so expired sessions are never served from the cache.
+ *
+ * A bounded reverse index of SessionInfo to JWT is maintained so that {@link #contains(SessionInfo)}
+ * does not need to scan the cache. The reverse index is not exposed as a lookup, as we expect the
+ * JWT to change each time the SessionInfo changes. Cached SessionInfo instances must therefore not
+ * be modified.
  *
  * Assumption: There is only one representation of a JWT to the SessionInfo it contains.
  *
- * Thread Safety: This class uses a synchronized data structure and so is thread safe.
+ * Thread Safety: This class uses segmented concurrent data structures and so is thread safe
+ * without a global lock.
  */
 @Singleton
 public class StatelessJWTCache {
-    private final Map<String, SessionInfo> sessionInfoCache;
+    private static final int CONCURRENCY_LEVEL = 16;
+
+    private final Cache<String, SessionInfo> sessionInfoCache;
+    private final Cache<SessionInfo, String> jwtIndex;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
 
     @Inject
     public StatelessJWTCache(StatelessConfig config, ServiceListeners listeners) {
-        sessionInfoCache = Collections.synchronizedMap(
-                new LeastRecentlyUsed<String, SessionInfo>(config.getJWTCacheSize()));
+        int maxSize = Math.max(0, config.getJWTCacheSize());
+        jwtIndex = CacheBuilder.newBuilder()
+                .concurrencyLevel(CONCURRENCY_LEVEL)
+                .maximumSize(maxSize)
+                .build();
+        sessionInfoCache = CacheBuilder.newBuilder()
+                .concurrencyLevel(CONCURRENCY_LEVEL)
+                .maximumSize(maxSize)
+                .removalListener(new RemovalListener<String, SessionInfo>() {
+                    @Override
+                    public void onRemoval(RemovalNotification<String, SessionInfo> notification) {
+                        if (notification.wasEvicted()) {
+                            evictions.incrementAndGet();
+                        }
+                        jwtIndex.asMap().remove(notification.getValue(), notification.getKey());
+                    }
+                })
+                .build();
 
         // Responds to configuration changes, preventing possibly invalid keys from remaining in the cache
         final ServiceListeners.Action action = new ServiceListeners.Action() {
@@ -65,12 +101,18 @@ public class StatelessJWTCache {
     /**
      * Stores the relationship between a SessionInfo, and its encrypted JWT.
      *
+     * SessionInfo which has already expired is not cached.
+     *
      * @param jwtToken Non null JWT Token to store.
      * @param info Non null SessionInfo to store against the JWT.
      */
     public void cache(SessionInfo info, String jwtToken) {
         Reject.ifNull(info, jwtToken, "Arguments cannot be null.");
+        if (isExpired(info)) {
+            return;
+        }
         sessionInfoCache.put(jwtToken, info);
+        jwtIndex.put(info, jwtToken);
     }
 
     /**
@@ -78,7 +120,13 @@ public class StatelessJWTCache {
      * @return Possibly null. Cached SessionInfo that corresponds to the given JWT token.
      */
     public SessionInfo getSessionInfo(String jwt) {
-        return sessionInfoCache.get(jwt);
+        SessionInfo info = lookup(jwt);
+        if (info == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return info;
     }
 
     /**
@@ -86,7 +134,11 @@ public class StatelessJWTCache {
      * @return True if there is a JWT representation for this SessionInfo.
      */
     public boolean contains(SessionInfo info) {
-        return sessionInfoCache.containsValue(info);
+        if (info == null) {
+            return false;
+        }
+        String jwt = jwtIndex.getIfPresent(info);
+        return jwt != null && info.equals(lookup(jwt));
     }
 
     /**
@@ -94,7 +146,7 @@ public class StatelessJWTCache {
      * @return True if this JWT has been stored in the cache previously.
      */
     public boolean contains(String jwtToken) {
-        return sessionInfoCache.containsKey(jwtToken);
+        return lookup(jwtToken) != null;
     }
 
     /**
@@ -103,7 +155,30 @@ public class StatelessJWTCache {
      * @param jwt the JWT to remove from the cache.
      */
     public void remove(String jwt) {
-        sessionInfoCache.remove(jwt);
+        if (jwt != null) {
+            sessionInfoCache.invalidate(jwt);
+        }
+    }
+
+    /**
+     * @return The number of lookups which found a cached SessionInfo.
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * @return The number of lookups which did not find a cached SessionInfo.
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * @return The number of entries removed because the cache was full or the session had expired.
+     */
+    public long getEvictionCount() {
+        return evictions.get();
     }
 
     /**
@@ -114,6 +189,29 @@ public class StatelessJWTCache {
      */
     @VisibleForTesting
     void clear() {
-        sessionInfoCache.clear();
+        sessionInfoCache.invalidateAll();
+        jwtIndex.invalidateAll();
+    }
+
+    private SessionInfo lookup(String jwt) {
+        if (jwt == null) {
+            return null;
+        }
+        SessionInfo info = sessionInfoCache.getIfPresent(jwt);
+        if (info != null && isExpired(info)) {
+            if (sessionInfoCache.asMap().remove(jwt, info)) {
+                evictions.incrementAndGet();
+            }
+            return null;
+        }
+        return info;
+    }
+
+    private static boolean isExpired(SessionInfo info) {
+        if (info.isNeverExpiring()) {
+            return false;
+        }
+        long expiryTime = info.getExpiryTime(MILLISECONDS);
+        return expiryTime > 0 && expiryTime <= currentTimeMillis();
     }
-}
\ No newline at end of file
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package org.forgerock.openam.sm;
 
@@ -20,6 +21,7 @@ import javax.inject.Named;
 
 import java.util.Set;
 
+import org.forgerock.openam.cts.CoreTokenConfig;
 import org.forgerock.openam.ldap.LDAPURL;
 import org.forgerock.openam.sm.datalayer.api.ConnectionType;
 import org.forgerock.openam.sm.datalayer.api.DataLayerConstants;
@@ -41,6 +43,7 @@ public class ConnectionConfigFactory {
     private final ConnectionConfig smsConfiguration;
     private final ConfigurationValidator validator;
     private final LdapDataLayerConfiguration dataLayerConfiguration;
+    private final CoreTokenConfig coreTokenConfig;
 
     /**
      * Guice initialised constructor.
@@ -48,16 +51,19 @@ public class ConnectionConfigFactory {
      * @param datalayerConfig Non null default configuration.
      * @param externalTokenConfig Non null External CTS configuration.
      * @param validator Required for validation.
+     * @param coreTokenConfig Non null CTS configuration, used to size the CTS worker connection pools.
      */
     @Inject
     public ConnectionConfigFactory(@Named(DataLayerConstants.SERVICE_MANAGER_CONFIG) ConnectionConfig datalayerConfig,
             @Named(DataLayerConstants.EXTERNAL_CONFIG) ConnectionConfig externalTokenConfig,
             LdapDataLayerConfiguration dataLayerConfiguration,
-            ConfigurationValidator validator) {
+            ConfigurationValidator validator,
+            CoreTokenConfig coreTokenConfig) {
         this.smsConfiguration = datalayerConfig;
         this.externalTokenConfig = externalTokenConfig;
         this.validator = validator;
         this.dataLayerConfiguration = dataLayerConfiguration;
+        this.coreTokenConfig = coreTokenConfig;
     }
 
     /**
@@ -114,7 +120,8 @@ public class ConnectionConfigFactory {
         return new DelegatingConnectionConfig(configuration) {
             @Override
             public int getMaxConnections() {
-                return 1;
+                // One connection for each expiry time window which may be queried at the same time
+                return coreTokenConfig.getReaperConcurrency();
             }
 
             @Override
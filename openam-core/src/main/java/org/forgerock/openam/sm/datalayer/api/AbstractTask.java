@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package org.forgerock.openam.sm.datalayer.api;
 
@@ -23,6 +24,9 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import org.forgerock.openam.cts.api.tokens.Token;
+import org.forgerock.util.promise.ExceptionHandler;
+import org.forgerock.util.promise.Promise;
+
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.iplanet.am.util.SystemProperties;
@@ -73,6 +77,42 @@ public abstract class AbstractTask<T> implements Task {
         this.handler = handler;
     }
 
+    /**
+     * @return The non null handler to notify of the result of the task.
+     */
+    public ResultHandler<T, ?> getHandler() {
+        return handler;
+    }
+
+    /**
+     * @return True if an error has already been signalled to the handler, in which case the task
+     * should not be performed.
+     */
+    protected boolean isError() {
+        return isError;
+    }
+
+    /**
+     * Notify the handler of this task when the given promise of an asynchronously performed
+     * operation completes.
+     *
+     * @param promise Non null promise of the result of the operation.
+     * @return The given promise.
+     */
+    protected Promise<T, DataLayerException> notifyHandler(Promise<T, DataLayerException> promise) {
+        return promise.thenOnResultOrException(new org.forgerock.util.promise.ResultHandler<T>() {
+            @Override
+            public void handleResult(T result) {
+                handler.processResults(result);
+            }
+        }, new ExceptionHandler<DataLayerException>() {
+            @Override
+            public void handleException(DataLayerException error) {
+                processError(error);
+            }
+        });
+    }
+
     @Override
     public void processError(DataLayerException error) {
         isError = true;
@@ -0,0 +1,77 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+
+package org.forgerock.openam.sm.datalayer.api;
+
+import org.forgerock.openam.cts.api.tokens.Token;
+import org.forgerock.util.Options;
+import org.forgerock.util.promise.Promise;
+
+/**
+ * A write {@link Task} against a single Token which may be coalesced with other writes to the
+ * same Token and issued as part of a batch of operations.
+ *
+ * @param <T> The type of result the task provides to its {@link ResultHandler}.
+ * @see org.forgerock.openam.sm.datalayer.impl.TaskBatch
+ */
+public interface BatchableTask<T> extends Task {
+
+    /**
+     * The kind of write performed by a batchable task.
+     */
+    enum Operation {
+        /** The Token is created. */
+        CREATE,
+        /** The Token is created or modified. */
+        UPDATE,
+        /** The Token is deleted. */
+        DELETE
+    }
+
+    /**
+     * @return The non null ID of the Token this task writes.
+     */
+    String getTokenId();
+
+    /**
+     * @return The non null kind of write this task performs.
+     */
+    Operation getOperation();
+
+    /**
+     * @return The Token to be written, or null for {@link Operation#DELETE}.
+     */
+    Token getToken();
+
+    /**
+     * @return The non null Options for the operation.
+     */
+    Options getOptions();
+
+    /**
+     * @return The non null handler to notify of the result of the task.
+     */
+    ResultHandler<T, ?> getHandler();
+
+    /**
+     * Issue the write without waiting for its response. The handler of this task will be notified
+     * when the returned promise completes.
+     *
+     * @param adapter Non null adapter to issue the operation through.
+     * @return A non null promise of the result of the write.
+     */
+    Promise<T, DataLayerException> performAsync(PipelinedTokenStorageAdapter adapter);
+}
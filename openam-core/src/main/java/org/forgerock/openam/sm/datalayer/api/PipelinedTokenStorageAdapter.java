@@ -0,0 +1,63 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+
+package org.forgerock.openam.sm.datalayer.api;
+
+import org.forgerock.openam.cts.api.tokens.Token;
+import org.forgerock.openam.sm.datalayer.api.query.PartialToken;
+import org.forgerock.util.Options;
+import org.forgerock.util.promise.Promise;
+
+/**
+ * A {@link TokenStorageAdapter} which is able to issue write operations without waiting for the
+ * response of the previous operation, allowing a batch of writes to be pipelined over a single
+ * connection.
+ *
+ * Each returned {@link Promise} completes when the response for that operation has been received.
+ */
+public interface PipelinedTokenStorageAdapter extends TokenStorageAdapter {
+
+    /**
+     * Issue the creation of the Token without waiting for the response.
+     *
+     * @param token Non null Token to create.
+     * @param options Non null Options for the operation.
+     * @return A promise of the newly created token, containing the additional etag information.
+     * @see #create(Token, Options)
+     */
+    Promise<Token, DataLayerException> createAsync(Token token, Options options);
+
+    /**
+     * Issue the update of the Token without waiting for the response.
+     *
+     * @param previous The non null previous Token to check against.
+     * @param updated The non null Token to update with.
+     * @param options The non null Options for the operation.
+     * @return A promise of a copy of the updated token, containing the updated etag.
+     * @see #update(Token, Token, Options)
+     */
+    Promise<Token, DataLayerException> updateAsync(Token previous, Token updated, Options options);
+
+    /**
+     * Issue the deletion of the Token ID without waiting for the response.
+     *
+     * @param tokenId The non null Token ID to delete.
+     * @param options The non null Options for the operation.
+     * @return A promise of a {@link PartialToken} containing at least the Token ID.
+     * @see #delete(String, Options)
+     */
+    Promise<PartialToken, DataLayerException> deleteAsync(String tokenId, Options options);
+}
@@ -12,12 +12,15 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
 package org.forgerock.openam.sm.datalayer.impl;
 
 import java.text.MessageFormat;
-import java.util.Random;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -31,6 +34,7 @@ import org.forgerock.openam.audit.context.AuditRequestContext;
 import org.forgerock.openam.cts.api.CoreTokenConstants;
 import org.forgerock.openam.cts.impl.queue.QueueSelector;
 import org.forgerock.openam.cts.impl.queue.config.CTSQueueConfiguration;
+import org.forgerock.openam.cts.monitoring.CTSQueueMonitoringStore;
 import org.forgerock.openam.shared.concurrency.ThreadMonitor;
 import org.forgerock.openam.sm.datalayer.api.DataLayerConstants;
 import org.forgerock.openam.sm.datalayer.api.DataLayerException;
@@ -58,9 +62,11 @@ import com.sun.identity.shared.debug.Debug;
  * against the same Token ID which could cause concurrent modification errors
  * at the storage layer.
  *
- * Each TaskProcessor is assigned a FIFO {@link BlockingQueue} instance which will
- * provide the predictable processing order. The implication of this design ensures
- * that when this queue is full, the caller is required to block.
+ * When sharded queues are enabled each TaskProcessor is assigned its own FIFO
+ * {@link BlockingQueue} instance which will provide the predictable processing order,
+ * and queries, which have no Token ID, are placed on the least loaded queue. Otherwise
+ * all TaskProcessors share a single queue. The implication of this design ensures
+ * that when a queue is full, the caller is required to block.
  *
  * This provides an automatic throttling function for the CTS. The queues provide a
  * buffer for the CTS in the event that more come in than can be handled. If however
@@ -70,15 +76,15 @@ import com.sun.identity.shared.debug.Debug;
  * @see org.forgerock.openam.cts.impl.queue.config.CTSQueueConfiguration#getQueueTimeout()
  */
 public class SeriesTaskExecutor implements TaskExecutor {
-    private static final Random random = new Random();
     private final Debug debug;
-    static private BlockingQueue<Task> taskQueue=null;
+    private volatile List<BlockingQueue<Task>> taskQueues = Collections.emptyList();
     private int processors;
     private boolean initialised = false;
     private final SeriesTaskExecutorThreadFactory processorFactory;
     private final ThreadMonitor monitor;
     private final CTSQueueConfiguration configuration;
     private final ExecutorService poolService;
+    private final CTSQueueMonitoringStore monitoringStore;
 
     /**
      * Create a default instance of the SeriesTaskExecutor.
@@ -87,6 +93,7 @@ public class SeriesTaskExecutor implements TaskExecutor {
      * @param processorFactory Required to create worker thread instances.
      * @param monitor Required to ensure threads are restarted.
      * @param configuration Required to determine runtime configuration options.
+     * @param monitoringStore Required to report queue depth and wait times.
      * @param debug Required for debugging.
      */
     @Inject
@@ -95,24 +102,33 @@ public class SeriesTaskExecutor implements TaskExecutor {
             SeriesTaskExecutorThreadFactory processorFactory,
             ThreadMonitor monitor,
             CTSQueueConfiguration configuration,
+            CTSQueueMonitoringStore monitoringStore,
             @Named(DataLayerConstants.DATA_LAYER_DEBUG) Debug debug) {
         this.debug = debug;
         this.monitor = monitor;
         this.configuration = configuration;
         this.processorFactory = processorFactory;
         this.poolService = poolService;
+        this.monitoringStore = monitoringStore;
     }
 
     @Override
     public void execute(String tokenId, Task task) throws DataLayerException {
-        BlockingQueue<Task> queue = getQueue(tokenId);
-        offer(queue, task);
+        List<BlockingQueue<Task>> queues = taskQueues;
+        if (queues.isEmpty()) {
+            throw new IllegalStateException("Task executor has not been started");
+        }
+        int index = tokenId == null ? selectQueueForQuery(queues) : selectQueue(tokenId, queues);
+        offer(queues.get(index), index, task);
     }
 
     /**
      * Create TaskProcessor threads for all configured connections.
      * Ensure each thread is monitored by {@link ThreadMonitor}.
      *
+     * When sharded queues are enabled each TaskProcessor is given its own queue,
+     * otherwise all TaskProcessors draw from a single shared queue.
+     *
      * Synchronized to ensure that only one set of threads are initialised.
      */
     @Override
@@ -127,22 +143,43 @@ public class SeriesTaskExecutor implements TaskExecutor {
             throw new RuntimeException(e);
         }
 
-        taskQueue = new LinkedBlockingQueue<>(configuration.getQueueSize());
-        
+        boolean sharded = configuration.isShardedQueues();
+        int queueCount = sharded ? processors : 1;
+        List<BlockingQueue<Task>> queues = new ArrayList<>(queueCount);
+        for (int ii = 0; ii < queueCount; ii++) {
+            queues.add(new LinkedBlockingQueue<Task>(configuration.getQueueSize()));
+        }
+        taskQueues = Collections.unmodifiableList(queues);
+        monitoringStore.registerQueues(taskQueues);
+
         for (int ii = 0; ii < processors; ii++) {
-            SeriesTaskExecutorThread processor = processorFactory.create(taskQueue);
+            SeriesTaskExecutorThread processor = processorFactory.create(queues.get(ii % queueCount));
             monitor.watchThread(poolService, processor);
         }
-        debug("Created {0} Task Processors", processors);
+        debug("Created {0} Task Processors with {1} queues", processors, queueCount);
 
-        initialised = true;    }
+        initialised = true;
+    }
 
     /**
-     * Select a random queue to use for the query operation.
-     * @return Non null.
+     * Select the least loaded queue to use for the query operation.
+     *
+     * Queries are not tied to a Token ID and so are free to be processed by any TaskProcessor.
+     *
+     * @param queues Non null, non empty list of queues.
+     * @return The index of the queue with the fewest waiting tasks.
      */
-    private BlockingQueue<Task> getQueueForQuery() {
-        return taskQueue;
+    private int selectQueueForQuery(List<BlockingQueue<Task>> queues) {
+        int selected = 0;
+        int smallest = Integer.MAX_VALUE;
+        for (int ii = 0; ii < queues.size(); ii++) {
+            int size = queues.get(ii).size();
+            if (size < smallest) {
+                smallest = size;
+                selected = ii;
+            }
+        }
+        return selected;
     }
 
     /**
@@ -151,25 +188,25 @@ public class SeriesTaskExecutor implements TaskExecutor {
      * The QueueSelector algorithm used will be consistent against the Token ID.
      *
      * @param tokenId Non null Token ID.
-     * @return A non null Queue to assign the task to.
+     * @param queues Non null, non empty list of queues.
+     * @return The index of the queue to assign the task to.
      */
-    private BlockingQueue<Task> getQueue(String tokenId) {
-        if (tokenId == null) {
-            return getQueueForQuery();
-        }
-        return taskQueue;
+    private int selectQueue(String tokenId, List<BlockingQueue<Task>> queues) {
+        return QueueSelector.select(tokenId, queues.size());
     }
 
     /**
      * Assign the task to the queue with a known timeout.
      * @param queue Non null BlockingQueue.
+     * @param index The index of the queue, used for monitoring.
      * @param task Task to add.
      * @throws org.forgerock.openam.sm.datalayer.api.QueueTimeoutException If the timeout expired before the Task was added.
      */
-    private void offer(BlockingQueue<Task> queue, Task task) throws QueueTimeoutException {
+    private void offer(BlockingQueue<Task> queue, int index, Task task) throws QueueTimeoutException {
         try {
             debug("Queuing Task {0}", task.toString());
-            if (!queue.offer(wrap(task), configuration.getQueueTimeout(), TimeUnit.SECONDS)) {
+            Task queued = new QueueWaitMonitoringTask(wrap(task), index, monitoringStore);
+            if (!queue.offer(queued, configuration.getQueueTimeout(), TimeUnit.SECONDS)) {
                 throw new QueueTimeoutException(task);
             }
         } catch (InterruptedException e) {
@@ -196,7 +233,7 @@ public class SeriesTaskExecutor implements TaskExecutor {
     // it may be a better idea to put this wrapper logic into DataLayerConnectionModule#configure
     // by creating a decorator for TaskExecutor that wraps Tasks submitted to TaskExecutor#execute
     static class AuditRequestContextPropagatingTask
-            extends AbstractAuditRequestContextPropagatingDecorator implements Task {
+            extends AbstractAuditRequestContextPropagatingDecorator implements TaskDecorator {
 
         private final Task delegate;
 
@@ -206,9 +243,19 @@ public class SeriesTaskExecutor implements TaskExecutor {
 
         @Override
         public void execute(TokenStorageAdapter adapter) throws DataLayerException {
+            decorate(new ExecuteAction(delegate, adapter));
+        }
+
+        @Override
+        public Task getDelegate() {
+            return delegate;
+        }
+
+        @Override
+        public <R> R decorate(DecoratedAction<R> action) throws DataLayerException {
             setContext();
             try {
-                delegate.execute(adapter);
+                return action.perform();
             } finally {
                 revertContext();
             }
@@ -220,4 +267,68 @@ public class SeriesTaskExecutor implements TaskExecutor {
         }
     }
 
+    /**
+     * <code>Task</code> Decorator that reports the time the task spent waiting on its queue before the
+     * worker thread started processing it.
+     */
+    static class QueueWaitMonitoringTask implements TaskDecorator {
+
+        private final Task delegate;
+        private final int queue;
+        private final CTSQueueMonitoringStore monitoringStore;
+        private final long queuedAt;
+
+        QueueWaitMonitoringTask(Task delegate, int queue, CTSQueueMonitoringStore monitoringStore) {
+            this.delegate = delegate;
+            this.queue = queue;
+            this.monitoringStore = monitoringStore;
+            this.queuedAt = System.nanoTime();
+        }
+
+        @Override
+        public void execute(TokenStorageAdapter adapter) throws DataLayerException {
+            decorate(new ExecuteAction(delegate, adapter));
+        }
+
+        @Override
+        public Task getDelegate() {
+            return delegate;
+        }
+
+        @Override
+        public <R> R decorate(DecoratedAction<R> action) throws DataLayerException {
+            monitoringStore.addQueueWaitTime(queue, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - queuedAt));
+            return action.perform();
+        }
+
+        @Override
+        public void processError(DataLayerException error) {
+            delegate.processError(error);
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+    }
+
+    /**
+     * Executes the decorated task.
+     */
+    private static final class ExecuteAction implements TaskDecorator.DecoratedAction<Void> {
+
+        private final Task task;
+        private final TokenStorageAdapter adapter;
+
+        private ExecuteAction(Task task, TokenStorageAdapter adapter) {
+            this.task = task;
+            this.adapter = adapter;
+        }
+
+        @Override
+        public Void perform() throws DataLayerException {
+            task.execute(adapter);
+            return null;
+        }
+    }
 }
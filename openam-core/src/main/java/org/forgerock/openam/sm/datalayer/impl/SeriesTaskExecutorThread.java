@@ -12,16 +12,21 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2015 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package org.forgerock.openam.sm.datalayer.impl;
 
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
 import javax.inject.Named;
 
 import org.forgerock.openam.cts.api.CoreTokenConstants;
+import org.forgerock.openam.cts.impl.queue.config.CTSQueueConfiguration;
 import org.forgerock.openam.sm.datalayer.api.DataLayerException;
 import org.forgerock.openam.sm.datalayer.api.Task;
 
@@ -37,6 +42,10 @@ import com.sun.identity.shared.debug.Debug;
  * This decoupled design is intended to ensure that each TaskProcessor can be
  * run as part of a thread pool, and process tasks in a continuous fashion.
  *
+ * When batching is configured the processor draws up to the batch size of tasks
+ * from the queue, waiting up to the batch delay for the batch to fill, and then
+ * processes them together as a {@link TaskBatch}.
+ *
  * Thread Policy: This runnable will respond to Thread interrupts and will
  * exit cleanly in the event of an interrupt.
  *
@@ -45,6 +54,7 @@ import com.sun.identity.shared.debug.Debug;
  */
 public class SeriesTaskExecutorThread implements Runnable {
     private final SimpleTaskExecutor taskExecutor;
+    private final CTSQueueConfiguration configuration;
     private BlockingQueue<Task> queue;
     private final Debug debug;
 
@@ -52,11 +62,15 @@ public class SeriesTaskExecutorThread implements Runnable {
      * Generate a default instance of the Task Processor.
      *
      * @param debug Required for debugging.
+     * @param taskExecutor Required to execute the tasks.
+     * @param configuration Required to determine the batching configuration.
      */
     @Inject
-    public SeriesTaskExecutorThread(@Named(CoreTokenConstants.CTS_DEBUG) Debug debug, SimpleTaskExecutor taskExecutor) {
+    public SeriesTaskExecutorThread(@Named(CoreTokenConstants.CTS_DEBUG) Debug debug, SimpleTaskExecutor taskExecutor,
+            CTSQueueConfiguration configuration) {
         this.debug = debug;
         this.taskExecutor = taskExecutor;
+        this.configuration = configuration;
     }
 
     /**
@@ -85,12 +99,21 @@ public class SeriesTaskExecutorThread implements Runnable {
             throw new IllegalStateException("Cannot start task executor", e);
         }
 
+        int batchSize = configuration.getBatchSize();
+        int batchDelay = configuration.getBatchDelay();
+
         // Iterate until shutdown
         while (!Thread.currentThread().isInterrupted()) {
             try {
                 Task task = queue.take();
-                debug("process Task {0}", task);
-                taskExecutor.execute(null, task);
+                if (batchSize > 1) {
+                    List<Task> batch = drainBatch(task, batchSize, batchDelay);
+                    debug("process batch of {0} Tasks", batch.size());
+                    taskExecutor.executeBatch(batch);
+                } else {
+                    debug("process Task {0}", task);
+                    taskExecutor.execute(null, task);
+                }
             } catch (InterruptedException e) {
                 error("interrupt detected", e);
                 Thread.currentThread().interrupt();
@@ -100,6 +123,41 @@ public class SeriesTaskExecutorThread implements Runnable {
         debug("Processor thread shutdown.");
     }
 
+    /**
+     * Draw further tasks from the queue until the batch is full or the delay has expired.
+     *
+     * If interrupted, the tasks drawn so far are returned so that they are still processed
+     * and the interrupt status of the thread is restored.
+     *
+     * @param first The first task of the batch, already taken from the queue.
+     * @param batchSize The maximum number of tasks in the batch.
+     * @param batchDelay The maximum time in milliseconds to wait for the batch to fill.
+     * @return A non null, non empty batch of tasks in queue order.
+     */
+    private List<Task> drainBatch(Task first, int batchSize, int batchDelay) {
+        List<Task> batch = new ArrayList<>(batchSize);
+        batch.add(first);
+        queue.drainTo(batch, batchSize - batch.size());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchDelay);
+        try {
+            while (batch.size() < batchSize) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                Task next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    break;
+                }
+                batch.add(next);
+                queue.drainTo(batch, batchSize - batch.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return batch;
+    }
+
     private void debug(String format, Object... args) {
         if (debug.messageEnabled()) {
             debug.message(MessageFormat.format(
@@ -12,10 +12,13 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
 package org.forgerock.openam.sm.datalayer.impl;
 
+import java.util.List;
+
 import javax.inject.Inject;
 import javax.inject.Named;
 
@@ -70,6 +73,16 @@ public class SimpleTaskExecutor implements TaskExecutor {
         }
     }
 
+    /**
+     * Executes the tasks as a single batch, coalescing the writes made to each Token.
+     *
+     * @param tasks The non null tasks to be executed, in order.
+     * @see TaskBatch
+     */
+    public void executeBatch(List<Task> tasks) {
+        new TaskBatch(adapter, debug).execute(tasks);
+    }
+
     private void error(String message, Throwable t) {
         debug.error(CoreTokenConstants.DEBUG_ASYNC_HEADER + "Task Processor Error: " + message, t);
     }
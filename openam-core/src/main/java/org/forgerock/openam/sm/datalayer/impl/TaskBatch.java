@@ -0,0 +1,362 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+
+package org.forgerock.openam.sm.datalayer.impl;
+
+import static org.forgerock.openam.cts.api.CTSOptions.OPTIMISTIC_CONCURRENCY_CHECK_OPTION;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.forgerock.openam.cts.api.CoreTokenConstants;
+import org.forgerock.openam.cts.api.tokens.Token;
+import org.forgerock.openam.sm.datalayer.api.BatchableTask;
+import org.forgerock.openam.sm.datalayer.api.BatchableTask.Operation;
+import org.forgerock.openam.sm.datalayer.api.DataLayerException;
+import org.forgerock.openam.sm.datalayer.api.PipelinedTokenStorageAdapter;
+import org.forgerock.openam.sm.datalayer.api.ResultHandler;
+import org.forgerock.openam.sm.datalayer.api.Task;
+import org.forgerock.openam.sm.datalayer.api.TokenStorageAdapter;
+import org.forgerock.openam.sm.datalayer.api.query.PartialToken;
+import org.forgerock.openam.sm.datalayer.impl.tasks.CreateTask;
+import org.forgerock.openam.sm.datalayer.impl.tasks.DeleteTask;
+import org.forgerock.openam.sm.datalayer.impl.tasks.UpdateTask;
+import org.forgerock.util.Options;
+import org.forgerock.util.promise.Promise;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.sun.identity.shared.debug.Debug;
+
+/**
+ * Processes a batch of tasks drawn from a single work queue, coalescing the writes made to each
+ * Token before they are issued to the storage layer.
+ *
+ * Writes to the same Token are coalesced as follows:
+ * <ul>
+ *     <li>Repeated updates, or a create followed by updates, are collapsed into a single write of
+ *     the latest state of the Token. Every coalesced task is notified with the result of that write.</li>
+ *     <li>A create, and any updates, followed by a delete are collapsed into the delete alone. The
+ *     create is not known to be new, the Token may already exist in the store, so the delete is always
+ *     issued. The superseded tasks are notified with their Token once the delete has succeeded.</li>
+ * </ul>
+ * Writes that assert the ETag of the Token are never coalesced, and any task which is not a
+ * {@link BatchableTask}, such as a read or query, causes all pending writes to be issued before it
+ * is executed so that it observes the effect of the preceding tasks.
+ *
+ * If the adapter is a {@link PipelinedTokenStorageAdapter}, the pending writes are issued without
+ * waiting for each response and the results are routed back to the {@link ResultHandler} of each
+ * task as they arrive. Otherwise the writes are performed one after another.
+ */
+public class TaskBatch {
+
+    private final TokenStorageAdapter adapter;
+    private final Debug debug;
+
+    /**
+     * @param adapter Non null adapter to perform the tasks against.
+     * @param debug Required for debugging.
+     */
+    public TaskBatch(TokenStorageAdapter adapter, Debug debug) {
+        this.adapter = adapter;
+        this.debug = debug;
+    }
+
+    /**
+     * Processes the tasks, preserving the order of the operations on each Token.
+     *
+     * @param tasks Non null tasks, in the order they were drawn from the queue.
+     */
+    public void execute(List<Task> tasks) {
+        Map<String, PendingWrite> pending = new LinkedHashMap<>();
+        for (Task task : tasks) {
+            BatchableTask<?> write = findBatchable(task);
+            if (write == null || write.getTokenId() == null) {
+                flush(pending.values());
+                pending.clear();
+                execute(task);
+                continue;
+            }
+
+            String tokenId = write.getTokenId();
+            PendingWrite existing = pending.get(tokenId);
+            if (existing == null) {
+                pending.put(tokenId, new PendingWrite(task, write));
+            } else if (!existing.merge(task, write)) {
+                pending.remove(tokenId);
+                flush(Collections.singletonList(existing));
+                pending.put(tokenId, new PendingWrite(task, write));
+            }
+        }
+        flush(pending.values());
+    }
+
+    private void execute(Task task) {
+        try {
+            task.execute(adapter);
+        } catch (DataLayerException e) {
+            error("processing task", e);
+        }
+    }
+
+    /**
+     * Issue the given writes, pipelining them if the adapter supports it.
+     */
+    private void flush(Collection<PendingWrite> writes) {
+        if (writes.isEmpty()) {
+            return;
+        }
+        if (!(adapter instanceof PipelinedTokenStorageAdapter)) {
+            for (PendingWrite write : writes) {
+                try {
+                    write.perform(adapter);
+                } catch (DataLayerException e) {
+                    error("processing batched write", e);
+                }
+            }
+            return;
+        }
+
+        PipelinedTokenStorageAdapter pipelined = (PipelinedTokenStorageAdapter) adapter;
+        List<Promise<?, DataLayerException>> results = new ArrayList<>(writes.size());
+        for (PendingWrite write : writes) {
+            try {
+                results.add(write.performAsync(pipelined));
+            } catch (DataLayerException e) {
+                error("issuing batched write", e);
+            }
+        }
+        debug("Issued {} pipelined writes", results.size());
+        for (Promise<?, DataLayerException> result : results) {
+            try {
+                result.getOrThrowUninterruptibly();
+            } catch (DataLayerException e) {
+                error("processing batched write", e);
+            }
+        }
+    }
+
+    /**
+     * Locate the batchable task, if any, beneath the decorations of the given task.
+     */
+    private static BatchableTask<?> findBatchable(Task task) {
+        Task current = task;
+        while (current instanceof TaskDecorator) {
+            current = ((TaskDecorator) current).getDelegate();
+        }
+        return current instanceof BatchableTask ? (BatchableTask<?>) current : null;
+    }
+
+    /**
+     * Perform the action with all of the decorations of the given task applied.
+     */
+    private static <R> R decorate(Task task, final TaskDecorator.DecoratedAction<R> action)
+            throws DataLayerException {
+        if (!(task instanceof TaskDecorator)) {
+            return action.perform();
+        }
+        final TaskDecorator decorator = (TaskDecorator) task;
+        return decorator.decorate(new TaskDecorator.DecoratedAction<R>() {
+            @Override
+            public R perform() throws DataLayerException {
+                return decorate(decorator.getDelegate(), action);
+            }
+        });
+    }
+
+    private static boolean hasConcurrencyCheck(Options options) {
+        return options != null && options.get(OPTIMISTIC_CONCURRENCY_CHECK_OPTION) != null;
+    }
+
+    private void debug(String format, Object... args) {
+        if (debug.messageEnabled()) {
+            debug.message(CoreTokenConstants.DEBUG_ASYNC_HEADER + "Task Batch: " + format, args);
+        }
+    }
+
+    private void error(String message, Throwable t) {
+        debug.error(CoreTokenConstants.DEBUG_ASYNC_HEADER + "Task Batch Error: " + message, t);
+    }
+
+    /**
+     * The coalesced writes to a single Token.
+     */
+    private static final class PendingWrite {
+
+        private static final TaskDecorator.DecoratedAction<Void> NO_ACTION =
+                new TaskDecorator.DecoratedAction<Void>() {
+                    @Override
+                    public Void perform() {
+                        return null;
+                    }
+                };
+
+        private final List<Task> tasks = new ArrayList<>();
+        private final List<BatchableTask<?>> writes = new ArrayList<>();
+        private final String tokenId;
+        private Operation operation;
+        private Token token;
+        private Options options;
+
+        private PendingWrite(Task task, BatchableTask<?> write) {
+            this.tasks.add(task);
+            this.writes.add(write);
+            this.tokenId = write.getTokenId();
+            this.operation = write.getOperation();
+            this.token = write.getToken();
+            this.options = write.getOptions();
+        }
+
+        /**
+         * Attempt to coalesce the given write into this one.
+         *
+         * @return True if the write was coalesced, false if it must be performed separately.
+         */
+        private boolean merge(Task task, BatchableTask<?> write) {
+            if (hasConcurrencyCheck(options) || hasConcurrencyCheck(write.getOptions())) {
+                return false;
+            }
+            switch (write.getOperation()) {
+            case UPDATE:
+                if (operation == Operation.DELETE) {
+                    return false;
+                }
+                token = write.getToken();
+                options = write.getOptions();
+                break;
+            case DELETE:
+                if (operation != Operation.CREATE) {
+                    return false;
+                }
+                operation = Operation.DELETE;
+                options = write.getOptions();
+                break;
+            default:
+                return false;
+            }
+            tasks.add(task);
+            writes.add(write);
+            return true;
+        }
+
+        private void perform(final TokenStorageAdapter adapter) throws DataLayerException {
+            final BatchableTask<?> write = coalesce();
+            decorate(last(), new TaskDecorator.DecoratedAction<Void>() {
+                @Override
+                public Void perform() throws DataLayerException {
+                    write.execute(adapter);
+                    return null;
+                }
+            });
+        }
+
+        private Promise<?, DataLayerException> performAsync(final PipelinedTokenStorageAdapter adapter)
+                throws DataLayerException {
+            final BatchableTask<?> write = coalesce();
+            return decorate(last(), new TaskDecorator.DecoratedAction<Promise<?, DataLayerException>>() {
+                @Override
+                public Promise<?, DataLayerException> perform() {
+                    return write.performAsync(adapter);
+                }
+            });
+        }
+
+        private Task last() throws DataLayerException {
+            for (int ii = 0; ii < tasks.size() - 1; ii++) {
+                decorate(tasks.get(ii), NO_ACTION);
+            }
+            return tasks.get(tasks.size() - 1);
+        }
+
+        /**
+         * @return The single task which performs the coalesced write on behalf of every task.
+         */
+        @SuppressWarnings("unchecked")
+        private BatchableTask<?> coalesce() {
+            if (writes.size() == 1) {
+                return writes.get(0);
+            }
+            if (operation == Operation.DELETE) {
+                return new DeleteTask(tokenId, options, new FanOutResultHandler<PartialToken>(writes, true));
+            }
+            ResultHandler<Token, ?> handler = new FanOutResultHandler<Token>(writes, false);
+            if (operation == Operation.CREATE) {
+                return new CreateTask(token, options, handler);
+            }
+            return new UpdateTask(token, options, handler);
+        }
+    }
+
+    /**
+     * Routes the result of a coalesced write to the handler of every task it was performed for.
+     *
+     * When the coalesced write is a delete, the create and update tasks it superseded are notified
+     * with the Token they wrote rather than the result of the delete.
+     */
+    @VisibleForTesting
+    static final class FanOutResultHandler<T> implements ResultHandler<T, DataLayerException> {
+
+        private final List<BatchableTask<?>> writes;
+        private final boolean deleted;
+        private volatile T result;
+        private volatile Exception error;
+
+        FanOutResultHandler(List<BatchableTask<?>> writes, boolean deleted) {
+            this.writes = writes;
+            this.deleted = deleted;
+        }
+
+        /**
+         * @return The result of the coalesced write, once it has completed.
+         * @throws DataLayerException If the coalesced write failed.
+         */
+        @Override
+        public T getResults() throws DataLayerException {
+            Exception failure = error;
+            if (failure instanceof DataLayerException) {
+                throw (DataLayerException) failure;
+            } else if (failure != null) {
+                throw new DataLayerException("Coalesced write failed", failure);
+            }
+            return result;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void processResults(T result) {
+            this.result = result;
+            for (BatchableTask<?> write : writes) {
+                ResultHandler handler = write.getHandler();
+                if (deleted && write.getOperation() != Operation.DELETE) {
+                    handler.processResults(write.getToken());
+                } else {
+                    handler.processResults(result);
+                }
+            }
+        }
+
+        @Override
+        public void processError(Exception error) {
+            this.error = error;
+            for (BatchableTask<?> write : writes) {
+                write.getHandler().processError(error);
+            }
+        }
+    }
+}
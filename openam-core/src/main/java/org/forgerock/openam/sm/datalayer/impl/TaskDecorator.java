@@ -0,0 +1,58 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+
+package org.forgerock.openam.sm.datalayer.impl;
+
+import org.forgerock.openam.sm.datalayer.api.DataLayerException;
+import org.forgerock.openam.sm.datalayer.api.Task;
+
+/**
+ * A {@link Task} which decorates another task with behaviour that surrounds its processing.
+ *
+ * Exposing the decorated task allows a {@link TaskBatch} to inspect the underlying task, while
+ * still applying the decoration around whatever processing is performed on its behalf.
+ */
+interface TaskDecorator extends Task {
+
+    /**
+     * @return The non null decorated task.
+     */
+    Task getDelegate();
+
+    /**
+     * Perform the given action with the decoration applied.
+     *
+     * @param action Non null action performed on behalf of the decorated task.
+     * @param <R> The type of result of the action.
+     * @return The result of the action.
+     * @throws DataLayerException If the action failed.
+     */
+    <R> R decorate(DecoratedAction<R> action) throws DataLayerException;
+
+    /**
+     * An action performed on behalf of a decorated task.
+     *
+     * @param <R> The type of result of the action.
+     */
+    interface DecoratedAction<R> {
+
+        /**
+         * @return The result of the action.
+         * @throws DataLayerException If the action failed.
+         */
+        R perform() throws DataLayerException;
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package org.forgerock.openam.sm.datalayer.impl.tasks;
 
@@ -19,15 +20,19 @@ import java.text.MessageFormat;
 
 import org.forgerock.openam.cts.api.tokens.Token;
 import org.forgerock.openam.sm.datalayer.api.AbstractTask;
+import org.forgerock.openam.sm.datalayer.api.BatchableTask;
 import org.forgerock.openam.sm.datalayer.api.DataLayerException;
+import org.forgerock.openam.sm.datalayer.api.PipelinedTokenStorageAdapter;
 import org.forgerock.openam.sm.datalayer.api.ResultHandler;
 import org.forgerock.openam.sm.datalayer.api.TokenStorageAdapter;
 import org.forgerock.util.Options;
+import org.forgerock.util.promise.Promise;
+import org.forgerock.util.promise.Promises;
 
 /**
  * Responsible for creating a Token in persistence layer.
  */
-public class CreateTask extends AbstractTask {
+public class CreateTask extends AbstractTask<Token> implements BatchableTask<Token> {
 
     private final Token token;
     private final Options options;
@@ -60,6 +65,42 @@ public class CreateTask extends AbstractTask {
         handler.processResults(created);
     }
 
+    @Override
+    public Promise<Token, DataLayerException> performAsync(PipelinedTokenStorageAdapter adapter) {
+        if (isError()) {
+            return Promises.newResultPromise(null);
+        }
+        return notifyHandler(adapter.createAsync(token, options)
+                .thenOnResult(new org.forgerock.util.promise.ResultHandler<Token>() {
+                    @Override
+                    public void handleResult(Token created) {
+                        if (token.getTokenId() != null) {
+                            sid2token.put(token.getTokenId(), created == null ? token : created);
+                        }
+                    }
+                }));
+    }
+
+    @Override
+    public String getTokenId() {
+        return token.getTokenId();
+    }
+
+    @Override
+    public Operation getOperation() {
+        return Operation.CREATE;
+    }
+
+    @Override
+    public Token getToken() {
+        return token;
+    }
+
+    @Override
+    public Options getOptions() {
+        return options;
+    }
+
     @Override
     public String toString() {
         return MessageFormat.format("CreateTask: {0}", token.getTokenId());
@@ -12,22 +12,28 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package org.forgerock.openam.sm.datalayer.impl.tasks;
 
 import java.text.MessageFormat;
 
+import org.forgerock.openam.cts.api.tokens.Token;
 import org.forgerock.openam.sm.datalayer.api.AbstractTask;
+import org.forgerock.openam.sm.datalayer.api.BatchableTask;
 import org.forgerock.openam.sm.datalayer.api.DataLayerException;
+import org.forgerock.openam.sm.datalayer.api.PipelinedTokenStorageAdapter;
 import org.forgerock.openam.sm.datalayer.api.ResultHandler;
 import org.forgerock.openam.sm.datalayer.api.TokenStorageAdapter;
 import org.forgerock.openam.sm.datalayer.api.query.PartialToken;
 import org.forgerock.util.Options;
+import org.forgerock.util.promise.Promise;
+import org.forgerock.util.promise.Promises;
 
 /**
  * Deletes a given Token from the persistence layer.
  */
-public class DeleteTask extends AbstractTask<PartialToken> {
+public class DeleteTask extends AbstractTask<PartialToken> implements BatchableTask<PartialToken> {
 
     private final String tokenId;
     private final Options options;
@@ -58,6 +64,44 @@ public class DeleteTask extends AbstractTask<PartialToken> {
         handler.processResults(token);
     }
 
+    @Override
+    public Promise<PartialToken, DataLayerException> performAsync(PipelinedTokenStorageAdapter adapter) {
+        if (isError()) {
+            return Promises.newResultPromise(null);
+        }
+        sid2token.invalidate(tokenId);
+        return notifyHandler(adapter.deleteAsync(tokenId, options)
+                .thenOnResult(new org.forgerock.util.promise.ResultHandler<PartialToken>() {
+                    @Override
+                    public void handleResult(PartialToken token) {
+                        sid2token.invalidate(tokenId);
+                    }
+                }));
+    }
+
+    @Override
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    @Override
+    public Operation getOperation() {
+        return Operation.DELETE;
+    }
+
+    /**
+     * @return Always null, a delete does not write a Token.
+     */
+    @Override
+    public Token getToken() {
+        return null;
+    }
+
+    @Override
+    public Options getOptions() {
+        return options;
+    }
+
     @Override
     public String toString() {
         return MessageFormat.format("DeleteTask: {0}", tokenId);
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package org.forgerock.openam.sm.datalayer.impl.tasks;
 
@@ -19,15 +20,19 @@ import java.text.MessageFormat;
 
 import org.forgerock.openam.cts.api.tokens.Token;
 import org.forgerock.openam.sm.datalayer.api.AbstractTask;
+import org.forgerock.openam.sm.datalayer.api.BatchableTask;
 import org.forgerock.openam.sm.datalayer.api.DataLayerException;
+import org.forgerock.openam.sm.datalayer.api.PipelinedTokenStorageAdapter;
 import org.forgerock.openam.sm.datalayer.api.ResultHandler;
 import org.forgerock.openam.sm.datalayer.api.TokenStorageAdapter;
 import org.forgerock.util.Options;
+import org.forgerock.util.promise.Promise;
+import org.forgerock.util.promise.Promises;
 
 /**
  * Responsible for updating the persistence layer with the provided Token.
  */
-public class UpdateTask extends AbstractTask {
+public class UpdateTask extends AbstractTask<Token> implements BatchableTask<Token> {
 
     private final Token token;
     private final Options options;
@@ -54,25 +59,84 @@ public class UpdateTask extends AbstractTask {
      */
     @Override
     public void performTask(TokenStorageAdapter adapter) throws DataLayerException {
-    	Token previous =null; 
-    	if (token.getTokenId()!=null) {
-    		previous=sid2token.getIfPresent(token.getTokenId());
-    	}
-    	if (previous==null) {
-    		previous=adapter.read(token.getTokenId(), options);
-    	}
-    	final Token updated;
+        Token previous = readPrevious(adapter);
+        final Token updated;
         if (previous == null) {
             updated = adapter.create(token, options);
         } else {
             updated = adapter.update(previous, token, options);
         }
-        if (token.getTokenId()!=null) {
-        	sid2token.put(token.getTokenId(), updated==null?token:updated);
-        }
+        cacheUpdated(updated);
         handler.processResults(updated);
     }
 
+    /**
+     * Reads the state of the Token synchronously, then issues the create or update without
+     * waiting for the response.
+     *
+     * @param adapter Non null for connection-coupled operations.
+     * @return A promise of the updated Token.
+     */
+    @Override
+    public Promise<Token, DataLayerException> performAsync(PipelinedTokenStorageAdapter adapter) {
+        if (isError()) {
+            return Promises.newResultPromise(null);
+        }
+        Token previous;
+        try {
+            previous = readPrevious(adapter);
+        } catch (DataLayerException e) {
+            processError(e);
+            return Promises.newExceptionPromise(e);
+        }
+        Promise<Token, DataLayerException> promise = previous == null
+                ? adapter.createAsync(token, options)
+                : adapter.updateAsync(previous, token, options);
+        return notifyHandler(promise.thenOnResult(new org.forgerock.util.promise.ResultHandler<Token>() {
+            @Override
+            public void handleResult(Token updated) {
+                cacheUpdated(updated);
+            }
+        }));
+    }
+
+    private Token readPrevious(TokenStorageAdapter adapter) throws DataLayerException {
+        Token previous = null;
+        if (token.getTokenId() != null) {
+            previous = sid2token.getIfPresent(token.getTokenId());
+        }
+        if (previous == null) {
+            previous = adapter.read(token.getTokenId(), options);
+        }
+        return previous;
+    }
+
+    private void cacheUpdated(Token updated) {
+        if (token.getTokenId() != null) {
+            sid2token.put(token.getTokenId(), updated == null ? token : updated);
+        }
+    }
+
+    @Override
+    public String getTokenId() {
+        return token.getTokenId();
+    }
+
+    @Override
+    public Operation getOperation() {
+        return Operation.UPDATE;
+    }
+
+    @Override
+    public Token getToken() {
+        return token;
+    }
+
+    @Override
+    public Options getOptions() {
+        return options;
+    }
+
     @Override
     public String toString() {
         return MessageFormat.format("UpdateTask: {0}", token.getTokenId());
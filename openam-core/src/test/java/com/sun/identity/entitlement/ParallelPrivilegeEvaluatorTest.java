@@ -0,0 +1,385 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+
+package com.sun.identity.entitlement;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.fest.assertions.Fail.fail;
+import static org.mockito.Mockito.mock;
+
+public class ParallelPrivilegeEvaluatorTest {
+
+    private ForkJoinPool pool;
+    private RecordingCombiner combiner;
+
+    @BeforeMethod
+    public void setUp() {
+        pool = new ForkJoinPool(4);
+        combiner = new RecordingCombiner();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void shouldCombineResultsInSearchOrder() throws Exception {
+        // Given
+        List<IPrivilege> policies = policies(23);
+        ParallelPrivilegeEvaluator evaluator = new ParallelPrivilegeEvaluator(pool, 5, 10000);
+
+        // When
+        evaluator.evaluate(policies.iterator(), new IndexEvaluation(policies) {
+            @Override
+            List<Entitlement> evaluate(int index) throws EntitlementException {
+                // Later policies complete first
+                sleep(23 - index);
+                return super.evaluate(index);
+            }
+        }, combiner);
+
+        // Then
+        assertThat(combiner.getIndexes()).isEqualTo(range(23));
+    }
+
+    @Test
+    public void shouldSkipPoliciesWhichDoNotApply() throws Exception {
+        // Given
+        List<IPrivilege> policies = policies(12);
+        ParallelPrivilegeEvaluator evaluator = new ParallelPrivilegeEvaluator(pool, 5, 10000);
+
+        // When
+        evaluator.evaluate(policies.iterator(), new IndexEvaluation(policies) {
+            @Override
+            List<Entitlement> evaluate(int index) throws EntitlementException {
+                return index % 2 == 0 ? super.evaluate(index) : null;
+            }
+        }, combiner);
+
+        // Then
+        assertThat(combiner.getIndexes()).containsExactly(0, 2, 4, 6, 8, 10);
+    }
+
+    @Test
+    public void shouldEvaluateBeforeTheSearchIsExhausted() throws Exception {
+        // Given
+        final List<IPrivilege> policies = policies(20);
+        final CountDownLatch evaluated = new CountDownLatch(1);
+        final AtomicInteger readAfterEvaluation = new AtomicInteger(-1);
+        Iterator<IPrivilege> search = new Iterator<IPrivilege>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < policies.size();
+            }
+
+            @Override
+            public IPrivilege next() {
+                if (next == 15) {
+                    // Wait for the first batch to be evaluated before returning more results
+                    try {
+                        if (evaluated.await(10, TimeUnit.SECONDS)) {
+                            readAfterEvaluation.set(next);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return policies.get(next++);
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+        ParallelPrivilegeEvaluator evaluator = new ParallelPrivilegeEvaluator(pool, 5, 10000);
+
+        // When
+        evaluator.evaluate(search, new IndexEvaluation(policies) {
+            @Override
+            List<Entitlement> evaluate(int index) throws EntitlementException {
+                evaluated.countDown();
+                return super.evaluate(index);
+            }
+        }, combiner);
+
+        // Then
+        assertThat(readAfterEvaluation.get()).isEqualTo(15);
+        assertThat(combiner.getIndexes()).isEqualTo(range(20));
+    }
+
+    @Test
+    public void shouldStopReadingPoliciesOnceDecided() throws Exception {
+        // Given
+        List<IPrivilege> policies = policies(20);
+        CountingIterator search = new CountingIterator(policies.iterator());
+        combiner.doneAfter(3);
+        ParallelPrivilegeEvaluator evaluator = new ParallelPrivilegeEvaluator(null, 5, 10000);
+
+        // When
+        evaluator.evaluate(search, new IndexEvaluation(policies), combiner);
+
+        // Then
+        assertThat(combiner.getIndexes()).containsExactly(0, 1, 2);
+        assertThat(search.count).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldNotCombineResultsAfterDecision() throws Exception {
+        // Given
+        List<IPrivilege> policies = policies(40);
+        combiner.doneAfter(7);
+        ParallelPrivilegeEvaluator evaluator = new ParallelPrivilegeEvaluator(pool, 5, 10000);
+
+        // When
+        evaluator.evaluate(policies.iterator(), new IndexEvaluation(policies), combiner);
+
+        // Then
+        assertThat(combiner.getIndexes()).isEqualTo(range(7));
+    }
+
+    @Test
+    public void shouldPropagateEntitlementExceptionFromPool() throws Exception {
+        // Given
+        List<IPrivilege> policies = policies(20);
+        final EntitlementException failure = new EntitlementException(EntitlementException.CONDITION_EVALUATION_FAILED);
+        ParallelPrivilegeEvaluator evaluator = new ParallelPrivilegeEvaluator(pool, 5, 10000);
+
+        // When
+        try {
+            evaluator.evaluate(policies.iterator(), new IndexEvaluation(policies) {
+                @Override
+                List<Entitlement> evaluate(int index) throws EntitlementException {
+                    if (index == 7) {
+                        throw failure;
+                    }
+                    return super.evaluate(index);
+                }
+            }, combiner);
+            fail("Expected the evaluation to fail");
+        } catch (EntitlementException e) {
+            // Then
+            assertThat(e).isSameAs(failure);
+        }
+    }
+
+    @Test
+    public void shouldPropagateRuntimeExceptionFromPool() throws Exception {
+        // Given
+        List<IPrivilege> policies = policies(20);
+        final IllegalStateException failure = new IllegalStateException();
+        ParallelPrivilegeEvaluator evaluator = new ParallelPrivilegeEvaluator(pool, 5, 10000);
+
+        // When
+        try {
+            evaluator.evaluate(policies.iterator(), new IndexEvaluation(policies) {
+                @Override
+                List<Entitlement> evaluate(int index) throws EntitlementException {
+                    if (index == 2) {
+                        throw failure;
+                    }
+                    return super.evaluate(index);
+                }
+            }, combiner);
+            fail("Expected the evaluation to fail");
+        } catch (IllegalStateException e) {
+            // Then
+            assertThat(e).isSameAs(failure);
+        }
+    }
+
+    @Test
+    public void shouldFailWhenPoolDoesNotCompleteInTime() throws Exception {
+        // Given
+        List<IPrivilege> policies = policies(20);
+        final CountDownLatch stuck = new CountDownLatch(1);
+        ParallelPrivilegeEvaluator evaluator = new ParallelPrivilegeEvaluator(pool, 5, 200);
+
+        // When
+        long start = System.nanoTime();
+        try {
+            evaluator.evaluate(policies.iterator(), new IndexEvaluation(policies) {
+                @Override
+                List<Entitlement> evaluate(int index) throws EntitlementException {
+                    if (index == 0) {
+                        try {
+                            stuck.await(10, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    return super.evaluate(index);
+                }
+            }, combiner);
+            fail("Expected the evaluation to time out");
+        } catch (EntitlementException e) {
+            // Then
+            assertThat(e.getErrorCode()).isEqualTo(EntitlementException.POLICY_EVALUATION_TIMED_OUT);
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(5000);
+        } finally {
+            stuck.countDown();
+        }
+    }
+
+    @Test
+    public void shouldEvaluateOnCallingThreadWhenPoolRejectsBatches() throws Exception {
+        // Given
+        List<IPrivilege> policies = policies(12);
+        pool.shutdown();
+        ParallelPrivilegeEvaluator evaluator = new ParallelPrivilegeEvaluator(pool, 5, 10000);
+
+        // When
+        evaluator.evaluate(policies.iterator(), new IndexEvaluation(policies), combiner);
+
+        // Then
+        assertThat(combiner.getIndexes()).isEqualTo(range(12));
+    }
+
+    @Test
+    public void shouldGrowBatchesWithPoliciesReadAndPoolParallelism() {
+        // Given
+        ParallelPrivilegeEvaluator evaluator = new ParallelPrivilegeEvaluator(pool, 5, 10000);
+
+        // When/Then
+        assertThat(evaluator.batchSize(0)).isEqualTo(1);
+        assertThat(evaluator.batchSize(39)).isEqualTo(1);
+        assertThat(evaluator.batchSize(40)).isEqualTo(2);
+        assertThat(evaluator.batchSize(1000)).isEqualTo(50);
+        assertThat(new ParallelPrivilegeEvaluator(new ForkJoinPool(1), 5, 10000).batchSize(1000)).isEqualTo(200);
+    }
+
+    private static List<IPrivilege> policies(int count) {
+        List<IPrivilege> policies = new ArrayList<IPrivilege>();
+        for (int i = 0; i < count; i++) {
+            policies.add(mock(IPrivilege.class));
+        }
+        return policies;
+    }
+
+    private static List<Integer> range(int count) {
+        List<Integer> range = new ArrayList<Integer>();
+        for (int i = 0; i < count; i++) {
+            range.add(i);
+        }
+        return range;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns an entitlement named after the position of the policy in the search results.
+     */
+    private static class IndexEvaluation implements ParallelPrivilegeEvaluator.PrivilegeEvaluation {
+        private final List<IPrivilege> policies;
+
+        IndexEvaluation(List<IPrivilege> policies) {
+            this.policies = policies;
+        }
+
+        @Override
+        public final List<Entitlement> evaluate(IPrivilege privilege) throws EntitlementException {
+            return evaluate(policies.indexOf(privilege));
+        }
+
+        List<Entitlement> evaluate(int index) throws EntitlementException {
+            Entitlement entitlement = new Entitlement();
+            entitlement.setName(String.valueOf(index));
+            return Collections.singletonList(entitlement);
+        }
+    }
+
+    private static class CountingIterator implements Iterator<IPrivilege> {
+        private final Iterator<IPrivilege> delegate;
+        private int count;
+
+        CountingIterator(Iterator<IPrivilege> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return delegate.hasNext();
+        }
+
+        @Override
+        public IPrivilege next() {
+            count++;
+            return delegate.next();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static class RecordingCombiner extends EntitlementCombiner {
+        private final List<Integer> indexes = new ArrayList<Integer>();
+        private int doneAfter = Integer.MAX_VALUE;
+
+        void doneAfter(int count) {
+            doneAfter = count;
+        }
+
+        List<Integer> getIndexes() {
+            return indexes;
+        }
+
+        @Override
+        public void add(List<Entitlement> entitlements) {
+            for (Entitlement entitlement : entitlements) {
+                indexes.add(Integer.valueOf(entitlement.getName()));
+            }
+        }
+
+        @Override
+        public boolean isDone() {
+            return indexes.size() >= doneAfter;
+        }
+
+        @Override
+        protected boolean combine(Boolean b1, Boolean b2) {
+            return false;
+        }
+
+        @Override
+        protected boolean isCompleted() {
+            return false;
+        }
+    }
+}
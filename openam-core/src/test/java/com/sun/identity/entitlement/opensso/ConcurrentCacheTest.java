@@ -0,0 +1,298 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+
+package com.sun.identity.entitlement.opensso;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class ConcurrentCacheTest {
+
+    @Test
+    public void shouldReturnCachedValue() {
+        ConcurrentCache<String, String> cache = new ConcurrentCache<String, String>("test", 10);
+
+        assertThat(cache.put("one", "1")).isNull();
+        assertThat(cache.put("one", "uno")).isEqualTo("1");
+
+        assertThat(cache.get("one")).isEqualTo("uno");
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldRemoveValue() {
+        ConcurrentCache<String, String> cache = new ConcurrentCache<String, String>("test", 10);
+        cache.put("one", "1");
+
+        assertThat(cache.remove("one")).isEqualTo("1");
+        assertThat(cache.get("one")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    public void shouldNotExceedMaximumSize() {
+        ConcurrentCache<Integer, Integer> cache = new ConcurrentCache<Integer, Integer>("test", 1000);
+
+        for (int i = 0; i < 10000; i++) {
+            cache.put(i, i);
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(1000);
+        assertThat(cache.getEvictionCount()).isEqualTo(10000 - cache.size());
+    }
+
+    @Test
+    public void shouldKeepFrequentlyReadEntriesDuringScan() {
+        ConcurrentCache<String, Integer> cache = new ConcurrentCache<String, Integer>("test", 1000);
+        for (int i = 0; i < 500; i++) {
+            cache.put("hot" + i, i);
+        }
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 500; i++) {
+                cache.get("hot" + i);
+            }
+        }
+
+        for (int i = 0; i < 10000; i++) {
+            cache.put("scan" + i, i);
+        }
+
+        int retained = 0;
+        for (int i = 0; i < 500; i++) {
+            if (cache.containsKey("hot" + i)) {
+                retained++;
+            }
+        }
+        assertThat(retained).isGreaterThan(450);
+    }
+
+    @Test
+    public void shouldNotifyListenerOfEvictions() {
+        final Map<Integer, Integer> evicted = new HashMap<Integer, Integer>();
+        ConcurrentCache<Integer, Integer> cache = new ConcurrentCache<Integer, Integer>("test", 100,
+                new ConcurrentCache.EvictionListener<Integer, Integer>() {
+                    @Override
+                    public void onEviction(Integer key, Integer value) {
+                        evicted.put(key, value);
+                    }
+                });
+
+        for (int i = 0; i < 200; i++) {
+            cache.put(i, i * 2);
+        }
+
+        assertThat(evicted).hasSize(200 - cache.size());
+        for (Map.Entry<Integer, Integer> entry : evicted.entrySet()) {
+            assertThat(entry.getValue()).isEqualTo(entry.getKey() * 2);
+            assertThat(cache.containsKey(entry.getKey())).isFalse();
+        }
+    }
+
+    @Test
+    public void shouldRecordHitsAndMissesOnGet() {
+        ConcurrentCache<String, String> cache = new ConcurrentCache<String, String>("test", 10);
+        cache.put("one", "1");
+
+        cache.get("one");
+        cache.get("one");
+        cache.get("two");
+
+        assertThat(cache.getHitCount()).isEqualTo(2);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotRecordStatisticsForContainsKey() {
+        ConcurrentCache<String, String> cache = new ConcurrentCache<String, String>("test", 10);
+        cache.put("one", "1");
+
+        assertThat(cache.containsKey("one")).isTrue();
+        assertThat(cache.containsKey("two")).isFalse();
+
+        assertThat(cache.getHitCount()).isZero();
+        assertThat(cache.getMissCount()).isZero();
+    }
+
+    @Test
+    public void shouldClearAllEntries() {
+        ConcurrentCache<Integer, Integer> cache = new ConcurrentCache<Integer, Integer>("test", 100);
+        for (int i = 0; i < 50; i++) {
+            cache.put(i, i);
+        }
+
+        cache.clear();
+
+        assertThat(cache.size()).isZero();
+        assertThat(cache.get(1)).isNull();
+    }
+
+    @DataProvider
+    public Object[][] numThreads() {
+        return new Object[][]{
+                { 1 },
+                { 8 },
+                { 32 }
+        };
+    }
+
+    /**
+     * Compares the throughput of ConcurrentCache with the legacy Cache it replaced, as a factor of the number of
+     * threads, under a read-mostly workload skewed towards a hot set of keys. The hit ratio is reported as well, as
+     * every miss costs a policy or index load in production.
+     * Disabled by default to avoid slowing down the build.
+     *
+     * @param numThreads the number of threads to concurrently hammer the caches.
+     */
+    @Test(dataProvider = "numThreads", enabled = false)
+    public void testThroughPut(int numThreads) throws Exception {
+        final ConcurrentCache<Integer, Integer> concurrentCache =
+                new ConcurrentCache<Integer, Integer>("benchmark", BENCHMARK_CACHE_SIZE);
+        final Cache legacyCache = new Cache("benchmark", BENCHMARK_CACHE_SIZE, BENCHMARK_CACHE_SIZE);
+
+        measureThroughPut("ConcurrentCache", numThreads, new BenchmarkCache() {
+            @Override
+            public Object get(Integer key) {
+                return concurrentCache.get(key);
+            }
+
+            @Override
+            public void put(Integer key, Integer value) {
+                concurrentCache.put(key, value);
+            }
+        });
+        measureThroughPut("Cache", numThreads, new BenchmarkCache() {
+            @Override
+            public Object get(Integer key) {
+                return legacyCache.get(key);
+            }
+
+            @Override
+            public void put(Integer key, Integer value) {
+                legacyCache.put(key, value);
+            }
+        });
+    }
+
+    private static final int BENCHMARK_CACHE_SIZE = 10000;
+
+    private static void measureThroughPut(String name, int numThreads, BenchmarkCache cache) throws Exception {
+        final int TOTAL_ROUNDS = 5000000;
+        final int roundsPerThread = TOTAL_ROUNDS / numThreads;
+
+        final Set<Throwable> errors = Collections.newSetFromMap(new ConcurrentHashMap<Throwable, Boolean>());
+        final ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        final CyclicBarrier barrier = new CyclicBarrier(numThreads + 1);
+        final LongAdder hits = new LongAdder();
+
+        for (int i = 0; i < numThreads; ++i) {
+            executor.execute(new CacheTask(barrier, cache, hits, errors, roundsPerThread));
+        }
+        // Wait for start
+        barrier.await();
+        // Warmup
+        barrier.await();
+        final long start = System.nanoTime();
+        barrier.await();
+        // Actual test
+        barrier.await();
+        final long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+
+        assertThat(errors).isEmpty();
+        final long operations = (long) roundsPerThread * numThreads;
+        System.out.println(String.format(Locale.US, "%s, %d threads: %.0f ops/s, %.1f%% hits",
+                name, numThreads, operations * 1e9 / elapsed, hits.sum() * 100.0 / operations));
+    }
+
+    /**
+     * The operations exercised by the benchmark, common to both caches.
+     */
+    private interface BenchmarkCache {
+        Object get(Integer key);
+
+        void put(Integer key, Integer value);
+    }
+
+    /**
+     * Benchmarking task that reads keys from a skewed distribution twice as wide as the cache in a tight loop,
+     * putting missing keys as a policy evaluation would after loading them.
+     */
+    private static class CacheTask implements Runnable {
+        private static final int WARMUP_ROUNDS = 100000;
+        private static final int KEY_SPACE = BENCHMARK_CACHE_SIZE * 2;
+
+        private final CyclicBarrier barrier;
+        private final BenchmarkCache cache;
+        private final LongAdder hits;
+        private final Collection<Throwable> errors;
+        private final int rounds;
+
+        CacheTask(CyclicBarrier barrier, BenchmarkCache cache, LongAdder hits, Collection<Throwable> errors,
+                int rounds) {
+            this.barrier = barrier;
+            this.cache = cache;
+            this.hits = hits;
+            this.errors = errors;
+            this.rounds = rounds;
+        }
+
+        @Override
+        public void run() {
+            try {
+                // Wait for start
+                barrier.await();
+                runRounds(WARMUP_ROUNDS);
+                barrier.await();
+                // Wait for the clock to start
+                barrier.await();
+                hits.add(runRounds(rounds));
+                barrier.await();
+            } catch (Exception ex) {
+                errors.add(ex);
+            }
+        }
+
+        private long runRounds(int count) {
+            long hitCount = 0;
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < count; ++i) {
+                // nextInt of a random bound favours low keys, approximating a hot working set
+                Integer key = random.nextInt(random.nextInt(KEY_SPACE) + 1);
+                if (cache.get(key) == null) {
+                    cache.put(key, key);
+                } else {
+                    hitCount++;
+                }
+            }
+            return hitCount;
+        }
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package com.sun.identity.idm.common;
 
@@ -38,6 +39,7 @@ public class IdCacheBlockTest {
 
     private static final String ENTRY_DN = "uid=test,ou=People,dc=example,dc=com";
     private static final String PRINCIPAL_DN = "uid=admin,ou=People,dc=example,dc=com";
+    private static final String OTHER_PRINCIPAL_DN = "uid=demo,ou=People,dc=example,dc=com";
 
     private AMHashMap attributes;
 
@@ -99,4 +101,22 @@ public class IdCacheBlockTest {
         Map cachedAttributes = cb.getAttributes(PRINCIPAL_DN, false);
         Assert.assertTrue(cachedAttributes.isEmpty());
     }
+
+    @Test
+    public void refreshKeepsAttributesOfOtherPrincipalsTest() throws Exception {
+
+        IdCacheBlock cb = new IdCacheBlock(ENTRY_DN, true);
+        cb.putAttributes(PRINCIPAL_DN, attributes, null, true, false);
+        long created = cb.getRefreshTime();
+
+        FastForwardTimeService.INSTANCE.fastForward(1, TimeUnit.MINUTES);
+
+        // Merge freshly read attributes for another principal and record the refresh.
+        cb.putAttributes(OTHER_PRINCIPAL_DN, attributes, null, true, false);
+        cb.markRefreshed();
+
+        Assert.assertEquals(cb.getRefreshTime(), created + TimeUnit.MINUTES.toMillis(1));
+        Assert.assertTrue(cb.hasCompleteSet(PRINCIPAL_DN));
+        Assert.assertTrue(cb.hasCompleteSet(OTHER_PRINCIPAL_DN));
+    }
 }
@@ -0,0 +1,299 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package com.sun.identity.idm.server;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.sun.identity.idm.IdRepoException;
+import com.sun.identity.shared.debug.Debug;
+
+public class CoalescingIdRepoLoaderTest {
+
+    private static final String KEY = "uid=demo,ou=people,dc=openam,dc=openidentityplatform,dc=org";
+    private static final String CALLER = "id=demo,ou=user,dc=openam,dc=openidentityplatform,dc=org";
+    private static final String OTHER_CALLER = "id=amadmin,ou=user,dc=openam,dc=openidentityplatform,dc=org";
+
+    private ExecutorService executorService;
+    private CoalescingIdRepoLoader<String> loader;
+
+    @BeforeMethod
+    public void setUp() {
+        executorService = Executors.newCachedThreadPool();
+        loader = new CoalescingIdRepoLoader<>(executorService, Debug.getInstance("amIdm"));
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void shouldShareLoadBetweenConcurrentCallers() throws Exception {
+        // Given
+        final CountDownLatch loading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger loads = new AtomicInteger();
+        final Callable<String> blockingLoad = new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                loads.incrementAndGet();
+                loading.countDown();
+                release.await();
+                return "value";
+            }
+        };
+        Future<String> first = executorService.submit(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                return loader.load(CALLER, KEY, blockingLoad);
+            }
+        });
+        loading.await();
+
+        // When
+        Future<String> second = executorService.submit(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                return loader.load(CALLER, KEY, blockingLoad);
+            }
+        });
+        Thread.sleep(50);
+        release.countDown();
+
+        // Then
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotShareLoadBetweenDifferentCallers() throws Exception {
+        // Given
+        final CountDownLatch loading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        Future<String> first = executorService.submit(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                return loader.load(CALLER, KEY, new Callable<String>() {
+                    @Override
+                    public String call() throws Exception {
+                        loading.countDown();
+                        release.await();
+                        return "caller value";
+                    }
+                });
+            }
+        });
+        loading.await();
+
+        // When
+        String second = loader.load(OTHER_CALLER, KEY, new Callable<String>() {
+            @Override
+            public String call() {
+                return "other caller value";
+            }
+        });
+        release.countDown();
+
+        // Then
+        assertThat(second).isEqualTo("other caller value");
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("caller value");
+    }
+
+    @Test
+    public void shouldRefreshForOtherCallerWhileLoadIsInFlight() throws Exception {
+        // Given
+        final CountDownLatch loading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        Future<String> load = executorService.submit(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                return loader.load(CALLER, KEY, new Callable<String>() {
+                    @Override
+                    public String call() throws Exception {
+                        loading.countDown();
+                        release.await();
+                        return "value";
+                    }
+                });
+            }
+        });
+        loading.await();
+
+        // When
+        boolean refreshed = loader.refresh(OTHER_CALLER, KEY, new Callable<String>() {
+            @Override
+            public String call() {
+                return "refreshed";
+            }
+        });
+        release.countDown();
+
+        // Then
+        assertThat(refreshed).isTrue();
+        assertThat(load.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+    }
+
+    @Test
+    public void shouldLoadAgainOnceInFlightLoadHasCompleted() throws Exception {
+        // Given
+        final AtomicInteger loads = new AtomicInteger();
+        Callable<String> load = new Callable<String>() {
+            @Override
+            public String call() {
+                return "value" + loads.incrementAndGet();
+            }
+        };
+
+        // When
+        String first = loader.load(CALLER, KEY, load);
+        String second = loader.load(CALLER, KEY, load);
+
+        // Then
+        assertThat(first).isEqualTo("value1");
+        assertThat(second).isEqualTo("value2");
+    }
+
+    @Test
+    public void shouldPropagateIdRepoExceptionFromLoad() throws Exception {
+        // Given
+        final IdRepoException exception = new IdRepoException("failed");
+
+        // When
+        try {
+            loader.load(CALLER, KEY, new Callable<String>() {
+                @Override
+                public String call() throws Exception {
+                    throw exception;
+                }
+            });
+            fail("Expected IdRepoException");
+        } catch (IdRepoException e) {
+            // Then
+            assertThat(e).isSameAs(exception);
+        }
+    }
+
+    @Test
+    public void shouldNotRefreshWhileLoadIsInFlight() throws Exception {
+        // Given
+        final CountDownLatch loading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        Future<String> load = executorService.submit(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                return loader.load(CALLER, KEY, new Callable<String>() {
+                    @Override
+                    public String call() throws Exception {
+                        loading.countDown();
+                        release.await();
+                        return "value";
+                    }
+                });
+            }
+        });
+        loading.await();
+
+        // When
+        boolean refreshed = loader.refresh(CALLER, KEY, new Callable<String>() {
+            @Override
+            public String call() {
+                return "refreshed";
+            }
+        });
+        release.countDown();
+
+        // Then
+        assertThat(refreshed).isFalse();
+        assertThat(load.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+    }
+
+    @Test
+    public void shouldRunRefreshInBackground() throws Exception {
+        // Given
+        final CountDownLatch refreshed = new CountDownLatch(1);
+
+        // When
+        boolean started = loader.refresh(CALLER, KEY, new Callable<String>() {
+            @Override
+            public String call() {
+                refreshed.countDown();
+                return "refreshed";
+            }
+        });
+
+        // Then
+        assertThat(started).isTrue();
+        assertThat(refreshed.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    public void shouldNotRefreshWhenExecutorRejectsTask() throws Exception {
+        // Given
+        loader = new CoalescingIdRepoLoader<>(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                throw new RejectedExecutionException();
+            }
+        }, Debug.getInstance("amIdm"));
+        Callable<String> load = new Callable<String>() {
+            @Override
+            public String call() {
+                return "value";
+            }
+        };
+
+        // When
+        boolean refreshed = loader.refresh(CALLER, KEY, load);
+
+        // Then
+        assertThat(refreshed).isFalse();
+        assertThat(loader.load(CALLER, KEY, load)).isEqualTo("value");
+    }
+
+    @Test
+    public void shouldNotRefreshWithoutExecutor() {
+        // Given
+        loader = new CoalescingIdRepoLoader<>(null, Debug.getInstance("amIdm"));
+
+        // When
+        boolean refreshed = loader.refresh(CALLER, KEY, new Callable<String>() {
+            @Override
+            public String call() {
+                return "value";
+            }
+        });
+
+        // Then
+        assertThat(loader.canRefresh()).isFalse();
+        assertThat(refreshed).isFalse();
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
 package org.forgerock.openam.blacklist;
@@ -23,7 +24,6 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.*;
 
 import com.iplanet.dpro.session.Session;
-import org.forgerock.bloomfilter.BloomFilter;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -37,7 +37,7 @@ public class BloomFilterBlacklistTest {
     private Blacklist<Blacklistable> mockDelegate;
 
     @Mock
-    private BloomFilter<BloomFilterBlacklist.BlacklistEntry> mockBloomFilter;
+    private RollingBloomFilter<BloomFilterBlacklist.BlacklistEntry> mockBloomFilter;
 
     @Mock
     private Session mockSession;
@@ -125,4 +125,19 @@ public class BloomFilterBlacklistTest {
         // Then
         mockDelegate.subscribe(listener);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldExposeBloomFilterStatistics() {
+        // Given
+        given(mockBloomFilter.getFalsePositiveProbability()).willReturn(0.01d);
+        given(mockBloomFilter.getFillRatio()).willReturn(0.5d);
+
+        // When
+        double falsePositiveProbability = testBlacklist.getFalsePositiveProbability();
+        double fillRatio = testBlacklist.getFillRatio();
+
+        // Then
+        assertThat(falsePositiveProbability).isEqualTo(0.01d);
+        assertThat(fillRatio).isEqualTo(0.5d);
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+
+package org.forgerock.openam.blacklist;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+import com.iplanet.dpro.session.Session;
+import org.forgerock.util.time.TimeService;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class ConcurrentCachingBlacklistTest {
+    private static final String SID = "session1";
+    private static final int CACHE_SIZE = 2;
+
+    @Mock
+    private TimeService mockClock;
+
+    @Mock
+    private Blacklist<Blacklistable> mockDelegate;
+
+    @Mock
+    private Session mockSession;
+
+    private ConcurrentCachingBlacklist<Blacklistable> testBlacklist;
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        testBlacklist = new ConcurrentCachingBlacklist<>(mockDelegate, CACHE_SIZE, 0, mockClock);
+
+        given(mockSession.getStableStorageID()).willReturn(SID);
+        given(mockSession.getBlacklistExpiryTime()).willReturn(1000L);
+        given(mockClock.now()).willReturn(0L);
+    }
+
+    @Test
+    public void shouldHitDelegateIfResultNotCached() throws Exception {
+        // Given
+        given(mockDelegate.isBlacklisted(mockSession)).willReturn(true);
+
+        // When
+        boolean result = testBlacklist.isBlacklisted(mockSession);
+
+        // Then
+        assertThat(result).isTrue();
+    }
+
+    @Test
+    public void shouldCachePositiveResults() throws Exception {
+        // Given
+        given(mockDelegate.isBlacklisted(mockSession)).willReturn(true);
+
+        // When
+        testBlacklist.isBlacklisted(mockSession);
+        boolean result = testBlacklist.isBlacklisted(mockSession);
+
+        // Then
+        verify(mockDelegate, times(1)).isBlacklisted(mockSession);
+        assertThat(result).isTrue();
+    }
+
+    @Test
+    public void shouldNotUsePositiveResultsAfterExpiry() throws Exception {
+        // Given
+        given(mockDelegate.isBlacklisted(mockSession)).willReturn(true);
+        testBlacklist.isBlacklisted(mockSession);
+
+        // When
+        given(mockClock.now()).willReturn(1001L);
+        testBlacklist.isBlacklisted(mockSession);
+
+        // Then
+        verify(mockDelegate, times(2)).isBlacklisted(mockSession);
+    }
+
+    @Test
+    public void shouldNotCacheNegativeResults() throws Exception {
+        // Given
+        given(mockDelegate.isBlacklisted(mockSession)).willReturn(false);
+
+        // When
+        testBlacklist.isBlacklisted(mockSession);
+        boolean result = testBlacklist.isBlacklisted(mockSession);
+
+        // Then
+        assertThat(result).isFalse();
+        verify(mockDelegate, times(2)).isBlacklisted(mockSession);
+    }
+
+    @Test
+    public void shouldReportLocallyBlacklistedEntryAfterNegativeResult() throws Exception {
+        // Given
+        given(mockDelegate.isBlacklisted(mockSession)).willReturn(false);
+        testBlacklist.isBlacklisted(mockSession);
+
+        // When
+        testBlacklist.blacklist(mockSession);
+        boolean result = testBlacklist.isBlacklisted(mockSession);
+
+        // Then
+        verify(mockDelegate).blacklist(mockSession);
+        assertThat(result).isTrue();
+    }
+
+    @Test
+    public void shouldReportEntryBlacklistedOnAnotherServerWithoutAskingDelegate() throws Exception {
+        // Given
+        given(mockDelegate.isBlacklisted(mockSession)).willReturn(false);
+        testBlacklist.isBlacklisted(mockSession);
+
+        // When
+        testBlacklist.onBlacklisted(SID, 1000L);
+        boolean result = testBlacklist.isBlacklisted(mockSession);
+
+        // Then
+        verify(mockDelegate, times(1)).isBlacklisted(mockSession);
+        assertThat(result).isTrue();
+    }
+
+    @Test
+    public void shouldNotSubscribeToDelegate() throws Exception {
+        verify(mockDelegate, never()).subscribe(any(Blacklist.Listener.class));
+    }
+
+    @Test
+    public void shouldOnlyBlacklistWithDelegateOnce() throws Exception {
+        // When
+        testBlacklist.blacklist(mockSession);
+        testBlacklist.blacklist(mockSession);
+
+        // Then
+        verify(mockDelegate, times(1)).blacklist(mockSession);
+    }
+}
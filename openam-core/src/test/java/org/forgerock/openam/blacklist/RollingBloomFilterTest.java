@@ -0,0 +1,144 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+
+package org.forgerock.openam.blacklist;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.nio.charset.Charset;
+
+import org.forgerock.bloomfilter.ExpiryStrategy;
+import org.forgerock.util.time.TimeService;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.hash.Funnels;
+
+public class RollingBloomFilterTest {
+    private static final long GENERATION_DURATION = 1000L;
+
+    private TimeService mockClock;
+    private ExpiryStrategy<CharSequence> mockExpiryStrategy;
+    private RollingBloomFilter<CharSequence> filter;
+
+    @BeforeMethod
+    public void setup() {
+        mockClock = mock(TimeService.class);
+        mockExpiryStrategy = mock(ExpiryStrategy.class);
+        filter = new RollingBloomFilter<>(Funnels.stringFunnel(Charset.forName("UTF-8")), mockExpiryStrategy, 100,
+                0.001d, GENERATION_DURATION, mockClock);
+        given(mockClock.now()).willReturn(0L);
+    }
+
+    @Test
+    public void shouldContainAddedElement() {
+        // Given
+        given(mockExpiryStrategy.expiryTime("badger")).willReturn(5000L);
+
+        // When
+        filter.add("badger");
+
+        // Then
+        assertThat(filter.mightContain("badger")).isTrue();
+    }
+
+    @Test
+    public void shouldNotContainElementAfterItsGenerationHasExpired() {
+        // Given
+        given(mockExpiryStrategy.expiryTime("badger")).willReturn(1500L);
+        filter.add("badger");
+
+        // When
+        given(mockClock.now()).willReturn(2000L);
+
+        // Then
+        assertThat(filter.mightContain("badger")).isFalse();
+        assertThat(filter.getFillRatio()).isZero();
+    }
+
+    @Test
+    public void shouldKeepElementsFromLaterGenerations() {
+        // Given
+        given(mockExpiryStrategy.expiryTime("badger")).willReturn(1500L);
+        given(mockExpiryStrategy.expiryTime("ferret")).willReturn(5500L);
+        filter.add("badger");
+        filter.add("ferret");
+
+        // When
+        given(mockClock.now()).willReturn(2000L);
+
+        // Then
+        assertThat(filter.mightContain("ferret")).isTrue();
+    }
+
+    @Test
+    public void shouldIgnoreElementsThatHaveAlreadyExpired() {
+        // Given
+        given(mockClock.now()).willReturn(2000L);
+        given(mockExpiryStrategy.expiryTime("badger")).willReturn(1000L);
+
+        // When
+        filter.add("badger");
+
+        // Then
+        assertThat(filter.mightContain("badger")).isFalse();
+    }
+
+    @Test
+    public void shouldContainAllElementsWhenCapacityExceeded() {
+        // Given
+        for (int i = 0; i < 1000; i++) {
+            given(mockExpiryStrategy.expiryTime("entry" + i)).willReturn(5000L);
+        }
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            filter.add("entry" + i);
+        }
+
+        // Then
+        for (int i = 0; i < 1000; i++) {
+            assertThat(filter.mightContain("entry" + i)).isTrue();
+        }
+        assertThat(filter.getFalsePositiveProbability()).isLessThan(0.1d);
+    }
+
+    @Test
+    public void shouldReportEmptyStatisticsWhenNothingAdded() {
+        // When
+        double falsePositiveProbability = filter.getFalsePositiveProbability();
+        double fillRatio = filter.getFillRatio();
+
+        // Then
+        assertThat(falsePositiveProbability).isZero();
+        assertThat(fillRatio).isZero();
+    }
+
+    @Test
+    public void shouldReportFillRatioOfAddedElements() {
+        // Given
+        given(mockExpiryStrategy.expiryTime("badger")).willReturn(5000L);
+
+        // When
+        filter.add("badger");
+
+        // Then
+        assertThat(filter.getFillRatio()).isGreaterThan(0.0d).isLessThan(0.1d);
+        assertThat(filter.getFalsePositiveProbability()).isGreaterThan(0.0d).isLessThan(0.001d);
+    }
+}
@@ -12,17 +12,21 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package org.forgerock.openam.cts.impl.query.worker.queries;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.BDDMockito.*;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Mockito.verify;
 
 import java.util.Calendar;
+import java.util.List;
 
 import org.forgerock.openam.cts.CoreTokenConfig;
+import org.forgerock.openam.cts.impl.query.worker.CTSWorkerQuery;
 import org.forgerock.openam.sm.datalayer.api.ConnectionFactory;
 import org.forgerock.openam.sm.datalayer.api.query.QueryBuilder;
 import org.forgerock.openam.sm.datalayer.api.query.QueryFactory;
@@ -90,4 +94,32 @@ public class CTSWorkerPastExpiryDateQueryTest {
         verify(mockBuilder).returnTheseAttributes(CoreTokenField.TOKEN_ID);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void shouldSplitIntoExpiryTimeWindows() {
+        // Given
+        CTSWorkerPastExpiryDateQuery<Connection> query = new CTSWorkerPastExpiryDateQuery<>(mockConnectionFactory,
+                mockFactory, mockConfig);
+
+        // When
+        List<CTSWorkerQuery> windows = query.partition(3, 3000);
+
+        // Then
+        assertThat(windows).hasSize(3).doesNotContainNull();
+    }
+
+    @Test
+    public void shouldOnlyBoundOldestExpiryTimeWindowByCurrentTime() {
+        // Given
+        CTSWorkerPastExpiryDateQuery<Connection> query = new CTSWorkerPastExpiryDateQuery<>(mockConnectionFactory,
+                mockFactory, mockConfig);
+        List<CTSWorkerQuery> windows = query.partition(2, 1000);
+
+        // When
+        ((CTSWorkerBaseQuery) windows.get(1)).getQuery();
+
+        // Then
+        verify(mockQueryFilterConverter).visitLessThanFilter(
+                (Void) isNull(), eq(CoreTokenField.EXPIRY_DATE), any(Calendar.class));
+    }
+
+}
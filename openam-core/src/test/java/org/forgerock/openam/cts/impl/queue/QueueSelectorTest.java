@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package org.forgerock.openam.cts.impl.queue;
 
@@ -51,4 +52,12 @@ public class QueueSelectorTest {
             assertThat(select).isGreaterThanOrEqualTo(0);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldNotReturnNegativeNumberForMinimumHashCode() {
+        String minimumHashCode = "polygenelubricants";
+        assertThat(minimumHashCode.hashCode()).isEqualTo(Integer.MIN_VALUE);
+
+        assertThat(QueueSelector.select(minimumHashCode, 3)).isEqualTo(1);
+    }
+}
@@ -23,6 +23,7 @@ import org.forgerock.openam.cts.api.tokens.Token;
 import org.forgerock.openam.cts.monitoring.impl.CTSMonitoringStoreImpl;
 import org.forgerock.openam.cts.monitoring.impl.connections.ConnectionStore;
 import org.forgerock.openam.cts.monitoring.impl.operations.TokenOperationsStore;
+import org.forgerock.openam.cts.monitoring.impl.queue.QueueMonitor;
 import org.forgerock.openam.cts.monitoring.impl.reaper.ReaperMonitor;
 import org.mockito.Matchers;
 import org.mockito.invocation.InvocationOnMock;
@@ -61,6 +62,7 @@ public class CTSMonitoringStoreImplTest {
                 tokenOperationsStore,
                 reaperMonitor,
                 connectionStore,
+                mock(QueueMonitor.class),
                 debug);
         ctsReaperMonitoringStore = (CTSReaperMonitoringStore) ctsOperationsMonitoringStore;
 
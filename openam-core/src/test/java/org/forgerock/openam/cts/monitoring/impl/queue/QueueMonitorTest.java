@@ -0,0 +1,93 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+
+package org.forgerock.openam.cts.monitoring.impl.queue;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collection;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class QueueMonitorTest {
+
+    private QueueMonitor queueMonitor;
+    private BlockingQueue<String> first;
+    private BlockingQueue<String> second;
+
+    @BeforeMethod
+    public void setUp() {
+        queueMonitor = new QueueMonitor();
+        first = new ArrayBlockingQueue<>(10);
+        second = new ArrayBlockingQueue<>(10);
+        queueMonitor.registerQueues(asList(first, second));
+    }
+
+    @Test
+    public void shouldReportDepthOfEachQueue() {
+        //Given
+        first.add("one");
+        first.add("two");
+        second.add("three");
+
+        //When / Then
+        assertThat(queueMonitor.getNumberOfQueues()).isEqualTo(2);
+        assertThat(queueMonitor.getDepth(0)).isEqualTo(2);
+        assertThat(queueMonitor.getDepth(1)).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldTrackWaitTimesPerQueue() {
+        //Given
+        queueMonitor.addWaitTime(0, 10);
+        queueMonitor.addWaitTime(0, 30);
+        queueMonitor.addWaitTime(1, 5);
+
+        //When / Then
+        assertThat(queueMonitor.getAverageWaitTime(0)).isEqualTo(20D);
+        assertThat(queueMonitor.getMaximumWaitTime(0)).isEqualTo(30L);
+        assertThat(queueMonitor.getAverageWaitTime(1)).isEqualTo(5D);
+        assertThat(queueMonitor.getMaximumWaitTime(1)).isEqualTo(5L);
+    }
+
+    @Test
+    public void shouldIgnoreUnknownQueues() {
+        //Given
+        queueMonitor.addWaitTime(5, 100);
+
+        //When / Then
+        assertThat(queueMonitor.getDepth(5)).isZero();
+        assertThat(queueMonitor.getAverageWaitTime(5)).isZero();
+        assertThat(queueMonitor.getMaximumWaitTime(-1)).isZero();
+    }
+
+    @Test
+    public void shouldResetStatisticsWhenQueuesReplaced() {
+        //Given
+        queueMonitor.addWaitTime(0, 10);
+
+        //When
+        queueMonitor.registerQueues(asList((Collection<?>) new ArrayBlockingQueue<String>(1)));
+
+        //Then
+        assertThat(queueMonitor.getNumberOfQueues()).isEqualTo(1);
+        assertThat(queueMonitor.getAverageWaitTime(0)).isZero();
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
 package org.forgerock.openam.cts.monitoring.impl.reaper;
@@ -73,4 +74,43 @@ public class ReaperMonitorTest {
         //Then
         assertEquals(result, 12.5D);
     }
+
+    @Test
+    public void shouldGetThroughputOfMostRecentRun() {
+
+        //Given
+        reaperMonitor.add(1000, 1000, 10);
+        reaperMonitor.add(3000, 2000, 500);
+
+        //When
+        double result = reaperMonitor.getThroughput();
+
+        //Then
+        assertEquals(result, 250D);
+    }
+
+    @Test
+    public void shouldGetZeroThroughputWhenNoRunsAdded() {
+
+        //Given
+
+        //When
+        double result = reaperMonitor.getThroughput();
+
+        //Then
+        assertEquals(result, 0D);
+    }
+
+    @Test
+    public void shouldGetBacklog() {
+
+        //Given
+        reaperMonitor.setBacklog(3);
+
+        //When
+        int result = reaperMonitor.getBacklog();
+
+        //Then
+        assertEquals(result, 3);
+    }
 }
@@ -0,0 +1,127 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.forgerock.openam.cts.worker.process;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.openam.cts.CTSOperation;
+import org.forgerock.openam.cts.monitoring.CTSOperationsMonitoringStore;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class CTSReaperThrottleTest {
+
+    private CTSOperationsMonitoringStore mockOperationsStore;
+    private CTSReaperThrottle throttle;
+
+    @BeforeMethod
+    public void setUp() {
+        mockOperationsStore = mock(CTSOperationsMonitoringStore.class);
+        throttle = new CTSReaperThrottle(4, 100, TimeUnit.MILLISECONDS, mockOperationsStore);
+    }
+
+    @Test
+    public void shouldStartAtMaximumLimit() {
+        assertThat(throttle.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    public void shouldHalveLimitWhenPageIsSlow() throws InterruptedException {
+        // Given
+        throttle.acquire();
+
+        // When
+        throttle.release(200, TimeUnit.MILLISECONDS);
+
+        // Then
+        assertThat(throttle.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldHalveLimitWhenDeletesFail() throws InterruptedException {
+        // Given
+        throttle.acquire();
+        given(mockOperationsStore.getOperationFailuresCumulativeCount(CTSOperation.DELETE)).willReturn(1L);
+
+        // When
+        throttle.release(10, TimeUnit.MILLISECONDS);
+
+        // Then
+        assertThat(throttle.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldIncreaseLimitUpToMaximumWhenPagesAreFast() throws InterruptedException {
+        // Given
+        throttle.acquire();
+        throttle.release(200, TimeUnit.MILLISECONDS);
+        throttle.acquire();
+        throttle.release(200, TimeUnit.MILLISECONDS);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            throttle.acquire();
+            throttle.release(10, TimeUnit.MILLISECONDS);
+        }
+
+        // Then
+        assertThat(throttle.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    public void shouldNotReduceLimitBelowOne() throws InterruptedException {
+        // When
+        for (int i = 0; i < 5; i++) {
+            throttle.acquire();
+            throttle.release(200, TimeUnit.MILLISECONDS);
+        }
+
+        // Then
+        assertThat(throttle.getLimit()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldBlockWhileLimitIsReached() throws Exception {
+        // Given
+        throttle = new CTSReaperThrottle(1, 100, TimeUnit.MILLISECONDS, mockOperationsStore);
+        throttle.acquire();
+        Thread waiting = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    throttle.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        // When
+        waiting.start();
+        waiting.join(100);
+        boolean blocked = waiting.isAlive();
+        throttle.release(10, TimeUnit.MILLISECONDS);
+        waiting.join(5000);
+
+        // Then
+        assertThat(blocked).isTrue();
+        assertThat(waiting.isAlive()).isFalse();
+    }
+}
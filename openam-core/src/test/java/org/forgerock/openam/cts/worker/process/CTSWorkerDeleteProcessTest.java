@@ -12,25 +12,37 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package org.forgerock.openam.cts.worker.process;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.verify;
 import static org.mockito.Matchers.anyCollection;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.forgerock.openam.cts.CoreTokenConfig;
 import org.forgerock.openam.cts.exceptions.CoreTokenException;
+import org.forgerock.openam.cts.impl.query.worker.CTSWorkerPartitionedQuery;
 import org.forgerock.openam.cts.impl.query.worker.CTSWorkerQuery;
+import org.forgerock.openam.cts.monitoring.CTSOperationsMonitoringStore;
 import org.forgerock.openam.cts.monitoring.CTSReaperMonitoringStore;
 import org.forgerock.openam.cts.worker.CTSWorkerFilter;
 import org.forgerock.openam.cts.worker.process.CTSWorkerDeleteProcess.TokenDeletion;
 import org.forgerock.openam.sm.datalayer.api.query.PartialToken;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
@@ -51,7 +63,8 @@ public class CTSWorkerDeleteProcessTest {
         monitoringStore = mock(CTSReaperMonitoringStore.class);
         mockQuery = mock(CTSWorkerQuery.class);
 
-        process = new CTSWorkerDeleteProcess(mockTokenDeletion, monitoringStore, mock(Debug.class));
+        process = new CTSWorkerDeleteProcess(mockTokenDeletion, monitoringStore, mock(CTSWorkerPartitioning.class),
+                mock(Debug.class));
     }
 
     @AfterMethod
@@ -75,6 +88,120 @@ public class CTSWorkerDeleteProcessTest {
         verify(mockTokenDeletion).deleteBatch(tokens);
     }
 
+    @Test
+    public void shouldDeleteTokensOfEachExpiryTimeWindow() throws CoreTokenException {
+        // Given
+        CoreTokenConfig mockConfig = mock(CoreTokenConfig.class);
+        given(mockConfig.getReaperPartitions()).willReturn(2);
+        given(mockConfig.getReaperPartitionSpan(TimeUnit.MILLISECONDS)).willReturn(1000L);
+        given(mockConfig.getReaperConcurrency()).willReturn(2);
+        given(mockConfig.getReaperTargetLatency(TimeUnit.MILLISECONDS)).willReturn(60000L);
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        process = new CTSWorkerDeleteProcess(mockTokenDeletion, monitoringStore,
+                new CTSWorkerPartitioning(mockConfig, mock(CTSOperationsMonitoringStore.class), executorService),
+                mock(Debug.class));
+
+        Collection<PartialToken> recentTokens = Arrays.asList(partialToken(), partialToken());
+        Collection<PartialToken> oldTokens = Arrays.asList(partialToken(), partialToken(), partialToken());
+        CTSWorkerQuery recentWindow = mock(CTSWorkerQuery.class);
+        given(recentWindow.nextPage()).willReturn(recentTokens).willReturn(null);
+        CTSWorkerQuery oldWindow = mock(CTSWorkerQuery.class);
+        given(oldWindow.nextPage()).willReturn(oldTokens).willReturn(null);
+        CTSWorkerPartitionedQuery mockPartitionedQuery = mock(CTSWorkerPartitionedQuery.class);
+        given(mockPartitionedQuery.partition(2, 1000L)).willReturn(Arrays.asList(recentWindow, oldWindow));
+
+        given(mockFilter.filter(recentTokens)).willReturn(recentTokens);
+        given(mockFilter.filter(oldTokens)).willReturn(oldTokens);
+        given(mockTokenDeletion.deleteBatch(anyCollection())).willReturn(new CountDownLatch(0));
+
+        // When
+        try {
+            process.handle(mockPartitionedQuery, mockFilter);
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        // Then
+        verify(mockTokenDeletion).deleteBatch(recentTokens);
+        verify(mockTokenDeletion).deleteBatch(oldTokens);
+        verify(recentWindow).close();
+        verify(oldWindow).close();
+        verify(monitoringStore).setReaperBacklog(2);
+        verify(monitoringStore).setReaperBacklog(0);
+        verify(monitoringStore).addReaperRun(anyLong(), anyLong(), eq(5L));
+    }
+
+    @Test
+    public void shouldThrottleQueriesTogetherWithDeletes() throws CoreTokenException {
+        // Given
+        CoreTokenConfig mockConfig = mock(CoreTokenConfig.class);
+        given(mockConfig.getReaperPartitions()).willReturn(2);
+        given(mockConfig.getReaperPartitionSpan(TimeUnit.MILLISECONDS)).willReturn(1000L);
+        given(mockConfig.getReaperConcurrency()).willReturn(1);
+        given(mockConfig.getReaperTargetLatency(TimeUnit.MILLISECONDS)).willReturn(60000L);
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        process = new CTSWorkerDeleteProcess(mockTokenDeletion, monitoringStore,
+                new CTSWorkerPartitioning(mockConfig, mock(CTSOperationsMonitoringStore.class), executorService),
+                mock(Debug.class));
+
+        final AtomicInteger pagesInFlight = new AtomicInteger();
+        final AtomicInteger maxPagesInFlight = new AtomicInteger();
+        CTSWorkerQuery recentWindow = mock(CTSWorkerQuery.class);
+        given(recentWindow.nextPage()).willAnswer(singlePage(pagesInFlight, maxPagesInFlight));
+        CTSWorkerQuery oldWindow = mock(CTSWorkerQuery.class);
+        given(oldWindow.nextPage()).willAnswer(singlePage(pagesInFlight, maxPagesInFlight));
+        CTSWorkerPartitionedQuery mockPartitionedQuery = mock(CTSWorkerPartitionedQuery.class);
+        given(mockPartitionedQuery.partition(2, 1000L)).willReturn(Arrays.asList(recentWindow, oldWindow));
+
+        given(mockFilter.filter(anyCollection())).willAnswer(new Answer<Collection<PartialToken>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Collection<PartialToken> answer(InvocationOnMock invocation) {
+                return (Collection<PartialToken>) invocation.getArguments()[0];
+            }
+        });
+        given(mockTokenDeletion.deleteBatch(anyCollection())).willAnswer(new Answer<CountDownLatch>() {
+            @Override
+            public CountDownLatch answer(InvocationOnMock invocation) throws InterruptedException {
+                // give the other window the chance to query while this page is being deleted
+                Thread.sleep(50);
+                pagesInFlight.decrementAndGet();
+                return new CountDownLatch(0);
+            }
+        });
+
+        // When
+        try {
+            process.handle(mockPartitionedQuery, mockFilter);
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        // Then
+        verify(monitoringStore).addReaperRun(anyLong(), anyLong(), eq(2L));
+        assertThat(maxPagesInFlight.get()).isEqualTo(1);
+    }
+
+    private Answer<Collection<PartialToken>> singlePage(final AtomicInteger pagesInFlight,
+            final AtomicInteger maxPagesInFlight) {
+        return new Answer<Collection<PartialToken>>() {
+            private boolean queried;
+
+            @Override
+            public Collection<PartialToken> answer(InvocationOnMock invocation) {
+                if (queried) {
+                    return null;
+                }
+                queried = true;
+                int inFlight = pagesInFlight.incrementAndGet();
+                synchronized (maxPagesInFlight) {
+                    maxPagesInFlight.set(Math.max(maxPagesInFlight.get(), inFlight));
+                }
+                return Arrays.asList(partialToken());
+            }
+        };
+    }
+
     private PartialToken partialToken() {
         return mock(PartialToken.class);
     }
@@ -13,7 +13,7 @@
  *
  * Copyright 2016 ForgeRock AS.
  * 
- * Portions Copyrighted 2020 Open Identity Platform Community.
+ * Portions Copyrighted 2020-2026 Open Identity Platform Community.
  */
 
 package org.forgerock.openam.session.service.access.persistence.caching;
@@ -23,12 +23,15 @@ import static org.mockito.BDDMockito.*;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.forgerock.openam.cts.api.fields.SessionTokenField;
 import org.forgerock.openam.cts.exceptions.CoreTokenException;
@@ -71,6 +74,9 @@ public class InMemoryInternalSessionCacheStepTest {
     @Mock
     private Debug mockDebug;
 
+    @Mock
+    private ScheduledExecutorService mockScheduler;
+
     private InMemoryInternalSessionCacheStep testCache;
     private SessionModificationListener sessionModificationListener;
 
@@ -83,7 +89,8 @@ public class InMemoryInternalSessionCacheStepTest {
 
         setupMockCTSToCaptureQueryListener(mockSessionModificationWatcher);
 
-        testCache = new InMemoryInternalSessionCacheStep(mockSessionConfig, mockDebug, mockSessionModificationWatcher);
+        testCache = new InMemoryInternalSessionCacheStep(mockSessionConfig, mockDebug, mockSessionModificationWatcher,
+                mockScheduler);
     }
 
     @Test
@@ -190,6 +197,130 @@ public class InMemoryInternalSessionCacheStepTest {
         assertThat(testCache.size()).as("Cache size after reconfiguration").isLessThanOrEqualTo(MAX_SESSIONS * 2);
     }
 
+    @Test
+    public void shouldScheduleFlushWhenWriteBehindEnabled() throws Exception {
+        givenWriteBehindCache();
+
+        verify(mockScheduler).scheduleWithFixedDelay(any(Runnable.class), eq(5000L), eq(5000L),
+                eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void shouldNotDeferStoresWhenWriteBehindDisabled() throws Exception {
+        InternalSessionStore second = mock(InternalSessionStore.class);
+        testCache.store(mockSession, mockStore);
+
+        testCache.store(mockSession, second);
+
+        verify(second).store(mockSession);
+    }
+
+    @Test
+    public void shouldWriteThroughFirstStoreOfSessionWhenWriteBehindEnabled() throws Exception {
+        givenWriteBehindCache();
+
+        testCache.store(mockSession, mockStore);
+
+        verify(mockStore).store(mockSession);
+        assertThat(testCache.getBySessionID(SESSION_ID, mockStore)).isEqualTo(mockSession);
+    }
+
+    @Test
+    public void shouldDeferAndCoalesceMinorUpdates() throws Exception {
+        givenWriteBehindCache();
+        InternalSessionStore second = mock(InternalSessionStore.class);
+        InternalSessionStore third = mock(InternalSessionStore.class);
+        testCache.store(mockSession, mockStore);
+
+        testCache.store(mockSession, second);
+        testCache.store(mockSession, third);
+
+        verify(second, never()).store(mockSession);
+        verify(third, never()).store(mockSession);
+        assertThat(testCache.getBySessionID(SESSION_ID, mockStore)).isEqualTo(mockSession);
+
+        testCache.flush();
+
+        verify(second, never()).store(mockSession);
+        verify(third).store(mockSession);
+    }
+
+    @Test
+    public void shouldWriteThroughSignificantUpdates() throws Exception {
+        givenWriteBehindCache();
+        InternalSessionStore second = mock(InternalSessionStore.class);
+        InternalSessionStore third = mock(InternalSessionStore.class);
+        testCache.store(mockSession, mockStore);
+        testCache.store(mockSession, second);
+
+        given(mockSession.getSignificantUpdateCount()).willReturn(1L);
+        testCache.store(mockSession, third);
+        testCache.flush();
+
+        verify(third).store(mockSession);
+        verify(second, never()).store(mockSession);
+    }
+
+    @Test
+    public void shouldDiscardDeferredStoreWhenSessionRemoved() throws Exception {
+        givenWriteBehindCache();
+        InternalSessionStore second = mock(InternalSessionStore.class);
+        testCache.store(mockSession, mockStore);
+        testCache.store(mockSession, second);
+
+        testCache.remove(mockSession, mockStore);
+        testCache.flush();
+
+        verify(mockStore).remove(mockSession);
+        verify(second, never()).store(mockSession);
+    }
+
+    @Test
+    public void shouldDiscardDeferredStoreOnSessionChangedEvent() throws Exception {
+        givenWriteBehindCache();
+        InternalSessionStore second = mock(InternalSessionStore.class);
+        InternalSessionStore third = mock(InternalSessionStore.class);
+        testCache.store(mockSession, mockStore);
+        testCache.store(mockSession, second);
+
+        sessionModificationListener.sessionChanged(SESSION_ID);
+        testCache.flush();
+        testCache.store(mockSession, third);
+
+        verify(second, never()).store(mockSession);
+        verify(third).store(mockSession);
+    }
+
+    @Test
+    public void shouldFlushDeferredStoresOnShutdown() throws Exception {
+        givenWriteBehindCache();
+        InternalSessionStore second = mock(InternalSessionStore.class);
+        testCache.store(mockSession, mockStore);
+        testCache.store(mockSession, second);
+
+        testCache.shutdown();
+
+        verify(second).store(mockSession);
+    }
+
+    @Test
+    public void shouldWriteThroughMinorUpdatesAfterShutdown() throws Exception {
+        givenWriteBehindCache();
+        InternalSessionStore second = mock(InternalSessionStore.class);
+        testCache.store(mockSession, mockStore);
+        testCache.shutdown();
+
+        testCache.store(mockSession, second);
+
+        verify(second).store(mockSession);
+    }
+
+    private void givenWriteBehindCache() {
+        given(mockSessionConfig.isSessionStoreWriteBehindEnabled()).willReturn(true);
+        given(mockSessionConfig.getSessionStoreWriteBehindInterval(TimeUnit.MILLISECONDS)).willReturn(5000L);
+        testCache = new InMemoryInternalSessionCacheStep(mockSessionConfig, mockDebug, mockSessionModificationWatcher,
+                mockScheduler);
+    }
 
     private InternalSession sessionWithHandleAndRestrictedTokens() {
         String sessionHandle = "sessionHandle";
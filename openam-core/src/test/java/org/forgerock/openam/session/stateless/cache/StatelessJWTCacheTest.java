@@ -12,9 +12,11 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package org.forgerock.openam.session.stateless.cache;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.fest.assertions.Assertions.*;
 import static org.mockito.BDDMockito.any;
 import static org.mockito.BDDMockito.anyString;
@@ -144,4 +146,97 @@ public class StatelessJWTCacheTest {
         // Then
         assertThat(cache.contains(mockSessionInfo)).isFalse();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldContainSessionInfoAfterCaching() {
+        // Given
+        given(mockConfig.getJWTCacheSize()).willReturn(1);
+        cache = new StatelessJWTCache(mockConfig, mockListeners);
+        SessionInfo mockSessionInfo = mock(SessionInfo.class);
+
+        // When
+        cache.cache(mockSessionInfo, "badger");
+
+        // Then
+        assertThat(cache.contains(mockSessionInfo)).isTrue();
+    }
+
+    @Test
+    public void shouldNotContainSessionInfoAfterJWTRemoved() {
+        // Given
+        given(mockConfig.getJWTCacheSize()).willReturn(1);
+        cache = new StatelessJWTCache(mockConfig, mockListeners);
+        SessionInfo mockSessionInfo = mock(SessionInfo.class);
+        cache.cache(mockSessionInfo, "badger");
+
+        // When
+        cache.remove("badger");
+
+        // Then
+        assertThat(cache.contains(mockSessionInfo)).isFalse();
+    }
+
+    @Test
+    public void shouldNotReturnExpiredSessionInfo() {
+        // Given
+        given(mockConfig.getJWTCacheSize()).willReturn(1);
+        cache = new StatelessJWTCache(mockConfig, mockListeners);
+        SessionInfo mockSessionInfo = mock(SessionInfo.class);
+        cache.cache(mockSessionInfo, "badger");
+
+        // When
+        given(mockSessionInfo.getExpiryTime(MILLISECONDS)).willReturn(1L);
+
+        // Then
+        assertThat(cache.getSessionInfo("badger")).isNull();
+        assertThat(cache.getEvictionCount()).isEqualTo(1L);
+    }
+
+    @Test
+    public void shouldNotCacheExpiredSessionInfo() {
+        // Given
+        given(mockConfig.getJWTCacheSize()).willReturn(1);
+        cache = new StatelessJWTCache(mockConfig, mockListeners);
+        SessionInfo mockSessionInfo = mock(SessionInfo.class);
+        given(mockSessionInfo.getExpiryTime(MILLISECONDS)).willReturn(1L);
+
+        // When
+        cache.cache(mockSessionInfo, "badger");
+
+        // Then
+        assertThat(cache.contains("badger")).isFalse();
+    }
+
+    @Test
+    public void shouldCountHitsAndMisses() {
+        // Given
+        given(mockConfig.getJWTCacheSize()).willReturn(1);
+        cache = new StatelessJWTCache(mockConfig, mockListeners);
+        cache.cache(mock(SessionInfo.class), "badger");
+
+        // When
+        cache.getSessionInfo("badger");
+        cache.getSessionInfo("ferret");
+        cache.getSessionInfo("weasel");
+
+        // Then
+        assertThat(cache.getHitCount()).isEqualTo(1L);
+        assertThat(cache.getMissCount()).isEqualTo(2L);
+    }
+
+    @Test
+    public void shouldCountEvictionsWhenFull() {
+        // Given
+        given(mockConfig.getJWTCacheSize()).willReturn(1);
+        cache = new StatelessJWTCache(mockConfig, mockListeners);
+        SessionInfo evicted = mock(SessionInfo.class);
+        cache.cache(evicted, "badger");
+
+        // When
+        cache.cache(mock(SessionInfo.class), "ferret");
+
+        // Then
+        assertThat(cache.getEvictionCount()).isEqualTo(1L);
+        assertThat(cache.contains(evicted)).isFalse();
+    }
+}
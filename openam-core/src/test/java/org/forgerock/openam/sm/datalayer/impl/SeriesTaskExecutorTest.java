@@ -23,10 +23,13 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 
+import org.forgerock.openam.cts.impl.queue.QueueSelector;
 import org.forgerock.openam.cts.impl.queue.config.CTSQueueConfiguration;
+import org.forgerock.openam.cts.monitoring.CTSQueueMonitoringStore;
 import org.forgerock.openam.shared.concurrency.ThreadMonitor;
 import org.forgerock.openam.sm.datalayer.api.DataLayerException;
 import org.forgerock.openam.sm.datalayer.api.Task;
@@ -44,6 +47,7 @@ public class SeriesTaskExecutorTest {
     private SeriesTaskExecutorThreadFactory processorFactory;
     private ThreadMonitor monitor;
     private CTSQueueConfiguration configuration;
+    private CTSQueueMonitoringStore monitoringStore;
 
     @BeforeMethod
     public void setup() throws Exception {
@@ -51,9 +55,11 @@ public class SeriesTaskExecutorTest {
         processorFactory = mock(SeriesTaskExecutorThreadFactory.class);
         monitor = mock(ThreadMonitor.class);
         configuration = mock(CTSQueueConfiguration.class);
+        monitoringStore = mock(CTSQueueMonitoringStore.class);
         given(configuration.getQueueSize()).willReturn(10);
 
-        executor = new SeriesTaskExecutor(executorService, processorFactory, monitor, configuration, mock(Debug.class));
+        executor = new SeriesTaskExecutor(executorService, processorFactory, monitor, configuration, monitoringStore,
+                mock(Debug.class));
     }
 
     @Test
@@ -119,4 +125,80 @@ public class SeriesTaskExecutorTest {
         // Then
         assertThat(result).isNotNull();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldCreateQueuePerProcessorWhenSharded() throws Exception {
+        // Given
+        int processors = 4;
+        ArgumentCaptor<BlockingQueue> captor = ArgumentCaptor.forClass(BlockingQueue.class);
+        given(processorFactory.create(captor.capture())).willReturn(mock(SeriesTaskExecutorThread.class));
+        given(configuration.getProcessors()).willReturn(processors);
+        given(configuration.isShardedQueues()).willReturn(true);
+
+        // When
+        executor.start();
+
+        // Then
+        assertThat(captor.getAllValues()).hasSize(processors);
+        assertThat(captor.getAllValues()).doesNotHaveDuplicates();
+        verify(monitoringStore).registerQueues(anyList());
+    }
+
+    @Test
+    public void shouldPlaceTasksForSameTokenOnSameShard() throws Exception {
+        // Given
+        int processors = 4;
+        ArgumentCaptor<BlockingQueue> captor = ArgumentCaptor.forClass(BlockingQueue.class);
+        given(processorFactory.create(captor.capture())).willReturn(mock(SeriesTaskExecutorThread.class));
+        given(configuration.getProcessors()).willReturn(processors);
+        given(configuration.isShardedQueues()).willReturn(true);
+        executor.start();
+
+        // When
+        executor.execute("badger", mock(Task.class));
+        executor.execute("badger", mock(Task.class));
+
+        // Then
+        List<BlockingQueue> queues = captor.getAllValues();
+        assertThat(queues.get(QueueSelector.select("badger", processors)).size()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldPlaceQueryOnLeastLoadedShard() throws Exception {
+        // Given
+        int processors = 2;
+        ArgumentCaptor<BlockingQueue> captor = ArgumentCaptor.forClass(BlockingQueue.class);
+        given(processorFactory.create(captor.capture())).willReturn(mock(SeriesTaskExecutorThread.class));
+        given(configuration.getProcessors()).willReturn(processors);
+        given(configuration.isShardedQueues()).willReturn(true);
+        executor.start();
+        int tokenShard = QueueSelector.select("badger", processors);
+        executor.execute("badger", mock(Task.class));
+
+        // When
+        executor.execute(null, mock(Task.class));
+
+        // Then
+        List<BlockingQueue> queues = captor.getAllValues();
+        assertThat(queues.get(tokenShard).size()).isEqualTo(1);
+        assertThat(queues.get(1 - tokenShard).size()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldReportQueueWaitTimeWhenTaskExecuted() throws Exception {
+        // Given
+        ArgumentCaptor<BlockingQueue> captor = ArgumentCaptor.forClass(BlockingQueue.class);
+        given(processorFactory.create(captor.capture())).willReturn(mock(SeriesTaskExecutorThread.class));
+        given(configuration.getProcessors()).willReturn(1);
+        executor.start();
+        Task task = mock(Task.class);
+        executor.execute("badger", task);
+
+        // When
+        ((Task) captor.getValue().poll()).execute(null);
+
+        // Then
+        verify(monitoringStore).addQueueWaitTime(eq(0), anyLong());
+        verify(task).execute(null);
+    }
+}
@@ -12,13 +12,17 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2015 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package org.forgerock.openam.sm.datalayer.impl;
 
 import static org.mockito.BDDMockito.*;
 
+import java.util.Arrays;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 
+import org.forgerock.openam.cts.impl.queue.config.CTSQueueConfiguration;
 import org.forgerock.openam.sm.datalayer.api.Task;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
@@ -32,12 +36,15 @@ public class SeriesTaskExecutorThreadTest {
 
     private SeriesTaskExecutorThread processor;
     private SimpleTaskExecutor mockExecutor;
+    private CTSQueueConfiguration mockConfiguration;
 
     @BeforeMethod
     public void setup() {
         Thread.interrupted();
         mockExecutor = mock(SimpleTaskExecutor.class);
-        processor = new SeriesTaskExecutorThread(mock(Debug.class), mockExecutor);
+        mockConfiguration = mock(CTSQueueConfiguration.class);
+        given(mockConfiguration.getBatchSize()).willReturn(1);
+        processor = new SeriesTaskExecutorThread(mock(Debug.class), mockExecutor, mockConfiguration);
     }
 
     // NB: TaskProcessor has a threading policy around interrupted. This tear down clears the interrupted state.
@@ -76,6 +83,31 @@ public class SeriesTaskExecutorThreadTest {
         verify(mockExecutor).execute(null, mockTask);
     }
 
+    @Test
+    public void shouldExecuteBatchOfTasksFromQueueWhenBatchingEnabled() throws Exception {
+        // Given
+        given(mockConfiguration.getBatchSize()).willReturn(3);
+        processor = new SeriesTaskExecutorThread(mock(Debug.class), mockExecutor, mockConfiguration);
+        Task first = mock(Task.class);
+        Task second = mock(Task.class);
+        Task third = mock(Task.class);
+        processor.setQueue(new LinkedBlockingQueue<>(Arrays.asList(first, second, third, mock(Task.class))));
+        willAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocationOnMock) throws Throwable {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }).given(mockExecutor).executeBatch(anyListOf(Task.class));
+
+        // When
+        processor.run();
+
+        // Then
+        verify(mockExecutor).executeBatch(Arrays.asList(first, second, third));
+        verify(mockExecutor, never()).execute(anyString(), any(Task.class));
+    }
+
     private BlockingQueue<Task> generateTestQueue(final Task first) throws InterruptedException {
         BlockingQueue<Task> queue = mock(BlockingQueue.class);
         given(queue.take()).willAnswer(new Answer<Object>() {
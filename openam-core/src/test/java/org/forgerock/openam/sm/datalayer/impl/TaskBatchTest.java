@@ -0,0 +1,224 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+
+package org.forgerock.openam.sm.datalayer.impl;
+
+import static java.util.Arrays.asList;
+import static org.fest.assertions.Assertions.assertThat;
+import static org.forgerock.openam.cts.api.CTSOptions.OPTIMISTIC_CONCURRENCY_CHECK_OPTION;
+import static org.mockito.BDDMockito.*;
+
+import java.util.UUID;
+
+import org.forgerock.openam.cts.api.tokens.Token;
+import org.forgerock.openam.sm.datalayer.api.BatchableTask;
+import org.forgerock.openam.sm.datalayer.api.DataLayerException;
+import org.forgerock.openam.sm.datalayer.api.PipelinedTokenStorageAdapter;
+import org.forgerock.openam.sm.datalayer.api.ResultHandler;
+import org.forgerock.openam.sm.datalayer.api.Task;
+import org.forgerock.openam.sm.datalayer.api.TokenStorageAdapter;
+import org.forgerock.openam.sm.datalayer.api.query.PartialToken;
+import org.forgerock.openam.sm.datalayer.impl.tasks.CreateTask;
+import org.forgerock.openam.sm.datalayer.impl.tasks.DeleteTask;
+import org.forgerock.openam.sm.datalayer.impl.tasks.UpdateTask;
+import org.forgerock.openam.tokens.TokenType;
+import org.forgerock.util.Options;
+import org.forgerock.util.promise.Promises;
+import org.mockito.InOrder;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.sun.identity.shared.debug.Debug;
+
+public class TaskBatchTest {
+
+    private PipelinedTokenStorageAdapter adapter;
+    private TaskBatch batch;
+    private Token previous;
+    private Token returned;
+    private String tokenId;
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        adapter = mock(PipelinedTokenStorageAdapter.class);
+        batch = new TaskBatch(adapter, mock(Debug.class));
+        tokenId = UUID.randomUUID().toString();
+        previous = new Token(tokenId, TokenType.SESSION);
+        returned = new Token(tokenId, TokenType.SESSION);
+
+        given(adapter.read(eq(tokenId), any(Options.class))).willReturn(previous);
+        given(adapter.updateAsync(any(Token.class), any(Token.class), any(Options.class)))
+                .willReturn(Promises.<Token, DataLayerException>newResultPromise(returned));
+    }
+
+    @Test
+    public void shouldCoalesceRepeatedUpdatesIntoSingleWrite() throws Exception {
+        // Given
+        Token first = new Token(tokenId, TokenType.SESSION);
+        Token second = new Token(tokenId, TokenType.SESSION);
+        ResultHandler<Token, ?> firstHandler = mock(ResultHandler.class);
+        ResultHandler<Token, ?> secondHandler = mock(ResultHandler.class);
+
+        // When
+        batch.execute(asList(
+                (Task) new UpdateTask(first, Options.defaultOptions(), firstHandler),
+                new UpdateTask(second, Options.defaultOptions(), secondHandler)));
+
+        // Then
+        verify(adapter, times(1)).updateAsync(eq(previous), eq(second), any(Options.class));
+        verify(firstHandler).processResults(returned);
+        verify(secondHandler).processResults(returned);
+    }
+
+    @Test
+    public void shouldIssueDeleteInPlaceOfCreateFollowedByDelete() throws Exception {
+        // Given
+        Token token = new Token(tokenId, TokenType.SESSION);
+        PartialToken deleted = token.toPartialToken();
+        given(adapter.deleteAsync(eq(tokenId), any(Options.class)))
+                .willReturn(Promises.<PartialToken, DataLayerException>newResultPromise(deleted));
+        ResultHandler<Token, ?> createHandler = mock(ResultHandler.class);
+        ResultHandler<PartialToken, ?> deleteHandler = mock(ResultHandler.class);
+
+        // When
+        batch.execute(asList(
+                (Task) new CreateTask(token, Options.defaultOptions(), createHandler),
+                new DeleteTask(tokenId, Options.defaultOptions(), deleteHandler)));
+
+        // Then
+        verify(adapter, never()).createAsync(any(Token.class), any(Options.class));
+        verify(adapter, times(1)).deleteAsync(eq(tokenId), any(Options.class));
+        verify(createHandler).processResults(token);
+        verify(deleteHandler).processResults(deleted);
+    }
+
+    @Test
+    public void shouldRouteDeleteErrorToSupersededCreate() throws Exception {
+        // Given
+        DataLayerException error = new DataLayerException("badger");
+        given(adapter.deleteAsync(eq(tokenId), any(Options.class)))
+                .willReturn(Promises.<PartialToken, DataLayerException>newExceptionPromise(error));
+        ResultHandler<Token, ?> createHandler = mock(ResultHandler.class);
+        ResultHandler<PartialToken, ?> deleteHandler = mock(ResultHandler.class);
+
+        // When
+        batch.execute(asList(
+                (Task) new CreateTask(new Token(tokenId, TokenType.SESSION), Options.defaultOptions(), createHandler),
+                new DeleteTask(tokenId, Options.defaultOptions(), deleteHandler)));
+
+        // Then
+        verify(createHandler).processError(error);
+        verify(deleteHandler).processError(error);
+        verify(createHandler, never()).processResults(any(Token.class));
+    }
+
+    @Test
+    public void shouldReturnSharedResultFromFanOutHandler() throws Exception {
+        // Given
+        ResultHandler<Token, ?> handler = mock(ResultHandler.class);
+        TaskBatch.FanOutResultHandler<Token> fanOut = new TaskBatch.FanOutResultHandler<>(
+                asList((BatchableTask<?>) new UpdateTask(previous, Options.defaultOptions(), handler)), false);
+
+        // When
+        fanOut.processResults(returned);
+
+        // Then
+        assertThat(fanOut.getResults()).isSameAs(returned);
+        verify(handler).processResults(returned);
+    }
+
+    @Test(expectedExceptions = DataLayerException.class)
+    public void shouldThrowSharedErrorFromFanOutHandler() throws Exception {
+        // Given
+        ResultHandler<Token, ?> handler = mock(ResultHandler.class);
+        TaskBatch.FanOutResultHandler<Token> fanOut = new TaskBatch.FanOutResultHandler<>(
+                asList((BatchableTask<?>) new UpdateTask(previous, Options.defaultOptions(), handler)), false);
+        fanOut.processError(new DataLayerException("badger"));
+
+        // When
+        fanOut.getResults();
+    }
+
+    @Test
+    public void shouldNotCoalesceWritesWithConcurrencyCheck() throws Exception {
+        // Given
+        Options options = Options.defaultOptions().set(OPTIMISTIC_CONCURRENCY_CHECK_OPTION, "ETAG");
+        ResultHandler<Token, ?> handler = mock(ResultHandler.class);
+
+        // When
+        batch.execute(asList(
+                (Task) new UpdateTask(new Token(tokenId, TokenType.SESSION), options, handler),
+                new UpdateTask(new Token(tokenId, TokenType.SESSION), options, handler)));
+
+        // Then
+        verify(adapter, times(2)).updateAsync(any(Token.class), any(Token.class), eq(options));
+    }
+
+    @Test
+    public void shouldIssuePendingWritesBeforeOtherTasks() throws Exception {
+        // Given
+        Task read = mock(Task.class);
+        ResultHandler<Token, ?> handler = mock(ResultHandler.class);
+
+        // When
+        batch.execute(asList(
+                (Task) new UpdateTask(new Token(tokenId, TokenType.SESSION), Options.defaultOptions(), handler),
+                read));
+
+        // Then
+        InOrder inOrder = inOrder(adapter, read);
+        inOrder.verify(adapter).updateAsync(any(Token.class), any(Token.class), any(Options.class));
+        inOrder.verify(read).execute(adapter);
+    }
+
+    @Test
+    public void shouldRouteErrorToEveryCoalescedHandler() throws Exception {
+        // Given
+        DataLayerException error = new DataLayerException("badger");
+        given(adapter.updateAsync(any(Token.class), any(Token.class), any(Options.class)))
+                .willReturn(Promises.<Token, DataLayerException>newExceptionPromise(error));
+        ResultHandler<Token, ?> firstHandler = mock(ResultHandler.class);
+        ResultHandler<Token, ?> secondHandler = mock(ResultHandler.class);
+
+        // When
+        batch.execute(asList(
+                (Task) new UpdateTask(new Token(tokenId, TokenType.SESSION), Options.defaultOptions(), firstHandler),
+                new UpdateTask(new Token(tokenId, TokenType.SESSION), Options.defaultOptions(), secondHandler)));
+
+        // Then
+        verify(firstHandler).processError(error);
+        verify(secondHandler).processError(error);
+    }
+
+    @Test
+    public void shouldPerformCoalescedWritesSynchronouslyWhenAdapterIsNotPipelined() throws Exception {
+        // Given
+        TokenStorageAdapter syncAdapter = mock(TokenStorageAdapter.class);
+        given(syncAdapter.read(eq(tokenId), any(Options.class))).willReturn(previous);
+        given(syncAdapter.update(any(Token.class), any(Token.class), any(Options.class))).willReturn(returned);
+        ResultHandler<Token, ?> handler = mock(ResultHandler.class);
+        Token latest = new Token(tokenId, TokenType.SESSION);
+
+        // When
+        new TaskBatch(syncAdapter, mock(Debug.class)).execute(asList(
+                (Task) new UpdateTask(new Token(tokenId, TokenType.SESSION), Options.defaultOptions(), handler),
+                new UpdateTask(latest, Options.defaultOptions(), handler)));
+
+        // Then
+        verify(syncAdapter, times(1)).update(previous, latest, Options.defaultOptions());
+        verify(handler, times(2)).processResults(returned);
+    }
+}
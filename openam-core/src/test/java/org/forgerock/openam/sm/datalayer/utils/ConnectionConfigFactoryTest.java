@@ -12,14 +12,17 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2015 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package org.forgerock.openam.sm.datalayer.utils;
 
 import static org.fest.assertions.Assertions.*;
 import static org.mockito.BDDMockito.*;
 
+import org.forgerock.openam.cts.CoreTokenConfig;
 import org.forgerock.openam.sm.ConnectionConfig;
 import org.forgerock.openam.sm.ConnectionConfigFactory;
+import org.forgerock.openam.sm.datalayer.api.ConnectionType;
 import org.forgerock.openam.sm.datalayer.api.StoreMode;
 import org.forgerock.openam.sm.datalayer.impl.ldap.LdapDataLayerConfiguration;
 import org.forgerock.openam.sm.exceptions.InvalidConfigurationException;
@@ -33,6 +36,7 @@ public class ConnectionConfigFactoryTest {
     private ConnectionConfig mockExternalCTSConfig;
     private ConfigurationValidator mockConfigurationValidator;
     private LdapDataLayerConfiguration mockDataLayerConfiguration;
+    private CoreTokenConfig mockCoreTokenConfig;
 
     @BeforeMethod
     public void setup() {
@@ -40,13 +44,15 @@ public class ConnectionConfigFactoryTest {
         mockExternalCTSConfig = mock(ConnectionConfig.class);
         mockConfigurationValidator = mock(ConfigurationValidator.class);
         mockDataLayerConfiguration = mock(LdapDataLayerConfiguration.class);
+        mockCoreTokenConfig = mock(CoreTokenConfig.class);
     }
 
     @Test
     public void shouldReturnConfigForDefaultStoreMode() throws InvalidConfigurationException {
         // given
         ConnectionConfigFactory factory = new ConnectionConfigFactory(
-                mockDataLayerConfig, mockExternalCTSConfig, mockDataLayerConfiguration, mockConfigurationValidator);
+                mockDataLayerConfig, mockExternalCTSConfig, mockDataLayerConfiguration, mockConfigurationValidator,
+                mockCoreTokenConfig);
         when(mockDataLayerConfiguration.getStoreMode()).thenReturn(StoreMode.DEFAULT);
 
         // when
@@ -70,7 +76,8 @@ public class ConnectionConfigFactoryTest {
     public void shouldReturnConfigForExternalStoreMode() throws InvalidConfigurationException {
         // given
         ConnectionConfigFactory factory = new ConnectionConfigFactory(
-                mockDataLayerConfig, mockExternalCTSConfig, mockDataLayerConfiguration, mockConfigurationValidator);
+                mockDataLayerConfig, mockExternalCTSConfig, mockDataLayerConfiguration, mockConfigurationValidator,
+                mockCoreTokenConfig);
         when(mockDataLayerConfiguration.getStoreMode()).thenReturn(StoreMode.EXTERNAL);
 
         // when
@@ -79,4 +86,22 @@ public class ConnectionConfigFactoryTest {
         // then
         assertThat(config).isSameAs(mockExternalCTSConfig);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldSizeCtsWorkerConfigToReaperConcurrency() throws InvalidConfigurationException {
+        // given
+        ConnectionConfigFactory factory = new ConnectionConfigFactory(
+                mockDataLayerConfig, mockExternalCTSConfig, mockDataLayerConfiguration, mockConfigurationValidator,
+                mockCoreTokenConfig);
+        when(mockDataLayerConfiguration.getStoreMode()).thenReturn(StoreMode.EXTERNAL);
+        when(mockExternalCTSConfig.getMaxConnections()).thenReturn(10);
+        when(mockCoreTokenConfig.getReaperConcurrency()).thenReturn(3);
+
+        // when
+        ConnectionConfig config = factory.getConfig(ConnectionType.CTS_EXPIRY_DATE_WORKER);
+
+        // then
+        assertThat(config.getMaxConnections()).isEqualTo(3);
+        assertThat(config.isAffinityEnabled()).isFalse();
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package org.forgerock.openam.authentication;
 
@@ -66,16 +67,10 @@ public class Saml2SessionUpgradeHandler implements SessionUpgradeHandler {
 
             IDPSession idpSession = IDPCache.idpSessionsByIndices.get(sessionIndex);
             if (idpSession == null) {
-                if (SAML2FailoverUtils.isSAML2FailoverEnabled()) {
-                    try {
-                        final IDPSessionCopy idpSessionCopy =
-                                (IDPSessionCopy) SAML2FailoverUtils.retrieveSAML2Token(sessionIndex);
-                        if (idpSessionCopy != null) {
-                            idpSession = new IDPSession(idpSessionCopy);
-                        }
-                    } catch (SAML2TokenRepositoryException stre) {
-                        debug.warning("Unable to retrieve IDPSessionCopy from SAML failover store", stre);
-                    }
+                try {
+                    idpSession = IDPCache.readFailoverIDPSession(sessionIndex);
+                } catch (SAML2TokenRepositoryException stre) {
+                    debug.warning("Unable to retrieve IDPSessionCopy from SAML failover store", stre);
                 }
             }
 
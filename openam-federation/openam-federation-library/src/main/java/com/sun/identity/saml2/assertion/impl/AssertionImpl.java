@@ -25,6 +25,7 @@
  * $Id: AssertionImpl.java,v 1.8 2009/05/09 15:43:59 mallas Exp $
  *
  * Portions Copyrighted 2015-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
 
@@ -86,6 +87,7 @@ public class AssertionImpl implements Assertion {
     private Issuer issuer;
     private boolean isMutable = true;
     private String signedXMLString = null;
+    private Document signedDocument = null;
     private Boolean isSignatureValid = null;
 
     public static String ASSERTION_ELEMENT = "Assertion";
@@ -133,6 +135,7 @@ public class AssertionImpl implements Assertion {
         }
         if (signature != null) {
             signedXMLString = xml;
+            signedDocument = document;
         }   
     }
 
@@ -663,14 +666,28 @@ public class AssertionImpl implements Assertion {
     throws SAML2Exception {
 
         if (isSignatureValid == null) {            
-            if (signedXMLString == null) {
-                signedXMLString = toXMLString(true, true);
+            Document document = takeSignedDocument();
+            if (document != null) {
+                isSignatureValid = SigManager.getSigInstance().verify(document, getID(), verificationCerts);
+            } else {
+                if (signedXMLString == null) {
+                    signedXMLString = toXMLString(true, true);
+                }
+                isSignatureValid = SigManager.getSigInstance().verify(signedXMLString, getID(), verificationCerts);
             }
-            isSignatureValid = SigManager.getSigInstance().verify(signedXMLString, getID(), verificationCerts);
         }
         return isSignatureValid.booleanValue();
     }
 
+    /**
+     * Hands the parsed document to a single verification, as the DOM must not be used by two threads at once.
+     */
+    private synchronized Document takeSignedDocument() {
+        Document document = signedDocument;
+        signedDocument = null;
+        return document;
+    }
+
     /**
      * Sign the Assertion.
      *
@@ -698,6 +715,7 @@ public class AssertionImpl implements Assertion {
         signedXMLString = XMLUtils.print(
             signatureElement.getOwnerDocument().
             getDocumentElement(), "UTF-8");
+        signedDocument = null;
         makeImmutable();  
     }
 
@@ -25,6 +25,7 @@
  * $Id: KeyUtil.java,v 1.10 2009/08/28 23:42:14 exu Exp $
  *
  * Portions Copyrighted 2013-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package com.sun.identity.saml2.key;
 
@@ -596,4 +597,28 @@ public class KeyUtil {
         sigHash.clear();
         encHash.clear();
     }
+
+    /**
+     * Removes the cached certificates and encryption information of one entity in all of its roles. This method is
+     * called when the metadata of a single entity is updated.
+     *
+     * @param entityID The entity's ID.
+     */
+    public static void clear(String entityID) {
+        String prefix = entityID.trim() + "|";
+        synchronized (sigHash) {
+            for (Iterator<String> iter = sigHash.keySet().iterator(); iter.hasNext();) {
+                if (iter.next().startsWith(prefix)) {
+                    iter.remove();
+                }
+            }
+        }
+        synchronized (encHash) {
+            for (Iterator iter = encHash.keySet().iterator(); iter.hasNext();) {
+                if (((String) iter.next()).startsWith(prefix)) {
+                    iter.remove();
+                }
+            }
+        }
+    }
 } 
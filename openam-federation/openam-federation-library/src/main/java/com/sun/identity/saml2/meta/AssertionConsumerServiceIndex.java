@@ -0,0 +1,119 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package com.sun.identity.saml2.meta;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.sun.identity.saml2.jaxb.metadata.AssertionConsumerServiceElement;
+import com.sun.identity.saml2.jaxb.metadata.SPSSODescriptorElement;
+
+/**
+ * An immutable view of the assertion consumer services of a service provider, indexed by binding and by index so
+ * that the endpoint for an incoming request can be found without walking the metadata.
+ */
+public final class AssertionConsumerServiceIndex {
+
+    private final Map<String, AssertionConsumerServiceElement> byBinding;
+    private final Map<Integer, AssertionConsumerServiceElement> byIndex;
+    private final AssertionConsumerServiceElement defaultService;
+    private final AssertionConsumerServiceElement firstService;
+
+    private AssertionConsumerServiceIndex(Map<String, AssertionConsumerServiceElement> byBinding,
+            Map<Integer, AssertionConsumerServiceElement> byIndex, AssertionConsumerServiceElement defaultService,
+            AssertionConsumerServiceElement firstService) {
+        this.byBinding = byBinding;
+        this.byIndex = byIndex;
+        this.defaultService = defaultService;
+        this.firstService = firstService;
+    }
+
+    /**
+     * Builds the index for the assertion consumer services of a service provider.
+     *
+     * @param descriptor The service provider's SSO descriptor, may be null.
+     * @return The index, or {@code null} if the descriptor is null.
+     */
+    static AssertionConsumerServiceIndex of(SPSSODescriptorElement descriptor) {
+        if (descriptor == null) {
+            return null;
+        }
+        Map<String, AssertionConsumerServiceElement> byBinding = new HashMap<>();
+        Map<Integer, AssertionConsumerServiceElement> byIndex = new HashMap<>();
+        AssertionConsumerServiceElement defaultService = null;
+        AssertionConsumerServiceElement firstService = null;
+        List services = descriptor.getAssertionConsumerService();
+        if (services != null) {
+            for (Object service : services) {
+                AssertionConsumerServiceElement acs = (AssertionConsumerServiceElement) service;
+                if (firstService == null) {
+                    firstService = acs;
+                }
+                if (acs.isIsDefault()) {
+                    defaultService = acs;
+                }
+                if (acs.getBinding() != null && !byBinding.containsKey(acs.getBinding())) {
+                    byBinding.put(acs.getBinding(), acs);
+                }
+                if (!byIndex.containsKey(acs.getIndex())) {
+                    byIndex.put(acs.getIndex(), acs);
+                }
+            }
+        }
+        return new AssertionConsumerServiceIndex(Collections.unmodifiableMap(byBinding),
+                Collections.unmodifiableMap(byIndex), defaultService, firstService);
+    }
+
+    /**
+     * Returns the first assertion consumer service with the given binding.
+     *
+     * @param binding The binding.
+     * @return The assertion consumer service, or {@code null} if none uses the binding.
+     */
+    public AssertionConsumerServiceElement getByBinding(String binding) {
+        return binding == null ? null : byBinding.get(binding);
+    }
+
+    /**
+     * Returns the first assertion consumer service with the given index.
+     *
+     * @param index The index.
+     * @return The assertion consumer service, or {@code null} if none has the index.
+     */
+    public AssertionConsumerServiceElement getByIndex(int index) {
+        return byIndex.get(index);
+    }
+
+    /**
+     * Returns the assertion consumer service flagged as the default, the last one if several are flagged.
+     *
+     * @return The default assertion consumer service, or {@code null} if none is flagged.
+     */
+    public AssertionConsumerServiceElement getDefault() {
+        return defaultService;
+    }
+
+    /**
+     * Returns the first assertion consumer service in the metadata.
+     *
+     * @return The first assertion consumer service, or {@code null} if there are none.
+     */
+    public AssertionConsumerServiceElement getFirst() {
+        return firstService;
+    }
+}
@@ -24,6 +24,7 @@
  *
  * $Id: SAML2MetaCache.java,v 1.4 2008/07/08 01:08:43 exu Exp $
  *
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
  /*
@@ -32,25 +33,34 @@
 
 package com.sun.identity.saml2.meta;
 
-import java.util.Hashtable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
 
 import com.sun.identity.shared.debug.Debug;
 
 import com.sun.identity.saml2.jaxb.entityconfig.EntityConfigElement;
 import com.sun.identity.saml2.jaxb.metadata.EntityDescriptorElement;
-import com.sun.identity.saml2.jaxb.metadataattr.EntityAttributesType;
-import com.sun.identity.saml2.jaxb.metadataattr.EntityAttributesElement;
-import com.sun.identity.saml2.jaxb.metadataattr.ObjectFactory;
 
 /**
  * The <code>SAML2MetaCache</code> provides metadata cache.
+ * <p>
+ * Readers see an immutable snapshot of the cached entities and never lock.
+ * Writers copy the snapshot, apply their change and publish the new
+ * snapshot, so a reader always sees either the old or the new state of an
+ * entity together with the lookups precomputed from it. Metadata changes
+ * are rare compared to lookups, which is what makes copying worthwhile.
  */
 class SAML2MetaCache
 {
     private static Debug debug = SAML2MetaUtils.debug;
 
-    private static Hashtable descriptorCache = new Hashtable();
-    private static Hashtable configCache = new Hashtable();
+    private static final Object writeLock = new Object();
+    private static volatile Map<String, Entry> snapshot =
+        Collections.emptyMap();
 
     private SAML2MetaCache() {
     }
@@ -67,8 +77,9 @@ class SAML2MetaCache
             String realm, String entityId) 
     {
         String cacheKey = buildCacheKey(realm, entityId);
+        Entry entry = snapshot.get(cacheKey);
         EntityDescriptorElement descriptor =
-	    (EntityDescriptorElement)descriptorCache.get(cacheKey);
+            (entry == null) ? null : entry.descriptor;
         if (debug.messageEnabled()) {
             debug.message("SAML2MetaCache.getEntityDescriptor: cacheKey = " +
                           cacheKey + ", found = " + (descriptor != null));
@@ -76,6 +87,27 @@ class SAML2MetaCache
         return descriptor;
     }
 
+    /**
+     * Returns the assertion consumer service index precomputed from the
+     * cached standard metadata of the entity.
+     * @param realm The realm under which the entity resides.
+     * @param entityId ID of the entity.
+     * @param descriptor The descriptor the index must have been built from.
+     * @return <code>AssertionConsumerServiceIndex</code> for the entity or
+     *         null if the entity is not cached, the cached descriptor is not
+     *         <code>descriptor</code>, or the entity is not a service
+     *         provider.
+     */
+    static AssertionConsumerServiceIndex getAssertionConsumerServiceIndex(
+            String realm, String entityId, EntityDescriptorElement descriptor)
+    {
+        Entry entry = snapshot.get(buildCacheKey(realm, entityId));
+        if ((entry == null) || (entry.descriptor != descriptor)) {
+            return null;
+        }
+        return entry.acsIndex;
+    }
+
     /**
      * Adds the standard metadata entity descriptor under the realm to cache.
      * @param realm The realm under which the entity resides.
@@ -91,15 +123,26 @@ class SAML2MetaCache
                 debug.message("SAML2MetaCache.putEntityDescriptor: cacheKey = " +
                     cacheKey);
             }
-            descriptorCache.put(cacheKey, descriptor);
+            Entry newEntry = new Entry(entityId, descriptor,
+                AssertionConsumerServiceIndex.of(
+                    SAML2MetaUtils.getSPSSODescriptor(descriptor)), null);
+            synchronized (writeLock) {
+                Entry entry = snapshot.get(cacheKey);
+                if (entry != null) {
+                    newEntry = new Entry(entityId, descriptor,
+                        newEntry.acsIndex, entry.config);
+                }
+                publish(cacheKey, newEntry);
+            }
         } else {
             if (debug.messageEnabled()) {
                 debug.message(
                     "SAML2MetaCache.putEntityDescriptor: delete cacheEey = " +
                     cacheKey);
             }
-            descriptorCache.remove(cacheKey);
-            configCache.remove(cacheKey);
+            synchronized (writeLock) {
+                publish(cacheKey, null);
+            }
         }
     }
 
@@ -114,11 +157,11 @@ class SAML2MetaCache
             String realm, String entityId)
     {
         String cacheKey = buildCacheKey(realm, entityId);
-        EntityConfigElement config =
-	    (EntityConfigElement)configCache.get(cacheKey);
+        Entry entry = snapshot.get(cacheKey);
+        EntityConfigElement config = (entry == null) ? null : entry.config;
         if (debug.messageEnabled()) {
             debug.message("SAML2MetaCache.getEntityConfig: cacheKey = " +
-			  cacheKey + ", found = " + (config != null));
+                          cacheKey + ", found = " + (config != null));
         }
         return config;
     }
@@ -132,20 +175,78 @@ class SAML2MetaCache
     static void putEntityConfig(String realm, String entityId,
         EntityConfigElement config) {
         String cacheKey = buildCacheKey(realm, entityId);
-        if (config != null) {
-            if (debug.messageEnabled()) {
-                debug.message("SAML2MetaCache.putEntityConfig: cacheKey = " +
-                    cacheKey);
+        if (debug.messageEnabled()) {
+            debug.message("SAML2MetaCache.putEntityConfig: " +
+                ((config != null) ? "cacheKey = " : "delete cacheKey = ") +
+                cacheKey);
+        }
+        synchronized (writeLock) {
+            Map<String, Entry> copy = new HashMap<>(snapshot);
+            putEntityConfig(copy, cacheKey, entityId, config);
+            snapshot = Collections.unmodifiableMap(copy);
+        }
+    }
+
+    /**
+     * Adds the extended entity configurations of several entities under the
+     * realm to cache, publishing a single new snapshot for all of them.
+     * @param realm The realm under which the entities reside.
+     * @param configs The <code>EntityConfigElement</code> objects keyed by
+     *        entity ID. A null configuration removes the entity's
+     *        configuration from the cache.
+     */
+    static void putEntityConfigs(String realm,
+        Map<String, EntityConfigElement> configs) {
+        if (configs.isEmpty()) {
+            return;
+        }
+        if (debug.messageEnabled()) {
+            debug.message("SAML2MetaCache.putEntityConfigs: realm = " +
+                realm + ", entities = " + configs.keySet());
+        }
+        synchronized (writeLock) {
+            Map<String, Entry> copy = new HashMap<>(snapshot);
+            for (Map.Entry<String, EntityConfigElement> config :
+                configs.entrySet()) {
+                String entityId = config.getKey();
+                putEntityConfig(copy, buildCacheKey(realm, entityId),
+                    entityId, config.getValue());
             }
-            configCache.put(cacheKey, config);
-        } else {
-            if (debug.messageEnabled()) {
-                debug.message(
-                    "SAML2MetaCache.putEntityConfig: delete cacheKey = " +
-                    cacheKey);
+            snapshot = Collections.unmodifiableMap(copy);
+        }
+    }
+
+    /**
+     * Removes an entity from the cache in every realm.
+     * @param entityId ID of the entity to be removed. A leading
+     *        <code>/</code> is ignored, as the name is taken from a
+     *        configuration change notification.
+     * @return The IDs of the entities which were removed, empty if the
+     *         entity was not cached.
+     */
+    static Set<String> invalidate(String entityId) {
+        String name = entityId.startsWith("/") ?
+            entityId.substring(1) : entityId;
+        Set<String> removed = new HashSet<>();
+        synchronized (writeLock) {
+            Map<String, Entry> copy = new HashMap<>(snapshot);
+            for (Iterator<Entry> iter = copy.values().iterator();
+                iter.hasNext(); ) {
+                Entry entry = iter.next();
+                if (entry.entityId.equals(name)) {
+                    removed.add(entry.entityId);
+                    iter.remove();
+                }
             }
-            configCache.remove(cacheKey);
+            if (!removed.isEmpty()) {
+                snapshot = Collections.unmodifiableMap(copy);
+            }
+        }
+        if (debug.messageEnabled()) {
+            debug.message("SAML2MetaCache.invalidate: name = " + entityId +
+                ", removed = " + removed);
         }
+        return removed;
     }
 
     /**
@@ -155,8 +256,46 @@ class SAML2MetaCache
         if (debug.messageEnabled()) {
             debug.message("SAML2MetaCache.clear() called");
         }
-	descriptorCache.clear();
-	configCache.clear();
+        synchronized (writeLock) {
+            snapshot = Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Sets the extended entity configuration of an entry in a copy of the
+     * snapshot, keeping the entry's standard metadata.
+     * @param copy The copy of the snapshot being built.
+     * @param cacheKey The cache key of the entry.
+     * @param entityId ID of the entity.
+     * @param config The configuration, or null to remove it.
+     */
+    private static void putEntityConfig(Map<String, Entry> copy,
+        String cacheKey, String entityId, EntityConfigElement config) {
+        Entry entry = copy.get(cacheKey);
+        if ((entry != null) && (entry.descriptor != null)) {
+            copy.put(cacheKey, new Entry(entityId, entry.descriptor,
+                entry.acsIndex, config));
+        } else if (config != null) {
+            copy.put(cacheKey, new Entry(entityId, null, null, config));
+        } else {
+            copy.remove(cacheKey);
+        }
+    }
+
+    /**
+     * Publishes a copy of the current snapshot with one entry replaced.
+     * Must be called holding <code>writeLock</code>.
+     * @param cacheKey The cache key of the entry.
+     * @param entry The new entry, or null to remove the entry.
+     */
+    private static void publish(String cacheKey, Entry entry) {
+        Map<String, Entry> copy = new HashMap<>(snapshot);
+        if (entry != null) {
+            copy.put(cacheKey, entry);
+        } else {
+            copy.remove(cacheKey);
+        }
+        snapshot = Collections.unmodifiableMap(copy);
     }
 
     /**
@@ -169,4 +308,23 @@ class SAML2MetaCache
     private static String buildCacheKey(String realm, String entityId) {
         return realm + "//" + entityId;
     }
+
+    /**
+     * The cached metadata of one entity and the lookups derived from it.
+     */
+    private static final class Entry {
+        private final String entityId;
+        private final EntityDescriptorElement descriptor;
+        private final AssertionConsumerServiceIndex acsIndex;
+        private final EntityConfigElement config;
+
+        private Entry(String entityId, EntityDescriptorElement descriptor,
+            AssertionConsumerServiceIndex acsIndex,
+            EntityConfigElement config) {
+            this.entityId = entityId;
+            this.descriptor = descriptor;
+            this.acsIndex = acsIndex;
+            this.config = config;
+        }
+    }
 }
@@ -25,14 +25,17 @@
  * $Id: SAML2MetaManager.java,v 1.18 2009/10/28 23:58:58 exu Exp $
  *
  * Portions Copyrighted 2010-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
 package com.sun.identity.saml2.meta;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -249,7 +252,36 @@ public class SAML2MetaManager {
         return SAML2MetaUtils.getSPSSODescriptor(eDescriptor);
     }
 
- 
+    /**
+     * Returns the assertion consumer services of the first service provider's
+     * SSO descriptor in an entity under the realm, indexed by binding and
+     * index. The index is precomputed when the metadata is cached.
+     * @param realm The realm under which the entity resides.
+     * @param entityId ID of the entity to be retrieved.
+     * @return <code>AssertionConsumerServiceIndex</code> for the entity or
+     *         null if the entity is not found or is not a service provider.
+     * @throws SAML2MetaException if unable to retrieve the entity descriptor.
+     */
+    public AssertionConsumerServiceIndex getAssertionConsumerServiceIndex(
+        String realm, String entityId) throws SAML2MetaException {
+        EntityDescriptorElement eDescriptor = getEntityDescriptor(
+            realm, entityId);
+        if (eDescriptor == null) {
+            return null;
+        }
+        if (callerSession == null) {
+            AssertionConsumerServiceIndex acsIndex =
+                SAML2MetaCache.getAssertionConsumerServiceIndex(
+                    (realm == null) ? "/" : realm, entityId, eDescriptor);
+            if (acsIndex != null) {
+                return acsIndex;
+            }
+        }
+        return AssertionConsumerServiceIndex.of(
+            SAML2MetaUtils.getSPSSODescriptor(eDescriptor));
+    }
+
+
     /**
      * Returns attribute authority descriptor in an entity under the
      * realm.
@@ -723,6 +755,54 @@ public class SAML2MetaManager {
      */
     public EntityConfigElement getEntityConfig(String realm, String entityId)
         throws SAML2MetaException {
+        return getEntityConfig(realm, entityId, null);
+    }
+
+    /**
+     * Returns the extended entity configurations of several entities under
+     * the realm. The configurations read from SMS are added to the cache
+     * together, rather than one at a time.
+     * @param realm The realm under which the entities reside.
+     * @param entityIds IDs of the entities to be retrieved.
+     * @return the <code>EntityConfigElement</code> objects keyed by entity ID,
+     *         in the order of <code>entityIds</code>. The value is null if an
+     *         entity has no configuration.
+     * @throws SAML2MetaException if unable to retrieve an entity
+     *                            configuration.
+     */
+    private Map<String, EntityConfigElement> getEntityConfigs(String realm,
+        Set<String> entityIds) throws SAML2MetaException {
+        if (realm == null) {
+            realm = "/";
+        }
+        Map<String, EntityConfigElement> configs =
+            new LinkedHashMap<String, EntityConfigElement>();
+        Map<String, EntityConfigElement> loaded =
+            new HashMap<String, EntityConfigElement>();
+        try {
+            for (String entityId : entityIds) {
+                configs.put(entityId,
+                    getEntityConfig(realm, entityId, loaded));
+            }
+        } finally {
+            SAML2MetaCache.putEntityConfigs(realm, loaded);
+        }
+        return configs;
+    }
+
+    /**
+     * Returns extended entity configuration under the realm.
+     * @param realm The realm under which the entity resides.
+     * @param entityId ID of the entity to be retrieved.
+     * @param loaded Collects the configurations read from SMS so they can be
+     *        cached together, or null to cache each one as it is read.
+     * @return <code>EntityConfigElement</code> object for the entity or null
+     *         if not found.
+     * @throws SAML2MetaException if unable to retrieve the entity
+     *                            configuration.
+     */
+    private EntityConfigElement getEntityConfig(String realm, String entityId,
+        Map<String, EntityConfigElement> loaded) throws SAML2MetaException {
         if (entityId == null) {
             return null;
         }
@@ -767,8 +847,11 @@ public class SAML2MetaManager {
                     debug.message("SAML2MetaManager.getEntityConfig: got "
                         + "entity config from SMS: " + entityId);
                 } 
-                SAML2MetaCache.putEntityConfig(
-                    realm, entityId, config);
+                if (loaded != null) {
+                    loaded.put(entityId, config);
+                } else {
+                    SAML2MetaCache.putEntityConfig(realm, entityId, config);
+                }
                 LogUtil.access(Level.FINE,
                                LogUtil.GOT_ENTITY_CONFIG,
                                objs,
@@ -1229,14 +1312,15 @@ public class SAML2MetaManager {
 
         List hostedEntityIds = new ArrayList();
         try {
-            Set entityIds = configInst.getAllConfigurationNames(realm);
+            Set<String> entityIds = configInst.getAllConfigurationNames(realm);
             if (entityIds != null && !entityIds.isEmpty()) {
-                for(Iterator iter = entityIds.iterator(); iter.hasNext();) {
-                    String entityId = (String)iter.next();
-                    EntityConfigElement config =
-                                    getEntityConfig(realm, entityId);
+                Map<String, EntityConfigElement> configs =
+                    getEntityConfigs(realm, entityIds);
+                for (Map.Entry<String, EntityConfigElement> entry :
+                    configs.entrySet()) {
+                    EntityConfigElement config = entry.getValue();
                     if (config != null && config.isHosted()) {
-                        hostedEntityIds.add(entityId);
+                        hostedEntityIds.add(entry.getKey());
                     }
                 }
             }
@@ -1400,14 +1484,15 @@ public class SAML2MetaManager {
         List remoteEntityIds = new ArrayList();
         String[] objs = { realm };
         try {
-            Set entityIds = configInst.getAllConfigurationNames(realm);
+            Set<String> entityIds = configInst.getAllConfigurationNames(realm);
             if (entityIds != null && !entityIds.isEmpty()) {
-                for(Iterator iter = entityIds.iterator(); iter.hasNext();) {
-                    String entityId = (String)iter.next();
-                    EntityConfigElement config =
-                                    getEntityConfig(realm, entityId);
+                Map<String, EntityConfigElement> configs =
+                    getEntityConfigs(realm, entityIds);
+                for (Map.Entry<String, EntityConfigElement> entry :
+                    configs.entrySet()) {
+                    EntityConfigElement config = entry.getValue();
                     if (config == null || !config.isHosted()) {
-                        remoteEntityIds.add(entityId);
+                        remoteEntityIds.add(entry.getKey());
                     }
                 }
             }
@@ -1526,8 +1611,7 @@ public class SAML2MetaManager {
             if (entityIds == null || entityIds.isEmpty()) {
                 return metaAliases;
             }
-            for (String entityId : entityIds) {
-                EntityConfigElement config = getEntityConfig(realm, entityId);
+            for (EntityConfigElement config : getEntityConfigs(realm, entityIds).values()) {
                 if (config == null || !config.isHosted()) {
                     continue;
                 }
@@ -24,11 +24,14 @@
  *
  * $Id: SAML2MetaServiceListener.java,v 1.5 2009/08/28 23:42:14 exu Exp $
  *
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
 
 package com.sun.identity.saml2.meta;
 
+import java.util.Set;
+
 import com.sun.identity.shared.debug.Debug;
 import com.sun.identity.saml2.key.KeyUtil;
 import com.sun.identity.saml2.profile.IDPCache;
@@ -60,10 +63,34 @@ class SAML2MetaServiceListener implements ConfigurationListener
                 e.getConfigurationName() + ", component=" + 
                 e.getComponentName());
         }
-        SAML2MetaCache.clear();
+        invalidate(e);
         String realm = e.getRealm();
         SPCache.clear(realm);
         IDPCache.clear(realm);
+    }
+
+    /**
+     * Drops the cached metadata affected by the event. A change to a single
+     * entity only drops that entity, so that updating many entities, for
+     * example when a circle of trust changes, does not force every other
+     * entity to be parsed again.
+     *
+     * @param e the configuaration action event
+     */
+    private void invalidate(ConfigurationActionEvent e) {
+        String entityId = e.getConfigurationName();
+        if ((entityId != null) && (entityId.length() > 0)) {
+            Set<String> removed = SAML2MetaCache.invalidate(entityId);
+            for (String id : removed) {
+                KeyUtil.clear(id);
+            }
+            if (!removed.isEmpty() ||
+                (e.getType() == ConfigurationActionEvent.ADDED)) {
+                // a newly added entity cannot be cached yet
+                return;
+            }
+        }
+        SAML2MetaCache.clear();
         KeyUtil.clear();
     }
 }
@@ -39,13 +39,22 @@ import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import javax.xml.XMLConstants;
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
 import javax.xml.bind.Unmarshaller;
+import javax.xml.parsers.ParserConfigurationException;
 
+import org.w3c.dom.Attr;
 import org.w3c.dom.Document;
+import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 
 import com.sun.identity.shared.configuration.SystemPropertiesManager;
@@ -637,7 +646,9 @@ public final class SAML2MetaUtils {
     /**
      * For the given XML metadata document representing either a SAML2 EntityDescriptorElement or EntitiesDescriptorElement,
      * return a list of entityId's for all the Entities created. Carries out a signature validation of the document as
-     * part of the import process.
+     * part of the import process. The EntityDescriptor elements of an EntitiesDescriptor, such as the aggregate
+     * metadata of a federation, are parsed in parallel, then the entities are created one after another in document
+     * order; no entity is created if any of them cannot be parsed.
      * @param metaManager An instance of the SAML2MetaManager, used to do the actual create.
      * @param realm The realm to create the Entities in
      * @param doc The XML document that represents either an EntityDescriptorElement or EntitiesDescriptorElement
@@ -650,17 +661,21 @@ public final class SAML2MetaUtils {
 
         List<String> result = new ArrayList<String>(1);
 
-        Object element = preProcessSAML2Document(doc);
+        Element docElem = doc.getDocumentElement();
+        if (SAML2MetaConstants.ENTITIES_DESCRIPTOR.equals(docElem.getLocalName()) &&
+            SAML2MetaConstants.NS_METADATA.equals(docElem.getNamespaceURI())) {
+            result = importSAML2Entites(metaManager, realm,
+                    preProcessSAML2Entities(doc));
+        } else {
+            Object element = preProcessSAML2Document(doc);
 
-        if (element instanceof EntityDescriptorElement) {
-            String entityId = importSAML2Entity(metaManager, realm,
-                    (EntityDescriptorElement)element);
-            if (entityId != null) {
-                result.add(entityId);
+            if (element instanceof EntityDescriptorElement) {
+                String entityId = importSAML2Entity(metaManager, realm,
+                        (EntityDescriptorElement)element);
+                if (entityId != null) {
+                    result.add(entityId);
+                }
             }
-        } else if (element instanceof EntitiesDescriptorElement) {
-            result = importSAML2Entites(metaManager, realm,
-                    (EntitiesDescriptorElement)element);
         }
 
         if (debug.messageEnabled()) {
@@ -684,26 +699,124 @@ public final class SAML2MetaUtils {
         return obj;
     }
 
-    private static List<String> importSAML2Entites(SAML2MetaManager metaManager, String realm,
-            EntitiesDescriptorElement descriptor) throws SAML2MetaException {
+    /**
+     * Verifies the signatures of an EntitiesDescriptor document, then converts each of its EntityDescriptor elements
+     * into JAXB. The signatures are verified on the whole document, as the signature of an aggregate covers all its
+     * entities. Each EntityDescriptor element is then copied into a document of its own, as a DOM may not be read by
+     * several threads at once, and the copies are converted in parallel.
+     */
+    private static List<EntityDescriptorElement> preProcessSAML2Entities(Document doc)
+            throws SAML2MetaException, JAXBException {
 
-        List<String> result = new ArrayList<String>();
+        SAML2MetaSecurityUtils.verifySignature(doc);
+        workaroundAbstractRoleDescriptor(doc);
+
+        List<Document> entityDocs = new ArrayList<Document>();
+        for (Node child = doc.getDocumentElement().getFirstChild(); child != null;
+             child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE &&
+                SAML2MetaConstants.ENTITY_DESCRIPTOR.equals(child.getLocalName()) &&
+                SAML2MetaConstants.NS_METADATA.equals(child.getNamespaceURI())) {
+                entityDocs.add(toEntityDocument((Element) child));
+            }
+        }
+
+        int threads = Math.min(entityDocs.size(), Runtime.getRuntime().availableProcessors());
+        if (threads <= 1) {
+            List<EntityDescriptorElement> entities = new ArrayList<EntityDescriptorElement>(entityDocs.size());
+            for (Document entityDoc : entityDocs) {
+                entities.add(convertEntityDocument(entityDoc));
+            }
+            return entities;
+        }
 
-        List descriptors = descriptor.getEntityDescriptorOrEntitiesDescriptor();
-        if (descriptors != null && !descriptors.isEmpty()) {
-            Iterator entities = descriptors.iterator();
-            while (entities.hasNext()) {
-                Object o = entities.next();
-                if (o instanceof EntityDescriptorElement) {
-                    String entityId = importSAML2Entity(metaManager, realm,
-                            (EntityDescriptorElement) o);
-                    if (entityId != null) {
-                        result.add(entityId);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<EntityDescriptorElement>> futures =
+                new ArrayList<Future<EntityDescriptorElement>>(entityDocs.size());
+            for (final Document entityDoc : entityDocs) {
+                futures.add(executor.submit(new Callable<EntityDescriptorElement>() {
+                    @Override
+                    public EntityDescriptorElement call() throws SAML2MetaException, JAXBException {
+                        return convertEntityDocument(entityDoc);
                     }
+                }));
+            }
+            List<EntityDescriptorElement> entities = new ArrayList<EntityDescriptorElement>(entityDocs.size());
+            for (Future<EntityDescriptorElement> future : futures) {
+                entities.add(future.get());
+            }
+            return entities;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SAML2MetaException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SAML2MetaException) {
+                throw (SAML2MetaException) cause;
+            } else if (cause instanceof JAXBException) {
+                throw (JAXBException) cause;
+            }
+            debug.error("SAML2MetaUtils.preProcessSAML2Entities:", cause);
+            throw new SAML2MetaException(cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Copies an EntityDescriptor element into a new document, declaring on it the namespaces its ancestors declare,
+     * as they may be used by attribute values such as xsi:type.
+     */
+    private static Document toEntityDocument(Element entity) throws SAML2MetaException {
+
+        Document entityDoc;
+        try {
+            entityDoc = XMLUtils.newDocument();
+        } catch (ParserConfigurationException e) {
+            throw new SAML2MetaException(e);
+        }
+        Element copy = (Element) entityDoc.importNode(entity, true);
+        entityDoc.appendChild(copy);
+
+        for (Node parent = entity.getParentNode(); parent != null && parent.getNodeType() == Node.ELEMENT_NODE;
+             parent = parent.getParentNode()) {
+            NamedNodeMap attributes = parent.getAttributes();
+            for (int i = 0; i < attributes.getLength(); i++) {
+                Attr attribute = (Attr) attributes.item(i);
+                if (XMLConstants.XMLNS_ATTRIBUTE_NS_URI.equals(attribute.getNamespaceURI()) &&
+                    !copy.hasAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, attribute.getLocalName())) {
+                    copy.setAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, attribute.getName(), attribute.getValue());
                 }
             }
         }
 
+        return entityDoc;
+    }
+
+    private static EntityDescriptorElement convertEntityDocument(Document entityDoc)
+            throws SAML2MetaException, JAXBException {
+
+        // Remove any Extensions elements as these are currently not supported.
+        Object obj = workaroundJAXBBug(convertNodeToJAXB(entityDoc));
+        if (!(obj instanceof EntityDescriptorElement)) {
+            throw new SAML2MetaException("Invalid  descriptor");
+        }
+        return (EntityDescriptorElement) obj;
+    }
+
+    private static List<String> importSAML2Entites(SAML2MetaManager metaManager, String realm,
+            List<EntityDescriptorElement> descriptors) throws SAML2MetaException {
+
+        List<String> result = new ArrayList<String>();
+
+        for (EntityDescriptorElement descriptor : descriptors) {
+            String entityId = importSAML2Entity(metaManager, realm, descriptor);
+            if (entityId != null) {
+                result.add(entityId);
+            }
+        }
+
         return result;
     }
 
@@ -0,0 +1,40 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package com.sun.identity.saml2.profile;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Default {@link SAML2StateCacheProvider} which holds each table in a size bounded, segmented Guava cache with
+ * access based expiry, so that abandoned protocol state is reclaimed without a cleanup task.
+ */
+public class BoundedStateCacheProvider implements SAML2StateCacheProvider {
+
+    @Override
+    public <K, V> ConcurrentMap<K, V> createCache(String name, long maxSize, long ttlSeconds) {
+        CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder();
+        if (maxSize > 0) {
+            builder.maximumSize(maxSize);
+        }
+        if (ttlSeconds > 0) {
+            builder.expireAfterAccess(ttlSeconds, TimeUnit.SECONDS);
+        }
+        return builder.<K, V>build().asMap();
+    }
+}
@@ -25,6 +25,7 @@
  * $Id: DoManageNameID.java,v 1.26 2009/11/24 21:53:27 madan_ranganath Exp $
  *
  * Portions copyright 2013-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package com.sun.identity.saml2.profile;
 
@@ -36,6 +37,7 @@ import java.io.OutputStream;
 import java.security.Key;
 import java.security.PrivateKey;
 import java.security.cert.X509Certificate;
+import java.util.Collections;
 import java.util.Date;
 import java.util.Enumeration;
 import java.util.Iterator;
@@ -2043,7 +2045,7 @@ public class DoManageNameID {
                + ", nameID=" + nameID + " from IDP session cache");
         }
         if (IDPCache.idpSessionsByIndices != null) {
-            keys = IDPCache.idpSessionsByIndices.keys();
+            keys = Collections.enumeration(IDPCache.idpSessionsByIndices.keySet());
         } else {
             if (debug.messageEnabled()) {
                 debug.message(method+"IDPCache.idpSessionsByIndices is null.");
@@ -25,22 +25,27 @@
  * $Id: IDPCache.java,v 1.18 2009/05/14 17:23:45 exu Exp $
  *
  * Portions Copyrighted 2010-2015 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package com.sun.identity.saml2.profile;
 
 import com.sun.identity.common.PeriodicCleanUpMap;
+import com.sun.identity.saml2.common.SAML2FailoverUtils;
 import java.util.Collections;
 import java.util.Hashtable;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+
+import org.forgerock.openam.federation.saml2.SAML2TokenRepositoryException;
 
 /**
  * This class caches authn request objects and relay states
  * based on the request id of the authn requests 
  * It also caches idp session by session index. 
- * TODO: Add cleanup thread to update IDP Cache if the cached
- * objects stay in the cache longer than a certain Cache Duration.
+ * The tables are created through {@link SAML2StateCaches}. Session tables
+ * are unbounded unless configured otherwise, and their entries are removed
+ * when the session ends. Transient tables are bounded with idle expiry.
  */
 
 public class IDPCache {
@@ -73,7 +78,7 @@ public class IDPCache {
      * Key : user ID String
      * Value : list of assertion objects
      */
-    public static Hashtable assertionCache = new Hashtable();
+    public static ConcurrentMap assertionCache = SAML2StateCaches.newTransientCache("assertionCache");
 
     /**
      * Cache saves the assertion objects.
@@ -99,7 +104,8 @@ public class IDPCache {
      * IDP: used in SingleSignOnService and SingleLogoutService
      *      to invalidate a specific session
      */
-    public static Hashtable<String, IDPSession> idpSessionsByIndices = new Hashtable<String, IDPSession>();
+    public static ConcurrentMap<String, IDPSession> idpSessionsByIndices =
+            SAML2StateCaches.newSessionCache("idpSessionsByIndices");
 
     /**
      * Cache saves Responses to be used by ArtifactResolutionService.
@@ -177,7 +183,7 @@ public class IDPCache {
      * key   : sessionIndex (String)
      * value : the AuthnContext object
      */
-    public static Hashtable authnContextCache = new Hashtable();
+    public static ConcurrentMap authnContextCache = SAML2StateCaches.newTransientCache("authnContextCache");
 
     /**
      * Cache saves information to determine if the request was
@@ -185,15 +191,17 @@ public class IDPCache {
      * key   : requestID (String)
      * value : session upgrade (Boolean)
      */
-    public static Set isSessionUpgradeCache =  
-        Collections.synchronizedSet(new HashSet());
+    public static Set isSessionUpgradeCache = Collections.newSetFromMap(
+            SAML2StateCaches.newCache("isSessionUpgradeCache", SAML2StateCaches.DEFAULT_TRANSIENT_CACHE_SIZE,
+                    SPCache.interval));
 
     /**
      * Cache saves the IDP Session object before an session upgrade.
      * key    : requestID (String)
      * value  : IDPSession object.
      */
-    public static Hashtable oldIDPSessionCache = new Hashtable();
+    public static ConcurrentMap oldIDPSessionCache = SAML2StateCaches.newCache("oldIDPSessionCache",
+            SAML2StateCaches.DEFAULT_TRANSIENT_CACHE_SIZE, SPCache.interval);
     
     /**
       * Cache saves the original AuthnRequest coming from SP to IDP proxy
@@ -209,14 +217,16 @@ public class IDPCache {
       * key   : sessionId (String) 
       * value : IDPSession
       */
-    public static Hashtable<String, IDPSession> idpSessionsBySessionID = new Hashtable<>();
+    public static ConcurrentMap<String, IDPSession> idpSessionsBySessionID =
+            SAML2StateCaches.newSessionCache("idpSessionsBySessionID");
     
     /** 
       * Cache saves user ID for transient NameID 
       * key   : NameID value (String) 
       * value : user ID 
       */
-    public static Hashtable userIDByTransientNameIDValue = new Hashtable(); 
+    public static ConcurrentMap userIDByTransientNameIDValue =
+            SAML2StateCaches.newSessionCache("userIDByTransientNameIDValue");
 
     /** 
       * Cache saves the original LogoutRequest coming from SP to IDP proxy
@@ -249,7 +259,8 @@ public class IDPCache {
       * key   : sessionId (String)
       * value : SAML2 SessionPartner's provider id 
       */
-    public static Hashtable<String, String> spSessionPartnerBySessionID = new Hashtable<>();
+    public static ConcurrentMap<String, String> spSessionPartnerBySessionID =
+            SAML2StateCaches.newSessionCache("spSessionPartnerBySessionID");
     
      /** 
       * Cache saves the original LogoutResponse generated by IDP proxy 
@@ -292,6 +303,23 @@ public class IDPCache {
      */
     public static final Map<String, Map<String, String>> formatAttributeHash = new Hashtable<>();
 
+    /**
+     * Reads an IDP session saved by any server in the cluster from the SAML2 token repository, so that a session
+     * index which is not held in {@link #idpSessionsByIndices} on this server can still be resolved. The session is
+     * not added to the local table.
+     *
+     * @param sessionIndex The session index.
+     * @return The IDP session, or {@code null} if SAML2 failover is disabled or the repository holds no copy.
+     * @throws SAML2TokenRepositoryException If the SAML2 token repository could not be read.
+     */
+    public static IDPSession readFailoverIDPSession(String sessionIndex) throws SAML2TokenRepositoryException {
+        if (!SAML2FailoverUtils.isSAML2FailoverEnabled()) {
+            return null;
+        }
+        IDPSessionCopy idpSessionCopy = (IDPSessionCopy) SAML2FailoverUtils.retrieveSAML2Token(sessionIndex);
+        return idpSessionCopy == null ? null : new IDPSession(idpSessionCopy);
+    }
+
     /**
      * Clears the authn context mapping hash tables.
      * @param realmName Organization or Realm
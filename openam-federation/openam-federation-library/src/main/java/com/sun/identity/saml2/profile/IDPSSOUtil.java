@@ -26,6 +26,7 @@
  *
  * Portions Copyrighted 2010-2016 ForgeRock AS.
  * Portions Copyrighted 2013 Nomura Research Institute, Ltd
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
 package com.sun.identity.saml2.profile;
@@ -81,6 +82,7 @@ import com.sun.identity.saml2.jaxb.metadata.SPSSODescriptorElement;
 import com.sun.identity.saml2.logging.LogUtil;
 import com.sun.identity.saml2.key.EncInfo;
 import com.sun.identity.saml2.key.KeyUtil;
+import com.sun.identity.saml2.meta.AssertionConsumerServiceIndex;
 import com.sun.identity.saml2.meta.SAML2MetaException;
 import com.sun.identity.saml2.meta.SAML2MetaManager;
 import com.sun.identity.saml2.meta.SAML2MetaUtils;
@@ -958,18 +960,14 @@ public class IDPSSOUtil {
 		} else {
             if (idpSession == null && SAML2FailoverUtils.isSAML2FailoverEnabled()) {
                 // Read from SAML2 Token Repository
-                IDPSessionCopy idpSessionCopy = null;
                 try {
-                    idpSessionCopy = (IDPSessionCopy) SAML2FailoverUtils.retrieveSAML2Token(sessionIndex);
+                    idpSession = IDPCache.readFailoverIDPSession(sessionIndex);
                 } catch (SAML2TokenRepositoryException se) {
                     SAML2Utils.debug.error(classMethod +
                             "Unable to obtain IDPSessionCopy from the SAML2 Token Repository for sessionIndex:"
                             + sessionIndex, se);
                 }
-                // Copy back to IDPSession
-                if (idpSessionCopy != null) {
-                    idpSession = new IDPSession(idpSessionCopy);
-                } else {
+                if (idpSession == null) {
                     SAML2Utils.debug.error("IDPSessionCopy is null");
                     throw new SAML2Exception(
                         SAML2Utils.bundle.getString("IDPSessionIsNULL"));
@@ -1848,35 +1846,20 @@ public class IDPSSOUtil {
             String realm,
             StringBuffer returnedBinding) throws SAML2Exception {
         String classMethod = "IDPSSOUtil.getDefaultACSurl: ";
-        SPSSODescriptorElement spSSODescriptorElement = getSPSSODescriptor(
+        AssertionConsumerServiceIndex services = getAssertionConsumerServiceIndex(
                 realm, spEntityID, classMethod);
-        List acsList = spSSODescriptorElement.getAssertionConsumerService();
-        AssertionConsumerServiceElement acs = null;
-        String acsURL = null;
-        String binding = null;
-        String firstAcsURL = null;
-        String firstBinding = null;
-        for (int i = 0; i < acsList.size(); i++) {
-            acs = (AssertionConsumerServiceElement) acsList.get(i);
-            if (acs.isIsDefault()) {
-                acsURL = acs.getLocation();
-                binding = acs.getBinding();
-            }
-            if (i == 0) {
-                firstAcsURL = acs.getLocation();
-                firstBinding = acs.getBinding();
-            }
+        AssertionConsumerServiceElement acs = services.getDefault();
+        if (acs == null || acs.getLocation() == null) {
+            acs = services.getFirst();
         }
-
-        if (acsURL == null) {
-            acsURL = firstAcsURL;
-            binding = firstBinding;
+        if (acs == null) {
+            return null;
         }
 
-        if (binding != null) {
-            returnedBinding.append(binding);
+        if (acs.getBinding() != null) {
+            returnedBinding.append(acs.getBinding());
         }
-        return acsURL;
+        return acs.getLocation();
     }
 
     /**
@@ -1928,52 +1911,10 @@ public class IDPSSOUtil {
             throws SAML2Exception {
 
         String classMethod = "IDPSSOUtil.getACSurlFromMetaByBinding: ";
-        SPSSODescriptorElement spSSODescriptorElement = getSPSSODescriptor(
+        AssertionConsumerServiceIndex services = getAssertionConsumerServiceIndex(
                 realm, spEntityID, classMethod);
-        List acsList = spSSODescriptorElement.getAssertionConsumerService();
-        String acsURL = null;
-        String binding = null;
-        String defaultAcsURL = null;
-        String defaultBinding = null;
-        String firstAcsURL = null;
-        String firstBinding = null;
-        AssertionConsumerServiceElement acs = null;
-        for (int i = 0; i < acsList.size(); i++) {
-            acs = (AssertionConsumerServiceElement) acsList.get(i);
-
-            binding = acs.getBinding();
-            if (binding.equals(desiredBinding)) {
-                acsURL = acs.getLocation();
-                break;
-            }
-            if (acs.isIsDefault()) {
-                defaultAcsURL = acs.getLocation();
-                defaultBinding = acs.getBinding();
-            }
-            if (i == 0) {
-                firstAcsURL = acs.getLocation();
-                firstBinding = acs.getBinding();
-            }
-        }
-        if (acsURL == null || acsURL.length() == 0) {
-            acsURL = defaultAcsURL;
-            if (acsURL == null || acsURL.length() == 0) {
-                acsURL = firstAcsURL;
-                if (acsURL == null || acsURL.length() == 0) {
-                    acsURL = null;
-                    SAML2Utils.debug.error(classMethod +
-                            "Unable to get valid Assertion " +
-                            "Consumer Service URL");
-                    return null;
-                }
-                returnedBinding.append(firstBinding);
-            } else {
-                returnedBinding.append(defaultBinding);
-            }
-        } else {
-            returnedBinding.append(binding);
-        }
-        return acsURL;
+        return getACSurlWithFallback(services, services.getByBinding(desiredBinding), returnedBinding,
+                classMethod);
     }
 
 
@@ -1997,56 +1938,33 @@ public class IDPSSOUtil {
             throws SAML2Exception {
 
         String classMethod = "IDPSSOUtil.getACSurlFromMetaByIndex: ";
-
-        SPSSODescriptorElement spSSODescriptorElement = getSPSSODescriptor(
+        AssertionConsumerServiceIndex services = getAssertionConsumerServiceIndex(
                 realm, spEntityID, classMethod);
-        List acsList = spSSODescriptorElement.getAssertionConsumerService();
-        int index;
-        String acsURL = null;
-        String binding = null;
-        String defaultAcsURL = null;
-        String defaultBinding = null;
-        String firstAcsURL = null;
-        String firstBinding = null;
-        AssertionConsumerServiceElement acs = null;
-        for (int i = 0; i < acsList.size(); i++) {
-            acs = (AssertionConsumerServiceElement) acsList.get(i);
+        return getACSurlWithFallback(services, services.getByIndex(acsIndex), returnedBinding, classMethod);
+    }
 
-            index = acs.getIndex();
-            binding = acs.getBinding();
-            if (index == acsIndex) {
-                acsURL = acs.getLocation();
-                binding = acs.getBinding();
-                break;
-            }
-            if (acs.isIsDefault()) {
-                defaultAcsURL = acs.getLocation();
-                defaultBinding = acs.getBinding();
-            }
-            if (i == 0) {
-                firstAcsURL = acs.getLocation();
-                firstBinding = acs.getBinding();
-            }
-        }
-        if (acsURL == null || acsURL.length() == 0) {
-            acsURL = defaultAcsURL;
-            if (acsURL == null || acsURL.length() == 0) {
-                acsURL = firstAcsURL;
-                if (acsURL == null || acsURL.length() == 0) {
-                    acsURL = null;
+    /**
+     * Returns the location of the requested assertion consumer service, falling back to the default and then to
+     * the first assertion consumer service of the service provider when it has no usable location.
+     */
+    private static String getACSurlWithFallback(AssertionConsumerServiceIndex services,
+            AssertionConsumerServiceElement requested, StringBuffer returnedBinding, String classMethod) {
+
+        AssertionConsumerServiceElement acs = requested;
+        if (acs == null || StringUtils.isEmpty(acs.getLocation())) {
+            acs = services.getDefault();
+            if (acs == null || StringUtils.isEmpty(acs.getLocation())) {
+                acs = services.getFirst();
+                if (acs == null || StringUtils.isEmpty(acs.getLocation())) {
                     SAML2Utils.debug.error(classMethod +
                             "Unable to get valid Assertion " +
                             "Consumer Service URL");
                     return null;
                 }
-                returnedBinding.append(firstBinding);
-            } else {
-                returnedBinding.append(defaultBinding);
             }
-        } else {
-            returnedBinding.append(binding);
         }
-        return acsURL;
+        returnedBinding.append(acs.getBinding());
+        return acs.getLocation();
     }
 
     /**
@@ -3047,6 +2965,30 @@ public class IDPSSOUtil {
         return spSSODescriptor;
     }
 
+    private static AssertionConsumerServiceIndex getAssertionConsumerServiceIndex(String realm,
+            String spEntityID, String classMethod)
+            throws SAML2Exception {
+
+        AssertionConsumerServiceIndex services = null;
+        if (metaManager == null) {
+            SAML2Utils.debug.error(classMethod + "Unable to get meta manager.");
+            throw new SAML2Exception(SAML2Utils.bundle.getString("errorMetaManager"));
+        }
+        try {
+            services = metaManager.getAssertionConsumerServiceIndex(realm, spEntityID);
+        } catch (SAML2MetaException sme) {
+            SAML2Utils.debug.error(classMethod + "Unable to get SP SSO Descriptor from metadata.", sme);
+        }
+        if (services == null) {
+            SAML2Utils.debug.error(classMethod
+                    + "Unable to get SP SSO Descriptor from metadata, descriptor is null.");
+            String[] data = { spEntityID };
+            LogUtil.error(Level.INFO, LogUtil.SP_METADATA_ERROR, data, null);
+            throw new SAML2Exception(SAML2Utils.bundle.getString("metaDataError"));
+        }
+        return services;
+    }
+
     /**
      * Check that the authenticated session belongs to the same realm where the IDP is defined.
      *
@@ -25,11 +25,13 @@
  * $Id: IDPSingleLogout.java,v 1.28 2009/11/25 01:20:47 madan_ranganath Exp $
  *
  * Portions Copyrighted 2010-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package com.sun.identity.saml2.profile;
 
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -1014,17 +1016,13 @@ public class IDPSingleLogout {
 
                 if (idpSession == null && SAML2FailoverUtils.isSAML2FailoverEnabled()) {
                     // Read from SAML2 Token Repository
-                    IDPSessionCopy idpSessionCopy = null;
                     try {
-                        idpSessionCopy = (IDPSessionCopy) SAML2FailoverUtils.retrieveSAML2Token(sessionIndex);
+                        idpSession = IDPCache.readFailoverIDPSession(sessionIndex);
                     } catch (SAML2TokenRepositoryException se) {
                         debug.error("IDPSingleLogout.processLogoutRequest: Error while deleting token from " +
                                 "SAML2 Token Repository for sessionIndex:" + sessionIndex, se);
                     }
-                    // Copy back to IDPSession
-                    if (idpSessionCopy != null) {
-                        idpSession = new IDPSession(idpSessionCopy);
-                    } else {
+                    if (idpSession == null) {
                         SAML2Utils.debug.error("IDPSessionCopy is NULL!!!");
                     }
                 }
@@ -1384,7 +1382,7 @@ public class IDPSingleLogout {
         String  userToLogout, HttpServletRequest request,
         HttpServletResponse response) {
 
-        Enumeration keys = IDPCache.idpSessionsByIndices.keys();
+        Enumeration keys = Collections.enumeration(IDPCache.idpSessionsByIndices.keySet());
         String idpSessionIndex = null;
         IDPSession idpSession = null;
         Object idpToken = null;
@@ -0,0 +1,41 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package com.sun.identity.saml2.profile;
+
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Creates the in-memory tables used by {@link IDPCache} and {@link SPCache} to hold SAML2 protocol state.
+ * <p>
+ * An implementation can be selected with the {@link SAML2StateCaches#PROVIDER_PROPERTY} system property, for
+ * example to back the tables with a distributed cache. Implementations must have a public no-argument
+ * constructor and return maps that are safe for concurrent use and reject {@code null} keys and values.
+ */
+public interface SAML2StateCacheProvider {
+
+    /**
+     * Creates a new cache.
+     *
+     * @param name The name of the cache, used for configuration and diagnostics.
+     * @param maxSize The maximum number of entries held, or zero or less for no bound.
+     * @param ttlSeconds The number of seconds an entry is kept after it was last accessed, or zero or less to keep
+     * entries until they are removed or evicted.
+     * @param <K> The type of the keys.
+     * @param <V> The type of the values.
+     * @return A concurrent map view of the cache.
+     */
+    <K, V> ConcurrentMap<K, V> createCache(String name, long maxSize, long ttlSeconds);
+}
@@ -0,0 +1,119 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package com.sun.identity.saml2.profile;
+
+import java.util.concurrent.ConcurrentMap;
+
+import org.forgerock.openam.utils.StringUtils;
+
+import com.sun.identity.saml2.common.SAML2Utils;
+import com.sun.identity.shared.configuration.SystemPropertiesManager;
+
+/**
+ * Creates the SAML2 state tables through the configured {@link SAML2StateCacheProvider}.
+ * <p>
+ * The bounds of an individual table can be overridden with the
+ * {@code com.sun.identity.saml2.stateCache.<name>.maxSize} and {@code com.sun.identity.saml2.stateCache.<name>.ttl}
+ * (seconds) system properties.
+ * <p>
+ * Session tables are unbounded unless bounds are configured. Their entries are removed by the session listeners
+ * when the session ends, and single logout needs them for as long as the session lives: an entry evicted from a
+ * bounded session table makes single logout fail for that session, unless SAML2 failover can read it back from the
+ * SAML2 token repository.
+ */
+public final class SAML2StateCaches {
+
+    /**
+     * System property naming the {@link SAML2StateCacheProvider} implementation class.
+     */
+    public static final String PROVIDER_PROPERTY = "com.sun.identity.saml2.stateCacheProvider";
+
+    /**
+     * Default maximum number of entries in a table holding transient state.
+     */
+    public static final int DEFAULT_TRANSIENT_CACHE_SIZE = 100000;
+
+    /**
+     * Default number of seconds a transient entry is kept after it was last accessed.
+     */
+    public static final int DEFAULT_TRANSIENT_CACHE_TTL = 24 * 60 * 60;
+
+    private static final String PROPERTY_PREFIX = "com.sun.identity.saml2.stateCache.";
+
+    private static final SAML2StateCacheProvider PROVIDER = loadProvider();
+
+    private SAML2StateCaches() {
+    }
+
+    /**
+     * Creates a table for session state. The table is unbounded unless bounds are configured.
+     *
+     * @param name The name of the table.
+     * @param <K> The type of the keys.
+     * @param <V> The type of the values.
+     * @return A concurrent map.
+     */
+    public static <K, V> ConcurrentMap<K, V> newSessionCache(String name) {
+        return newCache(name, 0, 0);
+    }
+
+    /**
+     * Creates a table for transient state which can be recreated if lost, using the transient defaults unless
+     * overridden.
+     *
+     * @param name The name of the table.
+     * @param <K> The type of the keys.
+     * @param <V> The type of the values.
+     * @return A concurrent, bounded map.
+     */
+    public static <K, V> ConcurrentMap<K, V> newTransientCache(String name) {
+        return newCache(name, DEFAULT_TRANSIENT_CACHE_SIZE, DEFAULT_TRANSIENT_CACHE_TTL);
+    }
+
+    /**
+     * Creates a table with the given defaults, applying any configured overrides.
+     *
+     * @param name The name of the table.
+     * @param defaultMaxSize The maximum number of entries unless overridden, zero or less for no bound.
+     * @param defaultTtlSeconds The idle expiry in seconds unless overridden, zero or less for no expiry.
+     * @param <K> The type of the keys.
+     * @param <V> The type of the values.
+     * @return A concurrent, bounded map.
+     */
+    public static <K, V> ConcurrentMap<K, V> newCache(String name, int defaultMaxSize, int defaultTtlSeconds) {
+        return newCache(PROVIDER, name, defaultMaxSize, defaultTtlSeconds);
+    }
+
+    static <K, V> ConcurrentMap<K, V> newCache(SAML2StateCacheProvider provider, String name, int defaultMaxSize,
+            int defaultTtlSeconds) {
+        int maxSize = SystemPropertiesManager.getAsInt(PROPERTY_PREFIX + name + ".maxSize", defaultMaxSize);
+        int ttl = SystemPropertiesManager.getAsInt(PROPERTY_PREFIX + name + ".ttl", defaultTtlSeconds);
+        return provider.createCache(name, maxSize, ttl);
+    }
+
+    private static SAML2StateCacheProvider loadProvider() {
+        String className = SystemPropertiesManager.get(PROVIDER_PROPERTY);
+        if (StringUtils.isNotBlank(className)) {
+            try {
+                return Class.forName(className.trim()).asSubclass(SAML2StateCacheProvider.class).newInstance();
+            } catch (ReflectiveOperationException | ClassCastException e) {
+                SAML2Utils.debug.error("SAML2StateCaches.loadProvider: Unable to instantiate " + className
+                        + ", using the default provider", e);
+            }
+        }
+        return new BoundedStateCacheProvider();
+    }
+}
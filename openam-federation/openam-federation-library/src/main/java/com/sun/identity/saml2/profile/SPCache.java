@@ -25,12 +25,14 @@
  * $Id: SPCache.java,v 1.17 2009/06/09 20:28:32 exu Exp $
  *
  * Portions Copyrighted 2015-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
 
 package com.sun.identity.saml2.profile;
 
 import java.util.Hashtable;
+import java.util.concurrent.ConcurrentMap;
 
 import org.forgerock.openam.utils.StringUtils;
 
@@ -113,14 +115,15 @@ public class SPCache {
         interval * 1000, interval * 1000);
 
     /**
-     * Hashtable stores information required for LogoutRequest consumption.
+     * Map stores information required for LogoutRequest consumption.
      * key : String NameIDInfoKey (NameIDInfoKey.toValueString())
      * value : List of SPFedSession's
      *       (SPFedSession - idp sessionIndex (String)
      *                     - sp token id (String)                     
      * one key --- multiple SPFedSession's
      */
-    final public static Hashtable fedSessionListsByNameIDInfoKey = new Hashtable();
+    final public static ConcurrentMap fedSessionListsByNameIDInfoKey =
+            SAML2StateCaches.newSessionCache("fedSessionListsByNameIDInfoKey");
 
     /**
      * SP: used to map LogoutRequest ID and inResponseTo in LogoutResponse
@@ -24,6 +24,7 @@
  *
  * $Id: ResponseImpl.java,v 1.4 2009/12/16 05:26:39 ericow Exp $
  *
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
 
@@ -315,6 +316,7 @@ public class ResponseImpl extends StatusResponseImpl implements Response {
         parseElement(doc.getDocumentElement());
         if (isSigned) {
             signedXMLString = xmlString;
+            signedDocument = doc;
         }
     }
 
@@ -25,6 +25,7 @@
  * $Id: StatusResponseImpl.java,v 1.4 2008/06/25 05:48:01 qcheng Exp $
  *
  * Portions Copyrighted 2015-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package com.sun.identity.saml2.protocol.impl;
 
@@ -46,6 +47,7 @@ import com.sun.identity.saml2.xmlsig.SigManager;
 import com.sun.identity.shared.DateUtils;
 import com.sun.identity.shared.xml.XMLUtils;
 
+import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 
 
@@ -72,6 +74,11 @@ public abstract class StatusResponseImpl implements StatusResponse {
     protected boolean isMutable = false;
     protected PublicKey publicKey = null;
     protected String  signedXMLString = null;
+    /**
+     * The document the signed XML was parsed into on receipt, verified in place instead of parsing
+     * {@link #signedXMLString} again. Released once the signature has been checked.
+     */
+    protected Document signedDocument = null;
 
     /**
      * Returns the value of the version property.
@@ -183,6 +190,7 @@ public abstract class StatusResponseImpl implements StatusResponse {
         signatureString = XMLUtils.print(signatureEle);
         signedXMLString = XMLUtils.print(signatureEle.getOwnerDocument().
            getDocumentElement(), "UTF-8");
+        signedDocument = null;
         isSigned =true;
         makeImmutable();
     }
@@ -358,7 +366,12 @@ public abstract class StatusResponseImpl implements StatusResponse {
     public boolean isSignatureValid(Set<X509Certificate> verificationCerts)
         throws SAML2Exception { 	
         if (isSignatureValid == null) {
-             isSignatureValid = SigManager.getSigInstance().verify(signedXMLString, getID(), verificationCerts);
+            Document document = takeSignedDocument();
+            if (document != null) {
+                isSignatureValid = SigManager.getSigInstance().verify(document, getID(), verificationCerts);
+            } else {
+                isSignatureValid = SigManager.getSigInstance().verify(signedXMLString, getID(), verificationCerts);
+            }
          }
          return isSignatureValid.booleanValue();
     }   
@@ -374,6 +387,15 @@ public abstract class StatusResponseImpl implements StatusResponse {
     public String toXMLString() throws SAML2Exception {
         return toXMLString(true,false);
     }
+
+    /**
+     * Hands the parsed document to a single verification, as the DOM must not be used by two threads at once.
+     */
+    private synchronized Document takeSignedDocument() {
+        Document document = signedDocument;
+        signedDocument = null;
+        return document;
+    }
     
     /**
      * Returns the <code>StatusResponse</code> in an XML document String format
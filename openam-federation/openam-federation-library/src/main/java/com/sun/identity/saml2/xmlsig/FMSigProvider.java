@@ -25,6 +25,7 @@
  * $Id: FMSigProvider.java,v 1.5 2009/05/09 15:43:59 mallas Exp $
  *
  *  Portions Copyrighted 2011-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
 package com.sun.identity.saml2.xmlsig;
@@ -34,8 +35,6 @@ import java.security.cert.X509Certificate;
 import java.util.Collections;
 import java.util.Set;
 
-import javax.xml.xpath.XPathException;
-
 import org.forgerock.openam.utils.StringUtils;
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
@@ -54,7 +53,6 @@ import org.apache.xml.security.utils.ElementProxy;
 
 import com.sun.identity.shared.configuration.SystemPropertiesManager;
 import com.sun.identity.shared.xml.XMLUtils;
-import com.sun.identity.shared.xml.XPathAPI;
 
 import com.sun.identity.saml.common.SAMLConstants;
 import com.sun.identity.saml2.common.SAML2SDKUtils;
@@ -69,6 +67,9 @@ import com.sun.identity.saml2.common.SAML2Utils;
 
 public final class FMSigProvider implements SigProvider {
 
+    private static final String CERTIFICATE_CACHE_SIZE = "com.sun.identity.saml2.xmlsig.certificateCacheSize";
+    private static final int DEFAULT_CERTIFICATE_CACHE_SIZE = 1000;
+
     private static String c14nMethod = null;
     private static String transformAlg = null;
     private static String sigAlg = null;
@@ -76,6 +77,9 @@ public final class FMSigProvider implements SigProvider {
     // flag to check if the partner's signing cert included in
     // the XML doc is the same as the one in its meta data
     private static boolean checkCert = true;
+    // certificates resolved from the KeyInfo of verified documents
+    private static final KeyInfoCertificateCache certificateCache = new KeyInfoCertificateCache(
+            SystemPropertiesManager.getAsInt(CERTIFICATE_CACHE_SIZE, DEFAULT_CERTIFICATE_CACHE_SIZE));
 
     static {
         org.apache.xml.security.Init.init();
@@ -247,33 +251,30 @@ public final class FMSigProvider implements SigProvider {
             throw new SAML2Exception(
                     SAML2SDKUtils.bundle.getString("nullInput"));
         }
-        Document doc =
-                XMLUtils.toDOMDocument(xmlString, SAML2SDKUtils.debug);
+        return verify(XMLUtils.toDOMDocument(xmlString, SAML2SDKUtils.debug), idValue, verificationCerts);
+    }
+
+    @Override
+    public boolean verify(Document doc, String idValue, Set<X509Certificate> verificationCerts)
+            throws SAML2Exception {
+
+        String classMethod = "FMSigProvider.verify: ";
+        if (idValue == null || idValue.length() == 0) {
+            SAML2SDKUtils.debug.error(classMethod + "Input idValue is null.");
+            throw new SAML2Exception(SAML2SDKUtils.bundle.getString("nullInput"));
+        }
         if (doc == null) {
             throw new SAML2Exception(
                     SAML2SDKUtils.bundle.getString(
                             "errorObtainingElement")
             );
         }
-        Element nscontext =
-                org.apache.xml.security.utils.XMLUtils.
-                        createDSctx(doc, "ds", Constants.SignatureSpecNS);
-        Element sigElement = null;
-        try {
-            sigElement = (Element) XPathAPI.selectSingleNode(
-                    doc,
-                    "//ds:Signature[1]", nscontext);
-        } catch (XPathException te) {
-            throw new SAML2Exception(te);
-        }
-        Element refElement;
-        try {
-            refElement = (Element) XPathAPI.selectSingleNode(
-                    doc,
-                    "//ds:Reference[1]", nscontext);
-        } catch (XPathException te) {
-            throw new SAML2Exception(te);
-        }
+        // the first element in document order, as selected by //ds:Signature[1] and //ds:Reference[1], found
+        // without compiling and evaluating XPath expressions for every message
+        Element sigElement = (Element) doc.getElementsByTagNameNS(Constants.SignatureSpecNS,
+                Constants._TAG_SIGNATURE).item(0);
+        Element refElement = (Element) doc.getElementsByTagNameNS(Constants.SignatureSpecNS,
+                Constants._TAG_REFERENCE).item(0);
         String refUri = refElement.getAttribute("URI");
         String signedId = ((Element) sigElement.getParentNode()).getAttribute(SAML2Constants.ID);
         if (refUri == null || signedId == null || !refUri.substring(1).equals(signedId)) {
@@ -295,21 +296,27 @@ public final class FMSigProvider implements SigProvider {
         signature.addResourceResolver(
                 new com.sun.identity.saml.xmlsig.
                         OfflineResolver());
-        KeyInfo ki = signature.getKeyInfo();
-        X509Certificate certToUse = null;
-        if (ki != null && ki.containsX509Data()) {
-            try {
-                certToUse = ki.getX509Certificate();
-            } catch (KeyResolverException kre) {
-                SAML2SDKUtils.debug.error(
-                        classMethod +
-                                "Could not obtain a certificate " +
-                                "from inside the document."
-                );
-                certToUse = null;
+        String encodedCert = KeyInfoCertificateCache.getEncodedCertificate(sigElement);
+        X509Certificate certToUse = (encodedCert == null) ? null : certificateCache.get(encodedCert);
+        if (certToUse == null) {
+            KeyInfo ki = signature.getKeyInfo();
+            if (ki != null && ki.containsX509Data()) {
+                try {
+                    certToUse = ki.getX509Certificate();
+                } catch (KeyResolverException kre) {
+                    SAML2SDKUtils.debug.error(
+                            classMethod +
+                                    "Could not obtain a certificate " +
+                                    "from inside the document."
+                    );
+                    certToUse = null;
+                }
             }
-            if (certToUse != null && checkCert) {
-                if (!verificationCerts.contains(certToUse)) {
+        }
+        if (certToUse != null) {
+            boolean trusted = verificationCerts.contains(certToUse);
+            if (checkCert) {
+                if (!trusted) {
                     SAML2SDKUtils.debug.error(classMethod + "The cert contained in the document is NOT trusted");
                     throw new SAML2Exception(SAML2SDKUtils.bundle.getString("invalidCertificate"));
                 }
@@ -317,6 +324,9 @@ public final class FMSigProvider implements SigProvider {
                     SAML2SDKUtils.debug.message(classMethod + "The cert contained in the document is trusted");
                 }
             }
+            if (trusted && encodedCert != null) {
+                certificateCache.put(encodedCert, certToUse);
+            }
         }
 
         if (certToUse != null) {
@@ -0,0 +1,100 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package com.sun.identity.saml2.xmlsig;
+
+import java.security.cert.X509Certificate;
+
+import org.apache.xml.security.utils.Constants;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Caches the certificates resolved from the <code>KeyInfo</code> of signed documents, keyed by the base64 encoded
+ * certificate, so that messages from a known partner do not have their certificate decoded and parsed again.
+ * <p>
+ * Only certificates which are trusted for the message being verified are added, so untrusted input cannot displace
+ * the certificates of configured partners.
+ */
+final class KeyInfoCertificateCache {
+
+    private final Cache<String, X509Certificate> certificates;
+
+    /**
+     * Creates a cache holding at most the given number of certificates.
+     *
+     * @param maxSize The maximum number of certificates.
+     */
+    KeyInfoCertificateCache(int maxSize) {
+        this.certificates = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+    }
+
+    /**
+     * Returns the base64 encoded content of the first <code>X509Certificate</code> in the <code>KeyInfo</code> of
+     * the signature, without whitespace.
+     *
+     * @param signature The <code>Signature</code> element.
+     * @return The encoded certificate, or {@code null} if the signature has no certificate in its key info.
+     */
+    static String getEncodedCertificate(Element signature) {
+        for (Node child = signature.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE && Constants._TAG_KEYINFO.equals(child.getLocalName())
+                    && Constants.SignatureSpecNS.equals(child.getNamespaceURI())) {
+                NodeList certs = ((Element) child).getElementsByTagNameNS(Constants.SignatureSpecNS,
+                        Constants._TAG_X509CERTIFICATE);
+                if (certs.getLength() == 0) {
+                    return null;
+                }
+                return stripWhitespace(certs.item(0).getTextContent());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the cached certificate for the encoded certificate.
+     *
+     * @param encoded The encoded certificate.
+     * @return The certificate, or {@code null} if it is not cached.
+     */
+    X509Certificate get(String encoded) {
+        return certificates.getIfPresent(encoded);
+    }
+
+    /**
+     * Caches a trusted certificate.
+     *
+     * @param encoded The encoded certificate, as found in the key info.
+     * @param certificate The certificate resolved from the key info.
+     */
+    void put(String encoded, X509Certificate certificate) {
+        certificates.put(encoded, certificate);
+    }
+
+    private static String stripWhitespace(String value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -25,6 +25,7 @@
  * $Id: SigProvider.java,v 1.2 2008/06/25 05:48:04 qcheng Exp $
  *
  * Portions Copyrighted 2015 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package com.sun.identity.saml2.xmlsig;
 
@@ -35,6 +36,7 @@ import java.security.cert.X509Certificate;
 import java.util.Set;
 
 import com.sun.identity.saml2.common.SAML2Exception;
+import com.sun.identity.shared.xml.XMLUtils;
 
 /**
  * <code>SigProvider</code> is an interface for signing
@@ -80,4 +82,22 @@ public interface SigProvider {
 	String idValue,
 	Set<X509Certificate> verificationCerts
     ) throws SAML2Exception;
+
+    /**
+     * Verify the signature of an already parsed xml document, so that a message parsed on receipt does not have to
+     * be printed and parsed again. The document may be modified during verification and should not be reused.
+     * <p>
+     * The default implementation prints the document and delegates to {@link #verify(String, String, Set)}.
+     *
+     * @param document The signed XML document.
+     * @param idValue id attribute value of the node whose signature is to be verified.
+     * @param verificationCerts Certificates containing the public keys which may be used for signature verification.
+     * @return true if the xml signature is verified, false otherwise.
+     * @throws SAML2Exception if problem occurs during verification.
+     */
+    default boolean verify(Document document, String idValue, Set<X509Certificate> verificationCerts)
+            throws SAML2Exception {
+        String xmlString = document == null ? null : XMLUtils.print(document.getDocumentElement(), "UTF-8");
+        return verify(xmlString, idValue, verificationCerts);
+    }
 }
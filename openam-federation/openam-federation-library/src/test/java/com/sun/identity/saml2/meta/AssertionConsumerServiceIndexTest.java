@@ -0,0 +1,97 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package com.sun.identity.saml2.meta;
+
+import static org.fest.assertions.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.sun.identity.saml2.jaxb.metadata.AssertionConsumerServiceElement;
+import com.sun.identity.saml2.jaxb.metadata.SPSSODescriptorElement;
+import org.testng.annotations.Test;
+
+@Test
+public class AssertionConsumerServiceIndexTest {
+
+    private static final String POST = "urn:oasis:names:tc:SAML:2.0:bindings:HTTP-POST";
+    private static final String ARTIFACT = "urn:oasis:names:tc:SAML:2.0:bindings:HTTP-Artifact";
+    private static final String PAOS = "urn:oasis:names:tc:SAML:2.0:bindings:PAOS";
+
+    public void nullDescriptorHasNoIndex() {
+        assertThat(AssertionConsumerServiceIndex.of(null)).isNull();
+    }
+
+    public void firstServiceWithBindingIsReturned() {
+        AssertionConsumerServiceElement artifact = acs(ARTIFACT, 0, false);
+        AssertionConsumerServiceElement post = acs(POST, 1, false);
+        AssertionConsumerServiceElement otherPost = acs(POST, 2, false);
+        AssertionConsumerServiceIndex index = AssertionConsumerServiceIndex.of(sp(artifact, post, otherPost));
+
+        assertThat(index.getByBinding(POST)).isSameAs(post);
+        assertThat(index.getByBinding(ARTIFACT)).isSameAs(artifact);
+        assertThat(index.getByBinding(PAOS)).isNull();
+        assertThat(index.getByBinding(null)).isNull();
+    }
+
+    public void serviceIsReturnedByIndex() {
+        AssertionConsumerServiceElement artifact = acs(ARTIFACT, 0, false);
+        AssertionConsumerServiceElement post = acs(POST, 3, false);
+        AssertionConsumerServiceIndex index = AssertionConsumerServiceIndex.of(sp(artifact, post));
+
+        assertThat(index.getByIndex(3)).isSameAs(post);
+        assertThat(index.getByIndex(0)).isSameAs(artifact);
+        assertThat(index.getByIndex(1)).isNull();
+    }
+
+    public void lastServiceFlaggedAsDefaultIsTheDefault() {
+        AssertionConsumerServiceElement artifact = acs(ARTIFACT, 0, false);
+        AssertionConsumerServiceElement post = acs(POST, 1, true);
+        AssertionConsumerServiceElement paos = acs(PAOS, 2, true);
+        AssertionConsumerServiceIndex index = AssertionConsumerServiceIndex.of(sp(artifact, post, paos));
+
+        assertThat(index.getDefault()).isSameAs(paos);
+        assertThat(index.getFirst()).isSameAs(artifact);
+    }
+
+    public void serviceProviderWithoutServicesHasEmptyIndex() {
+        AssertionConsumerServiceIndex index = AssertionConsumerServiceIndex.of(sp());
+
+        assertThat(index.getDefault()).isNull();
+        assertThat(index.getFirst()).isNull();
+        assertThat(index.getByBinding(POST)).isNull();
+    }
+
+    private static SPSSODescriptorElement sp(AssertionConsumerServiceElement... services) {
+        List<AssertionConsumerServiceElement> list = new ArrayList<>();
+        for (AssertionConsumerServiceElement service : services) {
+            list.add(service);
+        }
+        SPSSODescriptorElement descriptor = mock(SPSSODescriptorElement.class);
+        when(descriptor.getAssertionConsumerService()).thenReturn(list);
+        return descriptor;
+    }
+
+    private static AssertionConsumerServiceElement acs(String binding, int index, boolean isDefault) {
+        AssertionConsumerServiceElement acs = mock(AssertionConsumerServiceElement.class);
+        when(acs.getBinding()).thenReturn(binding);
+        when(acs.getIndex()).thenReturn(index);
+        when(acs.isIsDefault()).thenReturn(isDefault);
+        when(acs.getLocation()).thenReturn("https://sp.example.com/acs/" + index);
+        return acs;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+
+package com.sun.identity.saml2.meta;
+
+import static org.fest.assertions.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.sun.identity.saml2.jaxb.entityconfig.EntityConfigElement;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+@Test
+public class SAML2MetaCacheTest {
+
+    private static final String REALM = "/";
+    private static final String SUB_REALM = "/sub";
+    private static final String ENTITY_ID = "https://sp.example.com/Shibboleth";
+
+    @BeforeMethod
+    public void setUp() {
+        SAML2MetaCache.clear();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        SAML2MetaCache.clear();
+    }
+
+    public void batchOfConfigsIsCached() {
+        EntityConfigElement first = mock(EntityConfigElement.class);
+        EntityConfigElement second = mock(EntityConfigElement.class);
+        Map<String, EntityConfigElement> configs = new LinkedHashMap<String, EntityConfigElement>();
+        configs.put("first", first);
+        configs.put("second", second);
+
+        SAML2MetaCache.putEntityConfigs(REALM, configs);
+
+        assertThat(SAML2MetaCache.getEntityConfig(REALM, "first")).isSameAs(first);
+        assertThat(SAML2MetaCache.getEntityConfig(REALM, "second")).isSameAs(second);
+        assertThat(SAML2MetaCache.getEntityConfig(SUB_REALM, "first")).isNull();
+    }
+
+    public void nullConfigInBatchRemovesCachedConfig() {
+        SAML2MetaCache.putEntityConfig(REALM, ENTITY_ID, mock(EntityConfigElement.class));
+        Map<String, EntityConfigElement> configs = new LinkedHashMap<String, EntityConfigElement>();
+        configs.put(ENTITY_ID, null);
+
+        SAML2MetaCache.putEntityConfigs(REALM, configs);
+
+        assertThat(SAML2MetaCache.getEntityConfig(REALM, ENTITY_ID)).isNull();
+    }
+
+    public void invalidateRemovesEntityFromEveryRealm() {
+        SAML2MetaCache.putEntityConfig(REALM, ENTITY_ID, mock(EntityConfigElement.class));
+        SAML2MetaCache.putEntityConfig(SUB_REALM, ENTITY_ID, mock(EntityConfigElement.class));
+        EntityConfigElement other = mock(EntityConfigElement.class);
+        SAML2MetaCache.putEntityConfig(REALM, "other", other);
+
+        assertThat(SAML2MetaCache.invalidate("/" + ENTITY_ID)).containsOnly(ENTITY_ID);
+
+        assertThat(SAML2MetaCache.getEntityConfig(REALM, ENTITY_ID)).isNull();
+        assertThat(SAML2MetaCache.getEntityConfig(SUB_REALM, ENTITY_ID)).isNull();
+        assertThat(SAML2MetaCache.getEntityConfig(REALM, "other")).isSameAs(other);
+    }
+
+    public void invalidateComparesEntityIdsCaseSensitively() {
+        EntityConfigElement config = mock(EntityConfigElement.class);
+        SAML2MetaCache.putEntityConfig(REALM, ENTITY_ID, config);
+
+        assertThat(SAML2MetaCache.invalidate(ENTITY_ID.toUpperCase())).isEmpty();
+
+        assertThat(SAML2MetaCache.getEntityConfig(REALM, ENTITY_ID)).isSameAs(config);
+    }
+}
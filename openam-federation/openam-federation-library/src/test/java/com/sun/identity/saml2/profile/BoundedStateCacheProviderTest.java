@@ -0,0 +1,59 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package com.sun.identity.saml2.profile;
+
+import static org.fest.assertions.Assertions.*;
+
+import java.util.concurrent.ConcurrentMap;
+
+import org.testng.annotations.Test;
+
+@Test
+public class BoundedStateCacheProviderTest {
+
+    private final BoundedStateCacheProvider provider = new BoundedStateCacheProvider();
+
+    public void cacheIsBoundedBySize() {
+        ConcurrentMap<String, String> cache = provider.createCache("test", 10, 0);
+        for (int i = 0; i < 100; i++) {
+            cache.put("key" + i, "value" + i);
+        }
+        assertThat(cache.size()).isLessThanOrEqualTo(10);
+        assertThat(cache.get("key99")).isEqualTo("value99");
+    }
+
+    public void cacheIsUnboundedWithoutMaximumSize() {
+        ConcurrentMap<String, String> cache = provider.createCache("test", 0, 0);
+        for (int i = 0; i < 1000; i++) {
+            cache.put("key" + i, "value" + i);
+        }
+        assertThat(cache.size()).isEqualTo(1000);
+    }
+
+    public void cacheSupportsAtomicOperations() {
+        ConcurrentMap<String, String> cache = provider.createCache("test", 10, 60);
+        assertThat(cache.putIfAbsent("key", "first")).isNull();
+        assertThat(cache.putIfAbsent("key", "second")).isEqualTo("first");
+        assertThat(cache.remove("key", "second")).isFalse();
+        assertThat(cache.remove("key", "first")).isTrue();
+        assertThat(cache).isEmpty();
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void cacheRejectsNullValues() {
+        provider.createCache("test", 10, 60).put("key", null);
+    }
+}
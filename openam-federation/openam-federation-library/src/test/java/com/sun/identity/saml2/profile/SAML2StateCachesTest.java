@@ -0,0 +1,87 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package com.sun.identity.saml2.profile;
+
+import static org.fest.assertions.Assertions.*;
+
+import java.util.concurrent.ConcurrentMap;
+
+import org.testng.annotations.Test;
+
+@Test
+public class SAML2StateCachesTest {
+
+    public void sessionCachesAreUnboundedByDefault() {
+        RecordingProvider provider = new RecordingProvider();
+
+        SAML2StateCaches.newCache(provider, "idpSessionsByIndices", 0, 0);
+
+        assertThat(provider.maxSize).isEqualTo(0);
+        assertThat(provider.ttlSeconds).isEqualTo(0);
+    }
+
+    public void transientCachesAreBoundedByDefault() {
+        RecordingProvider provider = new RecordingProvider();
+
+        SAML2StateCaches.newCache(provider, "authnContextCache", SAML2StateCaches.DEFAULT_TRANSIENT_CACHE_SIZE,
+                SAML2StateCaches.DEFAULT_TRANSIENT_CACHE_TTL);
+
+        assertThat(provider.maxSize).isEqualTo(SAML2StateCaches.DEFAULT_TRANSIENT_CACHE_SIZE);
+        assertThat(provider.ttlSeconds).isEqualTo(SAML2StateCaches.DEFAULT_TRANSIENT_CACHE_TTL);
+    }
+
+    public void liveSessionIsNotEvictedBeforeSingleLogout() {
+        ConcurrentMap<String, String> sessions = SAML2StateCaches.newCache(new BoundedStateCacheProvider(),
+                "idpSessionsByIndices", 0, 0);
+        sessions.put("index0", "session0");
+
+        // More sessions are created than any transient table would hold
+        for (int i = 1; i <= SAML2StateCaches.DEFAULT_TRANSIENT_CACHE_SIZE; i++) {
+            sessions.put("index" + i, "session" + i);
+        }
+
+        // Single logout still resolves the first session index, and the entry goes when the session ends
+        assertThat(sessions.get("index0")).isEqualTo("session0");
+        assertThat(sessions.remove("index0")).isEqualTo("session0");
+        assertThat(sessions.containsKey("index0")).isFalse();
+        assertThat(sessions.size()).isEqualTo(SAML2StateCaches.DEFAULT_TRANSIENT_CACHE_SIZE);
+    }
+
+    public void transientCacheEvictsBeyondItsBound() {
+        ConcurrentMap<String, String> authnContexts = SAML2StateCaches.newCache(new BoundedStateCacheProvider(),
+                "authnContextCache", 100, SAML2StateCaches.DEFAULT_TRANSIENT_CACHE_TTL);
+
+        for (int i = 0; i < 1000; i++) {
+            authnContexts.put("index" + i, "context" + i);
+        }
+
+        assertThat(authnContexts.size()).isLessThanOrEqualTo(100);
+        assertThat(authnContexts.get("index999")).isEqualTo("context999");
+    }
+
+    private static final class RecordingProvider implements SAML2StateCacheProvider {
+
+        private long maxSize = -1;
+        private long ttlSeconds = -1;
+
+        @Override
+        public <K, V> ConcurrentMap<K, V> createCache(String name, long maxSize, long ttlSeconds) {
+            this.maxSize = maxSize;
+            this.ttlSeconds = ttlSeconds;
+            return new BoundedStateCacheProvider().createCache(name, maxSize, ttlSeconds);
+        }
+    }
+}
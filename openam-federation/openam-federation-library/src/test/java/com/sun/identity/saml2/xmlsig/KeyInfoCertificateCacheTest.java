@@ -0,0 +1,70 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package com.sun.identity.saml2.xmlsig;
+
+import static org.fest.assertions.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.cert.X509Certificate;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.testng.annotations.Test;
+import org.w3c.dom.Element;
+
+@Test
+public class KeyInfoCertificateCacheTest {
+
+    private static final String DS = "http://www.w3.org/2000/09/xmldsig#";
+
+    public void encodedCertificateIsReadFromKeyInfoWithoutWhitespace() throws Exception {
+        Element signature = parse("<ds:Signature xmlns:ds=\"" + DS + "\">"
+                + "<ds:SignedInfo/><ds:SignatureValue>c2ln</ds:SignatureValue>"
+                + "<ds:KeyInfo><ds:X509Data><ds:X509Certificate>\n  TUlJQ0\n  Q0VSVA==\n</ds:X509Certificate>"
+                + "<ds:X509Certificate>U0VDT05E</ds:X509Certificate></ds:X509Data></ds:KeyInfo>"
+                + "</ds:Signature>");
+
+        assertThat(KeyInfoCertificateCache.getEncodedCertificate(signature)).isEqualTo("TUlJQ0Q0VSVA==");
+    }
+
+    public void signatureWithoutCertificateHasNoEncodedCertificate() throws Exception {
+        Element noKeyInfo = parse("<ds:Signature xmlns:ds=\"" + DS + "\"><ds:SignedInfo/></ds:Signature>");
+        Element noCertificate = parse("<ds:Signature xmlns:ds=\"" + DS + "\"><ds:KeyInfo><ds:KeyName>idp</ds:KeyName>"
+                + "</ds:KeyInfo></ds:Signature>");
+
+        assertThat(KeyInfoCertificateCache.getEncodedCertificate(noKeyInfo)).isNull();
+        assertThat(KeyInfoCertificateCache.getEncodedCertificate(noCertificate)).isNull();
+    }
+
+    public void certificatesAreCachedByEncoding() {
+        KeyInfoCertificateCache cache = new KeyInfoCertificateCache(10);
+        X509Certificate certificate = mock(X509Certificate.class);
+
+        assertThat(cache.get("TUlJQ0Q0VSVA==")).isNull();
+        cache.put("TUlJQ0Q0VSVA==", certificate);
+        assertThat(cache.get("TUlJQ0Q0VSVA==")).isSameAs(certificate);
+        assertThat(cache.get("U0VDT05E")).isNull();
+    }
+
+    private static Element parse(String xml) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        return factory.newDocumentBuilder()
+                .parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8))).getDocumentElement();
+    }
+}
@@ -12,23 +12,35 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2015 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
 package com.sun.identity.saml2.xmlsig;
 
 
 import com.sun.identity.saml.xmlsig.KeyProvider;
+import com.sun.identity.saml2.assertion.AssertionFactory;
+import com.sun.identity.saml2.common.SAML2Constants;
 import com.sun.identity.saml2.common.SAML2Exception;
 import com.sun.identity.saml2.common.SAML2Utils;
 import com.sun.identity.shared.xml.XMLUtils;
 import org.forgerock.openam.utils.AMKeyProvider;
 import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
 
+import java.security.cert.X509Certificate;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class SigProviderTest {
 
@@ -89,4 +101,127 @@ public class SigProviderTest {
         }
         Assert.assertTrue(verified);
     }
+
+    @DataProvider
+    public Object[][] assertionSizeAndThreads() {
+        return new Object[][]{
+                { 1024, 1 },
+                { 1024, 4 },
+                { 1024, 16 },
+                { 20 * 1024, 1 },
+                { 20 * 1024, 4 },
+                { 20 * 1024, 16 }
+        };
+    }
+
+    /**
+     * Tests throughput of parsing a signed assertion and verifying its signature, as done for every inbound
+     * response, as a factor of the assertion size and the number of threads.
+     * Disabled by default to avoid slowing down the build.
+     *
+     * @param assertionSize the approximate size in bytes of the signed assertion.
+     * @param numThreads the number of threads to concurrently verify assertions.
+     */
+    @Test(dataProvider = "assertionSizeAndThreads", enabled = false)
+    public void testVerificationThroughPut(int assertionSize, int numThreads) throws Exception {
+        final int TOTAL_ROUNDS = 20000;
+        final int roundsPerThread = TOTAL_ROUNDS / numThreads;
+
+        // Given
+        final X509Certificate cert = keyProvider.getX509Certificate(DEFAULT_PRIVATE_KEY_ALIAS);
+        final Element signature = sigProvider.sign(createAssertion(assertionSize), ID_ATTRIBUTE_VALUE,
+                keyProvider.getPrivateKey(DEFAULT_PRIVATE_KEY_ALIAS), cert);
+        final String signedAssertion = XMLUtils.print(signature.getOwnerDocument().getDocumentElement(), "UTF-8");
+        final Set<Throwable> errors = Collections.newSetFromMap(new ConcurrentHashMap<Throwable, Boolean>());
+        final ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        final CyclicBarrier barrier = new CyclicBarrier(numThreads + 1);
+
+        // When
+        for (int i = 0; i < numThreads; ++i) {
+            executor.execute(new VerificationTask(barrier, signedAssertion, Collections.singleton(cert), errors,
+                    roundsPerThread));
+        }
+        // Wait for start
+        barrier.await();
+        // Warmup
+        barrier.await();
+        final long start = System.nanoTime();
+        barrier.await();
+        // Actual test
+        barrier.await();
+        final long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+
+        // Then
+        Assert.assertTrue(errors.isEmpty(), errors.toString());
+        System.out.println(String.format(Locale.US, "%d byte assertion, %d threads: %.0f verifications/s",
+                signedAssertion.length(), numThreads, roundsPerThread * numThreads * 1e9 / elapsed));
+    }
+
+    /**
+     * Returns an unsigned assertion padded with attribute values up to roughly the given size.
+     */
+    private static String createAssertion(int size) {
+        StringBuilder assertion = new StringBuilder(size + 1024)
+                .append("<saml:Assertion xmlns:saml=\"").append(SAML2Constants.ASSERTION_NAMESPACE_URI)
+                .append("\" ID=\"").append(ID_ATTRIBUTE_VALUE)
+                .append("\" Version=\"2.0\" IssueInstant=\"2026-01-01T00:00:00Z\">")
+                .append("<saml:Issuer>https://idp.example.com</saml:Issuer>")
+                .append("<saml:Subject><saml:NameID>demo</saml:NameID></saml:Subject>")
+                .append("<saml:AttributeStatement>");
+        for (int i = 0; assertion.length() < size - 512; i++) {
+            assertion.append("<saml:Attribute Name=\"attribute").append(i).append("\">")
+                    .append("<saml:AttributeValue>value").append(i).append("</saml:AttributeValue>")
+                    .append("</saml:Attribute>");
+        }
+        return assertion.append("</saml:AttributeStatement></saml:Assertion>").toString();
+    }
+
+    /**
+     * Benchmarking task that parses a signed assertion and verifies its signature in a tight loop.
+     */
+    private static class VerificationTask implements Runnable {
+        private static final int WARMUP_ROUNDS = 1000;
+
+        private final CyclicBarrier barrier;
+        private final String signedAssertion;
+        private final Set<X509Certificate> certs;
+        private final Collection<Throwable> errors;
+        private final int rounds;
+
+        VerificationTask(CyclicBarrier barrier, String signedAssertion, Set<X509Certificate> certs,
+                Collection<Throwable> errors, int rounds) {
+            this.barrier = barrier;
+            this.signedAssertion = signedAssertion;
+            this.certs = certs;
+            this.errors = errors;
+            this.rounds = rounds;
+        }
+
+        @Override
+        public void run() {
+            try {
+                // Wait for start
+                barrier.await();
+                for (int i = 0; i < WARMUP_ROUNDS; ++i) {
+                    verify();
+                }
+                barrier.await();
+                // Wait for the clock to start
+                barrier.await();
+                boolean verified = true;
+                for (int i = 0; i < rounds; ++i) {
+                    verified &= verify();
+                }
+                barrier.await();
+                Assert.assertTrue(verified);
+            } catch (Exception ex) {
+                errors.add(ex);
+            }
+        }
+
+        private boolean verify() throws SAML2Exception {
+            return AssertionFactory.getInstance().createAssertion(signedAssertion).isSignatureValid(certs);
+        }
+    }
 }
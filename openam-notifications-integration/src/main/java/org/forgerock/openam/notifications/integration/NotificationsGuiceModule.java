@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
 package org.forgerock.openam.notifications.integration;
@@ -28,6 +29,7 @@ import org.forgerock.openam.cts.CTSPersistentStore;
 import org.forgerock.openam.notifications.LocalOnly;
 import org.forgerock.openam.notifications.NotificationBroker;
 import org.forgerock.openam.notifications.brokers.InMemoryNotificationBroker;
+import org.forgerock.openam.notifications.brokers.ShardedNotificationBroker;
 import org.forgerock.openam.notifications.integration.brokers.CTSNotificationBroker;
 import org.forgerock.util.thread.ExecutorServiceFactory;
 
@@ -48,10 +50,17 @@ public class NotificationsGuiceModule extends PrivateModule {
 
     @Override
     protected void configure() {
-        bind(NotificationBroker.class)
-                .annotatedWith(LocalOnly.class)
-                .to(InMemoryNotificationBroker.class)
-                .in(Singleton.class);
+        if (SystemProperties.getAsBoolean("org.forgerock.openam.notifications.local.sharded", false)) {
+            bind(NotificationBroker.class)
+                    .annotatedWith(LocalOnly.class)
+                    .to(ShardedNotificationBroker.class)
+                    .in(Singleton.class);
+        } else {
+            bind(NotificationBroker.class)
+                    .annotatedWith(LocalOnly.class)
+                    .to(InMemoryNotificationBroker.class)
+                    .in(Singleton.class);
+        }
         bindConstant().annotatedWith(Names.named("queueSize"))
                 .to(SystemProperties.getAsInt("org.forgerock.openam.notifications.local.queueSize", 10000));
         bindConstant().annotatedWith(Names.named("consumers"))
@@ -63,6 +72,8 @@ public class NotificationsGuiceModule extends PrivateModule {
                         100L));
         bindConstant().annotatedWith(Names.named("ctsQueueSize"))
                 .to(SystemProperties.getAsInt("org.forgerock.openam.notifications.cts.queueSize", 10000));
+        bindConstant().annotatedWith(Names.named("ctsBatchSize"))
+                .to(SystemProperties.getAsInt("org.forgerock.openam.notifications.cts.batchSize", 1000));
 
         expose(NotificationBroker.class).annotatedWith(LocalOnly.class);
         expose(NotificationBroker.class);
@@ -77,6 +88,27 @@ public class NotificationsGuiceModule extends PrivateModule {
         return factory.createScheduledService(5, "NotificationsWebSocket");
     }
 
+    @Provides
+    @Exposed
+    @Named("webSocketQueueSize")
+    int webSocketQueueSize() {
+        return SystemProperties.getAsInt("org.forgerock.openam.notifications.websocket.queueSize", 1000);
+    }
+
+    @Provides
+    @Exposed
+    @Named("webSocketMaxBatchSize")
+    int webSocketMaxBatchSize() {
+        return SystemProperties.getAsInt("org.forgerock.openam.notifications.websocket.maxBatchSize", 100);
+    }
+
+    @Provides
+    @Exposed
+    @Named("webSocketOverflowPolicy")
+    String webSocketOverflowPolicy() {
+        return SystemProperties.get("org.forgerock.openam.notifications.websocket.overflowPolicy", "DISCONNECT");
+    }
+
     @Provides
     @Exposed
     @Inject
@@ -86,9 +118,10 @@ public class NotificationsGuiceModule extends PrivateModule {
             @Named("ctsQueueSize") int queueSize,
             @Named("tokenExpirySeconds") long tokenExpirySeconds,
             @Named("publishFrequencyMilliseconds") long publishFrequencyMilliseconds,
+            @Named("ctsBatchSize") int batchSize,
             AMExecutorServiceFactory factory) {
         return new CTSNotificationBroker(store, broker, queueSize, tokenExpirySeconds,
-                publishFrequencyMilliseconds, factory);
+                publishFrequencyMilliseconds, batchSize, factory);
     }
 
 }
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
 package org.forgerock.openam.notifications.integration.brokers;
@@ -29,6 +30,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -65,6 +67,7 @@ import org.forgerock.util.generator.IdGenerator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
@@ -76,6 +79,11 @@ import com.fasterxml.jackson.databind.ObjectMapper;
  * <p>
  * This implementation uses a local-server broker to handle the brokerage
  * of messages that come in from the CTS.
+ * <p>
+ * Notifications published between two publish runs are written as a batch, with at most
+ * {@code batchSize} notifications per CTS token. Identical notifications on the same topic
+ * within a batch are coalesced, keeping the position of the last one, so a burst of
+ * repeated session or policy notifications is stored and fanned out only once.
  *
  * @since 14.0.0
  */
@@ -90,6 +98,7 @@ public final class CTSNotificationBroker implements NotificationBroker {
     private final long tokenExpirySeconds;
     private final IdGenerator idGenerator;
     private final BlockingQueue<NotificationEntry> queue;
+    private final int batchSize;
     private final ScheduledExecutorService executorService;
     private volatile boolean shutdown;
 
@@ -101,6 +110,7 @@ public final class CTSNotificationBroker implements NotificationBroker {
      * @param queueSize the size of the queue of notifications waiting to be written to the CTS
      * @param tokenExpirySeconds the number of seconds that a notification will live in the CTS before it is deleted
      * @param publishFrequencyMilliseconds the number of milliseconds between each publish to the CTS
+     * @param batchSize the maximum number of notifications written to a single CTS token
      * @param executorServiceFactory an executor service factory for scheduling the publish task
      */
     @Inject
@@ -109,16 +119,19 @@ public final class CTSNotificationBroker implements NotificationBroker {
             @Named("ctsQueueSize") int queueSize,
             @Named("tokenExpirySeconds") long tokenExpirySeconds,
             @Named("publishFrequencyMilliseconds") long publishFrequencyMilliseconds,
+            @Named("ctsBatchSize") int batchSize,
             AMExecutorServiceFactory executorServiceFactory) {
         Reject.ifNull(store, "CTS store must not be null");
         Reject.ifNull(localBroker, "Notification broker must not be null");
         Reject.ifNull(executorServiceFactory, "Executor service factory must not be null");
         Reject.ifTrue(tokenExpirySeconds <= 0, "Token expiry must be a positive integer");
         Reject.ifTrue(publishFrequencyMilliseconds <= 0, "Publish frequency must be a positive integer");
+        Reject.ifTrue(batchSize <= 0, "Batch size must be a positive integer");
 
         this.localBroker = localBroker;
         this.store = store;
         this.tokenExpirySeconds = tokenExpirySeconds;
+        this.batchSize = batchSize;
         executorService = executorServiceFactory.createScheduledService(1, "CTSNotificationsBroker");
         idGenerator = IdGenerator.DEFAULT;
         listener = new SessionNotificationListener();
@@ -224,16 +237,42 @@ public final class CTSNotificationBroker implements NotificationBroker {
                 return;
             }
 
-            List<Object> jsonEntries = new ArrayList<>(entries.size());
+            List<Object> jsonEntries = coalesce(entries);
+            if (jsonEntries.size() < entries.size()) {
+                logger.debug("Coalesced {} notifications into {}", entries.size(), jsonEntries.size());
+            }
+
+            for (int from = 0; from < jsonEntries.size(); from += batchSize) {
+                write(json(jsonEntries.subList(from, Math.min(from + batchSize, jsonEntries.size()))));
+            }
+        }
+
+        /**
+         * Drops all but the last of any identical notifications on the same topic, preserving the order of the
+         * remaining notifications.
+         */
+        private List<Object> coalesce(List<NotificationEntry> entries) {
+            Map<String, Object> unique = new LinkedHashMap<>();
+            int position = 0;
             for (NotificationEntry entry : entries) {
-                jsonEntries.add(object(
+                Object jsonEntry = object(
                         field("topic", entry.topic.getIdentifier()),
-                        field("content", entry.notification.getObject())
-                ));
+                        field("content", entry.notification.getObject()));
+                String key;
+                try {
+                    key = entry.topic.getIdentifier() + '\u0000'
+                            + mapper.writeValueAsString(entry.notification.getObject());
+                } catch (JsonProcessingException e) {
+                    key = String.valueOf(position);
+                }
+                unique.remove(key);
+                unique.put(key, jsonEntry);
+                position++;
             }
+            return new ArrayList<>(unique.values());
+        }
 
-            JsonValue entry = json(jsonEntries);
-
+        private void write(JsonValue entry) {
             try {
                 Token token = new Token(idGenerator.generate(), TokenType.NOTIFICATION);
                 ByteArrayOutputStream stream = new ByteArrayOutputStream();
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
 package org.forgerock.openam.notifications.brokers;
@@ -88,7 +89,7 @@ public final class CTSNotificationBrokerTest {
     public void setUp() {
         MockitoAnnotations.initMocks(this);
         when(executorServiceFactory.createScheduledService(anyInt(), anyString())).thenReturn(executorService);
-        broker = new CTSNotificationBroker(store, localBroker, 2, 600L, 100L, executorServiceFactory);
+        broker = new CTSNotificationBroker(store, localBroker, 2, 600L, 100L, 10, executorServiceFactory);
     }
 
     @Test
@@ -155,6 +156,25 @@ public final class CTSNotificationBrokerTest {
     public void whenPublisherRunsItPublishesAllNotificationsToCTS() throws Exception {
         Runnable publisher = getPublisherTask();
 
+        // When
+        broker.publish(Topic.of("test-topic"), json(object(field("some-field", "some-value"))));
+        broker.publish(Topic.of("test-topic"), json(object(field("some-field", "another-value"))));
+        publisher.run();
+
+        // Then
+        verify(store).createAsync(tokenCaptor.capture());
+
+        Token token = tokenCaptor.getValue();
+        InputStream stream = new InflaterInputStream(new ByteArrayInputStream(token.getBlob()));
+        JsonValue entries = toJsonArray(stream);
+
+        assertThat(entries).hasSize(2);
+    }
+
+    @Test
+    public void whenPublisherRunsDuplicateNotificationsAreCoalesced() throws Exception {
+        Runnable publisher = getPublisherTask();
+
         // When
         JsonValue notification = json(object(field("some-field", "some-value")));
         broker.publish(Topic.of("test-topic"), notification);
@@ -168,7 +188,24 @@ public final class CTSNotificationBrokerTest {
         InputStream stream = new InflaterInputStream(new ByteArrayInputStream(token.getBlob()));
         JsonValue entries = toJsonArray(stream);
 
-        assertThat(entries).hasSize(2);
+        assertThat(entries).hasSize(1);
+    }
+
+    @Test
+    public void whenPublisherRunsNotificationsAreSplitIntoBatches() throws Exception {
+        // Given
+        broker = new CTSNotificationBroker(store, localBroker, 2, 600L, 100L, 1, executorServiceFactory);
+        verify(executorService, times(2)).scheduleAtFixedRate(publisherTaskCaptor.capture(), anyLong(), anyLong(),
+                any(TimeUnit.class));
+        Runnable publisher = publisherTaskCaptor.getValue();
+
+        // When
+        broker.publish(Topic.of("test-topic"), json(object(field("some-field", "some-value"))));
+        broker.publish(Topic.of("test-topic"), json(object(field("some-field", "another-value"))));
+        publisher.run();
+
+        // Then
+        verify(store, times(2)).createAsync(any(Token.class));
     }
 
     @Test
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
 package org.forgerock.openam.notifications.websocket;
@@ -22,6 +23,10 @@ import static org.forgerock.json.JsonValue.object;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -29,6 +34,7 @@ import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
 import javax.inject.Named;
+import javax.websocket.CloseReason;
 import javax.websocket.DecodeException;
 import javax.websocket.EncodeException;
 import javax.websocket.OnClose;
@@ -36,6 +42,8 @@ import javax.websocket.OnError;
 import javax.websocket.OnMessage;
 import javax.websocket.OnOpen;
 import javax.websocket.PongMessage;
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
 import javax.websocket.Session;
 import javax.websocket.server.ServerEndpoint;
 
@@ -62,6 +70,14 @@ import org.slf4j.LoggerFactory;
  * </pre>
  * <p>
  * When the <tt>id</tt> is present in the request, it shall be echoed back with any response messages.
+ * <p>
+ * A client may also send <tt>{"action": "batch"}</tt>, after which notifications that queued up while a previous
+ * frame was being sent are delivered together as a JSON array in a single frame.
+ * <p>
+ * Notifications are sent asynchronously from a bounded per-connection queue, one frame at a time, so a slow client
+ * never blocks the broker thread delivering to it. When a client's queue overflows the connection is either closed
+ * with {@link CloseReason.CloseCodes#TRY_AGAIN_LATER}, so the client reconnects and resynchronises, or, with the
+ * {@link OverflowPolicy#DROP} policy, further notifications are dropped until the queue drains.
  *
  * @since 14.0.0
  */
@@ -73,10 +89,26 @@ public final class NotificationsWebSocket {
 
     private static final Logger logger = LoggerFactory.getLogger(NotificationsWebSocket.class);
     private static final long TIMEOUT_MILLISECONDS = 1000 * 60;
+    private static final int DEFAULT_QUEUE_SIZE = 1000;
+    private static final int DEFAULT_MAX_BATCH_SIZE = 100;
+
+    /**
+     * What to do when a client's outbound queue is full.
+     */
+    public enum OverflowPolicy {
+        /** Close the connection so the client reconnects. */
+        DISCONNECT,
+        /** Keep the connection and drop notifications until the queue drains. */
+        DROP
+    }
 
     private final NotificationBroker broker;
     private final TimeService timeService;
     private final ScheduledExecutorService executorService;
+    private final int queueSize;
+    private final int maxBatchSize;
+    private final OverflowPolicy overflowPolicy;
+    private WebSocketConsumer consumer;
     private Subscription subscription;
     private long lastMessageTime;
     private ScheduledFuture<?> pingFuture;
@@ -89,20 +121,45 @@ public final class NotificationsWebSocket {
         broker = null;
         timeService = null;
         executorService = null;
+        queueSize = DEFAULT_QUEUE_SIZE;
+        maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+        overflowPolicy = OverflowPolicy.DISCONNECT;
+    }
+
+    /**
+     * Constructs a new notification websocket endpoint with the default outbound queue settings.
+     *
+     * @param broker the notification broker
+     */
+    public NotificationsWebSocket(NotificationBroker broker, TimeService timeService,
+            ScheduledExecutorService executorService) {
+        this(broker, timeService, executorService, DEFAULT_QUEUE_SIZE, DEFAULT_MAX_BATCH_SIZE,
+                OverflowPolicy.DISCONNECT.name());
     }
 
     /**
      * Constructs a new notification websocket endpoint.
      *
      * @param broker the notification broker
+     * @param queueSize the maximum number of notifications waiting to be sent to a single client
+     * @param maxBatchSize the maximum number of notifications sent in one frame to clients that enabled batching
+     * @param overflowPolicy the name of the {@link OverflowPolicy} applied when a client's queue is full
      */
     @Inject
     public NotificationsWebSocket(NotificationBroker broker, TimeService timeService,
-            @Named("webSocketScheduledExecutorService") ScheduledExecutorService executorService) {
+            @Named("webSocketScheduledExecutorService") ScheduledExecutorService executorService,
+            @Named("webSocketQueueSize") int queueSize,
+            @Named("webSocketMaxBatchSize") int maxBatchSize,
+            @Named("webSocketOverflowPolicy") String overflowPolicy) {
         Reject.ifNull(broker, "Broker must not be null");
+        Reject.ifTrue(queueSize <= 0, "Queue size must be a positive integer");
+        Reject.ifTrue(maxBatchSize <= 0, "Batch size must be a positive integer");
         this.broker = broker;
         this.timeService = timeService;
         this.executorService = executorService;
+        this.queueSize = queueSize;
+        this.maxBatchSize = maxBatchSize;
+        this.overflowPolicy = OverflowPolicy.valueOf(overflowPolicy.toUpperCase());
     }
 
     /**
@@ -113,7 +170,8 @@ public final class NotificationsWebSocket {
     @OnOpen
     public void open(final Session session) {
         Reject.ifNull(session, "Session must not be null");
-        subscription = broker.subscribe(new WebSocketConsumer(session));
+        consumer = new WebSocketConsumer(session);
+        subscription = broker.subscribe(consumer);
         session.setMaxIdleTimeout(TIMEOUT_MILLISECONDS);
         lastMessageTime = timeService.now();
         pingFuture = executorService.scheduleAtFixedRate(new Runnable() {
@@ -136,6 +194,9 @@ public final class NotificationsWebSocket {
     @OnClose
     public void close() {
         subscription.close();
+        if (consumer != null) {
+            consumer.discard();
+        }
         if (pingFuture != null) {
             pingFuture.cancel(true);
         }
@@ -172,6 +233,11 @@ public final class NotificationsWebSocket {
 
         String action = json.get("action").asString();
 
+        if (action.equals("batch")) {
+            consumer.enableBatching();
+            sendMessage(session, id, null, "batching enabled");
+            return;
+        }
         if (!action.equals("subscribe")) {
             sendError(session, id, "unknown action \"" + action + "\"");
             return;
@@ -246,14 +312,29 @@ public final class NotificationsWebSocket {
         }
     }
 
-    private final class WebSocketConsumer implements Consumer {
+    /**
+     * Delivers notifications to one client through a bounded queue, keeping at most one asynchronous send in flight.
+     */
+    private final class WebSocketConsumer implements Consumer, SendHandler {
 
         private final Session session;
+        private final Deque<JsonValue> queue = new ArrayDeque<>();
+        private boolean sending;
+        private long dropped;
+        private volatile boolean batching;
 
         private WebSocketConsumer(Session session) {
             this.session = session;
         }
 
+        void enableBatching() {
+            batching = true;
+        }
+
+        synchronized void discard() {
+            queue.clear();
+        }
+
         @Override
         public void accept(JsonValue notification) {
             Reject.ifNull(notification);
@@ -267,8 +348,85 @@ public final class NotificationsWebSocket {
                 return;
             }
 
-            if (session.isOpen()) {
-                session.getAsyncRemote().sendObject(notification);
+            if (!session.isOpen()) {
+                return;
+            }
+
+            JsonValue frame;
+            synchronized (this) {
+                if (queue.size() >= queueSize) {
+                    if (overflowPolicy == OverflowPolicy.DROP) {
+                        if (dropped++ == 0) {
+                            logger.info("WebSocket client is not keeping up, dropping notifications");
+                        }
+                        return;
+                    }
+                    queue.clear();
+                    frame = null;
+                } else {
+                    dropped = 0;
+                    queue.add(notification);
+                    if (sending) {
+                        return;
+                    }
+                    sending = true;
+                    frame = nextFrame();
+                }
+            }
+
+            if (frame == null) {
+                disconnect();
+            } else {
+                send(frame);
+            }
+        }
+
+        @Override
+        public void onResult(SendResult result) {
+            if (!result.isOK()) {
+                logger.info("Failed to send notification to client", result.getException());
+            }
+            JsonValue frame;
+            synchronized (this) {
+                frame = queue.isEmpty() ? null : nextFrame();
+                sending = frame != null;
+            }
+            if (frame != null) {
+                send(frame);
+            }
+        }
+
+        // Called holding the lock with a non-empty queue.
+        private JsonValue nextFrame() {
+            if (!batching || queue.size() == 1) {
+                return queue.poll();
+            }
+            List<Object> batch = new ArrayList<>(Math.min(queue.size(), maxBatchSize));
+            while (!queue.isEmpty() && batch.size() < maxBatchSize) {
+                batch.add(queue.poll().getObject());
+            }
+            return json(batch);
+        }
+
+        private void send(JsonValue frame) {
+            try {
+                session.getAsyncRemote().sendObject(frame, this);
+            } catch (RuntimeException e) {
+                logger.info("Failed to send notification to client", e);
+                synchronized (this) {
+                    queue.clear();
+                    sending = false;
+                }
+            }
+        }
+
+        private void disconnect() {
+            logger.info("WebSocket client is not keeping up with notifications, closing connection");
+            try {
+                session.close(new CloseReason(CloseReason.CloseCodes.TRY_AGAIN_LATER,
+                        "Notification queue overflow"));
+            } catch (IOException e) {
+                logger.warn("Failed to close WebSocket connection", e);
             }
         }
 
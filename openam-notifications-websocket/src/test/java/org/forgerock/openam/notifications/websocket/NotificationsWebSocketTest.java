@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
 package org.forgerock.openam.notifications.websocket;
@@ -25,8 +26,11 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Mockito.*;
 
+import javax.websocket.CloseReason;
 import javax.websocket.PongMessage;
 import javax.websocket.RemoteEndpoint;
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
 import javax.websocket.Session;
 
 import java.io.IOException;
@@ -79,6 +83,8 @@ public final class NotificationsWebSocketTest {
     private ArgumentCaptor<JsonValue> jsonCaptor;
     @Captor
     private ArgumentCaptor<Runnable> runnableCaptor;
+    @Captor
+    private ArgumentCaptor<SendHandler> handlerCaptor;
 
     @BeforeMethod
     public void setUp() {
@@ -297,7 +303,7 @@ public final class NotificationsWebSocketTest {
         consumer.accept(json(object(field("some_key", "some_value"))));
 
         // Then
-        verify(async).sendObject(jsonCaptor.capture());
+        verify(async).sendObject(jsonCaptor.capture(), any(SendHandler.class));
         assertThat(jsonCaptor.getValue()).stringAt("some_key").isEqualTo("some_value");
     }
 
@@ -314,7 +320,7 @@ public final class NotificationsWebSocketTest {
         consumer.accept(json(object(field("some_key", "some_value"))));
 
         // Then
-        verify(async, never()).sendObject(any(JsonValue.class));
+        verify(async, never()).sendObject(any(JsonValue.class), any(SendHandler.class));
     }
 
     @Test
@@ -332,7 +338,78 @@ public final class NotificationsWebSocketTest {
 
         // Then
         verify(session).close();
-        verify(async, never()).sendObject(any(JsonValue.class));
+        verify(async, never()).sendObject(any(JsonValue.class), any(SendHandler.class));
+    }
+
+    @Test
+    public void whenSendIsInFlightFurtherNotificationsWaitForItToComplete() throws Exception {
+        // Given
+        Consumer consumer = openConnection();
+        consumer.accept(json(object(field("some_key", "first"))));
+
+        // When
+        consumer.accept(json(object(field("some_key", "second"))));
+
+        // Then
+        verify(async, times(1)).sendObject(jsonCaptor.capture(), handlerCaptor.capture());
+        handlerCaptor.getValue().onResult(new SendResult());
+        verify(async, times(2)).sendObject(jsonCaptor.capture(), any(SendHandler.class));
+        assertThat(jsonCaptor.getValue()).stringAt("some_key").isEqualTo("second");
+    }
+
+    @Test
+    public void whenBatchingIsEnabledQueuedNotificationsAreSentInOneFrame() throws Exception {
+        // Given
+        Consumer consumer = openConnection();
+        notificationsWebSocket.message(session, json(object(field("action", "batch"))));
+        consumer.accept(json(object(field("some_key", "first"))));
+        consumer.accept(json(object(field("some_key", "second"))));
+        consumer.accept(json(object(field("some_key", "third"))));
+
+        // When
+        verify(async).sendObject(any(JsonValue.class), handlerCaptor.capture());
+        handlerCaptor.getValue().onResult(new SendResult());
+
+        // Then
+        verify(async, times(2)).sendObject(jsonCaptor.capture(), any(SendHandler.class));
+        assertThat(jsonCaptor.getValue().isList()).isTrue();
+        assertThat(jsonCaptor.getValue().size()).isEqualTo(2);
+    }
+
+    @Test
+    public void whenClientQueueOverflowsConnectionIsClosed() throws Exception {
+        // Given
+        notificationsWebSocket = new NotificationsWebSocket(broker, timeService, executorService, 1, 10,
+                "disconnect");
+        Consumer consumer = openConnection();
+        consumer.accept(json(object(field("some_key", "in flight"))));
+        consumer.accept(json(object(field("some_key", "queued"))));
+
+        // When
+        consumer.accept(json(object(field("some_key", "overflow"))));
+
+        // Then
+        verify(session).close(any(CloseReason.class));
+    }
+
+    @Test
+    public void whenClientQueueOverflowsWithDropPolicyNotificationIsDropped() throws Exception {
+        // Given
+        notificationsWebSocket = new NotificationsWebSocket(broker, timeService, executorService, 1, 10, "drop");
+        Consumer consumer = openConnection();
+        consumer.accept(json(object(field("some_key", "in flight"))));
+        consumer.accept(json(object(field("some_key", "queued"))));
+        consumer.accept(json(object(field("some_key", "dropped"))));
+
+        // When
+        verify(async).sendObject(any(JsonValue.class), handlerCaptor.capture());
+        handlerCaptor.getValue().onResult(new SendResult());
+        handlerCaptor.getValue().onResult(new SendResult());
+
+        // Then
+        verify(session, never()).close(any(CloseReason.class));
+        verify(async, times(2)).sendObject(jsonCaptor.capture(), any(SendHandler.class));
+        assertThat(jsonCaptor.getValue()).stringAt("some_key").isEqualTo("queued");
     }
 
     @Test
@@ -380,4 +457,11 @@ public final class NotificationsWebSocketTest {
         // Then
         verify(future).cancel(true);
     }
-}
\ No newline at end of file
+
+    private Consumer openConnection() {
+        notificationsWebSocket.open(session);
+        verify(broker).subscribe(consumerCaptor.capture());
+        when(session.isOpen()).thenReturn(true);
+        return consumerCaptor.getValue();
+    }
+}
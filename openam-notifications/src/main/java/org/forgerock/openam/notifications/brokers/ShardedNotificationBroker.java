@@ -0,0 +1,344 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+
+package org.forgerock.openam.notifications.brokers;
+
+import static org.forgerock.json.JsonValue.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.forgerock.json.JsonValue;
+import org.forgerock.openam.audit.context.AMExecutorServiceFactory;
+import org.forgerock.openam.notifications.Consumer;
+import org.forgerock.openam.notifications.NotificationBroker;
+import org.forgerock.openam.notifications.Subscription;
+import org.forgerock.openam.notifications.Topic;
+import org.forgerock.util.Reject;
+import org.forgerock.util.time.TimeService;
+import org.joda.time.DateTime;
+import org.joda.time.format.DateTimeFormatter;
+import org.joda.time.format.ISODateTimeFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A notification broker that keeps an index from each topic to the subscriptions bound to it and spreads the
+ * subscriptions over one bounded queue per consumer thread.
+ * <p>
+ * Each subscription is assigned to a consumer queue when it is created. A notification is queued once on every
+ * consumer queue holding a subscription bound to its topic, and each consumer only offers it to its own
+ * subscriptions bound to the topic rather than to every subscription. A subscription therefore receives
+ * notifications in the order they were published, and the subscribers of a busy topic are served by all the
+ * consumer threads. Each queue holds up to the configured queue size; notifications published to a full queue are
+ * discarded and counted, the count being logged along with the current queue depth.
+ */
+public final class ShardedNotificationBroker implements NotificationBroker {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardedNotificationBroker.class);
+    private static final DateTimeFormatter TS_FORMATTER = ISODateTimeFormat.dateTime().withZoneUTC();
+    private static final long DROP_LOG_INTERVAL = 1000L;
+
+    private final List<BlockingQueue<NotificationEntry>> shards;
+    private final ConcurrentMap<Topic, TopicSubscriptions> subscriptionsByTopic = new ConcurrentHashMap<>();
+    private final AtomicInteger nextShard = new AtomicInteger();
+    private final TimeService timeService;
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final ExecutorService executorService;
+    private volatile boolean shutdown;
+
+    /**
+     * Constructs a new ShardedNotificationBroker.
+     *
+     * @param executorServiceFactory an executor service factory for scheduling reader threads
+     * @param timeService a time service for adding timestamps to messages
+     * @param queueSize the number of notifications to buffer in memory for each consumer thread
+     * @param consumers the number of consumer threads, each reading its own queue
+     */
+    @Inject
+    public ShardedNotificationBroker(AMExecutorServiceFactory executorServiceFactory, TimeService timeService,
+            @Named("queueSize") int queueSize, @Named("consumers") int consumers) {
+        Reject.ifNull(executorServiceFactory, "Executor service factory must not be null");
+        Reject.ifNull(timeService, "Time service must not be null");
+        Reject.ifTrue(queueSize <= 0, "Queue size must be a positive integer");
+        Reject.ifTrue(consumers <= 0, "Number of consumer threads must be a positive integer");
+
+        this.timeService = timeService;
+
+        List<BlockingQueue<NotificationEntry>> queues = new ArrayList<>(consumers);
+        for (int i = 0; i < consumers; i++) {
+            queues.add(new ArrayBlockingQueue<NotificationEntry>(queueSize));
+        }
+        shards = Collections.unmodifiableList(queues);
+
+        executorService = executorServiceFactory.createFixedThreadPool(consumers, "ShardedNotificationsBroker");
+        for (int i = 0; i < consumers; i++) {
+            executorService.submit(new NotificationReader(i));
+        }
+    }
+
+    @Override
+    public boolean publish(Topic topic, JsonValue notification) {
+        Reject.ifNull(topic, "Topic must not be null");
+        Reject.ifNull(notification, "Notification must not be null");
+
+        if (shutdown) {
+            logger.info("Not publishing notification as broker shutting down");
+            return false;
+        }
+
+        TopicSubscriptions subscriptions = subscriptionsByTopic.get(topic);
+        if (subscriptions == null) {
+            return true;
+        }
+
+        NotificationEntry entry = NotificationEntry.of(topic, packageNotification(topic, notification));
+
+        boolean queued = true;
+        for (int i = 0; i < shards.size(); i++) {
+            if (!subscriptions.get(i).isEmpty() && !shards.get(i).offer(entry)) {
+                queued = false;
+                long total = dropped.incrementAndGet();
+                if (total % DROP_LOG_INTERVAL == 1) {
+                    logger.info("Failed to publish notification because queue is full. Notification discarded. "
+                            + "{} notifications discarded so far, current queue depth {}", total, queueDepth());
+                }
+            }
+        }
+        return queued;
+    }
+
+    private int queueDepth() {
+        int depth = 0;
+        for (BlockingQueue<NotificationEntry> shard : shards) {
+            depth += shard.size();
+        }
+        return depth;
+    }
+
+    private JsonValue packageNotification(Topic topic, JsonValue notification) {
+        String timeStamp = TS_FORMATTER.print(new DateTime(timeService.now()));
+
+        return json(object(
+                field("topic", topic.getIdentifier()),
+                field("timestamp", timeStamp),
+                field("body", notification.getObject())));
+    }
+
+    @Override
+    public Subscription subscribe(Consumer consumer) {
+        Reject.ifNull(consumer, "Consumer must not be null");
+        return new InternalSubscription(consumer, Math.floorMod(nextShard.getAndIncrement(), shards.size()));
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        executorService.shutdownNow();
+    }
+
+    private final class NotificationReader implements Runnable {
+
+        private final int shard;
+        private final BlockingQueue<NotificationEntry> queue;
+
+        private NotificationReader(int shard) {
+            this.shard = shard;
+            this.queue = shards.get(shard);
+        }
+
+        @Override
+        public void run() {
+            while (!shutdown) {
+                try {
+                    NotificationEntry entry = queue.poll(10L, TimeUnit.SECONDS);
+
+                    if (entry == null) {
+                        continue;
+                    }
+
+                    deliver(entry);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    // Informs the broker that the reader is shutting down as
+                    // it will no longer be able to serve notifications.
+                    shutdown = true;
+                    break;
+                }
+            }
+
+            List<NotificationEntry> remainingEntries = new ArrayList<>();
+            queue.drainTo(remainingEntries);
+
+            for (NotificationEntry entry : remainingEntries) {
+                deliver(entry);
+            }
+        }
+
+        private void deliver(NotificationEntry entry) {
+            TopicSubscriptions subscriptions = subscriptionsByTopic.get(entry.topic);
+            if (subscriptions == null) {
+                return;
+            }
+            for (InternalSubscription subscription : subscriptions.get(shard)) {
+                try {
+                    subscription.consume(entry.notification);
+                } catch (RuntimeException ex) {
+                    logger.warn("Exception thrown whilst delivering notifications", ex);
+                }
+            }
+        }
+
+    }
+
+    private final class InternalSubscription implements Subscription {
+
+        private final Set<Topic> topics;
+        private final Consumer consumer;
+        private final int shard;
+        private volatile boolean closed;
+
+        private InternalSubscription(Consumer consumer, int shard) {
+            this.consumer = consumer;
+            this.shard = shard;
+            topics = new CopyOnWriteArraySet<>();
+        }
+
+        @Override
+        public Subscription bindTo(Topic topic) {
+            Reject.rejectStateIfTrue(closed, "Subscription is closed");
+            Reject.ifNull(topic, "Topic must not be null");
+            if (topics.add(topic)) {
+                index(topic);
+                if (closed) {
+                    // Closed concurrently, make sure the subscription does not linger in the index
+                    unindex(topic);
+                }
+            }
+            return this;
+        }
+
+        @Override
+        public boolean isBoundTo(Topic topic) {
+            Reject.rejectStateIfTrue(closed, "Subscription is closed");
+            Reject.ifNull(topic, "Topic must not be null");
+            return topics.contains(topic);
+        }
+
+        @Override
+        public Subscription unbindFrom(Topic topic) {
+            Reject.rejectStateIfTrue(closed, "Subscription is closed");
+            Reject.ifNull(topic, "Topic must not be null");
+            if (topics.remove(topic)) {
+                unindex(topic);
+            }
+            return this;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            for (Topic topic : topics) {
+                unindex(topic);
+            }
+            topics.clear();
+        }
+
+        private void index(Topic topic) {
+            subscriptionsByTopic.compute(topic, (key, subscriptions) -> {
+                TopicSubscriptions result = subscriptions == null
+                        ? new TopicSubscriptions(shards.size()) : subscriptions;
+                result.get(shard).add(this);
+                return result;
+            });
+        }
+
+        private void unindex(Topic topic) {
+            subscriptionsByTopic.computeIfPresent(topic, (key, subscriptions) -> {
+                subscriptions.get(shard).remove(this);
+                return subscriptions.isEmpty() ? null : subscriptions;
+            });
+        }
+
+        // Called from reader thread.
+        void consume(JsonValue notification) {
+            if (!closed) {
+                consumer.accept(notification);
+            }
+        }
+    }
+
+    /**
+     * The subscriptions bound to a topic, grouped by the consumer queue they are assigned to.
+     */
+    private static final class TopicSubscriptions {
+
+        private final List<Set<InternalSubscription>> byShard;
+
+        private TopicSubscriptions(int shards) {
+            List<Set<InternalSubscription>> sets = new ArrayList<>(shards);
+            for (int i = 0; i < shards; i++) {
+                sets.add(new CopyOnWriteArraySet<InternalSubscription>());
+            }
+            byShard = Collections.unmodifiableList(sets);
+        }
+
+        Set<InternalSubscription> get(int shard) {
+            return byShard.get(shard);
+        }
+
+        boolean isEmpty() {
+            for (Set<InternalSubscription> subscriptions : byShard) {
+                if (!subscriptions.isEmpty()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class NotificationEntry {
+
+        private final Topic topic;
+        private final JsonValue notification;
+
+        private NotificationEntry(Topic topic, JsonValue notification) {
+            this.topic = topic;
+            this.notification = notification;
+        }
+
+        static NotificationEntry of(Topic topic, JsonValue notification) {
+            return new NotificationEntry(topic, notification);
+        }
+
+    }
+
+}
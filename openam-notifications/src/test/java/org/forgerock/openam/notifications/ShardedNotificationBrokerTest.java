@@ -0,0 +1,228 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+
+package org.forgerock.openam.notifications;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.json.JsonValue.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.ExecutorService;
+
+import org.forgerock.json.JsonValue;
+import org.forgerock.openam.audit.context.AMExecutorServiceFactory;
+import org.forgerock.openam.notifications.brokers.ShardedNotificationBroker;
+import org.forgerock.util.time.TimeService;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link ShardedNotificationBroker}.
+ */
+public final class ShardedNotificationBrokerTest {
+
+    private static final int CONSUMERS = 3;
+    private static final int QUEUE_SIZE = 6;
+
+    @Mock
+    private AMExecutorServiceFactory executorServiceFactory;
+    @Mock
+    private ExecutorService executorService;
+    @Mock
+    private Consumer consumer;
+    @Mock
+    private TimeService timeService;
+
+    @Captor
+    private ArgumentCaptor<Runnable> readerCapture;
+    @Captor
+    private ArgumentCaptor<JsonValue> notificationCapture;
+
+    private ShardedNotificationBroker broker;
+
+    @BeforeMethod
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(executorServiceFactory.createFixedThreadPool(anyInt(), anyString())).thenReturn(executorService);
+        broker = new ShardedNotificationBroker(executorServiceFactory, timeService, QUEUE_SIZE, CONSUMERS);
+    }
+
+    @Test
+    public void whenNotificationsArePublishedTheyAreRoutedThroughToSubscribers() {
+        // Given
+        broker.subscribe(consumer).bindTo(Topic.of("test_topic"));
+
+        // When
+        broker.publish(Topic.of("test_topic"), json(object(field("tokenId", "123-456"))));
+
+        // Then
+        runReaders();
+
+        verify(consumer).accept(notificationCapture.capture());
+        assertThat(notificationCapture.getValue().get("topic").asString()).isEqualTo("test_topic");
+        assertThat(notificationCapture.getValue().get("body").get("tokenId").asString()).isEqualTo("123-456");
+    }
+
+    @Test
+    public void whenBindingToOneTopicOnlyReceiveNotificationsForThatTopic() {
+        // Given
+        Consumer otherConsumer = mock(Consumer.class);
+        broker.subscribe(consumer).bindTo(Topic.of("test_topic1"));
+        broker.subscribe(otherConsumer).bindTo(Topic.of("test_topic2"));
+
+        // When
+        broker.publish(Topic.of("test_topic2"), json(object(field("tokenId", "123-456"))));
+
+        // Then
+        runReaders();
+
+        verify(consumer, never()).accept(any(JsonValue.class));
+        verify(otherConsumer).accept(any(JsonValue.class));
+    }
+
+    @Test
+    public void whenSubscriberThrowsExceptionBrokerCatchesAndContinues() {
+        // Given
+        Consumer badConsumer = mock(Consumer.class);
+        doThrow(RuntimeException.class).when(badConsumer).accept(any(JsonValue.class));
+        broker.subscribe(badConsumer).bindTo(Topic.of("test_topic"));
+        broker.subscribe(consumer).bindTo(Topic.of("test_topic"));
+
+        // When
+        broker.publish(Topic.of("test_topic"), json(object(field("tokenId", "123-456"))));
+
+        // Then
+        runReaders();
+
+        verify(consumer).accept(any(JsonValue.class));
+    }
+
+    @Test
+    public void whenUnbindingFromTopicNoLongerDeliversNotificationsOnThatTopic() {
+        // Given
+        broker.subscribe(consumer)
+                .bindTo(Topic.of("test_topic"))
+                .bindTo(Topic.of("another_test_topic"))
+                .unbindFrom(Topic.of("test_topic"));
+
+        // When
+        broker.publish(Topic.of("test_topic"), json(object(field("tokenId", "123-456"))));
+        broker.publish(Topic.of("another_test_topic"), json(object(field("tokenId", "123-456"))));
+
+        // Then
+        runReaders();
+
+        verify(consumer).accept(notificationCapture.capture());
+        assertThat(notificationCapture.getValue().get("topic").asString()).isEqualTo("another_test_topic");
+    }
+
+    @Test
+    public void whenClosingSubscriptionBrokerNoLongerDeliversNotifications() throws Exception {
+        // Given
+        broker.subscribe(consumer)
+                .bindTo(Topic.of("test_topic"))
+                .close();
+
+        // When
+        broker.publish(Topic.of("test_topic"), json(object(field("tokenId", "123-456"))));
+
+        // Then
+        runReaders();
+
+        verify(consumer, never()).accept(any(JsonValue.class));
+    }
+
+    @Test
+    public void whenQueueIsFullPublishReturnsFalse() {
+        // Given
+        broker.subscribe(consumer).bindTo(Topic.of("test_topic"));
+        JsonValue notification = json(object(field("tokenId", "123-456")));
+        for (int i = 0; i < QUEUE_SIZE; i++) {
+            assertThat(broker.publish(Topic.of("test_topic"), notification)).isTrue();
+        }
+
+        // When
+        boolean result = broker.publish(Topic.of("test_topic"), notification);
+
+        // Then
+        assertThat(result).isFalse();
+        runReaders();
+        verify(consumer, times(QUEUE_SIZE)).accept(any(JsonValue.class));
+    }
+
+    @Test
+    public void whenTopicHasSubscribersOnEveryConsumerEachReceivesAllNotifications() {
+        // Given
+        Consumer[] consumers = new Consumer[CONSUMERS];
+        for (int i = 0; i < CONSUMERS; i++) {
+            consumers[i] = mock(Consumer.class);
+            broker.subscribe(consumers[i]).bindTo(Topic.of("test_topic"));
+        }
+
+        // When
+        JsonValue notification = json(object(field("tokenId", "123-456")));
+        for (int i = 0; i < QUEUE_SIZE; i++) {
+            assertThat(broker.publish(Topic.of("test_topic"), notification)).isTrue();
+        }
+
+        // Then
+        runReaders();
+        for (Consumer subscriber : consumers) {
+            verify(subscriber, times(QUEUE_SIZE)).accept(any(JsonValue.class));
+        }
+    }
+
+    @Test
+    public void whenTopicHasNoSubscribersPublishReturnsTrue() {
+        // Given
+        JsonValue notification = json(object(field("tokenId", "123-456")));
+
+        // When
+        for (int i = 0; i < QUEUE_SIZE; i++) {
+            broker.publish(Topic.of("test_topic"), notification);
+        }
+        boolean result = broker.publish(Topic.of("test_topic"), notification);
+
+        // Then
+        assertThat(result).isTrue();
+    }
+
+    @Test
+    public void whenBrokerIsShuttingDownPublishReturnsFalse() {
+        // Given
+        broker.shutdown();
+
+        // When
+        boolean result = broker.publish(Topic.of("test_topic"), json(object(field("tokenId", "123-456"))));
+
+        // Then
+        assertThat(result).isFalse();
+        verify(executorService).shutdownNow();
+    }
+
+    private void runReaders() {
+        verify(executorService, times(CONSUMERS)).submit(readerCapture.capture());
+        broker.shutdown();
+        for (Runnable reader : readerCapture.getAllValues()) {
+            reader.run();
+        }
+    }
+}
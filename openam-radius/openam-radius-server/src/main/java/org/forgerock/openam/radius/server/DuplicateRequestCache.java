@@ -0,0 +1,207 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.forgerock.openam.radius.server;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Detects retransmitted Access-Request packets so that they can be answered without authenticating the user again.
+ * <p>
+ * As described in section 2.2.2 of rfc 5080, a request is a duplicate of an earlier one when it arrives from the same
+ * source address and port with the same identifier and request authenticator. A duplicate of a request still being
+ * handled is dropped, since the client will receive the response once the original is handled; a duplicate of an
+ * answered request is sent the cached response. Entries are kept for a fixed time after the request first arrives
+ * and the cache is bounded, evicting the oldest entries first.
+ */
+public class DuplicateRequestCache {
+
+    /**
+     * The offset of the identifier octet within a RADIUS packet.
+     */
+    private static final int IDENTIFIER_OFFSET = 1;
+
+    /**
+     * The offset of the authenticator field within a RADIUS packet.
+     */
+    private static final int AUTHENTICATOR_OFFSET = 4;
+
+    /**
+     * The length of the authenticator field of a RADIUS packet.
+     */
+    private static final int AUTHENTICATOR_LENGTH = 16;
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Map<Key, Entry> entries = new LinkedHashMap<>();
+
+    /**
+     * Constructs a duplicate request cache.
+     *
+     * @param maxEntries the maximum number of requests tracked at once.
+     * @param ttlSeconds how long a request is tracked after it first arrives.
+     */
+    public DuplicateRequestCache(int maxEntries, int ttlSeconds) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(Math.max(1, ttlSeconds));
+    }
+
+    /**
+     * Builds the key identifying a received request, reading the identifier and authenticator without changing the
+     * position of the buffer.
+     *
+     * @param source the address and port the request was received from.
+     * @param datagram the received packet, flipped ready for reading.
+     * @return the key, or null if the datagram is too short to be a RADIUS packet.
+     */
+    public static Key keyFor(InetSocketAddress source, ByteBuffer datagram) {
+        final int start = datagram.position();
+        if (datagram.limit() - start < AUTHENTICATOR_OFFSET + AUTHENTICATOR_LENGTH) {
+            return null;
+        }
+        final byte[] authenticator = new byte[AUTHENTICATOR_LENGTH];
+        for (int i = 0; i < AUTHENTICATOR_LENGTH; i++) {
+            authenticator[i] = datagram.get(start + AUTHENTICATOR_OFFSET + i);
+        }
+        return new Key(source, datagram.get(start + IDENTIFIER_OFFSET) & 0xFF, authenticator);
+    }
+
+    /**
+     * Starts tracking a request unless it is a duplicate of one already tracked.
+     *
+     * @param key the key of the received request.
+     * @return null if the request is new and is now tracked, otherwise the entry of the request it duplicates.
+     */
+    public synchronized Entry track(Key key) {
+        final long now = System.nanoTime();
+        purge(now);
+        final Entry existing = entries.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        entries.put(key, new Entry(now));
+        return null;
+    }
+
+    /**
+     * Records the response sent for a tracked request so that retransmits of the request receive the same response.
+     *
+     * @param key the key of the request.
+     * @param response the on-the-wire octets of the response.
+     */
+    public synchronized void answered(Key key, byte[] response) {
+        final Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.response = response;
+        }
+    }
+
+    /**
+     * Stops tracking a request that was not answered, so that a retransmit of it is handled afresh.
+     *
+     * @param key the key of the request.
+     */
+    public synchronized void abandoned(Key key) {
+        final Entry entry = entries.get(key);
+        if (entry != null && entry.response == null) {
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Returns the number of requests currently tracked.
+     *
+     * @return the number of tracked requests.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void purge(long now) {
+        final Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            final Entry eldest = it.next();
+            if (now - eldest.created >= ttlNanos || entries.size() >= maxEntries) {
+                it.remove();
+            } else {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Identifies a request by its source, identifier and request authenticator.
+     */
+    public static final class Key {
+
+        private final InetSocketAddress source;
+        private final int identifier;
+        private final byte[] authenticator;
+        private final int hash;
+
+        private Key(InetSocketAddress source, int identifier, byte[] authenticator) {
+            this.source = source;
+            this.identifier = identifier;
+            this.authenticator = authenticator;
+            this.hash = 31 * (31 * source.hashCode() + identifier) + Arrays.hashCode(authenticator);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) o;
+            return identifier == other.identifier && source.equals(other.source)
+                    && Arrays.equals(authenticator, other.authenticator);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * A tracked request.
+     */
+    public static final class Entry {
+
+        private final long created;
+        private volatile byte[] response;
+
+        private Entry(long created) {
+            this.created = created;
+        }
+
+        /**
+         * Returns the response sent for the request.
+         *
+         * @return the on-the-wire octets of the response, or null if the request is still being handled.
+         */
+        public byte[] getResponse() {
+            return response;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.forgerock.openam.radius.server;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.forgerock.openam.radius.server.config.RadiusServerConstants;
+
+/**
+ * A bounded pool of direct buffers, each large enough to hold the largest RADIUS packet, used to receive datagrams
+ * without allocating a new buffer for every request. Buffers are handed back by the request handler once the packet
+ * has been parsed. When the pool is empty a new buffer is allocated, and buffers returned to a full pool are left for
+ * the garbage collector.
+ */
+public class RadiusBufferPool {
+
+    private final BlockingQueue<ByteBuffer> buffers;
+
+    /**
+     * Constructs a pool which retains at most {@code maxPooledBuffers} idle buffers.
+     *
+     * @param maxPooledBuffers the maximum number of idle buffers held by the pool.
+     */
+    public RadiusBufferPool(int maxPooledBuffers) {
+        this.buffers = new ArrayBlockingQueue<>(Math.max(1, maxPooledBuffers));
+    }
+
+    /**
+     * Obtains a cleared, big-endian buffer of {@link RadiusServerConstants#MAX_PACKET_SIZE} octets.
+     *
+     * @return a buffer ready to receive a datagram.
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = buffers.poll();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(RadiusServerConstants.MAX_PACKET_SIZE);
+            buffer.order(ByteOrder.BIG_ENDIAN);
+        }
+        return buffer;
+    }
+
+    /**
+     * Returns a buffer to the pool. The caller must not use the buffer afterwards.
+     *
+     * @param buffer the buffer to return. Ignored if null.
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer != null && buffer.isDirect() && buffer.capacity() == RadiusServerConstants.MAX_PACKET_SIZE) {
+            buffer.clear();
+            buffers.offer(buffer);
+        }
+    }
+
+    /**
+     * Returns the number of idle buffers currently held by the pool.
+     *
+     * @return the number of idle buffers.
+     */
+    public int getIdleCount() {
+        return buffers.size();
+    }
+}
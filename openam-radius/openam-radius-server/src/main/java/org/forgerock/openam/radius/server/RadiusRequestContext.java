@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyrighted 2015 Intellectual Reserve, Inc (IRI)
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package org.forgerock.openam.radius.server;
 
@@ -78,6 +79,17 @@ public class RadiusRequestContext {
      */
     private short requestId;
 
+    /**
+     * The cache in which the response is recorded for answering retransmits of the request, or null if duplicate
+     * requests are not being detected.
+     */
+    private final DuplicateRequestCache duplicateRequestCache;
+
+    /**
+     * The key of the request in the duplicate request cache.
+     */
+    private final DuplicateRequestCache.Key duplicateRequestKey;
+
     /**
      * Constructs the reponse handler.
      *
@@ -89,9 +101,30 @@ public class RadiusRequestContext {
      *            the source address of the UDP packet
      */
     public RadiusRequestContext(ClientConfig clientConfig, DatagramChannel channel, InetSocketAddress source) {
+        this(clientConfig, channel, source, null, null);
+    }
+
+    /**
+     * Constructs the reponse handler for a request tracked by a duplicate request cache.
+     *
+     * @param clientConfig
+     *            the configuration of the registered client
+     * @param channel
+     *            the datagram channel object for the received request
+     * @param source
+     *            the source address of the UDP packet
+     * @param duplicateRequestCache
+     *            the cache in which to record the response for answering retransmits, may be null
+     * @param duplicateRequestKey
+     *            the key of the request in the duplicate request cache, may be null
+     */
+    public RadiusRequestContext(ClientConfig clientConfig, DatagramChannel channel, InetSocketAddress source,
+            DuplicateRequestCache duplicateRequestCache, DuplicateRequestCache.Key duplicateRequestKey) {
         this.channel = channel;
         this.source = source;
         this.clientConfig = clientConfig;
+        this.duplicateRequestCache = duplicateRequestCache;
+        this.duplicateRequestKey = duplicateRequestKey;
     }
 
     /**
@@ -170,7 +203,11 @@ public class RadiusRequestContext {
         if (clientConfig.isLogPackets()) {
             logPacketContent(response, "\nPacket to " + clientConfig.getName() + ":");
         }
-        final ByteBuffer reqBuf = ByteBuffer.wrap(response.getOctets());
+        final byte[] octets = response.getOctets();
+        if (duplicateRequestCache != null && duplicateRequestKey != null) {
+            duplicateRequestCache.answered(duplicateRequestKey, octets);
+        }
+        final ByteBuffer reqBuf = ByteBuffer.wrap(octets);
 
         try {
             LOG.message("Sending response of type " + response.getType() + " to " + clientConfig.getName());
@@ -213,6 +250,16 @@ public class RadiusRequestContext {
         }
     }
 
+    /**
+     * Called once handling of the request is complete. If no response was sent, the request stops being tracked as a
+     * duplicate so that a retransmit of it is handled afresh.
+     */
+    public void requestHandled() {
+        if (!sendWasCalled && duplicateRequestCache != null && duplicateRequestKey != null) {
+            duplicateRequestCache.abandoned(duplicateRequestKey);
+        }
+    }
+
     /**
      * Indicates if a response has already been sent for the request represented by this context object.
      *
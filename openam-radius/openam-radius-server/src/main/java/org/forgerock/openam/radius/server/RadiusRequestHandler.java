@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyrighted 2015 Intellectual Reserve, Inc (IRI)
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 /*
  * Portions copyright 2015 ForgeRock AS
@@ -74,6 +75,11 @@ public class RadiusRequestHandler implements Runnable {
      */
     private AccessRequestHandlerFactory accessRequestHandlerFactory;
 
+    /**
+     * The pool to which the buffer is returned once the request has been parsed, or null if the buffer is not pooled.
+     */
+    private final RadiusBufferPool bufferPool;
+
     /**
      * Constructs a request handler.
      *
@@ -86,11 +92,28 @@ public class RadiusRequestHandler implements Runnable {
     public RadiusRequestHandler(AccessRequestHandlerFactory accessRequestHandlerFactory,
             final RadiusRequestContext reqCtx, final ByteBuffer buffer,
             final EventBus eventBus) {
+        this(accessRequestHandlerFactory, reqCtx, buffer, eventBus, null);
+    }
+
+    /**
+     * Constructs a request handler for a request received into a pooled buffer.
+     *
+     * @param accessRequestHandlerFactory - a factory object that will construct access request handlers used to handle
+     *            the radius requests.
+     * @param reqCtx a <code>RadiusRequestContext</code> object. Must be non-null.
+     * @param buffer an {@code ByteBuffer} containing the bytes received by a radius handler.
+     * @param eventBus used to notify interested parties of events occurring during the processing of radius requests.
+     * @param bufferPool the pool to return the buffer to once the request has been parsed, may be null.
+     */
+    public RadiusRequestHandler(AccessRequestHandlerFactory accessRequestHandlerFactory,
+            final RadiusRequestContext reqCtx, final ByteBuffer buffer,
+            final EventBus eventBus, final RadiusBufferPool bufferPool) {
         LOG.message("Entering RadiusRequestHandler.RadiusRequestHandler()");
         this.requestContext = reqCtx;
         this.buffer = buffer;
         this.eventBus = eventBus;
         this.accessRequestHandlerFactory = accessRequestHandlerFactory;
+        this.bufferPool = bufferPool;
         LOG.message("Leaving RadiusRequestHandler.RadiusRequestHandler()");
     }
 
@@ -105,9 +128,24 @@ public class RadiusRequestHandler implements Runnable {
 
     @Override
     public void run() {
+        try {
+            handle();
+        } finally {
+            requestContext.requestHandled();
+        }
+    }
+
+    private void handle() {
         try {
             LOG.message("Entering RadiusRequestHandler.run();");
-            final Packet requestPacket = getValidPacket(buffer);
+            final Packet requestPacket;
+            try {
+                requestPacket = getValidPacket(buffer);
+            } finally {
+                if (bufferPool != null) {
+                    bufferPool.release(buffer);
+                }
+            }
             if (requestPacket == null) {
                 LOG.message("Leaving RadiusRequestHandler.run(); no requestPacket");
                 return;
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyrighted 2015 Intellectual Reserve, Inc (IRI)
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package org.forgerock.openam.radius.server;
 
@@ -27,10 +28,9 @@ import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.net.InetSocketAddress;
-import java.net.SocketException;
+import java.net.SocketOption;
 import java.net.StandardSocketOptions;
 import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.nio.channels.ClosedByInterruptException;
 import java.nio.channels.DatagramChannel;
 import java.nio.charset.Charset;
@@ -38,8 +38,12 @@ import java.nio.charset.UnsupportedCharsetException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Listens for incoming radius requests, validates they are for defined clients, drops packets that aren't, and queues
@@ -47,6 +51,10 @@ import java.util.concurrent.TimeUnit;
  * buffered incoming requests while packets in process of being handled are polished off and can send their responses
  * through the backing channel. Then it closes the channel and exits.
  * <p/>
+ * Where the runtime supports SO_REUSEPORT, several channels may be bound to the port, each with its own receiving
+ * thread, so that the kernel spreads incoming datagrams across them. Datagrams are received into pooled direct buffers
+ * and, when a {@link DuplicateRequestCache} is supplied, retransmitted requests are answered from the cache or dropped
+ * rather than being authenticated again.
  */
 public class RadiusRequestListener implements Runnable {
 
@@ -73,14 +81,29 @@ public class RadiusRequestListener implements Runnable {
      */
     private volatile boolean terminated = false;
     /**
-     * The datagram channel of this listener.
+     * The datagram channels of this listener, all bound to the configured port.
      */
-    private DatagramChannel channel = null;
+    private final List<DatagramChannel> channels = new ArrayList<>();
 
     /**
-     * The thread instance that is running this listener's Runnable.
+     * The threads receiving from the channels, one per channel.
      */
-    private volatile Thread listenerThread = null;
+    private final List<Thread> listenerThreads = new ArrayList<>();
+
+    /**
+     * The number of receiving threads which have not yet exited.
+     */
+    private final AtomicInteger activeReceivers = new AtomicInteger();
+
+    /**
+     * The pool of buffers into which datagrams are received.
+     */
+    private final RadiusBufferPool bufferPool;
+
+    /**
+     * Detects retransmitted requests, or null if duplicate detection is disabled.
+     */
+    private final DuplicateRequestCache duplicateRequestCache;
 
     /**
      * Service factory from which we may obtain an executor service that is automatically wired up to shutdown when the
@@ -114,29 +137,59 @@ public class RadiusRequestListener implements Runnable {
             final EventBus eventBus,
             final AccessRequestHandlerFactory accessRequestHandlerFactory)
             throws RadiusLifecycleException {
+        this(config, executorService, eventBus, accessRequestHandlerFactory,
+                RadiusServerConstants.DEFAULT_LISTENER_CHANNELS,
+                new RadiusBufferPool(RadiusServerConstants.DEFAULT_BUFFER_POOL_SIZE), null);
+    }
+
+    /**
+     * Construct listener, opens the DatagramChannels to receive requests, and launches a listener thread per channel
+     * which will capture the requests, drop unauthorized clients and duplicates, and spool to the thread pool.
+     *
+     * @param config the configuration loaded from our admin console pages
+     * @param executorService the thread pool executor to process radius requests.
+     * @param eventBus may used to notify interested parties when events occur during the processing of radius events.
+     * @param accessRequestHandlerFactory used to obtain access request handler classes for specific clients, as defined
+     *            in the configuration.
+     * @param channelCount the number of channels to bind to the port. Values above one are only honoured where the
+     *            runtime supports SO_REUSEPORT.
+     * @param bufferPool the pool of buffers into which datagrams are received.
+     * @param duplicateRequestCache detects retransmitted requests, may be null to disable duplicate detection.
+     * @throws RadiusLifecycleException when the config is insufficient or invalid.
+     */
+    public RadiusRequestListener(final RadiusServiceConfig config,
+            final ExecutorService executorService,
+            final EventBus eventBus,
+            final AccessRequestHandlerFactory accessRequestHandlerFactory,
+            final int channelCount,
+            final RadiusBufferPool bufferPool,
+            final DuplicateRequestCache duplicateRequestCache)
+            throws RadiusLifecycleException {
         LOG.warning("RADIUS service enabled. Starting Listener.");
         this.config = config;
         this.executorService = executorService;
         this.eventBus = eventBus;
         this.accessRequestHandlerFactory = accessRequestHandlerFactory;
-
-        // lets get our inbound channel opened and bound
-        try {
-            this.channel = DatagramChannel.open();
-            // ensure that we can re-open port immediately after shutdown when changing handlerConfig
-            this.channel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
-        } catch (final IOException e) {
-            this.startedSuccessfully = false;
-            throw new RadiusLifecycleException("RADIUS listener unable to open datagram channel.", e);
+        this.bufferPool = bufferPool;
+        this.duplicateRequestCache = duplicateRequestCache;
+
+        // lets get our inbound channels opened and bound
+        LOG.message("Starting RADIUS listener on port " + Integer.toString(config.getPort()));
+        SocketOption<Boolean> reusePort = null;
+        if (channelCount > 1) {
+            reusePort = findReusePortOption();
+            if (reusePort == null) {
+                LOG.warning("SO_REUSEPORT is not supported by this runtime. RADIUS listener will use one channel.");
+            }
         }
-
         try {
-            final int radiusPort = config.getPort();
-            LOG.message("Starting RADIUS listener on port " + Integer.toString(radiusPort));
-            this.channel.socket().bind(new InetSocketAddress(radiusPort));
-        } catch (final SocketException e) {
-            this.startedSuccessfully = false;
-            throw new RadiusLifecycleException("RADIUS listener unable to bind to port " + config.getPort(), e);
+            final int count = reusePort == null ? 1 : channelCount;
+            for (int i = 0; i < count; i++) {
+                channels.add(openChannel(reusePort));
+            }
+        } catch (final RadiusLifecycleException e) {
+            closeChannels();
+            throw e;
         }
 
         // verify necessary resources are available that will prevent any handling if not found. Should never happen
@@ -167,14 +220,95 @@ public class RadiusRequestListener implements Runnable {
         // poolCfg.getKeepAliveSeconds(),
         // TimeUnit.SECONDS, queue, fact, dropsHandler);
 
-        // now spin up our listener thread to feed the pool
-        listenerThread = new Thread(this);
-        listenerThread.setName(MessageFormat.format(RadiusServerConstants.LISTENER_THREAD_NAME, config.getPort()));
-        listenerThread.setDaemon(true);
-        listenerThread.start();
+        // now spin up our listener threads to feed the pool
+        final String threadName = MessageFormat.format(RadiusServerConstants.LISTENER_THREAD_NAME, config.getPort());
+        for (int i = 0; i < channels.size(); i++) {
+            final DatagramChannel channel = channels.get(i);
+            final Thread listenerThread;
+            if (i == 0) {
+                listenerThread = new Thread(this, threadName);
+            } else {
+                listenerThread = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        receive(channel);
+                    }
+                }, threadName + "-" + (i + 1));
+            }
+            listenerThread.setDaemon(true);
+            listenerThreads.add(listenerThread);
+        }
+        activeReceivers.set(listenerThreads.size());
+        for (final Thread listenerThread : listenerThreads) {
+            listenerThread.start();
+        }
         this.startedSuccessfully = true;
     }
 
+    /**
+     * Opens a datagram channel and binds it to the configured port.
+     *
+     * @param reusePort the SO_REUSEPORT option to enable on the channel, or null to leave it unset.
+     * @return the bound channel.
+     * @throws RadiusLifecycleException if the channel can not be opened or bound.
+     */
+    private DatagramChannel openChannel(SocketOption<Boolean> reusePort) throws RadiusLifecycleException {
+        final DatagramChannel channel;
+        try {
+            channel = DatagramChannel.open();
+            // ensure that we can re-open port immediately after shutdown when changing handlerConfig
+            channel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+            if (reusePort != null) {
+                channel.setOption(reusePort, true);
+            }
+        } catch (final IOException e) {
+            this.startedSuccessfully = false;
+            throw new RadiusLifecycleException("RADIUS listener unable to open datagram channel.", e);
+        }
+
+        try {
+            channel.socket().bind(new InetSocketAddress(config.getPort()));
+        } catch (final IOException e) {
+            this.startedSuccessfully = false;
+            try {
+                channel.close();
+            } catch (final IOException ce) {
+                LOG.warning("Failed to close unbound RADIUS channel", ce);
+            }
+            throw new RadiusLifecycleException("RADIUS listener unable to bind to port " + config.getPort(), e);
+        }
+        return channel;
+    }
+
+    /**
+     * Looks up the SO_REUSEPORT socket option, which is only present in Java 9 and later runtimes.
+     *
+     * @return the option, or null if the runtime or platform does not support it.
+     */
+    @SuppressWarnings("unchecked")
+    private static SocketOption<Boolean> findReusePortOption() {
+        try (DatagramChannel probe = DatagramChannel.open()) {
+            final Object option = StandardSocketOptions.class.getField("SO_REUSEPORT").get(null);
+            if (probe.supportedOptions().contains(option)) {
+                return (SocketOption<Boolean>) option;
+            }
+        } catch (final NoSuchFieldException | IllegalAccessException | IOException e) {
+            LOG.message("SO_REUSEPORT socket option is not available.");
+        }
+        return null;
+    }
+
+    private void closeChannels() {
+        for (final DatagramChannel channel : channels) {
+            try {
+                channel.close();
+            } catch (final IOException e) {
+                LOG.warning("Failed to close RADIUS channel", e);
+            }
+        }
+        channels.clear();
+    }
+
     /**
      * Indicates if the constructor successfully started up the listener.
      *
@@ -227,20 +361,18 @@ public class RadiusRequestListener implements Runnable {
                 interrupted = true;
             }
         }
-        // now that all in-process requests are finished with the channel we can interrupt the listener if it is still
-        // around (like when it was waiting for more requests prior to termination and received none and needs to be
-        // kicked out of receiving mode
-        final Thread t = listenerThread;
-        if (t != null) {
+        // now that all in-process requests are finished with the channels we can interrupt the listeners if they are
+        // still around (like when they were waiting for more requests prior to termination and received none and need
+        // to be kicked out of receiving mode
+        for (final Thread t : listenerThreads) {
             t.interrupt();
-
-            while (listenerThread != null) {
-                LOG.warning("Waiting for RADIUS Listener to exit.");
-                try {
-                    Thread.sleep(200);
-                } catch (final InterruptedException e) {
-                    // ignore and wait for our listener thread to exit
-                }
+        }
+        while (activeReceivers.get() > 0) {
+            LOG.warning("Waiting for RADIUS Listener to exit.");
+            try {
+                Thread.sleep(200);
+            } catch (final InterruptedException e) {
+                // ignore and wait for our listener threads to exit
             }
         }
     }
@@ -252,16 +384,24 @@ public class RadiusRequestListener implements Runnable {
      */
     @Override
     public void run() {
+        dumpBannerToLog();
+        receive(channels.get(0));
+    }
+
+    /**
+     * Receives packets from one of the listener's channels until the listener is terminated, then closes the channel.
+     *
+     * @param channel the channel to receive from.
+     */
+    private void receive(DatagramChannel channel) {
         // Flag to hold interrupted state for returning after cleanup.
         boolean interrupted = false;
 
-        dumpBannerToLog();
-
         while (!terminated && !interrupted) {
+            // pooled buffers are direct and in big-endian (network) byte order
+            final ByteBuffer bfr = bufferPool.acquire();
+            boolean handedOff = false;
             try {
-                // assure big-endian (network) byte order for our buffer
-                final ByteBuffer bfr = ByteBuffer.allocate(RadiusServerConstants.MAX_PACKET_SIZE);
-                bfr.order(ByteOrder.BIG_ENDIAN);
                 InetSocketAddress iAddr = null;
 
                 // see if we have a datagram packet waiting for us
@@ -286,11 +426,11 @@ public class RadiusRequestListener implements Runnable {
                     continue;
                 }
                 // see if it is for a registered client
-                final String ipAddr = iAddr.getAddress().toString();
-                final ClientConfig clientConfig = config.findClient(ipAddr);
+                final ClientConfig clientConfig = config.findClient(iAddr.getAddress());
 
                 if (clientConfig == null) {
-                    LOG.warning("No Defined RADIUS Client matches IP address " + ipAddr + ". Dropping request.");
+                    LOG.warning("No Defined RADIUS Client matches IP address " + iAddr.getAddress()
+                            + ". Dropping request.");
                     eventBus.post(new PacketDroppedSilentlyEvent());
                     continue;
                 }
@@ -301,16 +441,41 @@ public class RadiusRequestListener implements Runnable {
                     continue;
                 }
 
-                // prepare buffer for draining and queue up a handler
+                // prepare buffer for draining and see whether this is a retransmit of a request we have already seen
                 bfr.flip();
-                final RadiusRequestContext reqCtx = new RadiusRequestContext(clientConfig, channel, iAddr);
+                DuplicateRequestCache.Key duplicateKey = null;
+                if (duplicateRequestCache != null) {
+                    duplicateKey = DuplicateRequestCache.keyFor(iAddr, bfr);
+                    if (duplicateKey != null) {
+                        final DuplicateRequestCache.Entry original = duplicateRequestCache.track(duplicateKey);
+                        if (original != null) {
+                            answerDuplicate(channel, iAddr, clientConfig, original);
+                            continue;
+                        }
+                    }
+                }
+
+                // queue up a handler
+                final RadiusRequestContext reqCtx = new RadiusRequestContext(clientConfig, channel, iAddr,
+                        duplicateRequestCache, duplicateKey);
 
                 final RadiusRequestHandler requestHandler = new RadiusRequestHandler(accessRequestHandlerFactory,
-                        reqCtx, bfr, eventBus);
+                        reqCtx, bfr, eventBus, bufferPool);
 
-                executorService.execute(requestHandler);
+                try {
+                    executorService.execute(requestHandler);
+                    handedOff = true;
+                } catch (final RejectedExecutionException e) {
+                    // the request was never handled, so a retransmit of it must not be treated as a duplicate
+                    reqCtx.requestHandled();
+                    throw e;
+                }
             } catch (final Exception t) {
                 LOG.error("Error receiving request.", t);
+            } finally {
+                if (!handedOff) {
+                    bufferPool.release(bfr);
+                }
             }
         } // End of while loop
 
@@ -325,7 +490,33 @@ public class RadiusRequestListener implements Runnable {
             LOG.error("Failed to close the Listener's UDP channel", e);
         }
         LOG.message("RADIUS Listener Exited.");
-        this.listenerThread = null;
+        activeReceivers.decrementAndGet();
+    }
+
+    /**
+     * Responds to a retransmitted request. If the original request has been answered the same response is sent again,
+     * otherwise the retransmit is dropped as the client will receive the response once the original is handled.
+     *
+     * @param channel the channel the retransmit was received on.
+     * @param source the address and port the retransmit was received from.
+     * @param clientConfig the configuration of the client that sent the retransmit.
+     * @param original the tracked original request.
+     */
+    private void answerDuplicate(DatagramChannel channel, InetSocketAddress source, ClientConfig clientConfig,
+            DuplicateRequestCache.Entry original) {
+        final byte[] response = original.getResponse();
+        if (response == null) {
+            LOG.message("Dropping retransmitted request from " + clientConfig.getName()
+                    + " which is still being handled.");
+            eventBus.post(new PacketDroppedSilentlyEvent());
+            return;
+        }
+        try {
+            LOG.message("Resending response to retransmitted request from " + clientConfig.getName());
+            channel.send(ByteBuffer.wrap(response), source);
+        } catch (final IOException e) {
+            LOG.error("Unable to resend response to " + clientConfig.getName() + ".", e);
+        }
     }
 
     private void dumpBannerToLog() {
@@ -337,6 +528,8 @@ public class RadiusRequestListener implements Runnable {
         pw.println("Threads Max       : " + config.getThreadPoolConfig().getMaxThreads());
         pw.println("Thread Keep-alive : " + config.getThreadPoolConfig().getKeepAliveSeconds() + " sec");
         pw.println("Request Queue     : " + config.getThreadPoolConfig().getQueueSize());
+        pw.println("Channels          : " + channels.size());
+        pw.println("Duplicate Cache   : " + (duplicateRequestCache == null ? "disabled" : "enabled"));
         pw.flush();
 
         LOG.message(sw.toString());
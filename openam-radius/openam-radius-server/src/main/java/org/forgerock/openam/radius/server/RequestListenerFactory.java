@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package org.forgerock.openam.radius.server;
 
@@ -28,6 +29,7 @@ import org.forgerock.openam.radius.server.config.RadiusServerConstants;
 import org.forgerock.openam.radius.server.config.RadiusServiceConfig;
 import org.forgerock.openam.radius.server.config.ThreadPoolConfig;
 
+import com.iplanet.am.util.SystemProperties;
 import com.sun.identity.shared.debug.Debug;
 
 /**
@@ -86,7 +88,29 @@ public class RequestListenerFactory {
         final ArrayBlockingQueue<Runnable> queue = new ArrayBlockingQueue<Runnable>(poolConfig.getQueueSize());
         final ExecutorService executorService = executorServiceFactory.createThreadPool(coreSize, maxSize, idleTimeout,
                 TimeUnit.SECONDS, queue, "RadiusRequestHandler");
-        return new RadiusRequestListener(serviceConfig, executorService, eventBus, accessRequestHandlerFactory);
+        final int channelCount = SystemProperties.getAsInt(RadiusServerConstants.LISTENER_CHANNELS_PROPERTY,
+                RadiusServerConstants.DEFAULT_LISTENER_CHANNELS);
+        final RadiusBufferPool bufferPool = new RadiusBufferPool(SystemProperties.getAsInt(
+                RadiusServerConstants.BUFFER_POOL_SIZE_PROPERTY, RadiusServerConstants.DEFAULT_BUFFER_POOL_SIZE));
+        return new RadiusRequestListener(serviceConfig, executorService, eventBus, accessRequestHandlerFactory,
+                channelCount, bufferPool, createDuplicateRequestCache());
+    }
+
+    /**
+     * Creates the cache used to detect retransmitted requests, or returns null if duplicate detection is disabled.
+     *
+     * @return the duplicate request cache or null.
+     */
+    private DuplicateRequestCache createDuplicateRequestCache() {
+        final int size = SystemProperties.getAsInt(RadiusServerConstants.DUPLICATE_CACHE_SIZE_PROPERTY,
+                RadiusServerConstants.DEFAULT_DUPLICATE_CACHE_SIZE);
+        if (size <= 0) {
+            logger.message("RADIUS duplicate request detection is disabled.");
+            return null;
+        }
+        final int ttlSeconds = SystemProperties.getAsInt(RadiusServerConstants.DUPLICATE_CACHE_TTL_PROPERTY,
+                RadiusServerConstants.DEFAULT_DUPLICATE_CACHE_TTL_SECONDS);
+        return new DuplicateRequestCache(size, ttlSeconds);
     }
 
 
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyrighted 2015 Intellectual Reserve, Inc (IRI)
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package org.forgerock.openam.radius.server.config;
 
@@ -155,4 +156,47 @@ public final class RadiusServerConstants {
      * another warning message will be issued to log indicating that the pool is taking longer than allowed.
      */
     public static final long THREAD_POOL_SHUTDOWN_WAIT_SECONDS = 5;
+
+    /**
+     * System property holding the number of datagram channels, each with its own receiving thread, bound to the
+     * RADIUS port. More than one channel is only used where the runtime supports SO_REUSEPORT.
+     */
+    public static final String LISTENER_CHANNELS_PROPERTY = "org.forgerock.openam.radius.server.listener.channels";
+
+    /**
+     * System property holding the maximum number of idle receive buffers kept for reuse.
+     */
+    public static final String BUFFER_POOL_SIZE_PROPERTY = "org.forgerock.openam.radius.server.bufferPool.size";
+
+    /**
+     * System property holding the maximum number of requests tracked for duplicate detection. Zero disables duplicate
+     * detection.
+     */
+    public static final String DUPLICATE_CACHE_SIZE_PROPERTY = "org.forgerock.openam.radius.server.duplicateCache.size";
+
+    /**
+     * System property holding the number of seconds a request is tracked for duplicate detection.
+     */
+    public static final String DUPLICATE_CACHE_TTL_PROPERTY =
+            "org.forgerock.openam.radius.server.duplicateCache.ttlSeconds";
+
+    /**
+     * The default number of datagram channels bound to the RADIUS port.
+     */
+    public static final int DEFAULT_LISTENER_CHANNELS = 1;
+
+    /**
+     * The default maximum number of idle receive buffers kept for reuse.
+     */
+    public static final int DEFAULT_BUFFER_POOL_SIZE = 256;
+
+    /**
+     * The default maximum number of requests tracked for duplicate detection.
+     */
+    public static final int DEFAULT_DUPLICATE_CACHE_SIZE = 10000;
+
+    /**
+     * The default number of seconds a request is tracked for duplicate detection.
+     */
+    public static final int DEFAULT_DUPLICATE_CACHE_TTL_SECONDS = 30;
 }
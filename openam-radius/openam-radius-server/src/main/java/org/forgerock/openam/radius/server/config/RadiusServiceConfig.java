@@ -12,14 +12,18 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyrighted 2015 Intellectual Reserve, Inc (IRI)
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package org.forgerock.openam.radius.server.config;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.net.InetAddress;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.google.common.net.InetAddresses;
+
 /**
  * Holds the suite of configuration from the admin console for rapid determination of whether packets should be dropped
  * or accepted and processed.
@@ -35,6 +39,12 @@ public class RadiusServiceConfig {
      */
     private final Map<String, ClientConfig> clients = new HashMap<String, ClientConfig>();
 
+    /**
+     * The configured clients whose IP address is a literal in the form produced by {@link InetAddress#toString()},
+     * indexed by address so that lookups for received packets need not format the source address.
+     */
+    private final Map<InetAddress, ClientConfig> clientsByAddress = new HashMap<InetAddress, ClientConfig>();
+
     /**
      * Whether the port should be opened and we should be listening for incoming UDP packet requests. By default we set
      * it to false when instantiated and then set the value to reflect what is
@@ -66,9 +76,32 @@ public class RadiusServiceConfig {
 
         for (final ClientConfig c : clientConfigs) {
             this.clients.put(c.getIpaddr(), c);
+            final InetAddress address = toAddress(c.getIpaddr());
+            if (address != null) {
+                this.clientsByAddress.put(address, c);
+            }
         }
     }
 
+    /**
+     * Parses a configured client address of the form "/ip-literal", which is what {@link InetAddress#toString()}
+     * produces for the source address of a received packet. Host names are not resolved.
+     *
+     * @param ipAddress the configured client address.
+     * @return the address, or null if the value is not in that form.
+     */
+    private static InetAddress toAddress(String ipAddress) {
+        if (ipAddress == null || !ipAddress.startsWith("/")) {
+            return null;
+        }
+        final String literal = ipAddress.substring(1);
+        if (!InetAddresses.isInetAddress(literal)) {
+            return null;
+        }
+        final InetAddress address = InetAddresses.forString(literal);
+        return address.toString().equals(ipAddress) ? address : null;
+    }
+
     /**
      * Get the thread pool configuration values.
      *
@@ -90,6 +123,22 @@ public class RadiusServiceConfig {
         return clients.get(ipAddress);
     }
 
+    /**
+     * Returns the defined client for the given source address of a received packet or null if no client for that
+     * address is defined.
+     *
+     * @param address
+     *            the source address of the packet.
+     * @return the <code>ClientConfig</code> whose ipAddress matches <code>address</code> or null if no client matches.
+     */
+    public ClientConfig findClient(InetAddress address) {
+        final ClientConfig client = clientsByAddress.get(address);
+        if (client != null) {
+            return client;
+        }
+        return clientsByAddress.size() == clients.size() ? null : clients.get(address.toString());
+    }
+
     /**
      * Returns true if the RADIUS service should have an open UDP Datagram Channel listening for incoming packets.
      * Returns false if the RADIUS service should NOT be listening for and accepting packets.
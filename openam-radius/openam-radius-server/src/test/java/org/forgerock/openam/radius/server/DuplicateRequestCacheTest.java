@@ -0,0 +1,164 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.forgerock.openam.radius.server;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+
+import org.forgerock.openam.radius.common.Utils;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Test for the <code>DuplicateRequestCache</code> class.
+ */
+public class DuplicateRequestCacheTest {
+
+    private static final String REQUEST = "01 00 00 38 0f 40 3f 94 73 97 80 57 bd 83 d5 cb "
+            + "98 f4 22 7a 01 06 6e 65 6d 6f 02 12 0d be 70 8d " + "93 d4 13 ce 31 96 e4 3f 78 2a 0a ee 04 06 c0 a8 "
+            + "01 10 05 06 00 00 00 03";
+
+    private static final String REQUEST_NEW_AUTHENTICATOR = "01 00 00 38 0f 40 3f 94 73 97 80 57 bd 83 d5 cb "
+            + "98 f4 22 7b 01 06 6e 65 6d 6f 02 12 0d be 70 8d " + "93 d4 13 ce 31 96 e4 3f 78 2a 0a ee 04 06 c0 a8 "
+            + "01 10 05 06 00 00 00 03";
+
+    private InetSocketAddress source;
+    private DuplicateRequestCache cache;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        source = new InetSocketAddress(InetAddress.getByName("127.0.0.1"), 6836);
+        cache = new DuplicateRequestCache(100, 30);
+    }
+
+    @Test
+    public void keyShouldNotConsumeTheBuffer() {
+        // given
+        final ByteBuffer buffer = Utils.toBuffer(REQUEST);
+        final int position = buffer.position();
+
+        // when
+        final DuplicateRequestCache.Key key = DuplicateRequestCache.keyFor(source, buffer);
+
+        // then
+        assertThat(key).isNotNull();
+        assertThat(buffer.position()).isEqualTo(position);
+    }
+
+    @Test
+    public void shouldReturnNullKeyForTruncatedPacket() {
+        assertThat(DuplicateRequestCache.keyFor(source, Utils.toBuffer("01 00 00 38 0f 40"))).isNull();
+    }
+
+    @Test
+    public void shouldTrackNewRequest() {
+        // when
+        final DuplicateRequestCache.Entry entry = cache.track(DuplicateRequestCache.keyFor(source,
+                Utils.toBuffer(REQUEST)));
+
+        // then
+        assertThat(entry).isNull();
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldDetectRetransmitOfRequestInProgress() {
+        // given
+        cache.track(DuplicateRequestCache.keyFor(source, Utils.toBuffer(REQUEST)));
+
+        // when
+        final DuplicateRequestCache.Entry entry = cache.track(DuplicateRequestCache.keyFor(source,
+                Utils.toBuffer(REQUEST)));
+
+        // then
+        assertThat(entry).isNotNull();
+        assertThat(entry.getResponse()).isNull();
+    }
+
+    @Test
+    public void shouldReturnCachedResponseForRetransmitOfAnsweredRequest() {
+        // given
+        final DuplicateRequestCache.Key key = DuplicateRequestCache.keyFor(source, Utils.toBuffer(REQUEST));
+        cache.track(key);
+        final byte[] response = new byte[] {2, 0, 0, 20};
+        cache.answered(key, response);
+
+        // when
+        final DuplicateRequestCache.Entry entry = cache.track(DuplicateRequestCache.keyFor(source,
+                Utils.toBuffer(REQUEST)));
+
+        // then
+        assertThat(entry.getResponse()).isEqualTo(response);
+    }
+
+    @Test
+    public void shouldTreatNewAuthenticatorAsNewRequest() {
+        // given
+        cache.track(DuplicateRequestCache.keyFor(source, Utils.toBuffer(REQUEST)));
+
+        // when
+        final DuplicateRequestCache.Entry entry = cache.track(DuplicateRequestCache.keyFor(source,
+                Utils.toBuffer(REQUEST_NEW_AUTHENTICATOR)));
+
+        // then
+        assertThat(entry).isNull();
+    }
+
+    @Test
+    public void shouldTreatDifferentSourcePortAsNewRequest() {
+        // given
+        cache.track(DuplicateRequestCache.keyFor(source, Utils.toBuffer(REQUEST)));
+        final InetSocketAddress otherPort = new InetSocketAddress(source.getAddress(), source.getPort() + 1);
+
+        // when
+        final DuplicateRequestCache.Entry entry = cache.track(DuplicateRequestCache.keyFor(otherPort,
+                Utils.toBuffer(REQUEST)));
+
+        // then
+        assertThat(entry).isNull();
+    }
+
+    @Test
+    public void shouldForgetAbandonedRequest() {
+        // given
+        final DuplicateRequestCache.Key key = DuplicateRequestCache.keyFor(source, Utils.toBuffer(REQUEST));
+        cache.track(key);
+
+        // when
+        cache.abandoned(key);
+
+        // then
+        assertThat(cache.track(key)).isNull();
+    }
+
+    @Test
+    public void shouldEvictOldestRequestWhenFull() {
+        // given
+        cache = new DuplicateRequestCache(1, 30);
+        final DuplicateRequestCache.Key first = DuplicateRequestCache.keyFor(source, Utils.toBuffer(REQUEST));
+        cache.track(first);
+
+        // when
+        cache.track(DuplicateRequestCache.keyFor(source, Utils.toBuffer(REQUEST_NEW_AUTHENTICATOR)));
+
+        // then
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.track(first)).isNull();
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.forgerock.openam.radius.server.config;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.net.InetAddress;
+
+import org.testng.annotations.Test;
+
+/**
+ * Test for the <code>RadiusServiceConfig</code> class.
+ */
+public class RadiusServiceConfigTest {
+
+    @Test
+    public void shouldFindClientByAddress() throws Exception {
+        // given
+        final ClientConfig client = client("/127.0.0.1");
+        final RadiusServiceConfig config = new RadiusServiceConfig(true, 1812, null, client, client("/10.0.0.1"));
+
+        // when
+        final ClientConfig found = config.findClient(InetAddress.getByName("127.0.0.1"));
+
+        // then
+        assertThat(found).isSameAs(client);
+    }
+
+    @Test
+    public void shouldNotFindUnknownAddress() throws Exception {
+        // given
+        final RadiusServiceConfig config = new RadiusServiceConfig(true, 1812, null, client("/127.0.0.1"));
+
+        // when
+        final ClientConfig found = config.findClient(InetAddress.getByName("127.0.0.2"));
+
+        // then
+        assertThat(found).isNull();
+    }
+
+    @Test
+    public void shouldMatchAddressesTheSameWayAsTheStringLookup() throws Exception {
+        // given
+        final RadiusServiceConfig config = new RadiusServiceConfig(true, 1812, null, client("127.0.0.1"));
+        final InetAddress address = InetAddress.getByName("127.0.0.1");
+
+        // when
+        final ClientConfig found = config.findClient(address);
+
+        // then
+        assertThat(found).isSameAs(config.findClient(address.toString()));
+    }
+
+    private ClientConfig client(String ipAddress) {
+        final ClientConfig client = new ClientConfig();
+        client.setName(ipAddress);
+        client.setIpaddr(ipAddress);
+        return client;
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+
+package org.forgerock.openam.scripting;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.iplanet.am.util.SystemProperties;
+import org.forgerock.util.Reject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, least-recently-used cache of {@link CompiledScript} instances, shared by the
+ * {@link StandardScriptEvaluator}s of every script context.
+ *
+ * Entries are keyed by the script engine manager that compiled them, the script language, the script name and a
+ * SHA-256 hash of the script source, so an edited script never reuses a stale compilation. Entries for a script
+ * are dropped when the scripting service reports that the script has changed, and all entries of an engine
+ * manager are dropped when its sandbox configuration changes, as compiled scripts keep hold of the sandbox they
+ * were compiled against.
+ */
+@Singleton
+public class CompiledScriptCache {
+
+    /**
+     * System property holding the maximum number of compiled scripts to keep.
+     */
+    public static final String MAX_SIZE_PROPERTY = "org.forgerock.openam.scripting.compiledscripts.maxsize";
+
+    /**
+     * Default maximum number of compiled scripts to keep.
+     */
+    public static final int DEFAULT_MAX_SIZE = 500;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompiledScriptCache.class);
+
+    private final Map<Key, CompiledScript> compiledScripts;
+
+    /**
+     * Constructs a cache sized from the {@link #MAX_SIZE_PROPERTY} system property.
+     */
+    @Inject
+    public CompiledScriptCache() {
+        this(SystemProperties.getAsInt(MAX_SIZE_PROPERTY, DEFAULT_MAX_SIZE));
+    }
+
+    /**
+     * Constructs a cache holding at most the given number of compiled scripts.
+     *
+     * @param maxSize the maximum number of compiled scripts to keep. Zero disables caching.
+     */
+    public CompiledScriptCache(final int maxSize) {
+        Reject.ifTrue(maxSize < 0, "Maximum size must not be negative");
+        this.compiledScripts = new LinkedHashMap<Key, CompiledScript>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CompiledScript> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the compiled form of the given script, compiling it with the given engine if it is not yet cached.
+     *
+     * @param scriptEngineManager the engine manager the engine belongs to. Must not be null.
+     * @param script the script to compile. Must not be null.
+     * @param engine the engine to compile the script with if no compiled form is cached. Must not be null.
+     * @return the compiled script.
+     * @throws ScriptException if the script cannot be compiled.
+     */
+    public CompiledScript getCompiledScript(final StandardScriptEngineManager scriptEngineManager,
+            final ScriptObject script, final Compilable engine) throws ScriptException {
+        Reject.ifNull(scriptEngineManager, script, engine);
+
+        final Key key = new Key(scriptEngineManager, script);
+        synchronized (compiledScripts) {
+            final CompiledScript compiled = compiledScripts.get(key);
+            if (compiled != null) {
+                return compiled;
+            }
+        }
+
+        final CompiledScript compiled = engine.compile(script.getScript());
+
+        synchronized (compiledScripts) {
+            final CompiledScript existing = compiledScripts.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            compiledScripts.put(key, compiled);
+        }
+        return compiled;
+    }
+
+    /**
+     * Drops all compiled forms of the named script.
+     *
+     * @param scriptName the name of the script that has changed.
+     */
+    public void invalidate(final String scriptName) {
+        int removed = 0;
+        synchronized (compiledScripts) {
+            for (Iterator<Key> keys = compiledScripts.keySet().iterator(); keys.hasNext();) {
+                if (keys.next().name.equals(scriptName)) {
+                    keys.remove();
+                    removed++;
+                }
+            }
+        }
+        LOGGER.debug("Invalidated {} compiled form(s) of script {}", removed, scriptName);
+    }
+
+    /**
+     * Drops all scripts compiled by engines of the given engine manager.
+     *
+     * @param scriptEngineManager the engine manager whose configuration has changed.
+     */
+    public void invalidate(final StandardScriptEngineManager scriptEngineManager) {
+        synchronized (compiledScripts) {
+            for (Iterator<Key> keys = compiledScripts.keySet().iterator(); keys.hasNext();) {
+                if (keys.next().scriptEngineManager == scriptEngineManager) {
+                    keys.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops every compiled script.
+     */
+    public void invalidateAll() {
+        synchronized (compiledScripts) {
+            compiledScripts.clear();
+        }
+    }
+
+    /**
+     * The number of compiled scripts currently cached.
+     *
+     * @return the cache size.
+     */
+    public int size() {
+        synchronized (compiledScripts) {
+            return compiledScripts.size();
+        }
+    }
+
+    private static String hash(final String source) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256").digest(source.getBytes(UTF_8));
+            final StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class Key {
+        private final StandardScriptEngineManager scriptEngineManager;
+        private final ScriptingLanguage language;
+        private final String name;
+        private final String hash;
+
+        private Key(StandardScriptEngineManager scriptEngineManager, ScriptObject script) {
+            this.scriptEngineManager = scriptEngineManager;
+            this.language = script.getLanguage();
+            this.name = script.getName();
+            this.hash = hash(script.getScript());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key that = (Key) o;
+            return scriptEngineManager == that.scriptEngineManager && language.equals(that.language)
+                    && name.equals(that.name) && hash.equals(that.hash);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = System.identityHashCode(scriptEngineManager);
+            result = 31 * result + language.hashCode();
+            result = 31 * result + name.hashCode();
+            result = 31 * result + hash.hashCode();
+            return result;
+        }
+    }
+}
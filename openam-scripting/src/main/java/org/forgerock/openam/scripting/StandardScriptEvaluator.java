@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2015 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
 package org.forgerock.openam.scripting;
@@ -23,6 +24,8 @@ import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
 import javax.script.ScriptContext;
 import javax.script.ScriptEngine;
 import javax.script.ScriptException;
@@ -40,6 +43,9 @@ import javax.script.SimpleScriptContext;
  * us sending its thread an interrupt signal, while JavaScript has its own timer which is checked on
  * each processed instruction.
  *
+ * Scripts whose engine supports {@link Compilable} are compiled once and the compiled form is reused from a
+ * {@link CompiledScriptCache} until the script changes.
+ *
  * @since 12.0.0
  */
 public class StandardScriptEvaluator implements ScriptEvaluator {
@@ -47,15 +53,37 @@ public class StandardScriptEvaluator implements ScriptEvaluator {
     private static final Logger LOGGER = LoggerFactory.getLogger(StandardScriptEvaluator.class);
 
     private final StandardScriptEngineManager scriptEngineManager;
+    private final CompiledScriptCache compiledScriptCache;
 
     /**
-     * Constructs the script evaluator using the given JSR 223 script engine manager instance.
+     * Constructs the script evaluator using the given JSR 223 script engine manager instance and a private
+     * compiled script cache.
      *
      * @param scriptEngineManager the script engine manager to use for creating script engines. May not be null.
      */
     public StandardScriptEvaluator(StandardScriptEngineManager scriptEngineManager) {
-        Reject.ifNull(scriptEngineManager);
+        this(scriptEngineManager, new CompiledScriptCache());
+    }
+
+    /**
+     * Constructs the script evaluator using the given JSR 223 script engine manager instance and compiled script
+     * cache. Scripts compiled by this evaluator are dropped from the cache whenever the engine manager's
+     * configuration changes.
+     *
+     * @param scriptEngineManager the script engine manager to use for creating script engines. May not be null.
+     * @param compiledScriptCache the cache of compiled scripts. May not be null.
+     */
+    public StandardScriptEvaluator(final StandardScriptEngineManager scriptEngineManager,
+            final CompiledScriptCache compiledScriptCache) {
+        Reject.ifNull(scriptEngineManager, compiledScriptCache);
         this.scriptEngineManager = scriptEngineManager;
+        this.compiledScriptCache = compiledScriptCache;
+        scriptEngineManager.addConfigurationListener(new StandardScriptEngineManager.ConfigurationListener() {
+            @Override
+            public void onConfigurationChange(ScriptEngineConfiguration newConfiguration) {
+                compiledScriptCache.invalidate(scriptEngineManager);
+            }
+        });
     }
 
     /**
@@ -91,6 +119,12 @@ public class StandardScriptEvaluator implements ScriptEvaluator {
         final Bindings variableBindings = mergeBindings(script.getBindings(), bindings);
         final ScriptContext context = buildScriptContext(variableBindings);
 
+        if (engine instanceof Compilable) {
+            final CompiledScript compiledScript =
+                    compiledScriptCache.getCompiledScript(scriptEngineManager, script, (Compilable) engine);
+            return (T) compiledScript.eval(context);
+        }
+
         return (T) engine.eval(script.getScript(), context);
     }
 
@@ -12,10 +12,12 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
 package org.forgerock.openam.scripting;
 
+import com.iplanet.am.util.SystemProperties;
 import org.forgerock.openam.audit.context.AuditRequestContextPropagatingExecutorService;
 import org.forgerock.openam.audit.context.ConfigurableExecutorService;
 import org.forgerock.openam.audit.context.ExecutorServiceConfigurator;
@@ -29,23 +31,42 @@ import javax.inject.Singleton;
 import javax.script.Bindings;
 import javax.script.ScriptException;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Evaluates scripts in a configured thread pool so that they can be interrupted after a timeout has occurred.
+ *
+ * Each script context has its own evaluator and pool. Within a pool, a single script may be limited to a share of
+ * the maximum pool size (see {@link #MAX_POOL_SHARE_PROPERTY}) so that a slow or hung script cannot starve the
+ * other scripts of the same context.
  */
 @Singleton
 public final class ThreadPoolScriptEvaluator implements ScriptEvaluator {
     private static final Logger LOGGER = LoggerFactory.getLogger(ThreadPoolScriptEvaluator.class);
 
+    /**
+     * System property holding the percentage of the maximum pool size that a single script may occupy with queued
+     * or running evaluations. 100, the default, places no limit on a single script.
+     */
+    public static final String MAX_POOL_SHARE_PROPERTY = "org.forgerock.openam.scripting.threadpool.maxscriptshare";
+
+    private static final int DEFAULT_MAX_POOL_SHARE = 100;
+
     private final StandardScriptEngineManager scriptEngineManager;
     private final ExecutorService threadPool;
     private final ScriptEvaluator delegate;
+    private final ConcurrentMap<String, AtomicInteger> inFlightByScript = new ConcurrentHashMap<>();
+    private volatile int scriptConcurrencyLimit;
 
     /**
      * Constructs a script evaluator that uses a configurable thread pool to execute scripts, delegating actual script
@@ -67,6 +88,12 @@ public final class ThreadPoolScriptEvaluator implements ScriptEvaluator {
         this.delegate = delegate;
 
         scriptEngineManager.addConfigurationListener(new ThreadPoolConfigurator(threadPool));
+        scriptEngineManager.addConfigurationListener(new StandardScriptEngineManager.ConfigurationListener() {
+            @Override
+            public void onConfigurationChange(ScriptEngineConfiguration newConfiguration) {
+                scriptConcurrencyLimit = getScriptConcurrencyLimit(newConfiguration);
+            }
+        });
     }
 
     /**
@@ -80,12 +107,28 @@ public final class ThreadPoolScriptEvaluator implements ScriptEvaluator {
      *
      * @param script {@inheritDoc}
      * @param bindings {@inheritDoc}
-     * @throws ScriptException if anything went wrong during the script's execution
+     * @throws ScriptException if anything went wrong during the script's execution, or if the script already
+     * occupies its share of the thread pool
      */
     @Override
     public <T> T evaluateScript(final ScriptObject script, final Bindings bindings) throws ScriptException {
 
-        final Future<T> future = threadPool.submit(new ScriptExecutorTask<T>(script, bindings));
+        final AtomicInteger inFlight = inFlightFor(script.getName());
+        final int limit = scriptConcurrencyLimit;
+        if (inFlight.incrementAndGet() > limit && limit > 0) {
+            LOGGER.warn("Script {} rejected, it already has {} evaluations queued or running", script.getName(),
+                    inFlight.decrementAndGet());
+            throw new ScriptException("Too many concurrent evaluations of script " + script.getName());
+        }
+
+        final ScriptExecutorTask<T> task = new ScriptExecutorTask<T>(script, bindings, inFlight);
+        final Future<T> future;
+        try {
+            future = threadPool.submit(task);
+        } catch (RuntimeException ex) {
+            task.abandon();
+            throw ex;
+        }
         final long timeout = scriptEngineManager.getConfiguration().getScriptExecutionTimeout();
         try {
             if (timeout == ScriptEngineConfiguration.NO_TIMEOUT) {
@@ -97,7 +140,7 @@ public final class ThreadPoolScriptEvaluator implements ScriptEvaluator {
             LOGGER.error("Script terminated with exception", ex);
             throw new ScriptException(ex);
         } catch (TimeoutException ex) {
-            LOGGER.warn("Script timed out");
+            LOGGER.warn("Script {} timed out", script.getName());
             throw new ScriptException(ex);
         } catch (InterruptedException ex) {
             // Reset interrupted status for callers
@@ -107,7 +150,29 @@ public final class ThreadPoolScriptEvaluator implements ScriptEvaluator {
         } finally {
             // Harmless if task has already completed
             future.cancel(true);
+            // Frees the script's slot if the task never started, e.g. because it timed out in the queue
+            task.abandon();
+        }
+    }
+
+    private AtomicInteger inFlightFor(final String scriptName) {
+        AtomicInteger result = inFlightByScript.get(scriptName);
+        if (result == null) {
+            final AtomicInteger created = new AtomicInteger();
+            result = inFlightByScript.putIfAbsent(scriptName, created);
+            if (result == null) {
+                result = created;
+            }
+        }
+        return result;
+    }
+
+    private static int getScriptConcurrencyLimit(ScriptEngineConfiguration configuration) {
+        final int share = SystemProperties.getAsInt(MAX_POOL_SHARE_PROPERTY, DEFAULT_MAX_POOL_SHARE);
+        if (share <= 0 || share >= 100) {
+            return 0;
         }
+        return Math.max(1, configuration.getThreadPoolMaxSize() * share / 100);
     }
 
     @Override
@@ -201,21 +266,42 @@ public final class ThreadPoolScriptEvaluator implements ScriptEvaluator {
     /**
      * Task for executing a script in a background thread using the configured delegate script evaluator.
      *
+     * The script's in-flight slot is released exactly once: by the task when it runs, or by the caller when it gives
+     * up on a task that has not started. A task abandoned by its caller never starts, so a timed-out caller does not
+     * leave stale work in the queue.
+     *
      * @param <T> the type of result that is expected to be returned.
      */
     private final class ScriptExecutorTask<T> implements Callable<T> {
         private final ScriptObject scriptObject;
         private final Bindings bindings;
+        private final AtomicInteger inFlight;
+        private final AtomicBoolean claimed = new AtomicBoolean();
 
-        private ScriptExecutorTask(final ScriptObject scriptObject, final Bindings bindings) {
+        private ScriptExecutorTask(final ScriptObject scriptObject, final Bindings bindings,
+                final AtomicInteger inFlight) {
             Reject.ifNull(scriptObject);
             this.scriptObject = scriptObject;
             this.bindings = bindings;
+            this.inFlight = inFlight;
         }
 
         @Override
         public T call() throws ScriptException {
-            return delegate.evaluateScript(scriptObject, bindings);
+            if (!claimed.compareAndSet(false, true)) {
+                throw new CancellationException("Script evaluation abandoned before it started");
+            }
+            try {
+                return delegate.evaluateScript(scriptObject, bindings);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+
+        void abandon() {
+            if (claimed.compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+            }
         }
     }
 
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
 package org.forgerock.openam.scripting.guice;
@@ -35,6 +36,7 @@ import org.forgerock.guice.core.GuiceModule;
 import org.forgerock.http.Client;
 import org.forgerock.http.client.RestletHttpClient;
 import org.forgerock.openam.audit.context.AMExecutorServiceFactory;
+import org.forgerock.openam.scripting.CompiledScriptCache;
 import org.forgerock.openam.scripting.ScriptConstants;
 import org.forgerock.openam.scripting.ScriptEngineConfiguration;
 import org.forgerock.openam.scripting.ScriptEvaluator;
@@ -103,6 +105,7 @@ public class ScriptingGuiceModule extends AbstractModule {
      *
      * @param scriptEngineManager the script engine manager to use.
      * @param executorServiceFactory the factory for creating managed thread pools for script execution.
+     * @param compiledScriptCache the cache of compiled scripts shared by all script contexts.
      * @return an appropriately configured script evaluator for use with scripted authentication.
      */
     @Provides
@@ -111,9 +114,9 @@ public class ScriptingGuiceModule extends AbstractModule {
     @Named(AUTHENTICATION_SERVER_SIDE_NAME)
     ScriptEvaluator getAuthenticationServerSideScriptEvaluator(
             @Named(AUTHENTICATION_SERVER_SIDE_NAME) StandardScriptEngineManager scriptEngineManager,
-            AMExecutorServiceFactory executorServiceFactory) {
+            AMExecutorServiceFactory executorServiceFactory, CompiledScriptCache compiledScriptCache) {
 
-        return createEvaluator(scriptEngineManager, executorServiceFactory);
+        return createEvaluator(scriptEngineManager, executorServiceFactory, compiledScriptCache);
     }
 
     /**
@@ -122,6 +125,7 @@ public class ScriptingGuiceModule extends AbstractModule {
      *
      * @param scriptEngineManager the script engine manager to use.
      * @param executorServiceFactory the factory for creating managed thread pools for script execution.
+     * @param compiledScriptCache the cache of compiled scripts shared by all script contexts.
      * @return an appropriately configured script evaluator for use with scripted entitlement condition.
      */
     @Provides
@@ -130,9 +134,9 @@ public class ScriptingGuiceModule extends AbstractModule {
     @Named(POLICY_CONDITION_NAME)
     ScriptEvaluator getPoliyConditionScriptEvaluator(
             @Named(POLICY_CONDITION_NAME) StandardScriptEngineManager scriptEngineManager,
-            AMExecutorServiceFactory executorServiceFactory) {
+            AMExecutorServiceFactory executorServiceFactory, CompiledScriptCache compiledScriptCache) {
 
-        return createEvaluator(scriptEngineManager, executorServiceFactory);
+        return createEvaluator(scriptEngineManager, executorServiceFactory, compiledScriptCache);
     }
 
     /**
@@ -141,6 +145,7 @@ public class ScriptingGuiceModule extends AbstractModule {
      *
      * @param scriptEngineManager the script engine manager to use.
      * @param executorServiceFactory the factory for creating managed thread pools for script execution.
+     * @param compiledScriptCache the cache of compiled scripts shared by all script contexts.
      * @return an appropriately configured script evaluator for use with OIDC Claims scripts.
      */
     @Provides
@@ -149,13 +154,14 @@ public class ScriptingGuiceModule extends AbstractModule {
     @Named(OIDC_CLAIMS_NAME)
     ScriptEvaluator getOidcClaimsScriptEvaluator(
             @Named(OIDC_CLAIMS_NAME) StandardScriptEngineManager scriptEngineManager,
-            AMExecutorServiceFactory executorServiceFactory) {
+            AMExecutorServiceFactory executorServiceFactory, CompiledScriptCache compiledScriptCache) {
 
-        return createEvaluator(scriptEngineManager, executorServiceFactory);
+        return createEvaluator(scriptEngineManager, executorServiceFactory, compiledScriptCache);
     }
 
     private ThreadPoolScriptEvaluator createEvaluator(StandardScriptEngineManager scriptEngineManager,
-                                                      AMExecutorServiceFactory executorServiceFactory) {
+                                                      AMExecutorServiceFactory executorServiceFactory,
+                                                      CompiledScriptCache compiledScriptCache) {
 
         ScriptEngineConfiguration configuration = scriptEngineManager.getConfiguration();
 
@@ -168,7 +174,7 @@ public class ScriptingGuiceModule extends AbstractModule {
                         getThreadPoolQueue(configuration.getThreadPoolQueueSize()),
                         "ScriptEvaluator"
                 ),
-                new StandardScriptEvaluator(scriptEngineManager));
+                new StandardScriptEvaluator(scriptEngineManager, compiledScriptCache));
     }
 
     private BlockingQueue<Runnable> getThreadPoolQueue(int size) {
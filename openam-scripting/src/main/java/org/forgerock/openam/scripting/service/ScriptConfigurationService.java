@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package org.forgerock.openam.scripting.service;
 
@@ -60,7 +61,9 @@ import javax.annotation.concurrent.GuardedBy;
 import javax.security.auth.Subject;
 
 import org.forgerock.openam.core.CoreWrapper;
+import org.forgerock.openam.scripting.CompiledScriptCache;
 import org.forgerock.openam.scripting.ScriptException;
+import org.forgerock.openam.utils.StringUtils;
 import org.forgerock.util.Reject;
 import org.forgerock.util.query.QueryFilter;
 import org.slf4j.Logger;
@@ -96,6 +99,7 @@ public class ScriptConfigurationService implements ScriptingService, ServiceList
     private final String realm;
     private final CoreWrapper coreWrapper;
     private final ServiceConfigManager scm;
+    private final CompiledScriptCache compiledScriptCache;
     private ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
     @GuardedBy("lock")
     private Map<String, ScriptConfiguration> realmConfigurations;
@@ -111,11 +115,26 @@ public class ScriptConfigurationService implements ScriptingService, ServiceList
      */
     @Inject
     public ScriptConfigurationService(Logger logger, String realm, CoreWrapper coreWrapper, ServiceConfigManager scm) {
+        this(logger, realm, coreWrapper, scm, null);
+    }
+
+    /**
+     * Construct a new instance of {@code ScriptConfigurationService} that drops compiled scripts from the given
+     * cache when their configuration changes.
+     *
+     * @param logger              The logger log any error and debug messages to.
+     * @param realm               The realm in which the {@code ScriptConfiguration} resides in.
+     * @param coreWrapper         Wrapper for access to core services.
+     * @param compiledScriptCache The cache of compiled scripts to invalidate. May be null.
+     */
+    public ScriptConfigurationService(Logger logger, String realm, CoreWrapper coreWrapper, ServiceConfigManager scm,
+            CompiledScriptCache compiledScriptCache) {
         Reject.ifNull(realm);
         this.logger = logger;
         this.realm = realm;
         this.coreWrapper = coreWrapper;
         this.scm = scm;
+        this.compiledScriptCache = compiledScriptCache;
         init();
     }
 
@@ -145,6 +164,40 @@ public class ScriptConfigurationService implements ScriptingService, ServiceList
         }
     }
 
+    /**
+     * Reloads the script configurations and drops the compiled form of any script that was changed or removed.
+     */
+    private void reloadAndInvalidate() {
+        final Map<String, ScriptConfiguration> previous = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            previous.putAll(globalConfigurations);
+            previous.putAll(realmConfigurations);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        reload();
+
+        if (compiledScriptCache != null) {
+            lock.readLock().lock();
+            try {
+                for (ScriptConfiguration config : previous.values()) {
+                    final ScriptConfiguration current = realmConfigurations.containsKey(config.getId())
+                            ? realmConfigurations.get(config.getId())
+                            : globalConfigurations.get(config.getId());
+                    if (current == null || !current.getName().equals(config.getName())
+                            || !StringUtils.isEqualTo(current.getScript(), config.getScript())
+                            || current.getLanguage() != config.getLanguage()) {
+                        compiledScriptCache.invalidate(config.getName());
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+
     private Map<String, ScriptConfiguration> getScriptConfigurations(ServiceConfig config)
             throws SMSException, SSOException, ScriptException {
         Map<String, ScriptConfiguration> configurations = new LinkedHashMap<>();
@@ -626,7 +679,7 @@ public class ScriptConfigurationService implements ScriptingService, ServiceList
     public void globalConfigChanged(String serviceName, String version, String groupName, String serviceComponent,
             int type) {
         if (serviceName.equals(SERVICE_NAME)) {
-            reload();
+            reloadAndInvalidate();
         }
     }
 
@@ -634,7 +687,7 @@ public class ScriptConfigurationService implements ScriptingService, ServiceList
     public void organizationConfigChanged(String serviceName, String version, String orgName, String groupName,
             String serviceComponent, int type) {
         if (serviceName.equals(SERVICE_NAME)) {
-            reload();
+            reloadAndInvalidate();
         }
     }
 }
\ No newline at end of file
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
 package org.forgerock.openam.scripting.service;
@@ -27,6 +28,7 @@ import javax.inject.Singleton;
 
 import org.forgerock.json.resource.NotFoundException;
 import org.forgerock.openam.core.CoreWrapper;
+import org.forgerock.openam.scripting.CompiledScriptCache;
 import org.forgerock.openam.utils.RealmNormaliser;
 import org.slf4j.Logger;
 
@@ -46,15 +48,18 @@ public class ScriptingServiceFactory {
     private final CoreWrapper coreWrapper;
     private final RealmNormaliser realmNormaliser;
     private final ServiceConfigManager scm;
+    private final CompiledScriptCache compiledScriptCache;
 
     /**
      * Construct a new factory.
      * @param logger The scripting logger.
+     * @param compiledScriptCache The cache of compiled scripts, invalidated when scripts change.
      */
     @Inject
     public ScriptingServiceFactory(@Named("ScriptLogger") Logger logger, CoreWrapper coreWrapper,
-            RealmNormaliser realmNormaliser) {
+            RealmNormaliser realmNormaliser, CompiledScriptCache compiledScriptCache) {
         this.logger = logger;
+        this.compiledScriptCache = compiledScriptCache;
         this.coreWrapper = coreWrapper;
         this.realmNormaliser = realmNormaliser;
         try {
@@ -84,7 +89,7 @@ public class ScriptingServiceFactory {
 
     private synchronized ScriptingService forRealm(String realm) {
         if (!services.containsKey(realm)) {
-            services.put(realm, new ScriptConfigurationService(logger, realm, coreWrapper, scm));
+            services.put(realm, new ScriptConfigurationService(logger, realm, coreWrapper, scm, compiledScriptCache));
         }
         return services.get(realm);
     }
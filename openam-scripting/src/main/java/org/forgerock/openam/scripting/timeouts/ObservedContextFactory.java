@@ -12,6 +12,7 @@
 * information: "Portions copyright [year] [name of copyright owner]".
 *
 * Copyright 2014-2016 ForgeRock AS.
+* Portions Copyrighted 2026 Open Identity Platform Community.
 */
 package org.forgerock.openam.scripting.timeouts;
 
@@ -59,6 +60,11 @@ public class ObservedContextFactory extends ContextFactory {
         if (timeout > 0 && currentTimeMillis() - context.getStartTime() > timeout) {
             throw new Error("Interrupt.");
         }
+        // Stop cooperatively once the evaluating thread has been interrupted, e.g. when the caller waiting in
+        // ThreadPoolScriptEvaluator gives up, as Rhino itself does not respond to interrupts
+        if (Thread.currentThread().isInterrupted()) {
+            throw new Error("Interrupt.");
+        }
     }
 
     /**
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
 package org.forgerock.openam.scripting;
@@ -47,12 +48,14 @@ public class StandardScriptEvaluatorTest {
 
     private StandardScriptEvaluator testEvaluator;
     private StandardScriptEngineManager scriptEngineManager;
+    private CompiledScriptCache compiledScriptCache;
 
     @BeforeMethod
     public void createTestEvaluator() {
         scriptEngineManager = new StandardScriptEngineManager();
         scriptEngineManager.setConfiguration(CONFIGURATION);
-        testEvaluator = new StandardScriptEvaluator(scriptEngineManager);
+        compiledScriptCache = new CompiledScriptCache(10);
+        testEvaluator = new StandardScriptEvaluator(scriptEngineManager, compiledScriptCache);
     }
 
     @Test(expectedExceptions = NullPointerException.class)
@@ -284,6 +287,58 @@ public class StandardScriptEvaluatorTest {
 
     }
 
+    @Test
+    public void shouldCompileRepeatedScriptsOnce() throws Exception {
+        // Given
+        ScriptObject script = getJavascript("3 * 4");
+
+        // When
+        testEvaluator.evaluateScript(script, null);
+        Number result = testEvaluator.evaluateScript(script, null);
+
+        // Then
+        assertThat(result.intValue()).isEqualTo(12);
+        assertThat(compiledScriptCache.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldRecompileChangedScripts() throws Exception {
+        // Given
+        testEvaluator.evaluateScript(getGroovyScript("3 * 4"), null);
+
+        // When
+        Number result = testEvaluator.evaluateScript(getGroovyScript("3 * 5"), null);
+
+        // Then
+        assertThat(result.intValue()).isEqualTo(15);
+        assertThat(compiledScriptCache.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldDropCompiledScriptsWhenInvalidated() throws Exception {
+        // Given
+        ScriptObject script = getGroovyScript("3 * 4");
+        testEvaluator.evaluateScript(script, null);
+
+        // When
+        compiledScriptCache.invalidate(script.getName());
+
+        // Then
+        assertThat(compiledScriptCache.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldDropCompiledScriptsWhenConfigurationChanges() throws Exception {
+        // Given
+        testEvaluator.evaluateScript(getJavascript("3 * 4"), null);
+
+        // When
+        scriptEngineManager.setConfiguration(CONFIGURATION);
+
+        // Then
+        assertThat(compiledScriptCache.size()).isEqualTo(0);
+    }
+
 
     static ScriptObject getJavascript(String... script) {
         return getJavascript(null, script);
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2015 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
 package org.forgerock.openam.scripting;
@@ -21,6 +22,7 @@ import static org.forgerock.openam.scripting.StandardScriptEvaluatorTest.getGroo
 import static org.forgerock.openam.scripting.StandardScriptEvaluatorTest.getJavascript;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import java.util.List;
@@ -33,6 +35,7 @@ import java.util.concurrent.TimeUnit;
 import javax.script.Bindings;
 import javax.script.SimpleBindings;
 
+import com.iplanet.am.util.SystemProperties;
 import org.forgerock.openam.audit.context.AuditRequestContextPropagatingExecutorService;
 import org.forgerock.openam.audit.context.ConfigurableExecutorService;
 import org.forgerock.openam.shared.concurrency.ResizableLinkedBlockingQueue;
@@ -176,6 +179,25 @@ public class ThreadPoolScriptEvaluatorTest {
         assertThat(result.intValue()).isEqualTo(expectedResult);
     }
 
+    @Test
+    public void shouldReleaseScriptSlotWhenTaskNeverStarts() throws Exception {
+        // Given
+        ScriptObject loopScript = getJavascript("while(true) { }");
+        SystemProperties.initializeProperties(ThreadPoolScriptEvaluator.MAX_POOL_SHARE_PROPERTY, "1");
+        try {
+            setTimeout(1);
+            testEvaluator.<Void>evaluateScript(loopScript, null);
+
+            // When
+            testEvaluator.<Void>evaluateScript(loopScript, null);
+
+            // Then
+            verify(mockFuture, times(2)).get(1, TimeUnit.SECONDS);
+        } finally {
+            SystemProperties.initializeProperties(ThreadPoolScriptEvaluator.MAX_POOL_SHARE_PROPERTY, "100");
+        }
+    }
+
     private void setTimeout(int timeout) {
         scriptEngineManager.setConfiguration(ScriptEngineConfiguration.builder()
                 .withTimeout(timeout, TimeUnit.SECONDS).build());
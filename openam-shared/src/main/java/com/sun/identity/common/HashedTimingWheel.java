@@ -0,0 +1,252 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+
+package com.sun.identity.common;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * HashedTimingWheel is the container of the scheduled HeadTaskRunnables in
+ * TimerPool. It keeps one HeadTaskRunnable per scheduled time, like the sorted
+ * map it replaces, but adding and removing a HeadTaskRunnable are O(1) and
+ * don't take a global lock.
+ * <p>
+ * Time is divided in ticks of a fixed duration. A HeadTaskRunnable is hashed
+ * into the bucket of the tick containing its scheduled time, the wheel having
+ * a fixed number of buckets. New and removed HeadTaskRunnables are handed to
+ * the scheduler thread through lock-free stacks, and the buckets themselves
+ * are only accessed by the scheduler thread. A HeadTaskRunnable expires once
+ * its tick has completely elapsed, so it never runs before its scheduled time
+ * and runs at most one tick after it.
+ * <p>
+ * The links of the stacks and buckets are held by the HeadTaskRunnables, so
+ * the wheel doesn't allocate anything per scheduled time besides the map
+ * entry.
+ */
+
+class HashedTimingWheel {
+
+    private final long tickDuration;
+    private final int mask;
+    private final HeadTaskRunnable[] firsts;
+    private final HeadTaskRunnable[] lasts;
+    private final ConcurrentMap<Long, HeadTaskRunnable> heads =
+        new ConcurrentHashMap<Long, HeadTaskRunnable>();
+    private final AtomicReference<HeadTaskRunnable> pending =
+        new AtomicReference<HeadTaskRunnable>();
+    private final AtomicReference<HeadTaskRunnable> removed =
+        new AtomicReference<HeadTaskRunnable>();
+    // last tick which has been expired, only used by the scheduler thread
+    private long currentTick = -1;
+
+    /**
+     * Constructor of HashedTimingWheel.
+     *
+     * @param tickDuration The duration of a tick in ms
+     * @param ticksPerWheel The number of buckets of the wheel, rounded up to a
+     *        power of two
+     */
+
+    HashedTimingWheel(long tickDuration, int ticksPerWheel)
+        throws IllegalArgumentException {
+        if ((tickDuration <= 0) || (ticksPerWheel <= 0) ||
+            (ticksPerWheel > (1 << 30))) {
+            throw new IllegalArgumentException();
+        }
+        int size = Integer.highestOneBit(ticksPerWheel);
+        if (size < ticksPerWheel) {
+            size <<= 1;
+        }
+        this.tickDuration = tickDuration;
+        this.mask = size - 1;
+        this.firsts = new HeadTaskRunnable[size];
+        this.lasts = new HeadTaskRunnable[size];
+    }
+
+    /**
+     * Returns the HeadTaskRunnable scheduled at the time.
+     *
+     * @param time The scheduled time in ms
+     * @return The HeadTaskRunnable or null if nothing is scheduled at the time
+     */
+
+    HeadTaskRunnable get(long time) {
+        return heads.get(time);
+    }
+
+    /**
+     * Adds a HeadTaskRunnable unless another one is scheduled at the same
+     * time.
+     *
+     * @param head The HeadTaskRunnable to add
+     * @return The HeadTaskRunnable already scheduled at the same time, or null
+     *         if head has been added
+     */
+
+    HeadTaskRunnable putIfAbsent(HeadTaskRunnable head) {
+        HeadTaskRunnable existing = heads.putIfAbsent(head.time.getTime(),
+            head);
+        if (existing != null) {
+            return existing;
+        }
+        HeadTaskRunnable top;
+        do {
+            top = pending.get();
+            head.nextPending = top;
+        } while (!pending.compareAndSet(top, head));
+        return null;
+    }
+
+    /**
+     * Removes the HeadTaskRunnable scheduled at the time.
+     *
+     * @param time The scheduled time in ms
+     */
+
+    void remove(long time) {
+        HeadTaskRunnable head = heads.remove(time);
+        if (head != null) {
+            head.removedFromWheel = true;
+            HeadTaskRunnable top;
+            do {
+                top = removed.get();
+                head.nextRemoved = top;
+            } while (!removed.compareAndSet(top, head));
+        }
+    }
+
+    /**
+     * Indicates whether no HeadTaskRunnable is scheduled.
+     *
+     * @return A boolean to indicate whether the wheel is empty
+     */
+
+    boolean isEmpty() {
+        return heads.isEmpty();
+    }
+
+    /**
+     * Returns the time to wait before the current tick has elapsed.
+     *
+     * @param now The current time in ms
+     * @return The time to wait in ms
+     */
+
+    long getDelay(long now) {
+        return tickDuration - (now % tickDuration);
+    }
+
+    /**
+     * Removes the HeadTaskRunnables which ticks have elapsed. Only the
+     * scheduler thread may call this function.
+     *
+     * @param now The current time in ms
+     * @param expired The collection to add the expired HeadTaskRunnables to
+     */
+
+    void expire(long now, Collection<HeadTaskRunnable> expired) {
+        long lastTick = (now / tickDuration) - 1;
+        if (currentTick < 0) {
+            currentTick = lastTick;
+        }
+        transferPending();
+        unlinkRemoved();
+        // after a long pause or a jump of the clock, a single turn of the
+        // wheel expires everything which is due
+        long ticks = Math.min(lastTick - currentTick, firsts.length);
+        for (long i = 1; i <= ticks; i++) {
+            expireBucket((int) ((currentTick + i) & mask), lastTick,
+                expired);
+        }
+        if (lastTick > currentTick) {
+            currentTick = lastTick;
+        }
+    }
+
+    private void transferPending() {
+        HeadTaskRunnable head = pending.getAndSet(null);
+        while (head != null) {
+            HeadTaskRunnable next = head.nextPending;
+            head.nextPending = null;
+            if (!head.removedFromWheel) {
+                long tick = Math.max(head.time.getTime() / tickDuration,
+                    currentTick + 1);
+                link((int) (tick & mask), head);
+            }
+            head = next;
+        }
+    }
+
+    private void unlinkRemoved() {
+        HeadTaskRunnable head = removed.getAndSet(null);
+        while (head != null) {
+            HeadTaskRunnable next = head.nextRemoved;
+            head.nextRemoved = null;
+            if (head.bucket >= 0) {
+                unlink(head);
+            }
+            head = next;
+        }
+    }
+
+    private void expireBucket(int bucket, long lastTick,
+        Collection<HeadTaskRunnable> expired) {
+        HeadTaskRunnable head = firsts[bucket];
+        while (head != null) {
+            HeadTaskRunnable next = head.nextInBucket;
+            long time = head.time.getTime();
+            if (time / tickDuration <= lastTick) {
+                unlink(head);
+                if (heads.remove(time, head)) {
+                    expired.add(head);
+                }
+            }
+            head = next;
+        }
+    }
+
+    private void link(int bucket, HeadTaskRunnable head) {
+        head.bucket = bucket;
+        head.previousInBucket = lasts[bucket];
+        head.nextInBucket = null;
+        if (lasts[bucket] == null) {
+            firsts[bucket] = head;
+        } else {
+            lasts[bucket].nextInBucket = head;
+        }
+        lasts[bucket] = head;
+    }
+
+    private void unlink(HeadTaskRunnable head) {
+        int bucket = head.bucket;
+        if (head.previousInBucket == null) {
+            firsts[bucket] = head.nextInBucket;
+        } else {
+            head.previousInBucket.nextInBucket = head.nextInBucket;
+        }
+        if (head.nextInBucket == null) {
+            lasts[bucket] = head.previousInBucket;
+        } else {
+            head.nextInBucket.previousInBucket = head.previousInBucket;
+        }
+        head.bucket = -1;
+        head.previousInBucket = null;
+        head.nextInBucket = null;
+    }
+}
@@ -24,6 +24,7 @@
  *
  * $Id: HeadTaskRunnable.java,v 1.4 2008/06/25 05:52:51 qcheng Exp $
  *
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
 package com.sun.identity.common;
@@ -51,6 +52,13 @@ public class HeadTaskRunnable implements TaskRunnable {
     protected int acquireCount;
     protected volatile Thread owner;
     protected Triggerable parent;
+    // position in the HashedTimingWheel of TimerPool, for internal use only
+    volatile boolean removedFromWheel;
+    HeadTaskRunnable nextPending;
+    HeadTaskRunnable nextRemoved;
+    HeadTaskRunnable previousInBucket;
+    HeadTaskRunnable nextInBucket;
+    int bucket = -1;
     
     /**
      * Constructor of HeadTaskRunnable.
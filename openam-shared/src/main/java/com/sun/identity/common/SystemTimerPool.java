@@ -25,6 +25,7 @@
  * $Id: SystemTimerPool.java,v 1.5 2008/09/05 00:51:02 ww203982 Exp $
  *
  * Portions Copyrighted 2012-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package com.sun.identity.common;
 
@@ -45,6 +46,8 @@ public class SystemTimerPool {
     protected static TimerPool instance;
     public static final int DEFAULT_POOL_SIZE = 3;
     private static int poolSize;
+    private static long tickDuration;
+    private static int ticksPerWheel;
 
     static {
         poolSize = DEFAULT_POOL_SIZE;
@@ -61,6 +64,30 @@ public class SystemTimerPool {
                     + size + " defaulting to " + DEFAULT_POOL_SIZE);
             }
         }
+        tickDuration = TimerPool.DEFAULT_TICK_DURATION;
+        String tick = SystemPropertiesManager.get(
+            Constants.SYSTEM_TIMERPOOL_TICK_DURATION);
+        if (tick != null) {
+            try {
+                tickDuration = Long.parseLong(tick);
+            } catch (NumberFormatException ex) {
+                Debug debug = Debug.getInstance(TIMER_NAME);
+                debug.error("SystemTimerPool.<init>: incorrect tick duration "
+                    + tick + " defaulting to " + TimerPool.DEFAULT_TICK_DURATION);
+            }
+        }
+        ticksPerWheel = TimerPool.DEFAULT_TICKS_PER_WHEEL;
+        String ticks = SystemPropertiesManager.get(
+            Constants.SYSTEM_TIMERPOOL_TICKS_PER_WHEEL);
+        if (ticks != null) {
+            try {
+                ticksPerWheel = Integer.parseInt(ticks);
+            } catch (NumberFormatException ex) {
+                Debug debug = Debug.getInstance(TIMER_NAME);
+                debug.error("SystemTimerPool.<init>: incorrect ticks per wheel "
+                    + ticks + " defaulting to " + TimerPool.DEFAULT_TICKS_PER_WHEEL);
+            }
+        }
     }
     
     /**
@@ -73,7 +100,8 @@ public class SystemTimerPool {
 
             // Don't load the Debug object in static block as it can
             // cause issues when doing a container restart.
-            instance = new TimerPool(TIMER_NAME, poolSize, false, Debug.getInstance(TIMER_NAME));
+            instance = new TimerPool(TIMER_NAME, poolSize, false, Debug.getInstance(TIMER_NAME),
+                    tickDuration, ticksPerWheel);
 
             try {
                 shutdownMan.addShutdownListener(new ShutdownListener() {
@@ -25,6 +25,7 @@
  * $Id: TimerPool.java,v 1.6 2008/10/20 22:00:05 ww203982 Exp $
  *
  * Portions Copyrighted 2012-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
 package com.sun.identity.common;
@@ -32,22 +33,26 @@ package com.sun.identity.common;
 import static org.forgerock.openam.utils.Time.*;
 
 import com.sun.identity.shared.debug.Debug;
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.Date;
-import java.util.HashSet;
-import java.util.NoSuchElementException;
-import java.util.Set;
-import java.util.SortedMap;
-import java.util.Timer;
-import java.util.TreeMap;
+import java.util.List;
 
 /**
  * TimerPool is a scheduleable version of ThreadPool.
+ * <p>
+ * The scheduled tasks are kept in a HashedTimingWheel, so scheduling and
+ * cancelling a task don't depend on the number of scheduled tasks. The
+ * Scheduler thread wakes up once per tick of the wheel while tasks are
+ * scheduled, and tasks run at most one tick after their scheduled time.
  */
 
 public class TimerPool implements Triggerable {
 
     static final String SCHEDULER_SUFFIX = "-Scheduler";
+    /** The default duration (in ms) of a tick of the timing wheel. */
+    public static final long DEFAULT_TICK_DURATION = 10;
+    /** The default number of ticks of the timing wheel. */
+    public static final int DEFAULT_TICKS_PER_WHEEL = 4096;
     private int poolSize;
     private String name;
     private int busyThreadCount;
@@ -56,8 +61,7 @@ public class TimerPool implements Triggerable {
     private boolean daemon;
     private WorkerThread[] threads;
     private Scheduler scheduler;
-    private SortedMap taskList;
-    private Date nextRun;
+    private final HashedTimingWheel timingWheel;
     private Debug debug;
 
     /**
@@ -71,6 +75,25 @@ public class TimerPool implements Triggerable {
      */
     
     public TimerPool(String name, int poolSize, boolean daemon, Debug debug) {
+        this(name, poolSize, daemon, debug, DEFAULT_TICK_DURATION,
+            DEFAULT_TICKS_PER_WHEEL);
+    }
+
+    /**
+     * Constructor of TimerPool.
+     *
+     * @param name The name of the TimerPool
+     * @param poolSize The size of the TimerPool
+     * @param daemon The boolean to indicate whether the threads in TimerPool
+     *        are daemon
+     * @param debug Debug object to send debugging message to.
+     * @param tickDuration The duration (in ms) of a tick of the timing wheel,
+     *        which is the precision of the scheduled times
+     * @param ticksPerWheel The number of ticks of the timing wheel
+     */
+
+    public TimerPool(String name, int poolSize, boolean daemon, Debug debug,
+        long tickDuration, int ticksPerWheel) {
         this.name = name;
 	this.poolSize = poolSize;
         this.busyThreadCount = 0;
@@ -79,9 +102,9 @@ public class TimerPool implements Triggerable {
         this.debug = debug;
         this.shutdownThePool = false;
         this.threads = new WorkerThread[poolSize];
+        this.timingWheel = new HashedTimingWheel(tickDuration, ticksPerWheel);
         this.scheduler = new Scheduler(this);
         this.scheduler.start();
-        this.taskList = Collections.synchronizedSortedMap(new TreeMap());
         synchronized (this) {
             createThreads(poolSize);
         }
@@ -125,16 +148,20 @@ public class TimerPool implements Triggerable {
     }
     
     /**
-     * Runs the next timeout task in the sorted container.
+     * Runs the tasks which are timeout in the timing wheel.
+     *
+     * @param expired The list to collect the timeout tasks in
      */
     
-    private void runNext() {
-        WorkerThread t = null;
-        HeadTaskRunnable task = null;
-        synchronized (this) {
-            if (shutdownThePool) {
-                return;
-            } else {
+    private void runExpired(List<HeadTaskRunnable> expired) {
+        expired.clear();
+        timingWheel.expire(currentTimeMillis(), expired);
+        for (HeadTaskRunnable task : expired) {
+            WorkerThread t = null;
+            synchronized (this) {
+                if (shutdownThePool) {
+                    return;
+                }
                 while (busyThreadCount == poolSize) {
                     try {
                         wait();
@@ -143,32 +170,15 @@ public class TimerPool implements Triggerable {
                         }
                     } catch(Exception ex) {
                         if (debug != null) {
-                            debug.error("TimerPool:runNext() " + name, ex);
-                        }
-                    }
-                }
-                if (nextRun != null) {
-                    long now = currentTimeMillis();
-                    if (nextRun.getTime() <= now ) {
-                        if ((task = (HeadTaskRunnable) taskList.remove(nextRun)) 
-                            != null) {
-                            t = getAvailableThread();
+                            debug.error("TimerPool:runExpired() " + name, ex);
                         }
                     }
-                    try {
-                        nextRun = (Date) taskList.firstKey();
-                        long delay = nextRun.getTime() - now;
-                        scheduler.setDelay((delay >= 0 ? delay : 0));
-                    } catch(NoSuchElementException ex) {
-                        nextRun = null;
-                        scheduler.setDelay(-1);
-                    }
                 }
+                t = getAvailableThread();
             }
-        }
-        if ((t != null) && (task != null)) {
             t.runTask(task);
         }
+        expired.clear();
     }
     
     /**
@@ -254,23 +264,15 @@ public class TimerPool implements Triggerable {
                         }
                     }
                 } while (head != task.getHeadTask());
-                synchronized (taskList) {
-                    if((head = (HeadTaskRunnable) taskList.get(time)) == null) {
-                        task.setNext(null);
-                        taskList.put(time, new HeadTaskRunnable(this, task,
-                            time));        
-                    }
+                if ((head = timingWheel.get(time.getTime())) == null) {
+                    task.setNext(null);
+                    // the task is linked to the existing HeadTaskRunnable
+                    // below if another thread has just added one
+                    head = timingWheel.putIfAbsent(new HeadTaskRunnable(this,
+                        task, time));
                 }
                 if (head == null) {
-                    synchronized (this) {
-                        if ((nextRun == null) ||
-                            (time.getTime() < nextRun.getTime())) {
-                            nextRun = time;
-                            long delay = time.getTime() -
-                                    currentTimeMillis();
-                            scheduler.setWait(((delay < 0) ? 0 : delay));
-                        }
-                    }
+                    scheduler.taskAdded();
                 } else {
                     if (head.acquireValidLock()) {
                         try {
@@ -311,7 +313,7 @@ public class TimerPool implements Triggerable {
     
     public void trigger(Date time) {
         // no need to synchronize for single operation
-        taskList.remove(time);
+        timingWheel.remove(time.getTime());
     }
     
     /**
@@ -559,16 +561,16 @@ public class TimerPool implements Triggerable {
     }
     
     /**
-     * Scheduler is the one who handles the time to wait and assign a thread to
-     * the task when it is time. If there is no thread availabe when it is time
-     * to run a particular task, Scheduler will wait until thread available.
+     * Scheduler is the one who advances the timing wheel and assigns a thread
+     * to the tasks when it is time. If there is no thread availabe when it is
+     * time to run a particular task, Scheduler will wait until thread
+     * available.
      */
     
     private class Scheduler extends Thread {
         
         private volatile boolean shouldTerminate;
-        private boolean beingNotified;
-        private long delay;
+        private volatile boolean idle;
         private TimerPool pool;
         
         /**
@@ -579,32 +581,21 @@ public class TimerPool implements Triggerable {
         
         public Scheduler(TimerPool pool) {
             this.shouldTerminate = false;
-            this.beingNotified = false;
-            this.delay = -1;
+            this.idle = false;
             this.pool = pool;
             setName(pool.name + SCHEDULER_SUFFIX);
         }
         
         /**
-         * Sets the time (in ms) to wait.
-         *
-         * @param delay The time (in ms) to wait
+         * Wakes up this Scheduler if it is waiting for tasks to be scheduled.
          */
         
-        public synchronized void setWait(long delay) {
-            this.delay = delay;
-            this.beingNotified = true;
-            this.notify();
-        }
-        
-        /**
-         * Sets the time (in ms) to wait without notification.
-         *
-         * @param delay The time (in ms) to wait
-         */
-        
-        public synchronized void setDelay(long delay) {
-            this.delay = delay;
+        public void taskAdded() {
+            if (idle) {
+                synchronized (this) {
+                    this.notify();
+                }
+            }
         }
         
         /**
@@ -621,32 +612,32 @@ public class TimerPool implements Triggerable {
          */
         
         public void run() {
-            long localDelay = -1;
+            List<HeadTaskRunnable> expired = new ArrayList<HeadTaskRunnable>();
             while (true) {
                 try {
                     synchronized (this) {
                         if (!shouldTerminate) {
-                            if (delay > 0) {
-                                this.wait(delay);
-                                if (beingNotified) {
-                                    beingNotified = false;
-                                    continue;
-                                }
-                            } else {
-                                if (delay < 0) {
+                            if (pool.timingWheel.isEmpty()) {
+                                // set idle before checking the wheel again so
+                                // that a task added meanwhile notifies this
+                                // thread
+                                idle = true;
+                                if (pool.timingWheel.isEmpty()) {
                                     this.wait();
-                                    if (beingNotified) {
-                                        beingNotified = false;
-                                        continue;
-                                    }
                                 }
+                                idle = false;
+                            } else {
+                                // a task added during the tick is expired at
+                                // the end of the tick, no need to be notified
+                                this.wait(pool.timingWheel.getDelay(
+                                    currentTimeMillis()));
                             }
                         }
                     }
                     if (shouldTerminate) {
                         break;
                     }
-                    pool.runNext();
+                    pool.runExpired(expired);
                 } catch (RuntimeException ex) {
                     pool.replaceScheduler();
                 } catch (Exception ex) {
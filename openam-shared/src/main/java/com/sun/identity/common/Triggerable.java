@@ -24,6 +24,7 @@
  *
  * $Id: Triggerable.java,v 1.2 2008/06/25 05:52:52 qcheng Exp $
  *
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
 package com.sun.identity.common;
@@ -33,7 +34,7 @@ import java.util.Date;
 /**
  * Triggerable is the interface to be used when HeadTaskRunnable has no next
  * element. The function in Triggerable is responsible to remove the element
- * from the sorted container in TimerPool.
+ * from the timing wheel in TimerPool.
  */
 
 public interface Triggerable {
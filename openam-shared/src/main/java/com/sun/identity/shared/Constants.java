@@ -26,7 +26,8 @@
  *
  * Portions Copyrighted 2010-2016 ForgeRock AS.
  * 
- * Portions Copyrighted 2020 Open Identity Platform Community.
+ * Portions Copyrighted 2020-2026 Open Identity Platform Community.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package com.sun.identity.shared;
 
@@ -360,6 +361,24 @@ public interface Constants {
      */
     String AM_SESSION_MAX_CACHE_TIME = "org.openidentityplatform.openam.session.service.access.persistence.caching.maxtime";
 
+    /**
+     * Property name to select the concurrent session blacklist cache. Only blacklisted sessions are cached, so a
+     * session blacklisted on another server is seen on the next check which reaches the CTS.
+     */
+    String AM_SESSION_BLACKLIST_CACHE_CONCURRENT = "org.openidentityplatform.openam.session.blacklist.cache.concurrent";
+
+    /**
+     * Property name to enable deferred, coalesced persistence of session access time refreshes and minor property
+     * updates.
+     */
+    String AM_SESSION_STORE_WRITE_BEHIND = "org.openidentityplatform.openam.session.store.writebehind";
+
+    /**
+     * Property name for the interval in milliseconds at which deferred session updates are persisted.
+     */
+    String AM_SESSION_STORE_WRITE_BEHIND_INTERVAL =
+            "org.openidentityplatform.openam.session.store.writebehind.interval";
+
     /**
      * Property string for security provider package.
      */
@@ -1006,6 +1025,18 @@ public interface Constants {
     static final String SYSTEM_TIMERPOOL_SIZE =
             "com.sun.identity.common.systemtimerpool.size";
 
+    /**
+     * property string to the duration (in ms) of a tick of the SystemTimerPool timing wheel
+     */
+    static final String SYSTEM_TIMERPOOL_TICK_DURATION =
+            "com.sun.identity.common.systemtimerpool.tickDuration";
+
+    /**
+     * property string to the number of ticks of the SystemTimerPool timing wheel
+     */
+    static final String SYSTEM_TIMERPOOL_TICKS_PER_WHEEL =
+            "com.sun.identity.common.systemtimerpool.ticksPerWheel";
+
     /**
      * property string for Distributed Authentication cluster
      */
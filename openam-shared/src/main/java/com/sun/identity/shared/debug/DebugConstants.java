@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package com.sun.identity.shared.debug;
 
@@ -41,6 +42,12 @@ public final class DebugConstants {
 
     public static final String CONFIG_DEBUG_LOGFILE_MAX_SIZE = "org.forgerock.openam.debug.rotation.maxsize";
 
+    public static final String CONFIG_DEBUG_LOGFILE_ASYNC = "org.forgerock.openam.debug.async";
+
+    public static final String CONFIG_DEBUG_LOGFILE_ASYNC_QUEUE_SIZE = "org.forgerock.openam.debug.async.queuesize";
+
+    public static final int DEFAULT_DEBUG_ASYNC_QUEUE_SIZE = 8192;
+
     public static final String DEFAULT_DEBUG_SUFFIX_FORMAT = "-MM.dd.yyyy-kk.mm";
 
     public static final String CONFIG_DEBUG_LEVEL = "com.iplanet.services.debug.level";
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package com.sun.identity.shared.debug.file;
 
@@ -52,4 +53,19 @@ public interface DebugConfiguration {
      */
     public long getRotationFileSizeInByte();
 
+    /**
+     * Whether debug files are written asynchronously by a dedicated writer thread
+     *
+     * @return true if logging threads only queue their messages, false if they write them directly.
+     */
+    public boolean isAsynchronous();
+
+    /**
+     * get the capacity of the asynchronous queue
+     *
+     * @return the maximum number of messages waiting to be written. Messages logged while the queue is full are
+     * dropped.
+     */
+    public int getAsyncQueueSize();
+
 }
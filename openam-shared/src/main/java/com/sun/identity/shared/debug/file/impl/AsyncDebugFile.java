@@ -0,0 +1,146 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package com.sun.identity.shared.debug.file.impl;
+
+import com.sun.identity.shared.debug.file.DebugFile;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Debug file written asynchronously by an {@link AsyncDebugWriter}.
+ * <p>
+ * The logging thread formats the record and queues it. Writing, flushing and rotating the underlying
+ * {@link DebugFileImpl} is left to the writer thread. Records dropped because the queue was full are counted, and
+ * the count is written into the log file just before the next record queued, where the records are missing. Drops
+ * not followed by another record are reported when the writer shuts down. Once it has, records are written directly
+ * by the logging thread, after the count of any records dropped before.
+ */
+class AsyncDebugFile implements DebugFile {
+
+    private final String debugName;
+
+    private final DebugFileImpl debugFile;
+
+    private final AsyncDebugWriter writer;
+
+    private final AtomicLong unreportedDrops = new AtomicLong();
+
+    // Only accessed by the writer thread, or by the thread draining the queue once the writer has stopped
+    private boolean failing = false;
+
+    /**
+     * Constructor
+     *
+     * @param debugName log file name
+     * @param debugFile log file the records are written into
+     * @param writer    writer thread shared by the asynchronous debug files
+     */
+    AsyncDebugFile(String debugName, DebugFileImpl debugFile, AsyncDebugWriter writer) {
+        this.debugName = debugName;
+        this.debugFile = debugFile;
+        this.writer = writer;
+    }
+
+    @Override
+    public void writeIt(String prefix, String msg, Throwable th) throws IOException {
+        if (writer.isRunning()) {
+            long droppedBefore = unreportedDrops.getAndSet(0);
+            if (writer.submit(this, DebugFileImpl.formatRecord(prefix, msg, th), droppedBefore)) {
+                return;
+            }
+            boolean queueFull = writer.isRunning();
+            unreportedDrops.addAndGet(queueFull ? droppedBefore + 1 : droppedBefore);
+            if (writer.isRunning()) {
+                // Reported with the next record, or by the writer when it stops
+                return;
+            }
+            if (queueFull) {
+                // The writer may have stopped before it saw the drop
+                writeDrops();
+                return;
+            }
+        }
+        // The writer has been shut down, messages logged while the server stops are written directly
+        writeDrops();
+        debugFile.writeIt(prefix, msg, th);
+    }
+
+    /**
+     * Write the count of records dropped and not reported yet, called by logging threads once the writer has stopped
+     */
+    private void writeDrops() throws IOException {
+        long dropped = unreportedDrops.getAndSet(0);
+        if (dropped > 0 && !debugFile.append(dropMessage(dropped), true)) {
+            StdDebugFile.printError(debugName, dropMessage(dropped), null);
+        }
+    }
+
+    /**
+     * Append a record to the log file, called by the writer thread
+     *
+     * @param record        formatted debug record
+     * @param droppedBefore number of records of this file dropped just before this one
+     */
+    void append(String record, long droppedBefore) {
+        if (droppedBefore > 0) {
+            appendOrPrint(dropMessage(droppedBefore));
+        }
+        appendOrPrint(record);
+    }
+
+    /**
+     * Append the count of records dropped and not reported yet, called by the writer thread when it stops
+     */
+    void appendDrops() {
+        long dropped = unreportedDrops.getAndSet(0);
+        if (dropped > 0) {
+            appendOrPrint(dropMessage(dropped));
+        }
+    }
+
+    private void appendOrPrint(String record) {
+        try {
+            if (!debugFile.append(record, false)) {
+                StdDebugFile.printError(debugName, record, null);
+            }
+            failing = false;
+        } catch (IOException e) {
+            if (!failing) {
+                // Report the failure once rather than for every record
+                StdDebugFile.printError(debugName, "Debug file can't be written : " + e.getMessage(), null);
+                failing = true;
+            }
+            StdDebugFile.printError(debugName, record, null);
+        }
+    }
+
+    private static String dropMessage(long dropped) {
+        return dropped + " debug messages have been dropped because the asynchronous debug queue was full";
+    }
+
+    /**
+     * Flush the log file, called by the writer thread
+     */
+    void flush() {
+        debugFile.flush();
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncDebugFile{" + debugFile + '}';
+    }
+}
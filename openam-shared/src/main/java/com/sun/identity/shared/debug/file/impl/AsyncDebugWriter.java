@@ -0,0 +1,248 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package com.sun.identity.shared.debug.file.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.forgerock.openam.utils.collections.RingBuffer;
+import org.forgerock.util.thread.listener.ShutdownListener;
+
+/**
+ * Single thread writing the records queued by every {@link AsyncDebugFile}.
+ * <p>
+ * Logging threads only format their record and publish it into a lock-free ring buffer. The writer thread drains
+ * the buffer in batches, appends each record to its log file, and flushes the files written once per batch. Log
+ * initialization and rotation only happen on the writer thread, so they never block a logging thread. When the
+ * buffer is full the record is dropped and counted rather than making the logging thread wait.
+ * <p>
+ * On shutdown the writer drains the buffer, writes the count of records each file dropped and has not reported
+ * yet, and stops. Records published while it stops are written by the logging thread which published them.
+ */
+final class AsyncDebugWriter implements Runnable, ShutdownListener {
+
+    static final int BATCH_SIZE = 256;
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private static final long SHUTDOWN_TIMEOUT_MS = 5000;
+
+    private final RingBuffer<QueuedRecord> buffer;
+
+    private final Thread writerThread;
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final Set<AsyncDebugFile> droppingFiles =
+            Collections.newSetFromMap(new ConcurrentHashMap<AsyncDebugFile, Boolean>());
+
+    private volatile boolean running = true;
+
+    private volatile boolean waiting = false;
+
+    // Only accessed by the writer thread, or by the thread draining the buffer once it has stopped
+    private final Set<AsyncDebugFile> written =
+            Collections.newSetFromMap(new IdentityHashMap<AsyncDebugFile, Boolean>());
+
+    // Guarded by this, set once the writer thread has written everything queued before it stopped
+    private boolean terminated = false;
+
+    /**
+     * Constructor
+     *
+     * @param queueSize maximum number of records waiting to be written
+     */
+    AsyncDebugWriter(int queueSize) {
+        this.buffer = new RingBuffer<>(queueSize);
+        this.writerThread = new Thread(this, "DebugFileWriter");
+        writerThread.setDaemon(true);
+    }
+
+    /**
+     * Start the writer thread
+     */
+    void start() {
+        writerThread.start();
+    }
+
+    /**
+     * Queue a record to be written into a debug file
+     *
+     * @param file          debug file the record belongs to
+     * @param record        formatted debug record
+     * @param droppedBefore number of records of the same file dropped just before this one
+     * @return false if the record has been dropped because the queue is full, or refused because the writer is
+     * stopped
+     */
+    boolean submit(AsyncDebugFile file, String record, long droppedBefore) {
+        if (!running) {
+            return false;
+        }
+        if (!buffer.offer(new QueuedRecord(file, record, droppedBefore))) {
+            dropped.incrementAndGet();
+            droppingFiles.add(file);
+            return false;
+        }
+        if (!running) {
+            // The writer may have stopped before it saw the record
+            drainAfterShutdown();
+        } else if (waiting) {
+            LockSupport.unpark(writerThread);
+        }
+        return true;
+    }
+
+    /**
+     * Whether the writer still accepts records
+     *
+     * @return false once the writer has been shut down
+     */
+    boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Get the number of records dropped since the writer has been created
+     *
+     * @return the number of records dropped
+     */
+    long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Stop accepting records and wait for the queued records to be written
+     */
+    @Override
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(SHUTDOWN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!writerThread.isAlive()) {
+            // Nothing left to do if the writer thread finished, otherwise it was never started
+            finish();
+        }
+    }
+
+    @Override
+    public void run() {
+        List<QueuedRecord> batch = new ArrayList<>(BATCH_SIZE);
+        while (true) {
+            if (writeBatch(batch) > 0) {
+                continue;
+            }
+            if (!buffer.isEmpty()) {
+                // A record has been claimed but its logging thread hasn't published it yet
+                Thread.yield();
+                continue;
+            }
+            if (!running) {
+                break;
+            }
+            waiting = true;
+            if (buffer.isEmpty() && running) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            waiting = false;
+        }
+        finish();
+    }
+
+    /**
+     * Write the records left in the buffer and the drops not reported yet, once the writer thread has stopped
+     */
+    private synchronized void finish() {
+        if (terminated) {
+            return;
+        }
+        drain(new ArrayList<QueuedRecord>(BATCH_SIZE));
+        for (AsyncDebugFile file : droppingFiles) {
+            file.appendDrops();
+            file.flush();
+        }
+        terminated = true;
+    }
+
+    /**
+     * Write the records published once the writer thread has stopped
+     */
+    private synchronized void drainAfterShutdown() {
+        if (terminated) {
+            drain(new ArrayList<QueuedRecord>(BATCH_SIZE));
+        }
+    }
+
+    /**
+     * Write records until the buffer is empty
+     */
+    private void drain(List<QueuedRecord> batch) {
+        while (writeBatch(batch) > 0 || !buffer.isEmpty()) {
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Write a batch of records and flush each file written
+     *
+     * @param batch list reused to hold the batch
+     * @return the number of records written
+     */
+    private int writeBatch(List<QueuedRecord> batch) {
+        batch.clear();
+        int count = buffer.drainTo(batch, BATCH_SIZE);
+        if (count == 0) {
+            return 0;
+        }
+        for (QueuedRecord queued : batch) {
+            queued.file.append(queued.record, queued.droppedBefore);
+            written.add(queued.file);
+        }
+        for (AsyncDebugFile file : written) {
+            file.flush();
+        }
+        written.clear();
+        return count;
+    }
+
+    /**
+     * A record waiting to be written
+     */
+    private static final class QueuedRecord {
+
+        private final AsyncDebugFile file;
+
+        private final String record;
+
+        private final long droppedBefore;
+
+        private QueuedRecord(AsyncDebugFile file, String record, long droppedBefore) {
+            this.file = file;
+            this.record = record;
+            this.droppedBefore = droppedBefore;
+        }
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package com.sun.identity.shared.debug.file.impl;
 
@@ -41,6 +42,10 @@ public class DebugConfigurationFromProperties implements DebugConfiguration {
 
     private long maxFileSizeInByte = -1;
 
+    private boolean asynchronous = false;
+
+    private int asyncQueueSize = DebugConstants.DEFAULT_DEBUG_ASYNC_QUEUE_SIZE;
+
     /**
      * initialize the properties
      * It will reset the current properties for every Debug instance
@@ -90,6 +95,21 @@ public class DebugConfigurationFromProperties implements DebugConfiguration {
                 }
 
             }
+
+            asynchronous = Boolean.parseBoolean(rotationConfig.getProperty(DebugConstants.CONFIG_DEBUG_LOGFILE_ASYNC));
+
+            String queueSize = rotationConfig.getProperty(DebugConstants.CONFIG_DEBUG_LOGFILE_ASYNC_QUEUE_SIZE);
+            if (!StringUtils.isEmpty(queueSize)) {
+                try {
+                    asyncQueueSize = Integer.parseInt(queueSize);
+                } catch (NumberFormatException e) {
+                    //Can't parse the number
+                    String message = "'" + DebugConstants.CONFIG_DEBUG_LOGFILE_ASYNC_QUEUE_SIZE + "' value can't be " +
+                            "parsed: '" + queueSize + "'. Please check the configuration file '" +
+                            DebugConstants.CONFIG_DEBUG_PROPERTIES + "'.";
+                    StdDebugFile.printError(DebugConfigurationFromProperties.class.getSimpleName(), message, e);
+                }
+            }
             validate();
         } catch (IOException ex) {
             //it's possible, that we don't have the config file
@@ -122,6 +142,16 @@ public class DebugConfigurationFromProperties implements DebugConfiguration {
         return maxFileSizeInByte;
     }
 
+    @Override
+    public boolean isAsynchronous() {
+        return asynchronous;
+    }
+
+    @Override
+    public int getAsyncQueueSize() {
+        return asyncQueueSize;
+    }
+
     /**
      * Check if the configuration properties is valid
      *
@@ -172,6 +202,11 @@ public class DebugConfigurationFromProperties implements DebugConfiguration {
                 throw new InvalidDebugConfigurationException("Suffix '" + getDebugSuffix() + "' can't be parsed.");
             }
         }
+
+        if (getAsyncQueueSize() <= 0) {
+            throw new InvalidDebugConfigurationException("Asynchronous queue size needs to be greater than zero. " +
+                    "queueSize = '" + asyncQueueSize + "'", null);
+        }
     }
 
     /**
@@ -199,6 +234,7 @@ public class DebugConfigurationFromProperties implements DebugConfiguration {
                 "debugPrefix='" + debugPrefix + '\'' +
                 ", debugSuffix='" + debugSuffix + '\'' +
                 ", rotationInterval=" + rotationInterval +
+                ", asynchronous=" + asynchronous +
                 '}';
     }
 }
@@ -28,6 +28,7 @@
 
 /**
  * Portions Copyrighted 2014-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package com.sun.identity.shared.debug.file.impl;
 
@@ -40,6 +41,7 @@ import org.forgerock.openam.utils.IOUtils;
 import org.forgerock.openam.utils.StringUtils;
 import org.forgerock.util.time.TimeService;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
@@ -141,7 +143,22 @@ public class DebugFileImpl implements DebugFile {
 
     @Override
     public void writeIt(String prefix, String msg, Throwable th) throws IOException {
+        String record = formatRecord(prefix, msg, th);
+        if (!append(record, true)) {
+            StdDebugFile.printError(prefix, msg, th);
+        }
+    }
 
+    /**
+     * Format a debug record as it is written into the log file
+     *
+     * @param prefix Message prefix
+     * @param msg    Message to be recorded.
+     * @param th     the optional <code>java.lang.Throwable</code> which if
+     *               present will be used to record the stack trace.
+     * @return the debug record
+     */
+    static String formatRecord(String prefix, String msg, Throwable th) {
         StringBuilder buf = new StringBuilder();
         buf.append(prefix);
         buf.append('\n');
@@ -154,7 +171,18 @@ public class DebugFileImpl implements DebugFile {
             stackStream.flush();
             buf.append(stBuf.toString());
         }
+        return buf.toString();
+    }
 
+    /**
+     * Append a formatted record to the log file, initializing or rotating the file first if needed
+     *
+     * @param record the debug record
+     * @param flush  true to flush the file once the record is written
+     * @return false if no log file is open and the record hasn't been written
+     * @throws IOException if the log file can't be initialized
+     */
+    boolean append(String record, boolean flush) throws IOException {
         if (isConfigChanged() || !isConfigFileInitialized()) {
             initialize();
         }
@@ -165,15 +193,31 @@ public class DebugFileImpl implements DebugFile {
 
         fileLock.readLock().lock();
         try {
-            if (debugWriter != null) {
-                debugWriter.println(buf.toString());
-            } else {
-                StdDebugFile.printError(prefix, msg, th);
-            } 
+            if (debugWriter == null) {
+                return false;
+            }
+            debugWriter.println(record);
+            if (flush) {
+                debugWriter.flush();
+            }
+            return true;
         } finally {
             fileLock.readLock().unlock();
         }
+    }
 
+    /**
+     * Flush the records appended to the log file
+     */
+    void flush() {
+        fileLock.readLock().lock();
+        try {
+            if (debugWriter != null) {
+                debugWriter.flush();
+            }
+        } finally {
+            fileLock.readLock().unlock();
+        }
     }
 
     /**
@@ -260,8 +304,7 @@ public class DebugFileImpl implements DebugFile {
 
             try {
                 this.currentFile = new File(debugFilePath);
-                this.debugWriter = new PrintWriter(new FileWriter(currentFile, true), true);
-                debugWriter = new PrintWriter(new FileWriter(debugFilePath, true), true);
+                this.debugWriter = new PrintWriter(new BufferedWriter(new FileWriter(currentFile, true)));
             } catch (IOException ioex) {
                 close();
                 ResourceBundle bundle = Locale.getInstallResourceBundle("amUtilMsgs");
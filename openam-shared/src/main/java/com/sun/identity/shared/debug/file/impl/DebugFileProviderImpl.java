@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2015 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package com.sun.identity.shared.debug.file.impl;
 
@@ -20,6 +21,7 @@ import com.sun.identity.shared.debug.DebugConstants;
 import com.sun.identity.shared.debug.file.DebugConfiguration;
 import com.sun.identity.shared.debug.file.DebugFile;
 import com.sun.identity.shared.debug.file.DebugFileProvider;
+import org.forgerock.util.thread.listener.ShutdownPriority;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -29,6 +31,7 @@ import java.util.Map;
  * Manage Debug files controller
  * Keep the following constraint one :
  * - One debugFile instance for One log file
+ * When the asynchronous mode is enabled, every debug file is written by a single writer thread.
  */
 public class DebugFileProviderImpl implements DebugFileProvider {
 
@@ -36,6 +39,8 @@ public class DebugFileProviderImpl implements DebugFileProvider {
 
     private DebugConfiguration configuration;
 
+    private AsyncDebugWriter asyncWriter;
+
     /**
      * Default constructor
      */
@@ -60,12 +65,24 @@ public class DebugFileProviderImpl implements DebugFileProvider {
     public synchronized DebugFile getInstance(String debugName) {
         DebugFile debugFile = debugMap.get(debugName);
         if (debugFile == null) {
-            debugFile = new DebugFileImpl(configuration, debugName);
+            DebugFileImpl file = new DebugFileImpl(configuration, debugName);
+            debugFile = configuration.isAsynchronous() ? new AsyncDebugFile(debugName, file, getAsyncWriter()) : file;
             debugMap.put(debugName, debugFile);
         }
         return debugFile;
     }
 
+    private AsyncDebugWriter getAsyncWriter() {
+        if (asyncWriter == null) {
+            asyncWriter = new AsyncDebugWriter(configuration.getAsyncQueueSize());
+            asyncWriter.start();
+            // Debug files are written until the end of the shutdown
+            com.sun.identity.common.ShutdownManager.getInstance().addShutdownListener(asyncWriter,
+                    ShutdownPriority.LOWEST);
+        }
+        return asyncWriter;
+    }
+
     /**
      * Get std out debug file
      *
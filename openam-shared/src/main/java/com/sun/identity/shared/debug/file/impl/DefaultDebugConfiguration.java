@@ -12,9 +12,11 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 package com.sun.identity.shared.debug.file.impl;
 
+import com.sun.identity.shared.debug.DebugConstants;
 import com.sun.identity.shared.debug.file.DebugConfiguration;
 
 /**
@@ -55,4 +57,14 @@ public class DefaultDebugConfiguration implements DebugConfiguration {
     public long getRotationFileSizeInByte() {
         return -1;
     }
+
+    @Override
+    public boolean isAsynchronous() {
+        return false;
+    }
+
+    @Override
+    public int getAsyncQueueSize() {
+        return DebugConstants.DEFAULT_DEBUG_ASYNC_QUEUE_SIZE;
+    }
 }
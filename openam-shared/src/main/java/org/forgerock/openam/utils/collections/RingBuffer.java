@@ -0,0 +1,171 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package org.forgerock.openam.utils.collections;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free ring buffer handing elements from producer threads to a consumer thread, for example
+ * audit events to the audit dispatcher.
+ * <p>
+ * Each slot carries a sequence number which tells producers whether the slot is free and the consumer whether
+ * it has been published, so neither side ever takes a lock. Offers fail immediately when the buffer is full,
+ * leaving the caller to decide how to handle the overflow.
+ *
+ * @param <E> The type of element held in the buffer.
+ */
+public final class RingBuffer<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * Creates a ring buffer which holds at least {@code requestedCapacity} elements. The capacity is rounded up
+     * to the next power of two, and is never less than two as a single slot cannot distinguish a published
+     * element from a free slot.
+     *
+     * @param requestedCapacity The minimum number of elements the buffer must hold.
+     */
+    public RingBuffer(int requestedCapacity) {
+        if (requestedCapacity < 1 || requestedCapacity > (1 << 30)) {
+            throw new IllegalArgumentException("Invalid ring buffer capacity: " + requestedCapacity);
+        }
+        int capacity = Math.max(2, Integer.highestOneBit(requestedCapacity));
+        if (capacity < requestedCapacity) {
+            capacity <<= 1;
+        }
+        this.mask = capacity - 1;
+        this.elements = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds an element to the buffer if there is space for it.
+     *
+     * @param element The non-null element to add.
+     * @return {@code true} if the element was added, {@code false} if the buffer is full.
+     */
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new NullPointerException("element");
+        }
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.lazySet(index, element);
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest published element from the buffer.
+     *
+     * @return The element, or {@code null} if no published element is available.
+     */
+    public E poll() {
+        long position = head.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    E element = elements.get(index);
+                    elements.lazySet(index, null);
+                    sequences.lazySet(index, position + mask + 1);
+                    return element;
+                }
+                position = head.get();
+            } else if (difference < 0) {
+                return null;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+    /**
+     * Moves up to {@code maxElements} published elements into the given collection, oldest first.
+     *
+     * @param target The collection to add the elements to.
+     * @param maxElements The maximum number of elements to move.
+     * @return The number of elements moved.
+     */
+    public int drainTo(Collection<? super E> target, int maxElements) {
+        int drained = 0;
+        while (drained < maxElements) {
+            E element = poll();
+            if (element == null) {
+                break;
+            }
+            target.add(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * Returns the number of elements claimed in the buffer, including any whose publication is still in progress.
+     *
+     * @return The number of elements in the buffer.
+     */
+    public int size() {
+        while (true) {
+            long before = head.get();
+            long currentTail = tail.get();
+            if (head.get() == before) {
+                return (int) Math.max(0, Math.min(currentTail - before, capacity()));
+            }
+        }
+    }
+
+    /**
+     * Returns whether the buffer holds no claimed elements.
+     *
+     * @return {@code true} if the buffer is empty.
+     */
+    public boolean isEmpty() {
+        return tail.get() == head.get();
+    }
+
+    /**
+     * Returns the number of elements the buffer can hold.
+     *
+     * @return The capacity of the buffer.
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+}
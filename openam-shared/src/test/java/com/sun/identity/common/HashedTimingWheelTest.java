@@ -0,0 +1,154 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+
+package com.sun.identity.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class HashedTimingWheelTest {
+
+    private static final long TICK = 10;
+    private static final long START = 1000;
+
+    private HashedTimingWheel wheel;
+    private List<HeadTaskRunnable> expired;
+
+    @BeforeMethod
+    public void setUp() {
+        wheel = new HashedTimingWheel(TICK, 8);
+        expired = new ArrayList<>();
+        wheel.expire(START, expired);
+    }
+
+    @Test
+    public void shouldExpireOnceTheTickHasElapsed() {
+        HeadTaskRunnable head = schedule(START + 15);
+
+        wheel.expire(START + 15, expired);
+        wheel.expire(START + 19, expired);
+        assertThat(expired).isEmpty();
+
+        wheel.expire(START + 20, expired);
+        assertThat(expired).containsExactly(head);
+        assertThat(wheel.get(START + 15)).isNull();
+        assertThat(wheel.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void shouldExpireAfterSeveralTurnsOfTheWheel() {
+        HeadTaskRunnable head = schedule(START + 500);
+
+        for (long now = START; now < START + 510; now += TICK) {
+            wheel.expire(now, expired);
+        }
+        assertThat(expired).isEmpty();
+
+        wheel.expire(START + 510, expired);
+        assertThat(expired).containsExactly(head);
+    }
+
+    @Test
+    public void shouldExpireTasksScheduledInThePastOnNextTick() {
+        HeadTaskRunnable head = schedule(START - 500);
+
+        wheel.expire(START + TICK, expired);
+
+        assertThat(expired).containsExactly(head);
+    }
+
+    @Test
+    public void shouldExpireEverythingDueAfterClockJump() {
+        HeadTaskRunnable first = schedule(START + 100);
+        HeadTaskRunnable second = schedule(START + 5000);
+        HeadTaskRunnable third = schedule(START + 50000);
+
+        wheel.expire(START + 10000, expired);
+
+        assertThat(expired).containsOnly(first, second);
+        assertThat(wheel.get(START + 50000)).isSameAs(third);
+    }
+
+    @Test
+    public void shouldNotExpireRemovedTasks() {
+        schedule(START + 15);
+        wheel.expire(START + 10, expired);
+
+        wheel.remove(START + 15);
+        wheel.expire(START + 20, expired);
+
+        assertThat(expired).isEmpty();
+        assertThat(wheel.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void shouldNotExpireTasksRemovedBeforeTheSchedulerSawThem() {
+        schedule(START + 15);
+        wheel.remove(START + 15);
+
+        wheel.expire(START + 20, expired);
+
+        assertThat(expired).isEmpty();
+    }
+
+    @Test
+    public void shouldKeepOneHeadPerScheduledTime() {
+        HeadTaskRunnable head = schedule(START + 15);
+        HeadTaskRunnable other = new HeadTaskRunnable(null, new NoopTask(), new Date(START + 15));
+
+        assertThat(wheel.putIfAbsent(other)).isSameAs(head);
+        assertThat(wheel.get(START + 15)).isSameAs(head);
+    }
+
+    private HeadTaskRunnable schedule(long time) {
+        HeadTaskRunnable head = new HeadTaskRunnable(null, new NoopTask(), new Date(time));
+        assertThat(wheel.putIfAbsent(head)).isNull();
+        return head;
+    }
+
+    private static final class NoopTask extends GeneralTaskRunnable {
+
+        @Override
+        public boolean addElement(Object key) {
+            return false;
+        }
+
+        @Override
+        public boolean removeElement(Object key) {
+            return false;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return true;
+        }
+
+        @Override
+        public long getRunPeriod() {
+            return -1;
+        }
+
+        @Override
+        public void run() {
+        }
+    }
+}
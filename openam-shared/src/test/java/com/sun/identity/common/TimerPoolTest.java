@@ -0,0 +1,278 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+
+package com.sun.identity.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.openam.utils.Time.currentTimeMillis;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class TimerPoolTest {
+
+    private TimerPool pool;
+
+    @BeforeMethod
+    public void setUp() {
+        pool = new TimerPool("TimerPoolTest", 2, true, null);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void shouldRunTaskNotBeforeItsScheduledTime() throws Exception {
+        CountingTask task = new CountingTask(-1, 1);
+        long scheduled = currentTimeMillis() + 50;
+
+        pool.schedule(task, new Date(scheduled));
+
+        assertThat(task.latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(task.lastRun.get()).isGreaterThanOrEqualTo(scheduled);
+    }
+
+    @Test
+    public void shouldNotRunCancelledTask() throws Exception {
+        CountingTask cancelled = new CountingTask(-1, 1);
+        CountingTask other = new CountingTask(-1, 1);
+        pool.schedule(cancelled, 50);
+        pool.schedule(other, 100);
+
+        cancelled.cancel();
+
+        assertThat(other.latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(cancelled.latch.getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldRescheduleTaskWithRunPeriod() throws Exception {
+        CountingTask task = new CountingTask(20, 3);
+
+        pool.schedule(task, 0);
+
+        assertThat(task.latch.await(5, TimeUnit.SECONDS)).isTrue();
+        task.cancel();
+    }
+
+    @DataProvider
+    public Object[][] numThreads() {
+        return new Object[][]{
+                { 1 },
+                { 4 },
+                { 16 }
+        };
+    }
+
+    /**
+     * Compares the throughput of scheduling and cancelling tasks on the TimerPool with a ScheduledThreadPoolExecutor,
+     * as a factor of the number of threads. The executor keeps its tasks in a heap under a single lock, as the
+     * TreeMap based TimerPool did, so it stands in for the pool the timing wheel replaced.
+     * Disabled by default to avoid slowing down the build.
+     *
+     * @param numThreads the number of threads to concurrently schedule and cancel tasks.
+     */
+    @Test(dataProvider = "numThreads", enabled = false)
+    public void testThroughPut(int numThreads) throws Exception {
+        measureThroughPut("TimerPool", numThreads, new BenchmarkScheduler() {
+            @Override
+            public Object schedule(long delay) throws Exception {
+                CountingTask task = new CountingTask(-1, 1);
+                pool.schedule(task, delay);
+                return task;
+            }
+
+            @Override
+            public void cancel(Object handle) {
+                ((CountingTask) handle).cancel();
+            }
+        });
+
+        final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(2);
+        executor.setRemoveOnCancelPolicy(true);
+        final Runnable noOp = new Runnable() {
+            @Override
+            public void run() {
+            }
+        };
+        try {
+            measureThroughPut("ScheduledThreadPoolExecutor", numThreads, new BenchmarkScheduler() {
+                @Override
+                public Object schedule(long delay) {
+                    return executor.schedule(noOp, delay, TimeUnit.MILLISECONDS);
+                }
+
+                @Override
+                public void cancel(Object handle) {
+                    ((ScheduledFuture<?>) handle).cancel(false);
+                }
+            });
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void measureThroughPut(String name, int numThreads, BenchmarkScheduler scheduler)
+            throws Exception {
+        final int TOTAL_ROUNDS = 2000000;
+        final int roundsPerThread = TOTAL_ROUNDS / numThreads;
+
+        final Set<Throwable> errors = Collections.newSetFromMap(new ConcurrentHashMap<Throwable, Boolean>());
+        final ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        final CyclicBarrier barrier = new CyclicBarrier(numThreads + 1);
+
+        for (int i = 0; i < numThreads; ++i) {
+            executor.execute(new SchedulingTask(barrier, scheduler, errors, roundsPerThread));
+        }
+        // Wait for start
+        barrier.await();
+        // Warmup
+        barrier.await();
+        final long start = System.nanoTime();
+        barrier.await();
+        // Actual test
+        barrier.await();
+        final long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+
+        assertThat(errors).isEmpty();
+        System.out.println(String.format(Locale.US, "%s, %d threads: %.0f schedule and cancel pairs/s",
+                name, numThreads, (long) roundsPerThread * numThreads * 1e9 / elapsed));
+    }
+
+    /**
+     * The operations exercised by the benchmark, common to both schedulers.
+     */
+    private interface BenchmarkScheduler {
+        Object schedule(long delay) throws Exception;
+
+        void cancel(Object handle);
+    }
+
+    /**
+     * Benchmarking task that keeps a backlog of tasks scheduled at distinct times up to an hour ahead, as session
+     * timeouts are, cancelling the oldest for every task it schedules.
+     */
+    private static class SchedulingTask implements Runnable {
+        private static final int WARMUP_ROUNDS = 100000;
+        private static final int BACKLOG = 20000;
+        private static final int MAX_DELAY = 3600000;
+
+        private final CyclicBarrier barrier;
+        private final BenchmarkScheduler scheduler;
+        private final Collection<Throwable> errors;
+        private final int rounds;
+        private final Object[] scheduled = new Object[BACKLOG];
+
+        SchedulingTask(CyclicBarrier barrier, BenchmarkScheduler scheduler, Collection<Throwable> errors,
+                int rounds) {
+            this.barrier = barrier;
+            this.scheduler = scheduler;
+            this.errors = errors;
+            this.rounds = rounds;
+        }
+
+        @Override
+        public void run() {
+            try {
+                // Wait for start
+                barrier.await();
+                runRounds(WARMUP_ROUNDS);
+                barrier.await();
+                // Wait for the clock to start
+                barrier.await();
+                runRounds(rounds);
+                barrier.await();
+                for (Object handle : scheduled) {
+                    if (handle != null) {
+                        scheduler.cancel(handle);
+                    }
+                }
+            } catch (Exception ex) {
+                errors.add(ex);
+            }
+        }
+
+        private void runRounds(int count) throws Exception {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < count; ++i) {
+                int slot = i % BACKLOG;
+                if (scheduled[slot] != null) {
+                    scheduler.cancel(scheduled[slot]);
+                }
+                scheduled[slot] = scheduler.schedule(MAX_DELAY / 2 + random.nextInt(MAX_DELAY / 2));
+            }
+        }
+    }
+
+    private static final class CountingTask extends GeneralTaskRunnable {
+
+        private final long runPeriod;
+        private final CountDownLatch latch;
+        private final AtomicLong lastRun = new AtomicLong();
+
+        private CountingTask(long runPeriod, int runs) {
+            this.runPeriod = runPeriod;
+            this.latch = new CountDownLatch(runs);
+        }
+
+        @Override
+        public boolean addElement(Object key) {
+            return false;
+        }
+
+        @Override
+        public boolean removeElement(Object key) {
+            return false;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return false;
+        }
+
+        @Override
+        public long getRunPeriod() {
+            return runPeriod;
+        }
+
+        @Override
+        public void run() {
+            lastRun.set(currentTimeMillis());
+            latch.countDown();
+        }
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2016 ForgeRock AS.
+ * Portions Copyrighted 2026 Open Identity Platform Community.
  */
 
 package com.sun.identity.shared.debug;
@@ -87,6 +88,21 @@ public class DebugConfigurationFromPropertiesTest {
         Assert.assertEquals(debugConfigurationFromProperties.getRotationInterval(), 3);
         Assert.assertEquals(debugConfigurationFromProperties.getRotationFileSizeInByte(), 2 << 20);
     }
+
+    @Test
+    public void asyncConfig() throws Exception {
+        DebugConfigurationFromProperties debugConfigurationFromProperties = new DebugConfigurationFromProperties
+                (DEBUG_CONFIG_DIRECTORY + "valid/asyncConfig.properties");
+        Assert.assertTrue(debugConfigurationFromProperties.isAsynchronous(), "Debug should be asynchronous");
+        Assert.assertEquals(debugConfigurationFromProperties.getAsyncQueueSize(), 1024);
+    }
+
+    @Test
+    public void asyncDisabledByDefault() throws Exception {
+        DebugConfigurationFromProperties debugConfigurationFromProperties = new DebugConfigurationFromProperties
+                (DEBUG_CONFIG_DIRECTORY + "valid/basicconfig.properties");
+        Assert.assertFalse(debugConfigurationFromProperties.isAsynchronous(), "Debug should be synchronous");
+    }
      /*
      * Invalid configuration
      */
@@ -131,4 +147,9 @@ public class DebugConfigurationFromPropertiesTest {
                 "RotationEnable.properties");
     }
 
+    @Test(expectedExceptions = InvalidDebugConfigurationException.class)
+    public void zeroAsyncQueueSize() throws Exception {
+        new DebugConfigurationFromProperties(DEBUG_CONFIG_DIRECTORY + "invalid/zeroAsyncQueueSize.properties");
+    }
+
 }
@@ -0,0 +1,176 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package com.sun.identity.shared.debug.file.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sun.identity.shared.configuration.SystemPropertiesManager;
+import com.sun.identity.shared.debug.DebugConstants;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+
+public class AsyncDebugFileTest {
+
+    private static final String DEBUG_NAME = "AsyncDebugFileTest";
+
+    private File debugDirectory;
+    private AsyncDebugWriter writer;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        debugDirectory = Files.createTempDirectory("debug").toFile();
+        SystemPropertiesManager.initializeProperties(DebugConstants.CONFIG_DEBUG_DIRECTORY,
+                debugDirectory.getAbsolutePath());
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        if (writer != null) {
+            writer.shutdown();
+        }
+        File[] files = debugDirectory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        debugDirectory.delete();
+    }
+
+    @Test
+    public void shouldWriteRecordsInOrderFromWriterThread() throws Exception {
+        // Given
+        writer = new AsyncDebugWriter(16);
+        writer.start();
+        AsyncDebugFile debugFile = newDebugFile();
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            debugFile.writeIt("prefix" + i, "message" + i, null);
+        }
+        writer.shutdown();
+
+        // Then
+        List<String> lines = readDebugFile();
+        assertThat(lines).containsSubsequence("prefix0", "message0", "prefix9", "message9");
+        assertThat(writer.getDroppedCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldDropAndReportRecordsWhenQueueIsFull() throws Exception {
+        // Given
+        writer = new AsyncDebugWriter(2);
+        AsyncDebugFile debugFile = newDebugFile();
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            debugFile.writeIt("prefix" + i, "message" + i, null);
+        }
+        writer.start();
+        waitForRecord("message1");
+        debugFile.writeIt("prefix5", "message5", null);
+        writer.shutdown();
+
+        // Then
+        assertThat(writer.getDroppedCount()).isEqualTo(3);
+        List<String> lines = readDebugFile();
+        assertThat(lines).containsSubsequence("message0", "message1",
+                "3 debug messages have been dropped because the asynchronous debug queue was full", "message5");
+        assertThat(lines).doesNotContain("message2", "message3", "message4");
+    }
+
+    @Test
+    public void shouldWriteDirectlyOnceWriterIsShutDown() throws Exception {
+        // Given
+        writer = new AsyncDebugWriter(16);
+        writer.start();
+        AsyncDebugFile debugFile = newDebugFile();
+        writer.shutdown();
+
+        // When
+        debugFile.writeIt("prefix", "message", null);
+
+        // Then
+        assertThat(readDebugFile()).containsExactly("prefix", "message");
+        assertThat(writer.getDroppedCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldReportDropsNotFollowedByARecordOnShutdown() throws Exception {
+        // Given
+        writer = new AsyncDebugWriter(2);
+        AsyncDebugFile debugFile = newDebugFile();
+        for (int i = 0; i < 5; i++) {
+            debugFile.writeIt("prefix" + i, "message" + i, null);
+        }
+        writer.start();
+
+        // When
+        writer.shutdown();
+
+        // Then
+        assertThat(readDebugFile()).containsExactly("prefix0", "message0", "prefix1", "message1",
+                "3 debug messages have been dropped because the asynchronous debug queue was full");
+    }
+
+    @Test
+    public void shouldReportDropsBeforeRecordsWrittenAfterShutdown() throws Exception {
+        // Given
+        writer = new AsyncDebugWriter(2);
+        AsyncDebugFile debugFile = newDebugFile();
+        for (int i = 0; i < 3; i++) {
+            debugFile.writeIt("prefix" + i, "message" + i, null);
+        }
+        writer.start();
+        writer.shutdown();
+
+        // When
+        debugFile.writeIt("prefix3", "message3", null);
+
+        // Then
+        assertThat(readDebugFile()).containsExactly("prefix0", "message0", "prefix1", "message1",
+                "1 debug messages have been dropped because the asynchronous debug queue was full",
+                "prefix3", "message3");
+        assertThat(writer.getDroppedCount()).isEqualTo(1);
+    }
+
+    private AsyncDebugFile newDebugFile() {
+        return new AsyncDebugFile(DEBUG_NAME, new DebugFileImpl(DefaultDebugConfiguration.getInstance(), DEBUG_NAME),
+                writer);
+    }
+
+    private void waitForRecord(String line) throws Exception {
+        for (int i = 0; i < 500 && !readDebugFile().contains(line); i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    private List<String> readDebugFile() throws IOException {
+        File file = new File(debugDirectory, DEBUG_NAME);
+        if (!file.exists()) {
+            return Collections.emptyList();
+        }
+        return Files.readAllLines(file.toPath(), Charset.defaultCharset());
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+package com.sun.identity.shared.debug.file.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sun.identity.shared.configuration.SystemPropertiesManager;
+import com.sun.identity.shared.debug.DebugConstants;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+
+public class AsyncDebugWriterTest {
+
+    private static final String DEBUG_NAME = "AsyncDebugWriterTest";
+
+    private File debugDirectory;
+    private AsyncDebugWriter writer;
+    private AsyncDebugFile debugFile;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        debugDirectory = Files.createTempDirectory("debug").toFile();
+        SystemPropertiesManager.initializeProperties(DebugConstants.CONFIG_DEBUG_DIRECTORY,
+                debugDirectory.getAbsolutePath());
+        writer = new AsyncDebugWriter(4);
+        debugFile = new AsyncDebugFile(DEBUG_NAME,
+                new DebugFileImpl(DefaultDebugConfiguration.getInstance(), DEBUG_NAME), writer);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        writer.shutdown();
+        File[] files = debugDirectory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        debugDirectory.delete();
+    }
+
+    @Test
+    public void shouldDropRecordsOnceQueueIsFull() {
+        // When
+        for (int i = 0; i < 4; i++) {
+            assertThat(writer.submit(debugFile, "record" + i, 0)).isTrue();
+        }
+
+        // Then
+        assertThat(writer.submit(debugFile, "record4", 0)).isFalse();
+        assertThat(writer.getDroppedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldWriteAndFlushQueuedRecordsOnShutdown() throws Exception {
+        // Given
+        for (int i = 0; i < 4; i++) {
+            writer.submit(debugFile, "record" + i, 0);
+        }
+        writer.start();
+
+        // When
+        writer.shutdown();
+
+        // Then
+        assertThat(readDebugFile()).containsExactly("record0", "record1", "record2", "record3");
+    }
+
+    @Test
+    public void shouldWriteQueuedRecordsOnShutdownWhenNeverStarted() throws Exception {
+        // Given
+        writer.submit(debugFile, "record", 0);
+
+        // When
+        writer.shutdown();
+
+        // Then
+        assertThat(readDebugFile()).containsExactly("record");
+    }
+
+    @Test
+    public void shouldRefuseRecordsWithoutCountingThemAsDroppedOnceShutDown() {
+        // Given
+        writer.start();
+        writer.shutdown();
+
+        // When
+        boolean accepted = writer.submit(debugFile, "record", 0);
+
+        // Then
+        assertThat(accepted).isFalse();
+        assertThat(writer.isRunning()).isFalse();
+        assertThat(writer.getDroppedCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldWriteDropCountBeforeTheRecordFollowingTheDrops() throws Exception {
+        // Given
+        writer.submit(debugFile, "record", 2);
+        writer.start();
+
+        // When
+        writer.shutdown();
+
+        // Then
+        assertThat(readDebugFile()).containsExactly(
+                "2 debug messages have been dropped because the asynchronous debug queue was full", "record");
+    }
+
+    private List<String> readDebugFile() throws IOException {
+        File file = new File(debugDirectory, DEBUG_NAME);
+        if (!file.exists()) {
+            return Collections.emptyList();
+        }
+        return Files.readAllLines(file.toPath(), Charset.defaultCharset());
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Open Identity Platform Community.
+ */
+
+package org.forgerock.openam.utils.collections;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+public class RingBufferTest {
+
+    @Test
+    public void shouldRoundCapacityUpAndRejectWhenFull() {
+        // Given
+        RingBuffer<Integer> ringBuffer = new RingBuffer<>(3);
+        assertThat(new RingBuffer<>(1).capacity()).isEqualTo(2);
+
+        // When
+        for (int i = 0; i < 4; i++) {
+            assertThat(ringBuffer.offer(i)).isTrue();
+        }
+
+        // Then
+        assertThat(ringBuffer.capacity()).isEqualTo(4);
+        assertThat(ringBuffer.offer(4)).isFalse();
+        assertThat(ringBuffer.poll()).isEqualTo(0);
+        assertThat(ringBuffer.offer(4)).isTrue();
+        List<Integer> drained = new ArrayList<>();
+        assertThat(ringBuffer.drainTo(drained, 10)).isEqualTo(4);
+        assertThat(drained).containsExactly(1, 2, 3, 4);
+        assertThat(ringBuffer.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void shouldNotLoseElementsOfferedConcurrently() throws Exception {
+        // Given
+        final RingBuffer<Integer> ringBuffer = new RingBuffer<>(64);
+        final int producers = 4;
+        final int perProducer = 10000;
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            final int base = p * perProducer;
+            threads.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < perProducer; i++) {
+                        while (!ringBuffer.offer(base + i)) {
+                            Thread.yield();
+                        }
+                    }
+                }
+            }));
+        }
+
+        // When
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        boolean[] seen = new boolean[producers * perProducer];
+        int received = 0;
+        while (received < seen.length) {
+            Integer value = ringBuffer.poll();
+            if (value == null) {
+                Thread.yield();
+                continue;
+            }
+            assertThat(seen[value]).isFalse();
+            seen[value] = true;
+            received++;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Then
+        assertThat(ringBuffer.isEmpty()).isTrue();
+    }
+}